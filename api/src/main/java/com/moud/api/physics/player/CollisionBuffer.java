@@ -0,0 +1,116 @@
+package com.moud.api.physics.player;
+
+import com.moud.api.collision.AABB;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Reusable list of axis-aligned boxes stored flat in one {@code double[]} as
+ * {@code minX, minY, minZ, maxX, maxY, maxZ}, so collision queries can be answered without allocating a box
+ * object per collider. Not thread-safe; keep one per thread.
+ */
+public final class CollisionBuffer {
+    public static final int STRIDE = 6;
+
+    private final double[] scratch = new double[STRIDE];
+    private double[] data;
+    private int size;
+
+    public CollisionBuffer() {
+        this(32);
+    }
+
+    public CollisionBuffer(int initialCapacity) {
+        this.data = new double[Math.max(1, initialCapacity) * STRIDE];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void add(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+        int offset = size * STRIDE;
+        if (offset + STRIDE > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        data[offset] = minX;
+        data[offset + 1] = minY;
+        data[offset + 2] = minZ;
+        data[offset + 3] = maxX;
+        data[offset + 4] = maxY;
+        data[offset + 5] = maxZ;
+        size++;
+    }
+
+    public void add(AABB box) {
+        add(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
+    }
+
+    public double minX(int index) {
+        return data[index * STRIDE];
+    }
+
+    public double minY(int index) {
+        return data[index * STRIDE + 1];
+    }
+
+    public double minZ(int index) {
+        return data[index * STRIDE + 2];
+    }
+
+    public double maxX(int index) {
+        return data[index * STRIDE + 3];
+    }
+
+    public double maxY(int index) {
+        return data[index * STRIDE + 4];
+    }
+
+    public double maxZ(int index) {
+        return data[index * STRIDE + 5];
+    }
+
+    public AABB get(int index) {
+        int offset = index * STRIDE;
+        return new AABB(data[offset], data[offset + 1], data[offset + 2],
+                data[offset + 3], data[offset + 4], data[offset + 5]);
+    }
+
+    public List<AABB> toList() {
+        List<AABB> boxes = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            boxes.add(get(i));
+        }
+        return boxes;
+    }
+
+    /**
+     * Stable in-place sort by {@code minY}, the order {@link CollisionWorld} results are expected in. Insertion
+     * sort, since queries return few boxes and block colliders are mostly gathered in ascending y already.
+     */
+    public void sortByMinY() {
+        for (int i = 1; i < size; i++) {
+            double key = data[i * STRIDE + 1];
+            int j = i - 1;
+            if (data[j * STRIDE + 1] <= key) {
+                continue;
+            }
+            System.arraycopy(data, i * STRIDE, scratch, 0, STRIDE);
+            while (j >= 0 && data[j * STRIDE + 1] > key) {
+                j--;
+            }
+            System.arraycopy(data, (j + 1) * STRIDE, data, (j + 2) * STRIDE, (i - j - 1) * STRIDE);
+            System.arraycopy(scratch, 0, data, (j + 1) * STRIDE, STRIDE);
+        }
+    }
+}
@@ -6,5 +6,29 @@ import java.util.List;
 
 public interface CollisionWorld {
     List<AABB> getCollisions(AABB entityBox);
-}
 
+    /**
+     * Appends every collider intersecting the query box to {@code out}, ordered by {@code minY}. This is what
+     * {@link PlayerController} calls; worlds queried every tick should override it to gather without allocating.
+     * The default copies {@link #getCollisions}.
+     */
+    default void collectCollisions(
+            double minX,
+            double minY,
+            double minZ,
+            double maxX,
+            double maxY,
+            double maxZ,
+            CollisionBuffer out
+    ) {
+        List<AABB> collisions = getCollisions(new AABB(minX, minY, minZ, maxX, maxY, maxZ));
+        if (collisions == null) {
+            return;
+        }
+        for (AABB box : collisions) {
+            if (box != null) {
+                out.add(box);
+            }
+        }
+    }
+}
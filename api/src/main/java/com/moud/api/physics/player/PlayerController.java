@@ -2,13 +2,12 @@ package com.moud.api.physics.player;
 
 import com.moud.api.collision.AABB;
 
-import java.util.List;
-
 public final class PlayerController {
     private static final double EPSILON = 1.0e-9;
     private static final double PENETRATION_EPS = 1.0e-6;
     private static final int MAX_PENETRATION_ITERATIONS = 6;
     private static final float MAX_PITCH = 90.0f;
+    private static final ThreadLocal<CollisionBuffer> COLLIDERS = ThreadLocal.withInitial(CollisionBuffer::new);
 
     private PlayerController() {
     }
@@ -32,13 +31,7 @@ public final class PlayerController {
         }
 
         AABB box = playerBox(current.x(), current.y(), current.z(), config);
-        List<AABB> colliders;
-        if (world == null) {
-            colliders = List.of();
-        } else {
-            AABB broadphase = box.union(box.moved(dx, dy, dz)).expanded(0.25, 0.25, 0.25);
-            colliders = world.getCollisions(broadphase);
-        }
+        CollisionBuffer colliders = gather(world, box, dx, dy, dz);
 
         box = resolvePenetration(box, colliders);
         MoveResult moved = moveWithCollisions(box, dx, dy, dz, colliders);
@@ -125,8 +118,7 @@ public final class PlayerController {
         }
         double broadphaseDy = broadphaseVelY * clampedDt;
 
-        AABB broadphase = box.union(box.moved(dx, broadphaseDy, dz)).expanded(0.25, 0.25, 0.25);
-        List<AABB> colliders = world != null ? world.getCollisions(broadphase) : List.of();
+        CollisionBuffer colliders = gather(world, box, dx, broadphaseDy, dz);
 
         box = resolvePenetration(box, colliders);
 
@@ -184,6 +176,26 @@ public final class PlayerController {
         return new PlayerState(newX, newY, newZ, velX, velY, velZ, grounded, collidingHorizontally);
     }
 
+    /**
+     * Collects colliders around the swept box into this thread's reusable buffer.
+     */
+    private static CollisionBuffer gather(CollisionWorld world, AABB box, double dx, double dy, double dz) {
+        CollisionBuffer colliders = COLLIDERS.get();
+        colliders.clear();
+        if (world != null) {
+            world.collectCollisions(
+                    Math.min(box.minX(), box.minX() + dx) - 0.25,
+                    Math.min(box.minY(), box.minY() + dy) - 0.25,
+                    Math.min(box.minZ(), box.minZ() + dz) - 0.25,
+                    Math.max(box.maxX(), box.maxX() + dx) + 0.25,
+                    Math.max(box.maxY(), box.maxY() + dy) + 0.25,
+                    Math.max(box.maxZ(), box.maxZ() + dz) + 0.25,
+                    colliders
+            );
+        }
+        return colliders;
+    }
+
     private static float normalizeYaw(float yaw) {
         float y = yaw;
         while (y <= -180.0f) {
@@ -243,7 +255,7 @@ public final class PlayerController {
             double dx,
             double dy,
             double dz,
-            List<AABB> colliders,
+            CollisionBuffer colliders,
             float stepHeight
     ) {
         MoveResult up = moveWithCollisions(box, 0.0, stepHeight, 0.0, colliders);
@@ -268,7 +280,7 @@ public final class PlayerController {
         );
     }
 
-    private static MoveResult moveWithCollisions(AABB box, double dx, double dy, double dz, List<AABB> colliders) {
+    private static MoveResult moveWithCollisions(AABB box, double dx, double dy, double dz, CollisionBuffer colliders) {
         double actualDx = dx;
         double actualDy = dy;
         double actualDz = dz;
@@ -324,23 +336,26 @@ public final class PlayerController {
         );
     }
 
-    private static boolean isSupported(AABB box, List<AABB> colliders) {
+    private static boolean isSupported(AABB box, CollisionBuffer colliders) {
         if (box == null || colliders == null || colliders.isEmpty()) {
             return false;
         }
-        AABB probe = box.moved(0.0, -0.05, 0.0);
-        for (AABB c : colliders) {
-            if (!probe.intersects(c)) {
+        double probeMinY = box.minY() - 0.05;
+        double probeMaxY = box.maxY() - 0.05;
+        for (int i = 0, n = colliders.size(); i < n; i++) {
+            if (!(colliders.maxX(i) > box.minX() && colliders.minX(i) < box.maxX()
+                    && colliders.maxY(i) > probeMinY && colliders.minY(i) < probeMaxY
+                    && colliders.maxZ(i) > box.minZ() && colliders.minZ(i) < box.maxZ())) {
                 continue;
             }
-            if (c.maxY() <= box.minY() + 0.051) {
+            if (colliders.maxY(i) <= box.minY() + 0.051) {
                 return true;
             }
         }
         return false;
     }
 
-    private static AABB resolvePenetration(AABB box, List<AABB> colliders) {
+    private static AABB resolvePenetration(AABB box, CollisionBuffer colliders) {
         if (box == null || colliders == null || colliders.isEmpty()) {
             return box;
         }
@@ -353,13 +368,10 @@ public final class PlayerController {
             double bestLenSq = 0.0;
 
             boolean found = false;
-            for (AABB c : colliders) {
-                if (c == null || !current.intersects(c)) {
-                    continue;
-                }
-                double overlapX = Math.min(current.maxX(), c.maxX()) - Math.max(current.minX(), c.minX());
-                double overlapY = Math.min(current.maxY(), c.maxY()) - Math.max(current.minY(), c.minY());
-                double overlapZ = Math.min(current.maxZ(), c.maxZ()) - Math.max(current.minZ(), c.minZ());
+            for (int i = 0, n = colliders.size(); i < n; i++) {
+                double overlapX = Math.min(current.maxX(), colliders.maxX(i)) - Math.max(current.minX(), colliders.minX(i));
+                double overlapY = Math.min(current.maxY(), colliders.maxY(i)) - Math.max(current.minY(), colliders.minY(i));
+                double overlapZ = Math.min(current.maxZ(), colliders.maxZ(i)) - Math.max(current.minZ(), colliders.minZ(i));
                 if (overlapX <= 0.0 || overlapY <= 0.0 || overlapZ <= 0.0) {
                     continue;
                 }
@@ -380,11 +392,11 @@ public final class PlayerController {
                 }
 
                 if (axis == 0) {
-                    pushX = current.centerX() < c.centerX() ? -(minOverlap + PENETRATION_EPS) : (minOverlap + PENETRATION_EPS);
+                    pushX = current.centerX() < (colliders.minX(i) + colliders.maxX(i)) * 0.5 ? -(minOverlap + PENETRATION_EPS) : (minOverlap + PENETRATION_EPS);
                 } else if (axis == 1) {
-                    pushY = current.centerY() < c.centerY() ? -(minOverlap + PENETRATION_EPS) : (minOverlap + PENETRATION_EPS);
+                    pushY = current.centerY() < (colliders.minY(i) + colliders.maxY(i)) * 0.5 ? -(minOverlap + PENETRATION_EPS) : (minOverlap + PENETRATION_EPS);
                 } else {
-                    pushZ = current.centerZ() < c.centerZ() ? -(minOverlap + PENETRATION_EPS) : (minOverlap + PENETRATION_EPS);
+                    pushZ = current.centerZ() < (colliders.minZ(i) + colliders.maxZ(i)) * 0.5 ? -(minOverlap + PENETRATION_EPS) : (minOverlap + PENETRATION_EPS);
                 }
 
                 double lenSq = pushX * pushX + pushY * pushY + pushZ * pushZ;
@@ -406,29 +418,30 @@ public final class PlayerController {
         return current;
     }
 
-    private static double clipAxisX(AABB box, double dx, List<AABB> colliders) {
+    private static double clipAxisX(AABB box, double dx, CollisionBuffer colliders) {
         if (dx == 0.0) {
             return 0.0;
         }
         double clipped = dx;
-        for (AABB c : colliders) {
-            if (!box.intersectsInYZ(c)) {
+        for (int i = 0, n = colliders.size(); i < n; i++) {
+            if (!(colliders.maxY(i) > box.minY() && colliders.minY(i) < box.maxY()
+                    && colliders.maxZ(i) > box.minZ() && colliders.minZ(i) < box.maxZ())) {
                 continue;
             }
             if (dx > 0.0) {
-                double max = c.minX() - box.maxX();
+                double max = colliders.minX(i) - box.maxX();
                 if (max >= -EPSILON && max < clipped) {
                     clipped = max;
                 }
-                if (max < -EPSILON && box.minX() < c.maxX() - EPSILON) {
+                if (max < -EPSILON && box.minX() < colliders.maxX(i) - EPSILON) {
                     clipped = Math.min(clipped, 0.0);
                 }
             } else {
-                double min = c.maxX() - box.minX();
+                double min = colliders.maxX(i) - box.minX();
                 if (min <= EPSILON && min > clipped) {
                     clipped = min;
                 }
-                if (min > EPSILON && box.maxX() > c.minX() + EPSILON) {
+                if (min > EPSILON && box.maxX() > colliders.minX(i) + EPSILON) {
                     clipped = Math.max(clipped, 0.0);
                 }
             }
@@ -436,29 +449,30 @@ public final class PlayerController {
         return clipped;
     }
 
-    private static double clipAxisY(AABB box, double dy, List<AABB> colliders) {
+    private static double clipAxisY(AABB box, double dy, CollisionBuffer colliders) {
         if (dy == 0.0) {
             return 0.0;
         }
         double clipped = dy;
-        for (AABB c : colliders) {
-            if (!box.intersectsInXZ(c)) {
+        for (int i = 0, n = colliders.size(); i < n; i++) {
+            if (!(colliders.maxX(i) > box.minX() && colliders.minX(i) < box.maxX()
+                    && colliders.maxZ(i) > box.minZ() && colliders.minZ(i) < box.maxZ())) {
                 continue;
             }
             if (dy > 0.0) {
-                double max = c.minY() - box.maxY();
+                double max = colliders.minY(i) - box.maxY();
                 if (max >= -EPSILON && max < clipped) {
                     clipped = max;
                 }
-                if (max < -EPSILON && box.minY() < c.maxY() - EPSILON) {
+                if (max < -EPSILON && box.minY() < colliders.maxY(i) - EPSILON) {
                     clipped = Math.min(clipped, 0.0);
                 }
             } else {
-                double min = c.maxY() - box.minY();
+                double min = colliders.maxY(i) - box.minY();
                 if (min <= EPSILON && min > clipped) {
                     clipped = min;
                 }
-                if (min > EPSILON && box.maxY() > c.minY() + EPSILON) {
+                if (min > EPSILON && box.maxY() > colliders.minY(i) + EPSILON) {
                     clipped = Math.max(clipped, 0.0);
                 }
             }
@@ -466,29 +480,30 @@ public final class PlayerController {
         return clipped;
     }
 
-    private static double clipAxisZ(AABB box, double dz, List<AABB> colliders) {
+    private static double clipAxisZ(AABB box, double dz, CollisionBuffer colliders) {
         if (dz == 0.0) {
             return 0.0;
         }
         double clipped = dz;
-        for (AABB c : colliders) {
-            if (!box.intersectsInXY(c)) {
+        for (int i = 0, n = colliders.size(); i < n; i++) {
+            if (!(colliders.maxX(i) > box.minX() && colliders.minX(i) < box.maxX()
+                    && colliders.maxY(i) > box.minY() && colliders.minY(i) < box.maxY())) {
                 continue;
             }
             if (dz > 0.0) {
-                double max = c.minZ() - box.maxZ();
+                double max = colliders.minZ(i) - box.maxZ();
                 if (max >= -EPSILON && max < clipped) {
                     clipped = max;
                 }
-                if (max < -EPSILON && box.minZ() < c.maxZ() - EPSILON) {
+                if (max < -EPSILON && box.minZ() < colliders.maxZ(i) - EPSILON) {
                     clipped = Math.min(clipped, 0.0);
                 }
             } else {
-                double min = c.maxZ() - box.minZ();
+                double min = colliders.maxZ(i) - box.minZ();
                 if (min <= EPSILON && min > clipped) {
                     clipped = min;
                 }
-                if (min > EPSILON && box.maxZ() > c.minZ() + EPSILON) {
+                if (min > EPSILON && box.maxZ() > colliders.minZ(i) + EPSILON) {
                     clipped = Math.max(clipped, 0.0);
                 }
             }
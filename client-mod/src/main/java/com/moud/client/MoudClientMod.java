@@ -29,8 +29,6 @@ import com.moud.client.util.WindowAnimator;
 import com.moud.client.ui.loading.MoudPreloadState;
 import com.moud.client.ui.screen.MoudPreloadScreen;
 import com.moud.client.zone.ClientZoneManager;
-import com.moud.network.MoudPackets;
-import com.moud.network.protocol.MoudProtocol;
 import com.zigythebird.playeranim.api.PlayerAnimationAccess;
 import net.fabricmc.api.ClientModInitializer;
 import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientLifecycleEvents;
@@ -235,11 +233,12 @@ public final class MoudClientMod implements ClientModInitializer, ResourcePackPr
         scriptLoader.onJoin(handler);
         ClientZoneManager.clear();
         ClientPermissionState.getInstance().reset();
-        ClientPacketWrapper.sendToServer(new MoudPackets.HelloPacket(MoudProtocol.PROTOCOL_VERSION));
+        ClientPacketWrapper.sendHandshake();
     }
 
     private void onDisconnectServer(ClientPlayNetworkHandler handler, MinecraftClient client) {
         markAsMoudServer(false);
+        ClientPacketWrapper.resetCompactIds();
         MoudPreloadState.reset();
         joinAttemptStartMillis = 0L;
         ClientPermissionState.getInstance().reset();
@@ -5,6 +5,7 @@ import com.moud.client.network.ClientNetworkManager;
 import com.moud.client.runtime.ClientScriptingRuntime;
 import com.moud.client.settings.VoiceSettingsManager;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.VoiceAdpcmCodec;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Value;
 import org.jetbrains.annotations.Nullable;
@@ -37,6 +38,7 @@ public final class ClientVoiceChatManager {
     private final ConcurrentMap<UUID, VoiceStreamState> streamStates = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, VoiceProcessingSpec> localOutputProcessing = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, VoiceSpeakerPlayback> speakerPlayback = new ConcurrentHashMap<>();
+    private final ConcurrentMap<UUID, SpeakerDecoder> speakerDecoders = new ConcurrentHashMap<>();
     private volatile boolean enabled = true;
     private volatile ClientScriptingRuntime runtime;
     private volatile Context jsContext;
@@ -46,6 +48,9 @@ public final class ClientVoiceChatManager {
     private volatile VoiceProcessorChain microphoneChain = VoiceProcessorChain.empty();
     private volatile String microphoneSessionId = "";
     private volatile int microphoneFrameSizeMs = 20;
+    private volatile String microphoneCodec = VoiceCodecs.ADPCM_WB;
+    private VoiceAdpcmCodec.Encoder microphoneEncoder;
+    private int microphoneEncoderRate;
 
     private static <T> boolean offerDropOldest(ArrayBlockingQueue<T> queue, T value) {
         if (queue.offer(value)) {
@@ -74,6 +79,7 @@ public final class ClientVoiceChatManager {
             outputQueue.clear();
             speakerPlayback.forEach((uuid, stream) -> stream.close());
             speakerPlayback.clear();
+            speakerDecoders.clear();
             streamStates.clear();
         }
     }
@@ -101,6 +107,16 @@ public final class ClientVoiceChatManager {
             if (!Objects.equals(this.microphoneSessionId, sessionId)) {
                 this.microphoneSessionId = sessionId;
                 microphoneSequence.set(0);
+                resetMicrophoneEncoder();
+            }
+        }
+
+        if (options.get("codec") instanceof String codec) {
+            if (VoiceCodecs.ADPCM_WB.equals(codec) || VoiceCodecs.PCM_S16LE.equals(codec)) {
+                microphoneCodec = codec;
+            } else {
+                LOGGER.warn("Unsupported voice codec '{}', sending {}", codec, VoiceCodecs.PCM_S16LE);
+                microphoneCodec = VoiceCodecs.PCM_S16LE;
             }
         }
 
@@ -125,6 +141,7 @@ public final class ClientVoiceChatManager {
         microphoneSessionId = "";
         microphoneSequence.set(0);
         voiceVad.reset();
+        resetMicrophoneEncoder();
     }
 
     public void onMicrophoneFrame(String sessionId, long timestampMs, AudioFormat format, byte[] data) {
@@ -141,6 +158,7 @@ public final class ClientVoiceChatManager {
         if (!Objects.equals(microphoneSessionId, sessionId)) {
             microphoneSessionId = sessionId;
             microphoneSequence.set(0);
+            resetMicrophoneEncoder();
         }
 
         VoiceCapturedFrame frame = new VoiceCapturedFrame(
@@ -211,6 +229,7 @@ public final class ClientVoiceChatManager {
             if (nowMs - playback.getLastReceivedAtMs() > 5_000L) {
                 speakerPlayback.remove(speakerId, playback);
                 playback.close();
+                speakerDecoders.remove(speakerId);
                 streamStates.remove(speakerId);
             } else {
                 playback.applySpatialization();
@@ -342,22 +361,7 @@ public final class ClientVoiceChatManager {
             return;
         }
 
-        byte[] pcm = VoiceAudioUtil.encodePcmS16Le(samples);
-        int sequence = microphoneSequence.getAndIncrement();
-
-        MoudPackets.VoiceMicrophoneChunkPacket packet = new MoudPackets.VoiceMicrophoneChunkPacket(
-                frame.sessionId(),
-                sequence,
-                frame.timestampMs(),
-                VoiceCodecs.PCM_S16LE,
-                frame.sampleRate(),
-                frame.channels(),
-                frame.frameSizeMs(),
-                level,
-                speaking,
-                pcm
-        );
-        ClientNetworkManager.send(packet);
+        sendMicrophoneSamples(frame, samples, level, speaking);
     }
 
     private void sendMicrophoneFrameRaw(VoiceCapturedFrame frame) {
@@ -376,25 +380,50 @@ public final class ClientVoiceChatManager {
         if (!speaking && voiceVad.dropSilence()) {
             return;
         }
-        byte[] pcm = VoiceAudioUtil.encodePcmS16Le(samples);
+        sendMicrophoneSamples(frame, samples, level, speaking);
+    }
+
+    private void sendMicrophoneSamples(VoiceCapturedFrame frame, short[] samples, float level, boolean speaking) {
+        String codec = VoiceCodecs.PCM_S16LE;
+        byte[] data;
+        synchronized (this) {
+            if (VoiceCodecs.ADPCM_WB.equals(microphoneCodec)
+                    && VoiceAdpcmCodec.supports(frame.sampleRate(), frame.channels())) {
+                if (microphoneEncoder == null || microphoneEncoderRate != frame.sampleRate()) {
+                    microphoneEncoder = VoiceAdpcmCodec.newEncoder(frame.sampleRate());
+                    microphoneEncoderRate = frame.sampleRate();
+                }
+                codec = VoiceCodecs.ADPCM_WB;
+                data = microphoneEncoder.encode(samples, samples.length);
+            } else {
+                data = VoiceAudioUtil.encodePcmS16Le(samples);
+            }
+        }
         int sequence = microphoneSequence.getAndIncrement();
         MoudPackets.VoiceMicrophoneChunkPacket packet = new MoudPackets.VoiceMicrophoneChunkPacket(
                 frame.sessionId(),
                 sequence,
                 frame.timestampMs(),
-                VoiceCodecs.PCM_S16LE,
+                codec,
                 frame.sampleRate(),
                 frame.channels(),
                 frame.frameSizeMs(),
                 level,
                 speaking,
-                pcm
+                data
         );
         ClientNetworkManager.send(packet);
     }
 
+    private synchronized void resetMicrophoneEncoder() {
+        if (microphoneEncoder != null) {
+            microphoneEncoder.reset();
+        }
+    }
+
     private void processAndPlayIncomingFrame(VoiceIncomingFrame frame) {
-        if (!VoiceCodecs.PCM_S16LE.equals(frame.codec())) {
+        short[] samples = decodeIncoming(frame);
+        if (samples == null) {
             return;
         }
 
@@ -402,7 +431,6 @@ public final class ClientVoiceChatManager {
         VoiceProcessingSpec localSpec = localOutputProcessing.get(frame.speakerId());
         VoiceProcessingSpec combined = VoiceProcessingSpec.combine(serverSpec, localSpec);
 
-        short[] samples = VoiceAudioUtil.decodePcmS16Le(frame.data());
         if (!combined.chain().isEmpty()) {
             VoiceStreamState state = streamStates.computeIfAbsent(frame.speakerId(), uuid -> new VoiceStreamState());
             VoiceProcessorChain chain = state.getOrBuildChain(processorFactories, combined, frame.speakerId(), false);
@@ -428,10 +456,10 @@ public final class ClientVoiceChatManager {
     }
 
     private void playIncomingRaw(VoiceIncomingFrame frame) {
-        if (!VoiceCodecs.PCM_S16LE.equals(frame.codec())) {
+        short[] samples = decodeIncoming(frame);
+        if (samples == null) {
             return;
         }
-        short[] samples = VoiceAudioUtil.decodePcmS16Le(frame.data());
         float mixGain = voiceVolume;
         VoiceAudioUtil.applyGainWithLimiter(
                 samples,
@@ -447,6 +475,27 @@ public final class ClientVoiceChatManager {
         playback.enqueue(pcm);
     }
 
+    private @Nullable short[] decodeIncoming(VoiceIncomingFrame frame) {
+        if (VoiceCodecs.PCM_S16LE.equals(frame.codec())) {
+            return VoiceAudioUtil.decodePcmS16Le(frame.data());
+        }
+        if (!VoiceCodecs.ADPCM_WB.equals(frame.codec())
+                || !VoiceAdpcmCodec.supports(frame.sampleRate(), frame.channels())) {
+            return null;
+        }
+        // A new session or rate means a restarted microphone: stale predictor state and upsampling would garble it.
+        VoiceAdpcmCodec.Decoder decoder = speakerDecoders.compute(frame.speakerId(), (uuid, current) ->
+                current != null && current.matches(frame) ? current : SpeakerDecoder.forFrame(frame)).decoder();
+        synchronized (decoder) {
+            try {
+                return decoder.decode(frame.data());
+            } catch (IllegalArgumentException e) {
+                LOGGER.debug("Dropping malformed voice frame from {}: {}", frame.speakerId(), e.getMessage());
+                return null;
+            }
+        }
+    }
+
     private Map<String, Object> voiceProcessContext(String direction,
                                                     @Nullable VoiceIncomingFrame output,
                                                     @Nullable VoiceCapturedFrame input,
@@ -495,4 +544,15 @@ public final class ClientVoiceChatManager {
         }
         return created;
     }
+
+    private record SpeakerDecoder(String sessionId, int sampleRate, VoiceAdpcmCodec.Decoder decoder) {
+        static SpeakerDecoder forFrame(VoiceIncomingFrame frame) {
+            return new SpeakerDecoder(frame.sessionId(), frame.sampleRate(),
+                    VoiceAdpcmCodec.newDecoder(frame.sampleRate()));
+        }
+
+        boolean matches(VoiceIncomingFrame frame) {
+            return sampleRate == frame.sampleRate() && Objects.equals(sessionId, frame.sessionId());
+        }
+    }
 }
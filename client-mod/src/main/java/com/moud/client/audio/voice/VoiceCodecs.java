@@ -1,8 +1,11 @@
 package com.moud.client.audio.voice;
 
+import com.moud.network.serializer.VoiceAdpcmCodec;
+
 public final class VoiceCodecs {
 
     public static final String PCM_S16LE = "pcm_s16le";
+    public static final String ADPCM_WB = VoiceAdpcmCodec.ID;
 
     private VoiceCodecs() {
     }
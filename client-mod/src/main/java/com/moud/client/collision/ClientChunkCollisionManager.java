@@ -4,6 +4,7 @@ import com.moud.client.network.ClientPacketWrapper;
 import com.moud.client.physics.ClientPhysicsBodyIds;
 import com.moud.client.physics.ClientPhysicsWorld;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.MeshCodec;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.world.ClientWorld;
 import org.joml.Vector3f;
@@ -11,20 +12,19 @@ import org.joml.Quaternionf;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.zip.GZIPInputStream;
 
 public final class ClientChunkCollisionManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientChunkCollisionManager.class);
     private static final ClientChunkCollisionManager INSTANCE = new ClientChunkCollisionManager();
     private static final int MAX_REQUESTS_PER_TICK = Integer.getInteger("moud.physics.chunkCollisionRequestsPerTick", 2);
+    private static final int MESH_CACHE_ENTRIES = Integer.getInteger("moud.physics.chunkMeshCacheEntries", 1024);
     private static final ExecutorService CHUNK_COLLISION_EXECUTOR = Executors.newSingleThreadExecutor(r -> {
         Thread t = new Thread(r, "Moud-ChunkCollisionLoader");
         t.setDaemon(true);
@@ -36,6 +36,19 @@ public final class ClientChunkCollisionManager {
     private final Set<Long> queuedChunks = ConcurrentHashMap.newKeySet();
     private final ArrayDeque<Long> requestQueue = new ArrayDeque<>();
     private final Map<Long, Integer> loadSequence = new ConcurrentHashMap<>();
+    // Decoded meshes by content hash, shared by identical chunks and kept across chunk unloads.
+    private final Map<Long, MeshCodec.DecodedMesh> meshCache = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, MeshCodec.DecodedMesh> eldest) {
+            return size() > MESH_CACHE_ENTRIES;
+        }
+    };
+    private final Map<Long, Long> chunkMeshHashes = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Long> eldest) {
+            return size() > MESH_CACHE_ENTRIES * 4;
+        }
+    };
 
     private ClientChunkCollisionManager() {
     }
@@ -82,7 +95,7 @@ public final class ClientChunkCollisionManager {
             int chunkX = unpackChunkX(key);
             int chunkZ = unpackChunkZ(key);
             requestedChunks.add(key);
-            ClientPacketWrapper.sendToServer(new MoudPackets.RequestChunkCollisionPacket(chunkX, chunkZ));
+            ClientPacketWrapper.sendToServer(new MoudPackets.RequestChunkCollisionPacket(chunkX, chunkZ, knownMeshHash(key)));
         }
     }
 
@@ -107,46 +120,78 @@ public final class ClientChunkCollisionManager {
         }
 
         if (packet.remove()) {
+            synchronized (meshCache) {
+                chunkMeshHashes.remove(key);
+            }
             removeChunkBody(chunkX, chunkZ);
             return;
         }
         int seq = loadSequence.merge(key, 1, Integer::sum);
+        long meshHash = packet.meshHash();
         byte[] vertsBytes = packet.compressedVertices();
         byte[] idxBytes = packet.compressedIndices();
         if (vertsBytes == null || idxBytes == null) {
+            MeshCodec.DecodedMesh cached;
+            synchronized (meshCache) {
+                cached = meshHash != 0L ? meshCache.get(meshHash) : null;
+            }
+            if (cached == null) {
+                // The server assumed we still had this mesh; ask for the bytes.
+                ClientPacketWrapper.sendToServer(new MoudPackets.RequestChunkCollisionPacket(chunkX, chunkZ, 0L));
+                return;
+            }
+            synchronized (meshCache) {
+                chunkMeshHashes.put(key, meshHash);
+            }
+            CHUNK_COLLISION_EXECUTOR.execute(() -> applyMesh(chunkX, chunkZ, key, seq, cached));
             return;
         }
         CHUNK_COLLISION_EXECUTOR.execute(() -> {
-            float[] vertices = gunzipFloats(vertsBytes);
-            int[] indices = gunzipInts(idxBytes);
-            if (vertices == null || indices == null) {
+            MeshCodec.DecodedMesh mesh;
+            try {
+                mesh = MeshCodec.decode(vertsBytes, idxBytes);
+            } catch (IllegalArgumentException e) {
                 LOGGER.warn(
-                        "Failed to apply chunk collision mesh for ({}, {}): missing/invalid data",
+                        "Failed to apply chunk collision mesh for ({}, {}): {}",
                         chunkX,
-                        chunkZ
+                        chunkZ,
+                        e.getMessage()
                 );
                 return;
             }
+            if (meshHash != 0L) {
+                synchronized (meshCache) {
+                    meshCache.put(meshHash, mesh);
+                    chunkMeshHashes.put(key, meshHash);
+                }
+            }
+            applyMesh(chunkX, chunkZ, key, seq, mesh);
+        });
+    }
 
-            ClientPhysicsWorld physics = ClientPhysicsWorld.getInstance();
-            if (!physics.isInitialized()) {
+    private void applyMesh(int chunkX, int chunkZ, long key, int seq, MeshCodec.DecodedMesh mesh) {
+        float[] vertices = mesh.vertices();
+        int[] indices = mesh.indices();
+
+        ClientPhysicsWorld physics = ClientPhysicsWorld.getInstance();
+        if (!physics.isInitialized()) {
+            return;
+        }
+        var shape = ClientPhysicsWorld.buildMeshShape(vertices, indices, new Vector3f(1, 1, 1));
+        if (shape == null) {
+            return;
+        }
+
+        MinecraftClient.getInstance().execute(() -> {
+            if (!loadedChunks.contains(key) || loadSequence.getOrDefault(key, 0) != seq) {
                 return;
             }
-            var shape = ClientPhysicsWorld.buildMeshShape(vertices, indices, new Vector3f(1, 1, 1));
-            if (shape == null) {
+            if (!physics.isInitialized()) {
                 return;
             }
-
-            MinecraftClient.getInstance().execute(() -> {
-                if (!loadedChunks.contains(key) || loadSequence.getOrDefault(key, 0) != seq) {
-                    return;
-                }
-                if (!physics.isInitialized()) {
-                    return;
-                }
-                long bodyId = ClientPhysicsBodyIds.chunk(chunkX, chunkZ);
-                physics.addStaticMeshShape(bodyId, shape, new Vector3f(0, 0, 0), new Quaternionf());
-            });
+            long bodyId = ClientPhysicsBodyIds.chunk(chunkX, chunkZ);
+            // Chunk meshes are chunk-local.
+            physics.addStaticMeshShape(bodyId, shape, new Vector3f(chunkX * 16f, 0f, chunkZ * 16f), new Quaternionf());
         });
     }
 
@@ -166,6 +211,17 @@ public final class ClientChunkCollisionManager {
             requestQueue.clear();
         }
         loadSequence.clear();
+        synchronized (meshCache) {
+            meshCache.clear();
+            chunkMeshHashes.clear();
+        }
+    }
+
+    private long knownMeshHash(long key) {
+        synchronized (meshCache) {
+            Long hash = chunkMeshHashes.get(key);
+            return hash != null && meshCache.containsKey(hash) ? hash : 0L;
+        }
     }
 
     private void enqueueChunkCollisionRequest(int chunkX, int chunkZ) {
@@ -197,54 +253,4 @@ public final class ClientChunkCollisionManager {
     private static int unpackChunkZ(long key) {
         return (int) key;
     }
-
-    private static float[] gunzipFloats(byte[] data) {
-        if (data == null || data.length == 0) {
-            return null;
-        }
-        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(data))) {
-            byte[] buf = gis.readAllBytes();
-            if (buf.length % 4 != 0) {
-                return null;
-            }
-            int count = buf.length / 4;
-            float[] out = new float[count];
-            int o = 0;
-            for (int i = 0; i < buf.length; i += 4) {
-                int bits = (buf[i] & 0xFF)
-                        | ((buf[i + 1] & 0xFF) << 8)
-                        | ((buf[i + 2] & 0xFF) << 16)
-                        | ((buf[i + 3] & 0xFF) << 24);
-                out[o++] = Float.intBitsToFloat(bits);
-            }
-            return out;
-        } catch (IOException ignored) {
-            return null;
-        }
-    }
-
-    private static int[] gunzipInts(byte[] data) {
-        if (data == null || data.length == 0) {
-            return null;
-        }
-        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(data))) {
-            byte[] buf = gis.readAllBytes();
-            if (buf.length % 4 != 0) {
-                return null;
-            }
-            int count = buf.length / 4;
-            int[] out = new int[count];
-            int o = 0;
-            for (int i = 0; i < buf.length; i += 4) {
-                int v = (buf[i] & 0xFF)
-                        | ((buf[i + 1] & 0xFF) << 8)
-                        | ((buf[i + 2] & 0xFF) << 16)
-                        | ((buf[i + 3] & 0xFF) << 24);
-                out[o++] = v;
-            }
-            return out;
-        } catch (IOException ignored) {
-            return null;
-        }
-    }
 }
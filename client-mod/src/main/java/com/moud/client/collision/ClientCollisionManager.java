@@ -4,6 +4,7 @@ import com.moud.api.math.Quaternion;
 import com.moud.api.math.Vector3;
 import com.moud.client.physics.ClientPhysicsWorld;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.MeshCodec;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
@@ -13,8 +14,6 @@ import org.joml.Vector3f;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.io.ByteArrayInputStream;
-import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.Collections;
@@ -24,7 +23,6 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
-import java.util.zip.GZIPInputStream;
 
 public final class ClientCollisionManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientCollisionManager.class);
@@ -80,11 +78,12 @@ public final class ClientCollisionManager {
                                                       Vector3 position,
                                                       Quaternion rotation,
                                                       Vector3 scale) {
-        float[] verts = decompressFloats(compressedVerts);
-        int[] indices = decompressInts(compressedIdx);
-        if (verts == null || indices == null) {
-            throw new IllegalStateException("Missing vertices/indices after decompression");
+        if (compressedVerts == null || compressedIdx == null) {
+            throw new IllegalStateException("Missing vertices/indices in collision payload");
         }
+        MeshCodec.DecodedMesh mesh = MeshCodec.decode(compressedVerts, compressedIdx);
+        float[] verts = mesh.vertices();
+        int[] indices = mesh.indices();
 
         CollisionMesh cpuMesh = buildCpuMesh(verts, indices, rotation, scale, position);
 
@@ -405,47 +404,6 @@ public final class ClientCollisionManager {
         return meshes;
     }
 
-    private static float[] decompressFloats(byte[] data) {
-        if (data == null || data.length == 0) return null;
-        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(data))) {
-            byte[] buf = gis.readAllBytes();
-            if (buf.length % 4 != 0) {
-                return null;
-            }
-            float[] arr = new float[buf.length / 4];
-            int out = 0;
-            for (int i = 0; i < buf.length; i += 4) {
-                int bits = ((buf[i] & 0xFF))
-                        | ((buf[i + 1] & 0xFF) << 8)
-                        | ((buf[i + 2] & 0xFF) << 16)
-                        | ((buf[i + 3] & 0xFF) << 24);
-                arr[out++] = Float.intBitsToFloat(bits);
-            }
-            return arr;
-        } catch (IOException e) {
-            return null;
-        }
-    }
-
-    private static int[] decompressInts(byte[] data) {
-        if (data == null || data.length == 0) return null;
-        try (GZIPInputStream gis = new GZIPInputStream(new ByteArrayInputStream(data))) {
-            byte[] buf = gis.readAllBytes();
-            if (buf.length % 4 != 0) {
-                return null;
-            }
-            int[] arr = new int[buf.length / 4];
-            int idx = 0;
-            for (int i = 0; i < buf.length; i += 4) {
-                int v = ((buf[i] & 0xFF)) | ((buf[i + 1] & 0xFF) << 8) | ((buf[i + 2] & 0xFF) << 16) | ((buf[i + 3] & 0xFF) << 24);
-                arr[idx++] = v;
-            }
-            return arr;
-        } catch (IOException e) {
-            return null;
-        }
-    }
-
     private static class CollisionEntry {
         private final float[] localVertices;
         private final int[] indices;
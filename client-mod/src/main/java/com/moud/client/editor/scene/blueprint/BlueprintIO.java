@@ -6,15 +6,20 @@ import com.google.gson.TypeAdapter;
 import com.google.gson.stream.JsonReader;
 import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
+import com.moud.network.serializer.BlueprintContainer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Base64;
+import java.util.List;
 
 public final class BlueprintIO {
     private static final Logger LOGGER = LoggerFactory.getLogger(BlueprintIO.class);
@@ -54,6 +59,84 @@ public final class BlueprintIO {
         return GSON.fromJson(json, Blueprint.class);
     }
 
+    /**
+     * Writes the blueprint as a {@link BlueprintContainer}, the format the server stores and transfers.
+     */
+    public static void writeContainer(Blueprint blueprint, OutputStream out) throws IOException {
+        List<String> objects = new ArrayList<>();
+        if (blueprint.objects != null) {
+            for (BlueprintObject object : blueprint.objects) {
+                objects.add(GSON.toJson(object));
+            }
+        }
+        List<String> markers = new ArrayList<>();
+        if (blueprint.markers != null) {
+            for (BlueprintMarker marker : blueprint.markers) {
+                markers.add(GSON.toJson(marker));
+            }
+        }
+
+        BlueprintContainer.Blocks blocks = null;
+        Blueprint.BlockVolume volume = blueprint.blocks;
+        if (volume != null) {
+            List<BlueprintContainer.BlockEntity> entities = new ArrayList<>();
+            if (volume.blockEntities != null) {
+                for (Blueprint.BlockEntityData entity : volume.blockEntities) {
+                    entities.add(new BlueprintContainer.BlockEntity(entity.x, entity.y, entity.z, entity.nbt));
+                }
+            }
+            blocks = new BlueprintContainer.Blocks(volume.sizeX, volume.sizeY, volume.sizeZ, volume.palette,
+                    volume.voxels, volume.useShortIndices, entities);
+        }
+
+        new BlueprintContainer.Writer(out)
+                .header(blueprint.name, blueprint.origin, blueprint.size)
+                .objects(objects)
+                .markers(markers)
+                .blocks(blocks)
+                .finish();
+    }
+
+    public static Blueprint readContainer(InputStream in) throws IOException {
+        BlueprintContainer.Reader reader = new BlueprintContainer.Reader(in);
+        BlueprintContainer.Header header = reader.header();
+        Blueprint blueprint = new Blueprint();
+        blueprint.name = header.name();
+        blueprint.origin = header.origin();
+        blueprint.size = header.size();
+        for (String object : reader.objects()) {
+            blueprint.objects.add(GSON.fromJson(object, BlueprintObject.class));
+        }
+        for (String marker : reader.markers()) {
+            blueprint.markers.add(GSON.fromJson(marker, BlueprintMarker.class));
+        }
+
+        BlueprintContainer.Blocks blocks = reader.blocks();
+        if (blocks != null) {
+            Blueprint.BlockVolume volume = new Blueprint.BlockVolume();
+            volume.sizeX = blocks.sizeX();
+            volume.sizeY = blocks.sizeY();
+            volume.sizeZ = blocks.sizeZ();
+            volume.palette = new ArrayList<>(blocks.palette());
+            volume.voxels = blocks.voxels();
+            volume.useShortIndices = blocks.shortIndices();
+            if (!blocks.blockEntities().isEmpty()) {
+                volume.blockEntities = new ArrayList<>();
+                for (BlueprintContainer.BlockEntity entity : blocks.blockEntities()) {
+                    Blueprint.BlockEntityData data = new Blueprint.BlockEntityData();
+                    data.x = entity.x();
+                    data.y = entity.y();
+                    data.z = entity.z();
+                    data.nbt = entity.nbt();
+                    volume.blockEntities.add(data);
+                }
+            }
+            blueprint.blocks = volume;
+        }
+        reader.finish();
+        return blueprint;
+    }
+
     private static final class ByteArrayAdapter extends TypeAdapter<byte[]> {
         @Override
         public void write(JsonWriter out, byte[] value) throws IOException {
@@ -5,8 +5,14 @@ import com.moud.client.network.ClientPacketWrapper;
 import com.moud.network.MoudPackets;
 import com.moud.network.limits.NetworkLimits;
 
-import java.nio.charset.StandardCharsets;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.SequenceInputStream;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -43,19 +49,26 @@ public final class ClientBlueprintNetwork {
         String key = normalize(name);
         registerCallback(saveCallbacks, key, callback);
 
-        byte[] data = BlueprintIO.toJsonString(blueprint).getBytes(StandardCharsets.UTF_8);
+        // The container is written straight into packet-sized chunks; there is no intermediate document.
+        ChunkingOutputStream out = new ChunkingOutputStream();
+        try {
+            BlueprintIO.writeContainer(blueprint, out);
+        } catch (IOException | RuntimeException e) {
+            dispatch(saveCallbacks, key, false);
+            SceneEditorDiagnostics.log("Failed to encode blueprint '" + name + "': " + e.getMessage());
+            return;
+        }
+        List<byte[]> chunks = out.chunks();
 
-        if (data.length <= INLINE_LIMIT) {
-            ClientPacketWrapper.sendToServer(new MoudPackets.SaveBlueprintPacket(name, data));
+        if (out.size() <= INLINE_LIMIT) {
+            ClientPacketWrapper.sendToServer(new MoudPackets.SaveBlueprintPacket(name, out.join()));
             return;
         }
 
-        int totalChunks = (data.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        int totalChunks = chunks.size();
         for (int i = 0; i < totalChunks; i++) {
-            int start = i * CHUNK_SIZE;
-            int end = Math.min(data.length, start + CHUNK_SIZE);
-            byte[] chunk = Arrays.copyOfRange(data, start, end);
-            ClientPacketWrapper.sendToServer(new MoudPackets.SaveBlueprintChunkPacket(name, totalChunks, i, chunk));
+            ClientPacketWrapper.sendToServer(
+                    new MoudPackets.SaveBlueprintChunkPacket(name, totalChunks, i, chunks.get(i)));
         }
     }
 
@@ -169,21 +182,26 @@ public final class ClientBlueprintNetwork {
         }
 
         if (packet.data() != null && packet.data().length > 0) {
-            parseAndDeliver(packet.name(), packet.data(), key);
+            parseAndDeliver(packet.name(), new ByteArrayInputStream(packet.data()), key);
             return;
         }
 
         PendingDownload pending = pendingDownloads.remove(key);
         if (pending != null && pending.isComplete()) {
-            parseAndDeliver(packet.name(), pending.assemble(), key);
+            parseAndDeliver(packet.name(), pending.stream(), key);
         } else {
             dispatch(requestCallbacks, key, null);
             SceneEditorDiagnostics.log("Blueprint '" + packet.name() + "' download incomplete: " + packet.message());
         }
     }
 
-    private void parseAndDeliver(String name, byte[] data, String key) {
-        Blueprint blueprint = BlueprintIO.fromJsonString(new String(data, StandardCharsets.UTF_8));
+    private void parseAndDeliver(String name, InputStream data, String key) {
+        Blueprint blueprint;
+        try {
+            blueprint = BlueprintIO.readContainer(data);
+        } catch (IOException | RuntimeException e) {
+            blueprint = null;
+        }
         dispatch(requestCallbacks, key, blueprint);
 
         if (blueprint == null) {
@@ -237,20 +255,73 @@ public final class ClientBlueprintNetwork {
             return receivedCount == totalChunks;
         }
 
-        byte[] assemble() {
-            int totalSize = 0;
+        InputStream stream() {
+            List<InputStream> parts = new ArrayList<>(totalChunks);
             for (byte[] chunk : chunks) {
-                if (chunk != null) totalSize += chunk.length;
+                parts.add(new ByteArrayInputStream(chunk));
             }
-            byte[] result = new byte[totalSize];
-            int offset = 0;
-            for (byte[] chunk : chunks) {
-                if (chunk != null) {
-                    System.arraycopy(chunk, 0, result, offset, chunk.length);
-                    offset += chunk.length;
+            return new SequenceInputStream(Collections.enumeration(parts));
+        }
+    }
+
+    /**
+     * Collects written bytes into {@link #CHUNK_SIZE} pieces, ready to go out as upload packets.
+     */
+    private static final class ChunkingOutputStream extends OutputStream {
+        private final List<byte[]> chunks = new ArrayList<>();
+        private byte[] current = new byte[CHUNK_SIZE];
+        private int position;
+        private long size;
+
+        @Override
+        public void write(int b) {
+            if (position == CHUNK_SIZE) {
+                flushChunk();
+            }
+            current[position++] = (byte) b;
+            size++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            while (len > 0) {
+                if (position == CHUNK_SIZE) {
+                    flushChunk();
                 }
+                int n = Math.min(len, CHUNK_SIZE - position);
+                System.arraycopy(b, off, current, position, n);
+                position += n;
+                off += n;
+                len -= n;
+                size += n;
             }
-            return result;
+        }
+
+        long size() {
+            return size;
+        }
+
+        List<byte[]> chunks() {
+            if (position > 0) {
+                flushChunk();
+            }
+            return chunks;
+        }
+
+        byte[] join() {
+            byte[] out = new byte[(int) size];
+            int offset = 0;
+            for (byte[] chunk : chunks()) {
+                System.arraycopy(chunk, 0, out, offset, chunk.length);
+                offset += chunk.length;
+            }
+            return out;
+        }
+
+        private void flushChunk() {
+            chunks.add(position == CHUNK_SIZE ? current : Arrays.copyOf(current, position));
+            current = new byte[CHUNK_SIZE];
+            position = 0;
         }
     }
 }
\ No newline at end of file
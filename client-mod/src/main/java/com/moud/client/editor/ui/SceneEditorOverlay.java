@@ -32,6 +32,7 @@ import com.moud.client.util.ParticleDescriptorMapper;
 import com.moud.network.MoudPackets;
 import com.moud.network.MoudPackets.AnimationListResponsePacket;
 import com.moud.network.MoudPackets.AnimationLoadResponsePacket;
+import com.moud.network.serializer.BlueprintContainer;
 import com.zigythebird.playeranim.animation.PlayerAnimResources;
 import com.zigythebird.playeranim.animation.PlayerAnimationController;
 import com.zigythebird.playeranimcore.bones.PlayerAnimBone;
@@ -81,7 +82,7 @@ public final class SceneEditorOverlay {
     private static final Logger LOGGER = LoggerFactory.getLogger(SceneEditorOverlay.class);
     private static final SceneEditorOverlay INSTANCE = new SceneEditorOverlay();
     private static final long MAX_BLOCK_CAPTURE_BLOCKS =
-            Long.getLong("moud.editor.maxBlockCaptureBlocks", 100_000L);
+            Math.min(Long.getLong("moud.editor.maxBlockCaptureBlocks", 100_000L), BlueprintContainer.MAX_BLOCKS);
     private static final String DEFAULT_PLAYER_MODEL_SKIN = " ";
     private static final int PANEL_WINDOW_FLAGS = ImGuiWindowFlags.NoCollapse | ImGuiWindowFlags.NoMove;
     private static final long HIERARCHY_CACHE_MS = 100;
@@ -20,6 +20,7 @@ import com.moud.client.model.ClientModelManager;
 import com.moud.client.model.RenderableModel;
 import com.moud.client.network.ClientPacketReceiver;
 import com.moud.client.network.ClientPacketWrapper;
+import com.moud.client.network.CompactPayload;
 import com.moud.client.network.DataPayload;
 import com.moud.client.network.MoudPayload;
 import com.moud.client.movement.ClientMovementTracker;
@@ -33,6 +34,7 @@ import com.moud.client.util.WindowAnimator;
 import com.moud.client.primitives.ClientPrimitiveManager;
 import com.moud.client.zone.ClientZoneManager;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.TransformQuantizer;
 import net.fabricmc.fabric.api.networking.v1.PayloadTypeRegistry;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.network.OtherClientPlayerEntity;
@@ -69,9 +71,13 @@ public class ClientNetworkRegistry {
         PayloadTypeRegistry.playS2C().register(DataPayload.ID, DataPayload.CODEC);
         PayloadTypeRegistry.playS2C().register(MoudPayload.ID, MoudPayload.CODEC);
         PayloadTypeRegistry.playC2S().register(DataPayload.ID, DataPayload.CODEC);
+        PayloadTypeRegistry.playS2C().register(CompactPayload.ID, CompactPayload.CODEC);
+        PayloadTypeRegistry.playC2S().register(CompactPayload.ID, CompactPayload.CODEC);
 
         ClientPacketReceiver.registerS2CPackets();
 
+        ClientPacketWrapper.registerHandler(MoudPackets.S2C_PacketSchemaAckPacket.class, (player, packet) -> ClientPacketWrapper.handleSchemaAck(packet));
+
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_PlayPlayerAnimationPacket.class, (player, packet) -> handlePlayPlayerAnimation(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_PlayModelAnimationPacket.class, (player, packet) -> handlePlayModelAnimation(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.SyncClientScriptsPacket.class, (player, packet) -> loader.handleCompleteBundle(packet, mod, services));
@@ -190,6 +196,7 @@ public class ClientNetworkRegistry {
                 }));
         ClientPacketWrapper.registerHandler(MoudPackets.PhysicsModePacket.class, (player, packet) -> handlePhysicsMode(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.PlayerSnapshotPacket.class, (player, packet) -> handlePlayerSnapshot(packet));
+        ClientPacketWrapper.registerHandler(MoudPackets.S2C_QuantizedPlayerSnapshotPacket.class, (player, packet) -> handlePlayerSnapshot(TransformQuantizer.decodeSnapshot(packet)));
         ClientPacketWrapper.registerHandler(MoudPackets.ChunkCollisionPacket.class, (player, packet) ->
                 MinecraftClient.getInstance().execute(() -> ClientChunkCollisionManager.getInstance().handleChunkCollisionPacket(packet)));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_PlayModelAnimationWithFadePacket.class, (player, packet) -> {
@@ -207,6 +214,8 @@ public class ClientNetworkRegistry {
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_CreateModelPacket.class, (player, packet) -> handleCreateModel(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_UpdateModelAnchorPacket.class, (player, packet) -> handleUpdateModelAnchor(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_UpdateModelTransformPacket.class, (player, packet) -> handleUpdateModelTransform(packet));
+        ClientPacketWrapper.registerHandler(MoudPackets.S2C_TransformBatchPacket.class, (player, packet) -> handleTransformBatch(packet));
+        ClientPacketWrapper.registerHandler(MoudPackets.S2C_QuantizedTransformBatchPacket.class, (player, packet) -> handleQuantizedTransformBatch(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_UpdateModelTexturePacket.class, (player, packet) -> handleUpdateModelTexture(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_UpdateModelCollisionPacket.class, (player, packet) -> handleUpdateModelCollision(packet));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_SyncModelCollisionBoxesPacket.class, (player, packet) -> handleSyncModelCollisionBoxes(packet));
@@ -216,6 +225,10 @@ public class ClientNetworkRegistry {
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_IKCreateChainPacket.class, (player, packet) -> MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleCreate(packet)));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_IKUpdateChainPacket.class, (player, packet) -> MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleUpdate(packet)));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_IKBatchUpdatePacket.class, (player, packet) -> MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleBatchUpdate(packet)));
+        ClientPacketWrapper.registerHandler(MoudPackets.S2C_QuantizedIKBatchUpdatePacket.class, (player, packet) -> {
+            MoudPackets.S2C_IKBatchUpdatePacket decoded = TransformQuantizer.decodeIKBatch(packet);
+            MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleBatchUpdate(decoded));
+        });
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_IKUpdateTargetPacket.class, (player, packet) -> MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleUpdateTarget(packet)));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_IKUpdateRootPacket.class, (player, packet) -> MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleUpdateRoot(packet)));
         ClientPacketWrapper.registerHandler(MoudPackets.S2C_IKAttachPacket.class, (player, packet) -> MinecraftClient.getInstance().execute(() -> ClientIKManager.getInstance().handleAttach(packet)));
@@ -713,16 +726,58 @@ public class ClientNetworkRegistry {
     }
 
     private void handleUpdateModelTransform(MoudPackets.S2C_UpdateModelTransformPacket packet) {
+        MinecraftClient.getInstance().execute(() -> applyModelTransform(packet));
+    }
+
+    private void applyModelTransform(MoudPackets.S2C_UpdateModelTransformPacket packet) {
+        RenderableModel model = ClientModelManager.getInstance().getModel(packet.modelId());
+        if (model != null) {
+            model.updateTransform(packet.position(), packet.rotation(), packet.scale());
+            ModelCollisionManager.getInstance().sync(model);
+            RuntimeObjectRegistry.getInstance().syncModel(model);
+            ClientCollisionManager.updateTransform(packet.modelId(), model.getPosition(), model.getRotation(), model.getScale());
+            return;
+        }
+        ClientCollisionManager.updateTransform(packet.modelId(), packet.position(), packet.rotation(), packet.scale());
+    }
+
+    private void handleTransformBatch(MoudPackets.S2C_TransformBatchPacket packet) {
         MinecraftClient.getInstance().execute(() -> {
-            RenderableModel model = ClientModelManager.getInstance().getModel(packet.modelId());
-            if (model != null) {
-                model.updateTransform(packet.position(), packet.rotation(), packet.scale());
-                ModelCollisionManager.getInstance().sync(model);
-                RuntimeObjectRegistry.getInstance().syncModel(model);
-                ClientCollisionManager.updateTransform(packet.modelId(), model.getPosition(), model.getRotation(), model.getScale());
-                return;
+            for (MoudPackets.S2C_UpdateModelTransformPacket model : packet.models()) {
+                applyModelTransform(model);
+            }
+            for (MoudPackets.S2C_UpdateDisplayTransformPacket display : packet.displays()) {
+                ClientDisplayManager.getInstance().handleTransform(display);
+            }
+            if (!packet.primitives().isEmpty()) {
+                ClientPrimitiveManager.getInstance().handleBatchTransform(
+                        new MoudPackets.S2C_PrimitiveBatchTransformPacket(packet.primitives()));
+            }
+        });
+    }
+
+    private void handleQuantizedTransformBatch(MoudPackets.S2C_QuantizedTransformBatchPacket packet) {
+        List<MoudPackets.S2C_UpdateModelTransformPacket> models = TransformQuantizer.decodeModelTransforms(packet.models());
+        List<MoudPackets.PrimitiveTransformEntry> primitives = TransformQuantizer.decodePrimitiveTransforms(packet.primitives());
+        MinecraftClient.getInstance().execute(() -> {
+            for (MoudPackets.S2C_UpdateModelTransformPacket delta : models) {
+                // Fields the server left out are unchanged; fill them from the model's current target.
+                RenderableModel model = ClientModelManager.getInstance().getModel(delta.modelId());
+                if (model != null) {
+                    applyModelTransform(new MoudPackets.S2C_UpdateModelTransformPacket(
+                            delta.modelId(),
+                            delta.position() != null ? delta.position() : model.getPosition(),
+                            delta.rotation() != null ? delta.rotation() : model.getRotation(),
+                            delta.scale() != null ? delta.scale() : model.getScale()
+                    ));
+                } else if (delta.position() != null && delta.rotation() != null && delta.scale() != null) {
+                    applyModelTransform(delta);
+                }
+            }
+            if (!primitives.isEmpty()) {
+                ClientPrimitiveManager.getInstance().handleBatchTransform(
+                        new MoudPackets.S2C_PrimitiveBatchTransformPacket(primitives));
             }
-            ClientCollisionManager.updateTransform(packet.modelId(), packet.position(), packet.rotation(), packet.scale());
         });
     }
 
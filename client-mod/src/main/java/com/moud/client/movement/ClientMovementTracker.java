@@ -1,6 +1,7 @@
 package com.moud.client.movement;
 
 import com.moud.api.collision.AABB;
+import com.moud.api.physics.player.CollisionBuffer;
 import com.moud.api.physics.player.CollisionWorld;
 import com.moud.api.physics.player.PlayerController;
 import com.moud.api.physics.player.PlayerInput;
@@ -19,6 +20,7 @@ import com.moud.client.primitives.ClientPrimitiveCollisionBounds;
 import com.moud.client.primitives.ClientPrimitiveManager;
 import com.moud.client.primitives.PrimitiveMeshCollisionManager;
 import com.moud.network.MoudPackets;
+import net.minecraft.block.BlockState;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.client.option.GameOptions;
 import net.minecraft.client.world.ClientWorld;
@@ -27,14 +29,17 @@ import net.minecraft.util.math.BlockPos;
 import net.minecraft.util.math.Box;
 import net.minecraft.util.math.Vec3d;
 import net.minecraft.util.shape.VoxelShape;
+import net.minecraft.world.chunk.ChunkSection;
+import net.minecraft.world.chunk.WorldChunk;
 import org.joml.Vector3f;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 
 public final class ClientMovementTracker {
     private static final Logger LOGGER = LoggerFactory.getLogger(ClientMovementTracker.class);
@@ -880,10 +885,19 @@ public final class ClientMovementTracker {
         }
     }
 
+    /**
+     * Mirrors the server's collision world for prediction. Blocks are read from the chunk sections under the
+     * query, and collision boxes of states whose shape does not depend on position are cached per state, so block
+     * gathering does not allocate.
+     */
     private static final class ClientCollisionWorld implements CollisionWorld {
         private static final double COLLISION_QUERY_EPS = 1.0e-9;
+        private static final double[] NO_BOX = new double[0];
+        // Only touched from the client thread.
+        private static final Map<BlockState, double[]> STATE_BOXES = new IdentityHashMap<>();
 
         private final MinecraftClient client;
+        private final BlockPos.Mutable pos = new BlockPos.Mutable();
 
         private ClientCollisionWorld(MinecraftClient client) {
             this.client = client;
@@ -894,72 +908,110 @@ public final class ClientMovementTracker {
             if (query == null || client == null) {
                 return List.of();
             }
+            CollisionBuffer buffer = new CollisionBuffer();
+            collectCollisions(query.minX(), query.minY(), query.minZ(), query.maxX(), query.maxY(), query.maxZ(), buffer);
+            return buffer.toList();
+        }
+
+        @Override
+        public void collectCollisions(
+                double queryMinX,
+                double queryMinY,
+                double queryMinZ,
+                double queryMaxX,
+                double queryMaxY,
+                double queryMaxZ,
+                CollisionBuffer out
+        ) {
+            if (client == null) {
+                return;
+            }
             ClientWorld world = client.world;
             if (world == null) {
-                return List.of();
+                return;
             }
 
-            int minX = (int) Math.floor(query.minX());
-            int minY = (int) Math.floor(query.minY());
-            int minZ = (int) Math.floor(query.minZ());
+            int minX = (int) Math.floor(queryMinX);
+            int minY = (int) Math.floor(queryMinY);
+            int minZ = (int) Math.floor(queryMinZ);
 
-            int maxX = (int) Math.floor(query.maxX() - COLLISION_QUERY_EPS);
-            int maxY = (int) Math.floor(query.maxY() - COLLISION_QUERY_EPS);
-            int maxZ = (int) Math.floor(query.maxZ() - COLLISION_QUERY_EPS);
+            int maxX = (int) Math.floor(queryMaxX - COLLISION_QUERY_EPS);
+            int maxY = (int) Math.floor(queryMaxY - COLLISION_QUERY_EPS);
+            int maxZ = (int) Math.floor(queryMaxZ - COLLISION_QUERY_EPS);
 
             int bottomY = world.getBottomY();
             int topY = world.getTopY() - 1;
             minY = Math.max(minY, bottomY);
             maxY = Math.min(maxY, topY);
 
-            List<AABB> colliders = new ArrayList<>();
-            BlockPos.Mutable pos = new BlockPos.Mutable();
-
+            WorldChunk chunk = null;
             for (int x = minX; x <= maxX; x++) {
-                for (int y = minY; y <= maxY; y++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        pos.set(x, y, z);
-                        var state = world.getBlockState(pos);
-                        if (state.isAir() || !state.getFluidState().isEmpty()) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    if (chunk == null || chunk.getPos().x != (x >> 4) || chunk.getPos().z != (z >> 4)) {
+                        chunk = world.getChunk(x >> 4, z >> 4);
+                    }
+                    ChunkSection[] sections = chunk.getSectionArray();
+                    for (int y = minY; y <= maxY; y++) {
+                        int sectionIndex = chunk.getSectionIndex(y);
+                        if (sectionIndex < 0 || sectionIndex >= sections.length) {
                             continue;
                         }
-                        VoxelShape shape = state.getCollisionShape(world, pos);
-                        if (shape == null || shape.isEmpty()) {
+                        ChunkSection section = sections[sectionIndex];
+                        if (section == null || section.isEmpty()) {
+                            // Skip to the next section.
+                            y |= 15;
                             continue;
                         }
-                        Box bb = shape.getBoundingBox();
-                        if ((bb.maxX - bb.minX) <= 0.0 || (bb.maxY - bb.minY) <= 0.0 || (bb.maxZ - bb.minZ) <= 0.0) {
-                            continue;
+                        BlockState state = section.getBlockState(x & 15, y & 15, z & 15);
+                        double[] box = box(world, state, x, y, z);
+                        if (box.length != 0) {
+                            out.add(x + box[0], y + box[1], z + box[2], x + box[3], y + box[4], z + box[5]);
                         }
-                        colliders.add(new AABB(
-                                x + bb.minX,
-                                y + bb.minY,
-                                z + bb.minZ,
-                                x + bb.maxX,
-                                y + bb.maxY,
-                                z + bb.maxZ
-                        ));
                     }
                 }
             }
 
-            Box region = new Box(query.minX(), query.minY(), query.minZ(), query.maxX(), query.maxY(), query.maxZ());
+            Box region = new Box(queryMinX, queryMinY, queryMinZ, queryMaxX, queryMaxY, queryMaxZ);
             for (Box bounds : ModelCollisionManager.getInstance().collectBounds(region)) {
-                colliders.add(new AABB(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ));
+                out.add(bounds.minX, bounds.minY, bounds.minZ, bounds.maxX, bounds.maxY, bounds.maxZ);
             }
 
             for (var primitive : ClientPrimitiveManager.getInstance().getPrimitives()) {
                 AABB bounds = ClientPrimitiveCollisionBounds.computeAabb(primitive);
-                if (bounds != null && bounds.intersects(query)) {
-                    colliders.add(bounds);
+                if (bounds != null && bounds.maxX() > queryMinX && bounds.minX() < queryMaxX
+                        && bounds.maxY() > queryMinY && bounds.minY() < queryMaxY
+                        && bounds.maxZ() > queryMinZ && bounds.minZ() < queryMaxZ) {
+                    out.add(bounds);
                 }
             }
 
-            if (colliders.size() <= 1) {
-                return colliders;
+            out.sortByMinY();
+        }
+
+        private double[] box(ClientWorld world, BlockState state, int x, int y, int z) {
+            if (state.isAir() || !state.getFluidState().isEmpty()) {
+                return NO_BOX;
+            }
+            // Offset models and block entities can have position-dependent shapes.
+            boolean cacheable = !state.hasModelOffset() && !state.hasBlockEntity();
+            if (cacheable) {
+                double[] cached = STATE_BOXES.get(state);
+                if (cached != null) {
+                    return cached;
+                }
+            }
+            VoxelShape shape = state.getCollisionShape(world, pos.set(x, y, z));
+            double[] box = NO_BOX;
+            if (shape != null && !shape.isEmpty()) {
+                Box bb = shape.getBoundingBox();
+                if ((bb.maxX - bb.minX) > 0.0 && (bb.maxY - bb.minY) > 0.0 && (bb.maxZ - bb.minZ) > 0.0) {
+                    box = new double[]{bb.minX, bb.minY, bb.minZ, bb.maxX, bb.maxY, bb.maxZ};
+                }
+            }
+            if (cacheable) {
+                STATE_BOXES.put(state, box);
             }
-            colliders.sort(Comparator.comparingDouble(AABB::minY));
-            return colliders;
+            return box;
         }
     }
 }
@@ -38,6 +38,17 @@ public class ClientPacketReceiver {
             });
         });
 
+        ClientPlayNetworking.registerGlobalReceiver(CompactPayload.ID, (payload, context) -> {
+            int packetId = payload.packetId();
+            byte[] data = payload.data();
+            context.client().execute(() -> {
+                try {
+                    ClientPacketWrapper.handleIncoming(packetId, data, context.player());
+                } catch (Exception e) {
+                    LOGGER.error("Failed to handle incoming Moud packet with id {}", packetId, e);
+                }
+            });
+        });
 
         LOGGER.info("Registered generic Moud packet receiver.");
     }
@@ -4,6 +4,7 @@ import com.moud.client.MoudClientMod;
 import com.moud.network.MoudPackets;
 import com.moud.network.dispatcher.NetworkDispatcher;
 import com.moud.network.engine.PacketEngine;
+import com.moud.network.protocol.MoudProtocol;
 import com.moud.client.network.buffer.FabricByteBuffer;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.client.MinecraftClient;
@@ -22,6 +23,7 @@ public class ClientPacketWrapper {
     private static long debugLastWorldTick = Long.MIN_VALUE;
     private static int debugSentThisTick = 0;
     private static final Map<String, Integer> debugSentByType = new HashMap<>();
+    private static volatile boolean compactIds;
 
     static {
         ENGINE.initialize("com.moud.network");
@@ -39,13 +41,20 @@ public class ClientPacketWrapper {
     }
 
     public static <T> void sendToServer(T packet) {
-        if (!(packet instanceof MoudPackets.HelloPacket) && !MoudClientMod.isOnMoudServer()) {
+        boolean handshake = packet instanceof MoudPackets.HelloPacket
+                || packet instanceof MoudPackets.C2S_PacketSchemaPacket;
+        if (!handshake && !MoudClientMod.isOnMoudServer()) {
             return;
         }
         debugTrack(packet);
 
         NetworkDispatcher.PacketData packetData = DISPATCHER.send(null, packet);
 
+        if (compactIds && packetData.packetId() >= 0) {
+            ClientPlayNetworking.send(new CompactPayload(packetData.packetId(), packetData.data()));
+            return;
+        }
+
         DataPayload payload = new DataPayload(
                 Identifier.of(packetData.channel()),
                 packetData.data()
@@ -54,6 +63,28 @@ public class ClientPacketWrapper {
         ClientPlayNetworking.send(payload);
     }
 
+    /**
+     * Starts the handshake: sends the protocol version followed by our packet schema hash. Compact
+     * numeric ids are only used once the server acknowledges a matching hash.
+     */
+    public static void sendHandshake() {
+        compactIds = false;
+        sendToServer(new MoudPackets.HelloPacket(MoudProtocol.PROTOCOL_VERSION));
+        sendToServer(new MoudPackets.C2S_PacketSchemaPacket(ENGINE.getSchemaHash()));
+    }
+
+    public static void handleSchemaAck(MoudPackets.S2C_PacketSchemaAckPacket packet) {
+        compactIds = packet.compactIds() && packet.schemaHash() == ENGINE.getSchemaHash();
+        if (!compactIds) {
+            MoudClientMod.LOGGER.info("Server packet schema {} not negotiated (ours {}); using string channels",
+                    Long.toHexString(packet.schemaHash()), Long.toHexString(ENGINE.getSchemaHash()));
+        }
+    }
+
+    public static void resetCompactIds() {
+        compactIds = false;
+    }
+
     private static void debugTrack(Object packet) {
         if (!DEBUG_PACKET_RATE || packet == null) {
             return;
@@ -94,4 +125,8 @@ public class ClientPacketWrapper {
     public static void handleIncoming(String channel, byte[] data, Object player) {
         DISPATCHER.handle(channel, data, player);
     }
+
+    public static void handleIncoming(int packetId, byte[] data, Object player) {
+        DISPATCHER.handle(packetId, data, player);
+    }
 }
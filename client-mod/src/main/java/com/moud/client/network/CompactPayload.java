@@ -0,0 +1,42 @@
+package com.moud.client.network;
+
+import com.moud.network.protocol.MoudProtocol;
+import net.minecraft.network.PacketByteBuf;
+import net.minecraft.network.codec.PacketCodec;
+import net.minecraft.network.packet.CustomPayload;
+import net.minecraft.util.Identifier;
+
+/**
+ * Moud packet framed with its negotiated numeric id instead of its string channel. The payload
+ * runs to the end of the plugin message, so no length prefix is written.
+ */
+public record CompactPayload(int packetId, byte[] data) implements CustomPayload {
+
+    public static final CustomPayload.Id<CompactPayload> ID =
+            new CustomPayload.Id<>(Identifier.of(MoudProtocol.COMPACT_CHANNEL));
+
+    public static final PacketCodec<PacketByteBuf, CompactPayload> CODEC = PacketCodec.of(
+            CompactPayload::write,
+            CompactPayload::new
+    );
+
+    public CompactPayload(PacketByteBuf buf) {
+        this(buf.readVarInt(), readRemaining(buf));
+    }
+
+    private static byte[] readRemaining(PacketByteBuf buf) {
+        byte[] data = new byte[buf.readableBytes()];
+        buf.readBytes(data);
+        return data;
+    }
+
+    public void write(PacketByteBuf buf) {
+        buf.writeVarInt(packetId);
+        buf.writeBytes(data);
+    }
+
+    @Override
+    public Id<? extends CustomPayload> getId() {
+        return ID;
+    }
+}
@@ -40,13 +40,20 @@ public class SharedValueManager {
     public void handleServerSync(MoudPackets.SyncSharedValuesPacket packet) {
         String storeName = packet.storeName();
         ClientValueCache store = getOrCreateStore(storeName);
+        if (!store.acceptSequence(packet.sequence())) {
+            LOGGER.debug("Dropped stale delta {} for store '{}'", packet.sequence(), storeName);
+            return;
+        }
 
         for (var entry : packet.deltaChanges().entrySet()) {
             store.updateFromServer(entry.getKey(), entry.getValue());
         }
+        for (String key : packet.removedKeys()) {
+            store.removeFromServer(key);
+        }
 
-        LOGGER.debug("Applied {} changes to store '{}' from server",
-                packet.deltaChanges().size(), storeName);
+        LOGGER.debug("Applied delta {} to store '{}' from server: {} changed, {} removed",
+                packet.sequence(), storeName, packet.deltaChanges().size(), packet.removedKeys().size());
     }
 
     public boolean requestUpdate(String storeName, String key, Object value) {
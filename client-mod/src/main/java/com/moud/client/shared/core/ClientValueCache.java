@@ -15,6 +15,7 @@ public class ClientValueCache {
     private final ConcurrentHashMap<String, Boolean> modifiableKeys;
     private final CopyOnWriteArrayList<Value> changeListeners;
     private final ConcurrentHashMap<String, CopyOnWriteArrayList<Value>> keyListeners;
+    private long lastSequence;
 
     public ClientValueCache(String storeName) {
         this.storeName = storeName;
@@ -42,6 +43,30 @@ public class ClientValueCache {
         triggerChangeListeners(key, value, oldValue);
     }
 
+    public void removeFromServer(String key) {
+        Object oldValue = values.remove(key);
+        modifiableKeys.remove(key);
+        if (oldValue != null) {
+            triggerChangeListeners(key, null, oldValue);
+        }
+    }
+
+    /**
+     * Records the sequence number of a server delta for this store.
+     *
+     * @return false if the delta is older than one already applied; sequence 1 starts a new server-side store
+     */
+    public synchronized boolean acceptSequence(long sequence) {
+        if (sequence <= lastSequence && sequence != 1) {
+            return false;
+        }
+        if (sequence > lastSequence + 1 && lastSequence != 0) {
+            LOGGER.debug("Store '{}' skipped from delta {} to {}", storeName, lastSequence, sequence);
+        }
+        lastSequence = sequence;
+        return true;
+    }
+
     public void updateOptimistic(String key, Object value) {
         Object oldValue = values.put(key, value);
         triggerChangeListeners(key, value, oldValue);
@@ -119,5 +144,8 @@ public class ClientValueCache {
         modifiableKeys.clear();
         changeListeners.clear();
         keyListeners.clear();
+        synchronized (this) {
+            lastSequence = 0;
+        }
     }
 }
\ No newline at end of file
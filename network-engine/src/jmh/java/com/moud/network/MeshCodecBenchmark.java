@@ -0,0 +1,189 @@
+package com.moud.network;
+
+import com.moud.network.serializer.MeshCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the previous per-array GZIP encoding of collision meshes against {@link MeshCodec}.
+ * <p>
+ * Fixtures are terrain chunks emitted in the server chunk mesher's layout (world-space coordinates, six
+ * unshared vertices per exposed face, sequential indices). Encoded sizes are printed once per fixture.
+ * <p>
+ * Run with {@code ./gradlew :network-engine:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MeshCodecBenchmark {
+
+    @Param({"flat", "hills", "rough"})
+    public String fixture;
+
+    private float[] vertices;
+    private int[] indices;
+    private byte[] gzipVertices;
+    private byte[] gzipIndices;
+    private MeshCodec.EncodedMesh encoded;
+
+    @Setup
+    public void setup() throws IOException {
+        generateChunk(fixture);
+        gzipVertices = gzipFloats(vertices);
+        gzipIndices = gzipInts(indices);
+        encoded = MeshCodec.encode(vertices, indices);
+        int raw = (vertices.length + indices.length) * 4;
+        System.out.printf(Locale.US, "%n[%s] faces=%d raw=%d B gzip=%d B codec=%d B (%.1f%% of gzip)%n",
+                fixture, indices.length / 6, raw, gzipVertices.length + gzipIndices.length,
+                encoded.vertices().length + encoded.indices().length,
+                100.0 * (encoded.vertices().length + encoded.indices().length)
+                        / (gzipVertices.length + gzipIndices.length));
+    }
+
+    @Benchmark
+    public int encodeGzip() throws IOException {
+        return gzipFloats(vertices).length + gzipInts(indices).length;
+    }
+
+    @Benchmark
+    public MeshCodec.EncodedMesh encodeCodec() {
+        return MeshCodec.encode(vertices, indices);
+    }
+
+    @Benchmark
+    public int decodeGzip() throws IOException {
+        return gunzip(gzipVertices).length + gunzip(gzipIndices).length;
+    }
+
+    @Benchmark
+    public MeshCodec.DecodedMesh decodeCodec() {
+        return MeshCodec.decode(encoded.vertices(), encoded.indices());
+    }
+
+    private void generateChunk(String name) {
+        int[][] heights = new int[18][18];
+        boolean[][] slabs = new boolean[18][18];
+        Random random = new Random(42);
+        for (int x = 0; x < 18; x++) {
+            for (int z = 0; z < 18; z++) {
+                heights[x][z] = switch (name) {
+                    case "flat" -> 64;
+                    case "hills" -> 64 + (int) (6 * Math.sin((x + 37) * 0.35) + 4 * Math.cos((z - 11) * 0.27));
+                    case "rough" -> 56 + random.nextInt(20);
+                    default -> throw new IllegalArgumentException("Unknown fixture " + name);
+                };
+                slabs[x][z] = !"flat".equals(name) && random.nextInt(8) == 0;
+            }
+        }
+
+        FaceWriter writer = new FaceWriter();
+        int baseX = 16 * 37;
+        int baseZ = 16 * -12;
+        for (int x = 1; x <= 16; x++) {
+            for (int z = 1; z <= 16; z++) {
+                int top = heights[x][z];
+                float wx = baseX + x - 1;
+                float wz = baseZ + z - 1;
+                float topY = slabs[x][z] ? top + 0.5f : top + 1.0f;
+                writer.quad(wx, topY, wz, wx + 1, topY, wz, wx + 1, topY, wz + 1, wx, topY, wz + 1);
+                // Exposed sides down to the neighbour's surface, one face per block like the mesher emits.
+                int[][] neighbours = {{x - 1, z}, {x + 1, z}, {x, z - 1}, {x, z + 1}};
+                for (int side = 0; side < 4; side++) {
+                    int neighbourTop = heights[neighbours[side][0]][neighbours[side][1]];
+                    for (int y = neighbourTop + 1; y <= top; y++) {
+                        float maxY = y == top ? topY : y + 1;
+                        switch (side) {
+                            case 0 -> writer.quad(wx, y, wz, wx, y, wz + 1, wx, maxY, wz + 1, wx, maxY, wz);
+                            case 1 -> writer.quad(wx + 1, y, wz + 1, wx + 1, y, wz, wx + 1, maxY, wz, wx + 1, maxY, wz + 1);
+                            case 2 -> writer.quad(wx + 1, y, wz, wx, y, wz, wx, maxY, wz, wx + 1, maxY, wz);
+                            default -> writer.quad(wx, y, wz + 1, wx + 1, y, wz + 1, wx + 1, maxY, wz + 1, wx, maxY, wz + 1);
+                        }
+                    }
+                }
+            }
+        }
+        vertices = Arrays.copyOf(writer.vertices, writer.vertexCursor);
+        indices = Arrays.copyOf(writer.indices, writer.indexCursor);
+    }
+
+    private static final class FaceWriter {
+        private float[] vertices = new float[18 * 256];
+        private int[] indices = new int[6 * 256];
+        private int vertexCursor;
+        private int indexCursor;
+
+        void quad(float x1, float y1, float z1, float x2, float y2, float z2,
+                  float x3, float y3, float z3, float x4, float y4, float z4) {
+            if (vertexCursor + 18 > vertices.length) {
+                vertices = Arrays.copyOf(vertices, vertices.length * 2);
+                indices = Arrays.copyOf(indices, indices.length * 2);
+            }
+            // Triangle 1: p3, p2, p1; triangle 2: p1, p4, p3.
+            float[] corners = {x3, y3, z3, x2, y2, z2, x1, y1, z1, x1, y1, z1, x4, y4, z4, x3, y3, z3};
+            System.arraycopy(corners, 0, vertices, vertexCursor, corners.length);
+            vertexCursor += corners.length;
+            for (int i = 0; i < 6; i++) {
+                indices[indexCursor] = indexCursor;
+                indexCursor++;
+            }
+        }
+    }
+
+    private static byte[] gzipFloats(float[] data) throws IOException {
+        byte[] bytes = new byte[data.length * 4];
+        int idx = 0;
+        for (float v : data) {
+            int bits = Float.floatToIntBits(v);
+            bytes[idx++] = (byte) bits;
+            bytes[idx++] = (byte) (bits >>> 8);
+            bytes[idx++] = (byte) (bits >>> 16);
+            bytes[idx++] = (byte) (bits >>> 24);
+        }
+        return gzip(bytes);
+    }
+
+    private static byte[] gzipInts(int[] data) throws IOException {
+        byte[] bytes = new byte[data.length * 4];
+        int idx = 0;
+        for (int v : data) {
+            bytes[idx++] = (byte) v;
+            bytes[idx++] = (byte) (v >>> 8);
+            bytes[idx++] = (byte) (v >>> 16);
+            bytes[idx++] = (byte) (v >>> 24);
+        }
+        return gzip(bytes);
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(bytes.length / 2);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gunzip(byte[] data) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
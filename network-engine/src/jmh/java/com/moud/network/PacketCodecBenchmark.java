@@ -0,0 +1,256 @@
+package com.moud.network;
+
+import com.moud.api.math.Quaternion;
+import com.moud.api.math.Vector3;
+import com.moud.network.buffer.ByteBuffer;
+import com.moud.network.metadata.PacketMetadata;
+import com.moud.network.registry.PacketRegistry;
+import com.moud.network.serializer.PacketSerializer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the reflective {@link PacketSerializer} path against the compiled codecs on the same
+ * fixtures used by {@code PacketSerializerTest}.
+ * <p>
+ * Run with {@code ./gradlew :network-engine:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PacketCodecBenchmark {
+
+    @Param({"cursor", "sceneEdit", "primitiveCreate", "placeBlueprint"})
+    public String fixture;
+
+    private PacketSerializer serializer;
+    private PacketMetadata metadata;
+    private Object packet;
+    private byte[] encoded;
+
+    @Setup
+    public void setup() {
+        PacketRegistry registry = new PacketRegistry();
+        registry.scan("com.moud.network");
+        serializer = new PacketSerializer();
+        packet = createFixture(fixture);
+        metadata = registry.getByClass(packet.getClass());
+        serializer.compile(registry.getAllMetadata());
+        encoded = serializer.serialize(packet, metadata, new HeapByteBuffer());
+    }
+
+    @Benchmark
+    public byte[] serializeReflective() {
+        return serializer.serializeReflective(packet, metadata, new HeapByteBuffer());
+    }
+
+    @Benchmark
+    public byte[] serializeCompiled() {
+        return serializer.serialize(packet, metadata, new HeapByteBuffer());
+    }
+
+    @Benchmark
+    public Object deserializeReflective() {
+        return serializer.deserializeReflective(encoded, metadata.packetClass(), metadata, new HeapByteBuffer(encoded));
+    }
+
+    @Benchmark
+    public Object deserializeCompiled() {
+        return serializer.deserialize(encoded, metadata.packetClass(), metadata, new HeapByteBuffer(encoded));
+    }
+
+    private static Object createFixture(String name) {
+        return switch (name) {
+            case "cursor" -> {
+                List<MoudPackets.CursorUpdateData> updates = new ArrayList<>();
+                for (int i = 0; i < 16; i++) {
+                    updates.add(new MoudPackets.CursorUpdateData(
+                            UUID.randomUUID(),
+                            new Vector3(i * 1.25f, 2.5f, -3.75f),
+                            new Vector3(0.0f, 1.0f, 0.0f),
+                            (i & 1) == 0
+                    ));
+                }
+                yield new MoudPackets.CursorPositionUpdatePacket(updates);
+            }
+            case "sceneEdit" -> {
+                Map<String, Object> payload = new HashMap<>();
+                payload.put("objectId", "tree-42");
+                payload.put("tags", List.of("foliage", "interactive"));
+                payload.put("transform", Map.of(
+                        "position", List.of(1.0, 2.0, 3.0),
+                        "scale", Map.of("x", 1.5, "y", 2.0, "z", 0.5),
+                        "visible", true
+                ));
+                yield new MoudPackets.SceneEditPacket("scene-main", "update", payload, 1337L);
+            }
+            case "primitiveCreate" -> new MoudPackets.S2C_PrimitiveCreatePacket(
+                    42L,
+                    MoudPackets.PrimitiveType.CUBE,
+                    new Vector3(1.0f, 2.0f, 3.0f),
+                    new Quaternion(0.0f, 0.0f, 0.0f, 1.0f),
+                    new Vector3(0.8f, 0.8f, 0.8f),
+                    MoudPackets.PrimitiveMaterial.solid(0.3f, 0.7f, 0.9f),
+                    null,
+                    "group-test",
+                    List.of(0, 1, 2),
+                    MoudPackets.PrimitivePhysics.dynamic(1.0f)
+            );
+            case "placeBlueprint" -> new MoudPackets.PlaceBlueprintPacket(
+                    "default",
+                    "test-blueprint",
+                    new float[]{1.0f, 2.0f, 3.0f},
+                    new float[]{10.0f, 20.0f, 30.0f},
+                    new float[]{0.5f, 1.25f, 2.0f}
+            );
+            default -> throw new IllegalArgumentException("Unknown fixture " + name);
+        };
+    }
+
+    private static final class HeapByteBuffer implements ByteBuffer {
+        private java.nio.ByteBuffer buffer;
+
+        HeapByteBuffer() {
+            this.buffer = java.nio.ByteBuffer.allocate(256);
+        }
+
+        HeapByteBuffer(byte[] data) {
+            this.buffer = java.nio.ByteBuffer.wrap(data);
+        }
+
+        private void ensure(int bytes) {
+            if (buffer.remaining() >= bytes) {
+                return;
+            }
+            java.nio.ByteBuffer grown = java.nio.ByteBuffer.allocate(Math.max(buffer.capacity() * 2, buffer.position() + bytes));
+            buffer.flip();
+            grown.put(buffer);
+            buffer = grown;
+        }
+
+        @Override
+        public void writeString(String value) {
+            writeByteArray(value.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public String readString() {
+            return new String(readByteArray(), StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void writeInt(int value) {
+            ensure(Integer.BYTES);
+            buffer.putInt(value);
+        }
+
+        @Override
+        public int readInt() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public void writeFloat(float value) {
+            ensure(Float.BYTES);
+            buffer.putFloat(value);
+        }
+
+        @Override
+        public float readFloat() {
+            return buffer.getFloat();
+        }
+
+        @Override
+        public void writeDouble(double value) {
+            ensure(Double.BYTES);
+            buffer.putDouble(value);
+        }
+
+        @Override
+        public double readDouble() {
+            return buffer.getDouble();
+        }
+
+        @Override
+        public void writeBoolean(boolean value) {
+            ensure(1);
+            buffer.put((byte) (value ? 1 : 0));
+        }
+
+        @Override
+        public boolean readBoolean() {
+            return buffer.get() != 0;
+        }
+
+        @Override
+        public void writeLong(long value) {
+            ensure(Long.BYTES);
+            buffer.putLong(value);
+        }
+
+        @Override
+        public long readLong() {
+            return buffer.getLong();
+        }
+
+        @Override
+        public void writeUuid(UUID value) {
+            writeLong(value.getMostSignificantBits());
+            writeLong(value.getLeastSignificantBits());
+        }
+
+        @Override
+        public UUID readUuid() {
+            return new UUID(readLong(), readLong());
+        }
+
+        @Override
+        public void writeByteArray(byte[] value) {
+            writeInt(value.length);
+            ensure(value.length);
+            buffer.put(value);
+        }
+
+        @Override
+        public byte[] readByteArray() {
+            byte[] dst = new byte[readInt()];
+            readBytes(dst);
+            return dst;
+        }
+
+        @Override
+        public int readableBytes() {
+            return buffer.remaining();
+        }
+
+        @Override
+        public void readBytes(byte[] dst) {
+            if (dst.length > buffer.remaining()) {
+                throw new BufferUnderflowException();
+            }
+            buffer.get(dst);
+        }
+
+        @Override
+        public byte[] toByteArray() {
+            byte[] out = new byte[buffer.position()];
+            buffer.duplicate().flip().get(out);
+            return out;
+        }
+    }
+}
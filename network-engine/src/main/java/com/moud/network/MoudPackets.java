@@ -155,9 +155,9 @@ public final class MoudPackets {
     }
 
     @Packet(value = "moud:sync_shared_values", direction = Direction.SERVER_TO_CLIENT)
-    public record SyncSharedValuesPacket(@Field(order = 0) String playerId, @Field(order = 1) String storeName,
+    public record SyncSharedValuesPacket(@Field(order = 0) String storeName, @Field(order = 1) long sequence,
                                          @Field(order = 2) Map<String, Object> deltaChanges,
-                                         @Field(order = 3) long timestamp) {
+                                         @Field(order = 3) List<String> removedKeys) {
     }
 
     @Packet(value = "moud:cursor_update_pos", direction = Direction.SERVER_TO_CLIENT)
@@ -196,6 +196,14 @@ public final class MoudPackets {
     public record HelloPacket(@Field(order = 0) int protocolVersion) {
     }
 
+    @Packet(value = "moud:packet_schema", direction = Direction.CLIENT_TO_SERVER)
+    public record C2S_PacketSchemaPacket(@Field(order = 0) long schemaHash) {
+    }
+
+    @Packet(value = "moud:packet_schema_ack", direction = Direction.SERVER_TO_CLIENT)
+    public record S2C_PacketSchemaAckPacket(@Field(order = 0) long schemaHash, @Field(order = 1) boolean compactIds) {
+    }
+
     @Packet(value = "moud:permission_state", direction = Direction.SERVER_TO_CLIENT)
     public record PermissionStatePacket(
             @Field(order = 0) boolean op,
@@ -425,7 +433,8 @@ public final class MoudPackets {
     @Packet(value = "moud:request_chunk_collision", direction = Direction.CLIENT_TO_SERVER)
     public record RequestChunkCollisionPacket(
             @Field(order = 0) int chunkX,
-            @Field(order = 1) int chunkZ
+            @Field(order = 1) int chunkZ,
+            @Field(order = 2) long knownMeshHash
     ) {
     }
 
@@ -435,7 +444,8 @@ public final class MoudPackets {
             @Field(order = 1) int chunkZ,
             @Field(order = 2) boolean remove,
             @Field(order = 3, optional = true) @Nullable byte[] compressedVertices,
-            @Field(order = 4, optional = true) @Nullable byte[] compressedIndices
+            @Field(order = 4, optional = true) @Nullable byte[] compressedIndices,
+            @Field(order = 5) long meshHash
     ) {
     }
 
@@ -1144,6 +1154,39 @@ public final class MoudPackets {
     ) {
     }
 
+    @Packet(value = "moud:transform_batch", direction = Direction.SERVER_TO_CLIENT)
+    public record S2C_TransformBatchPacket(
+            @Field(order = 0) List<S2C_UpdateModelTransformPacket> models,
+            @Field(order = 1) List<S2C_UpdateDisplayTransformPacket> displays,
+            @Field(order = 2) List<PrimitiveTransformEntry> primitives
+    ) {
+    }
+
+    /**
+     * Quantized, delta-encoded counterpart of {@link S2C_TransformBatchPacket} for models and primitives.
+     * See {@link com.moud.network.serializer.TransformQuantizer} for the entry layout.
+     */
+    @Packet(value = "moud:quantized_transform_batch", direction = Direction.SERVER_TO_CLIENT)
+    public record S2C_QuantizedTransformBatchPacket(
+            @Field(order = 0) byte[] models,
+            @Field(order = 1) byte[] primitives
+    ) {
+    }
+
+    @Packet(value = "moud:quantized_player_snapshot", direction = Direction.SERVER_TO_CLIENT)
+    public record S2C_QuantizedPlayerSnapshotPacket(
+            @Field(order = 0) long lastProcessedSeq,
+            @Field(order = 1) byte[] state
+    ) {
+    }
+
+    @Packet(value = "moud:quantized_ik_batch_update", direction = Direction.SERVER_TO_CLIENT)
+    public record S2C_QuantizedIKBatchUpdatePacket(
+            @Field(order = 0) long timestamp,
+            @Field(order = 1) byte[] chains
+    ) {
+    }
+
     @Packet(value = "moud:voice_mic_chunk", direction = Direction.CLIENT_TO_SERVER)
     public record VoiceMicrophoneChunkPacket(
             @Field(order = 0) String sessionId,
@@ -8,7 +8,8 @@ import com.moud.network.serializer.PacketSerializer;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.function.BiConsumer;
 
 public class NetworkDispatcher {
@@ -16,13 +17,14 @@ public class NetworkDispatcher {
 
     private final PacketRegistry registry;
     private final PacketSerializer serializer;
-    private final ConcurrentHashMap<Class<?>, BiConsumer<Object, ?>> handlers = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<BiConsumer<Object, ?>> handlers;
     private final ByteBufferFactory bufferFactory;
 
     public NetworkDispatcher(PacketRegistry registry, PacketSerializer serializer, ByteBufferFactory bufferFactory) {
         this.registry = registry;
         this.serializer = serializer;
         this.bufferFactory = bufferFactory;
+        this.handlers = new AtomicReferenceArray<>(registry.getNumericIdCount());
     }
 
     public <T> PacketData send(Object player, T packet) {
@@ -34,7 +36,28 @@ public class NetworkDispatcher {
         try {
             ByteBuffer buffer = bufferFactory.create();
             byte[] data = serializer.serialize(packet, metadata, buffer);
-            return new PacketData(metadata.packetId(), data);
+            return new PacketData(metadata.packetId(), registry.getNumericId(metadata.packetClass()), data);
+        } catch (Exception e) {
+            LOGGER.error("Failed to send packet {}", metadata.packetId(), e);
+            throw new RuntimeException("Packet send failed", e);
+        }
+    }
+
+    /**
+     * Serializes {@code packet} straight into {@code buffer} without materializing a payload array,
+     * so callers can frame the bytes in place.
+     *
+     * @return the metadata of the written packet
+     */
+    public <T> PacketMetadata write(T packet, ByteBuffer buffer) {
+        PacketMetadata metadata = registry.getByClass(packet.getClass());
+        if (metadata == null) {
+            throw new IllegalArgumentException("Unregistered packet type: " + packet.getClass());
+        }
+
+        try {
+            serializer.write(packet, metadata, buffer);
+            return metadata;
         } catch (Exception e) {
             LOGGER.error("Failed to send packet {}", metadata.packetId(), e);
             throw new RuntimeException("Packet send failed", e);
@@ -47,39 +70,72 @@ public class NetworkDispatcher {
             throw new IllegalArgumentException("Unregistered packet type: " + packetClass);
         }
 
-        handlers.put(packetClass, handler);
+        handlers.set(registry.getNumericId(packetClass), handler);
         LOGGER.debug("Registered handler for packet: {}", metadata.packetId());
     }
 
     public void handle(String packetId, byte[] data, Object player) {
+        PacketMetadata metadata = registry.getById(packetId);
+        if (metadata == null) {
+            LOGGER.warn("Received unknown packet: {}", packetId);
+            return;
+        }
+        handle(registry.getNumericId(metadata.packetClass()), data, player);
+    }
+
+    public void handle(String packetId, byte[] data, int offset, int length, Object player) {
+        PacketMetadata metadata = registry.getById(packetId);
+        if (metadata == null) {
+            LOGGER.warn("Received unknown packet: {}", packetId);
+            return;
+        }
+        handle(registry.getNumericId(metadata.packetClass()), data, offset, length, player);
+    }
+
+    /**
+     * Dispatches a packet addressed by the compact id negotiated during the handshake.
+     */
+    public void handle(int numericId, byte[] data, Object player) {
+        handle(numericId, data, 0, data != null ? data.length : 0, player);
+    }
+
+    /**
+     * Dispatches the packet stored in {@code data[offset, offset + length)}. The payload is decoded
+     * from a view of the caller's array, so the caller must not reuse it until this returns.
+     */
+    public void handle(int numericId, byte[] data, int offset, int length, Object player) {
+        PacketMetadata metadata = registry.getByNumericId(numericId);
+        if (metadata == null) {
+            LOGGER.warn("Received unknown packet id: {}", numericId);
+            return;
+        }
+        String packetId = metadata.packetId();
         if (data == null) {
             LOGGER.warn("Received null payload for packet: {}", packetId);
             return;
         }
-        if (data.length > NetworkLimits.MAX_PACKET_BYTES) {
+        if (offset < 0 || length < 0 || length > data.length - offset) {
+            LOGGER.warn("Received out-of-bounds payload view for packet: {}", packetId);
+            return;
+        }
+        if (length > NetworkLimits.MAX_PACKET_BYTES) {
             LOGGER.warn(
                     "Dropping oversized packet {}: {} bytes > {}",
                     packetId,
-                    data.length,
+                    length,
                     NetworkLimits.MAX_PACKET_BYTES
             );
             return;
         }
 
-        PacketMetadata metadata = registry.getById(packetId);
-        if (metadata == null) {
-            LOGGER.warn("Received unknown packet: {}", packetId);
-            return;
-        }
-
-        BiConsumer<Object, ?> handler = handlers.get(metadata.packetClass());
+        BiConsumer<Object, ?> handler = handlers.get(numericId);
         if (handler == null) {
             LOGGER.warn("No handler for packet: {}", packetId);
             return;
         }
 
         try {
-            ByteBuffer buffer = bufferFactory.wrap(data);
+            ByteBuffer buffer = bufferFactory.wrap(data, offset, length);
             Object packet = serializer.deserialize(data, metadata.packetClass(), metadata, buffer);
             ((BiConsumer<Object, Object>) handler).accept(player, packet);
         } catch (Exception e) {
@@ -91,8 +147,18 @@ public class NetworkDispatcher {
         ByteBuffer create();
 
         ByteBuffer wrap(byte[] data);
+
+        /**
+         * Wraps a region of {@code data}. Implementations should read from a view; the default copies.
+         */
+        default ByteBuffer wrap(byte[] data, int offset, int length) {
+            if (offset == 0 && length == data.length) {
+                return wrap(data);
+            }
+            return wrap(Arrays.copyOfRange(data, offset, offset + length));
+        }
     }
 
-    public record PacketData(String channel, byte[] data) {
+    public record PacketData(String channel, int packetId, byte[] data) {
     }
 }
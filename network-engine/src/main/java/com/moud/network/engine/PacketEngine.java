@@ -23,7 +23,8 @@ public class PacketEngine {
 
     public void initialize(String basePackage) {
         registry.scan(basePackage);
-        LOGGER.info("Packet engine initialized and scanned package '{}'", basePackage);
+        int compiled = serializer.compile(registry.getAllMetadata());
+        LOGGER.info("Packet engine initialized and scanned package '{}' ({} codecs compiled)", basePackage, compiled);
     }
 
 
@@ -36,6 +37,19 @@ public class PacketEngine {
         return metadata != null ? metadata.packetId() : null;
     }
 
+    public String getPacketId(int numericId) {
+        PacketMetadata metadata = registry.getByNumericId(numericId);
+        return metadata != null ? metadata.packetId() : null;
+    }
+
+    public int getNumericPacketId(Class<?> packetClass) {
+        return registry.getNumericId(packetClass);
+    }
+
+    public long getSchemaHash() {
+        return registry.getSchemaHash();
+    }
+
     public Class<?> getPacketClass(String packetId) {
         PacketMetadata metadata = registry.getById(packetId);
         return metadata != null ? metadata.packetClass() : null;
@@ -2,7 +2,26 @@ package com.moud.network.protocol;
 
 public final class MoudProtocol {
 
-    public static final int PROTOCOL_VERSION = 3;
+    public static final int PROTOCOL_VERSION = 9;
+
+    /**
+     * Plugin channel carrying packets framed with a string packet id (always understood).
+     */
+    public static final String WRAPPER_CHANNEL = "moud:wrapper";
+
+    /**
+     * Plugin channel carrying packets framed with a varint packet id, used once both sides agreed on
+     * the packet schema hash during the handshake.
+     */
+    public static final String COMPACT_CHANNEL = "moud:id";
+
+    /**
+     * Allows negotiating compact numeric packet ids.
+     * <p>
+     * Disable via {@code -Dmoud.network.compactPacketIds=false}
+     */
+    public static final boolean COMPACT_PACKET_IDS =
+            !"false".equalsIgnoreCase(System.getProperty("moud.network.compactPacketIds", "true"));
 
     private MoudProtocol() {
     }
@@ -7,6 +7,11 @@ import org.reflections.Reflections;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -15,6 +20,9 @@ public class PacketRegistry {
 
     private final ConcurrentHashMap<String, PacketMetadata> packetById = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<Class<?>, PacketMetadata> packetByClass = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Class<?>, Integer> numericIdByClass = new ConcurrentHashMap<>();
+    private volatile PacketMetadata[] packetByNumericId = new PacketMetadata[0];
+    private volatile long schemaHash;
 
     public void scan(String basePackage) {
         Reflections reflections = new Reflections(basePackage);
@@ -24,7 +32,85 @@ public class PacketRegistry {
             register(clazz);
         }
 
-        LOGGER.info("Registered {} packets from package '{}'", packetClasses.size(), basePackage);
+        assignNumericIds();
+        LOGGER.info("Registered {} packets from package '{}' (schema {})",
+                packetClasses.size(), basePackage, Long.toHexString(schemaHash));
+    }
+
+    /**
+     * Numbers packets by sorted packet id and hashes their wire layout. Both sides derive the same
+     * table from the same build, so only the hash has to be exchanged during the handshake.
+     */
+    private synchronized void assignNumericIds() {
+        List<PacketMetadata> sorted = new ArrayList<>(packetById.values());
+        sorted.sort(Comparator.comparing(PacketMetadata::packetId));
+
+        PacketMetadata[] byNumericId = sorted.toArray(new PacketMetadata[0]);
+        StringBuilder schema = new StringBuilder();
+        for (int i = 0; i < byNumericId.length; i++) {
+            PacketMetadata metadata = byNumericId[i];
+            numericIdByClass.put(metadata.packetClass(), i);
+            schema.append(metadata.packetId()).append('{');
+            for (PacketMetadata.FieldMetadata field : metadata.fields()) {
+                schema.append(field.getField().getName()).append(field.isOptional() ? "?:" : ":");
+                describeType(field.getGenericType(), schema, new HashSet<>());
+                schema.append(';');
+            }
+            schema.append('}');
+        }
+        packetByNumericId = byNumericId;
+        schemaHash = fnv1a64(schema.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void describeType(Type type, StringBuilder out, Set<Class<?>> visiting) {
+        if (type instanceof ParameterizedType parameterized) {
+            describeType(parameterized.getRawType(), out, visiting);
+            out.append('<');
+            for (Type argument : parameterized.getActualTypeArguments()) {
+                describeType(argument, out, visiting);
+                out.append(',');
+            }
+            out.append('>');
+            return;
+        }
+        if (type instanceof GenericArrayType array) {
+            describeType(array.getGenericComponentType(), out, visiting);
+            out.append("[]");
+            return;
+        }
+        if (!(type instanceof Class<?> clazz)) {
+            out.append(type.getTypeName());
+            return;
+        }
+        out.append(clazz.getName());
+        if (!visiting.add(clazz)) {
+            return;
+        }
+        if (clazz.isRecord()) {
+            out.append('(');
+            for (RecordComponent component : clazz.getRecordComponents()) {
+                out.append(component.getName()).append(':');
+                describeType(component.getGenericType(), out, visiting);
+                out.append(';');
+            }
+            out.append(')');
+        } else if (clazz.isEnum()) {
+            out.append('(');
+            for (Object constant : clazz.getEnumConstants()) {
+                out.append(((Enum<?>) constant).name()).append(',');
+            }
+            out.append(')');
+        }
+        visiting.remove(clazz);
+    }
+
+    private static long fnv1a64(byte[] data) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : data) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
     }
 
     private void register(Class<?> clazz) {
@@ -102,6 +188,27 @@ public class PacketRegistry {
         return metadata != null ? metadata.packetClass() : null;
     }
 
+    public PacketMetadata getByNumericId(int numericId) {
+        PacketMetadata[] table = packetByNumericId;
+        return numericId >= 0 && numericId < table.length ? table[numericId] : null;
+    }
+
+    /**
+     * @return the compact id assigned to {@code clazz}, or {@code -1} if it is not registered
+     */
+    public int getNumericId(Class<?> clazz) {
+        Integer id = numericIdByClass.get(clazz);
+        return id != null ? id : -1;
+    }
+
+    public int getNumericIdCount() {
+        return packetByNumericId.length;
+    }
+
+    public long getSchemaHash() {
+        return schemaHash;
+    }
+
     public Collection<PacketMetadata> getAllMetadata() {
         return packetById.values();
     }
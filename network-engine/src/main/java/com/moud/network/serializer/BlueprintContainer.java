@@ -0,0 +1,524 @@
+package com.moud.network.serializer;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Binary container for editor blueprints, read and written as a stream so neither side ever materializes the
+ * whole document.
+ * <p>
+ * Layout, in order (big endian; varints are unsigned LEB128; strings are a varint byte length and UTF-8):
+ * <ul>
+ *     <li>header: {@code int} magic {@code "MBP1"}, {@code uint8} version, optional name, origin and size as
+ *     float triples</li>
+ *     <li>object table, then marker table: varint count, one JSON document string per entry</li>
+ *     <li>blocks: {@code uint8} present flag, varint {@code sizeX/sizeY/sizeZ}, varint palette count and
+ *     palette strings, then 16x16x16 voxel sections and a {@code 0} terminator, then the block entity table</li>
+ *     <li>{@code uint8} end marker</li>
+ * </ul>
+ * Sections that hold only palette index 0 are omitted. Every other section starts with its encoding byte and
+ * varint section coordinates, then holds either varint {@code (index, length)} runs or, when that is larger,
+ * one fixed-width index per voxel (1 byte, or 2 when the palette exceeds 256 entries). Voxels inside a section
+ * follow the grid's own y, z, x order and sections are clipped to the grid bounds.
+ * <p>
+ * Decoded voxels use the editor's flat layout: index {@code (y * sizeZ + z) * sizeX + x}, one byte per voxel
+ * or two little-endian bytes when {@link Blocks#shortIndices()} is set.
+ */
+public final class BlueprintContainer {
+    public static final int MAGIC = 0x4D425031;
+    public static final int VERSION = 1;
+    public static final int SECTION_SIZE = 16;
+    /**
+     * Largest block volume a container may hold, written or read. Sized for memory: decoded voxels take one or
+     * two bytes per block, so the default of 256x256x256 blocks stays under 32 MiB.
+     * <p>
+     * Raise via {@code -Dmoud.blueprint.maxBlocks}.
+     */
+    public static final long MAX_BLOCKS = Long.getLong("moud.blueprint.maxBlocks", 256L * 256 * 256);
+
+    private static final int SECTION_VOLUME = SECTION_SIZE * SECTION_SIZE * SECTION_SIZE;
+    private static final int SECTION_END = 0;
+    private static final int SECTION_RUNS = 1;
+    private static final int SECTION_DIRECT = 2;
+    private static final int END_MARKER = 0xE0;
+    private static final int MAX_PALETTE = 1 << 16;
+    private static final int MAX_STRING_BYTES = 16 * 1024 * 1024;
+    private static final long MAX_VOXEL_BYTES = Integer.MAX_VALUE - 8;
+
+    private BlueprintContainer() {
+    }
+
+    public record Header(String name, float[] origin, float[] size) {
+    }
+
+    public record BlockEntity(int x, int y, int z, String nbt) {
+    }
+
+    public record Blocks(int sizeX, int sizeY, int sizeZ, List<String> palette, byte[] voxels,
+                         boolean shortIndices, List<BlockEntity> blockEntities) {
+    }
+
+    /**
+     * @return whether {@code data} starts with the container magic
+     */
+    public static boolean isContainer(byte[] data, int length) {
+        return length >= 4 && ((data[0] & 0xFF) << 24 | (data[1] & 0xFF) << 16 | (data[2] & 0xFF) << 8
+                | data[3] & 0xFF) == MAGIC;
+    }
+
+    /**
+     * @return whether voxels of a palette this large need two bytes each
+     */
+    public static boolean needsShortIndices(int paletteSize) {
+        return paletteSize > 256;
+    }
+
+    /**
+     * @return the block volume of a grid this size
+     * @throws IOException if it exceeds {@link #MAX_BLOCKS}
+     */
+    public static long checkVolume(int sizeX, int sizeY, int sizeZ) throws IOException {
+        long volume = (long) sizeX * sizeY * sizeZ;
+        if (volume > MAX_BLOCKS) {
+            throw new IOException("Blueprint volume too large: " + sizeX + "x" + sizeY + "x" + sizeZ
+                    + " exceeds " + MAX_BLOCKS + " blocks");
+        }
+        return volume;
+    }
+
+    /**
+     * Writes one container. Sections must be called in order: {@link #header}, {@link #objects},
+     * {@link #markers}, {@link #blocks} and then {@link #finish}.
+     */
+    public static final class Writer {
+        private final DataOutputStream out;
+        private final int[] section = new int[SECTION_VOLUME];
+        private final int[] runValues = new int[SECTION_VOLUME];
+        private final int[] runLengths = new int[SECTION_VOLUME];
+        private int stage;
+
+        public Writer(OutputStream out) {
+            this.out = new DataOutputStream(out);
+        }
+
+        public Writer header(String name, float[] origin, float[] size) throws IOException {
+            advance(0);
+            out.writeInt(MAGIC);
+            out.writeByte(VERSION);
+            out.writeBoolean(name != null);
+            if (name != null) {
+                writeString(out, name);
+            }
+            writeVec3(origin);
+            writeVec3(size);
+            return this;
+        }
+
+        public Writer objects(List<String> objectsJson) throws IOException {
+            advance(1);
+            writeTable(objectsJson);
+            return this;
+        }
+
+        public Writer markers(List<String> markersJson) throws IOException {
+            advance(2);
+            writeTable(markersJson);
+            return this;
+        }
+
+        /**
+         * @param blocks the block volume, or {@code null} if the blueprint has none
+         */
+        public Writer blocks(Blocks blocks) throws IOException {
+            advance(3);
+            if (blocks == null || blocks.sizeX() <= 0 || blocks.sizeY() <= 0 || blocks.sizeZ() <= 0
+                    || blocks.palette() == null || blocks.palette().isEmpty()) {
+                out.writeBoolean(false);
+                return this;
+            }
+            if (blocks.palette().size() > MAX_PALETTE) {
+                throw new IllegalArgumentException("Blueprint palette exceeds " + MAX_PALETTE + " entries");
+            }
+            checkVolume(blocks.sizeX(), blocks.sizeY(), blocks.sizeZ());
+            out.writeBoolean(true);
+            writeVarInt(out, blocks.sizeX());
+            writeVarInt(out, blocks.sizeY());
+            writeVarInt(out, blocks.sizeZ());
+            writeVarInt(out, blocks.palette().size());
+            for (String state : blocks.palette()) {
+                writeString(out, state != null ? state : "minecraft:air");
+            }
+            writeSections(blocks);
+
+            List<BlockEntity> entities = blocks.blockEntities() != null ? blocks.blockEntities() : List.of();
+            writeVarInt(out, entities.size());
+            for (BlockEntity entity : entities) {
+                writeVarInt(out, entity.x());
+                writeVarInt(out, entity.y());
+                writeVarInt(out, entity.z());
+                writeString(out, entity.nbt() != null ? entity.nbt() : "");
+            }
+            return this;
+        }
+
+        public void finish() throws IOException {
+            advance(4);
+            out.writeByte(END_MARKER);
+            out.flush();
+        }
+
+        private void writeSections(Blocks blocks) throws IOException {
+            int sizeX = blocks.sizeX();
+            int sizeY = blocks.sizeY();
+            int sizeZ = blocks.sizeZ();
+            byte[] voxels = blocks.voxels() != null ? blocks.voxels() : new byte[0];
+            boolean shortIndices = blocks.shortIndices();
+            int width = needsShortIndices(blocks.palette().size()) ? 2 : 1;
+            int maxIndex = blocks.palette().size() - 1;
+
+            for (int sy = 0; sy * SECTION_SIZE < sizeY; sy++) {
+                for (int sz = 0; sz * SECTION_SIZE < sizeZ; sz++) {
+                    for (int sx = 0; sx * SECTION_SIZE < sizeX; sx++) {
+                        int x0 = sx * SECTION_SIZE;
+                        int y0 = sy * SECTION_SIZE;
+                        int z0 = sz * SECTION_SIZE;
+                        int x1 = Math.min(sizeX, x0 + SECTION_SIZE);
+                        int y1 = Math.min(sizeY, y0 + SECTION_SIZE);
+                        int z1 = Math.min(sizeZ, z0 + SECTION_SIZE);
+
+                        int count = 0;
+                        boolean empty = true;
+                        for (int y = y0; y < y1; y++) {
+                            for (int z = z0; z < z1; z++) {
+                                int row = (y * sizeZ + z) * sizeX;
+                                for (int x = x0; x < x1; x++) {
+                                    int index = readIndex(voxels, shortIndices, row + x);
+                                    if (index > maxIndex) {
+                                        index = 0;
+                                    }
+                                    empty &= index == 0;
+                                    section[count++] = index;
+                                }
+                            }
+                        }
+                        if (!empty) {
+                            writeSection(sx, sy, sz, count, width);
+                        }
+                    }
+                }
+            }
+            out.writeByte(SECTION_END);
+        }
+
+        private void writeSection(int sx, int sy, int sz, int count, int width) throws IOException {
+            int runs = 0;
+            int runBytes = 0;
+            for (int i = 0; i < count; ) {
+                int value = section[i];
+                int end = i + 1;
+                while (end < count && section[end] == value) {
+                    end++;
+                }
+                runValues[runs] = value;
+                runLengths[runs] = end - i;
+                runBytes += varIntSize(value) + varIntSize(end - i);
+                runs++;
+                i = end;
+            }
+            runBytes += varIntSize(runs);
+
+            boolean direct = runBytes > count * width;
+            out.writeByte(direct ? SECTION_DIRECT : SECTION_RUNS);
+            writeVarInt(out, sx);
+            writeVarInt(out, sy);
+            writeVarInt(out, sz);
+            if (direct) {
+                for (int i = 0; i < count; i++) {
+                    if (width == 2) {
+                        out.writeShort(section[i]);
+                    } else {
+                        out.writeByte(section[i]);
+                    }
+                }
+                return;
+            }
+            writeVarInt(out, runs);
+            for (int i = 0; i < runs; i++) {
+                writeVarInt(out, runValues[i]);
+                writeVarInt(out, runLengths[i]);
+            }
+        }
+
+        private void writeTable(List<String> entries) throws IOException {
+            List<String> list = entries != null ? entries : List.of();
+            writeVarInt(out, list.size());
+            for (String entry : list) {
+                writeString(out, entry != null ? entry : "{}");
+            }
+        }
+
+        private void writeVec3(float[] vec) throws IOException {
+            for (int i = 0; i < 3; i++) {
+                out.writeFloat(vec != null && vec.length > i ? vec[i] : 0.0f);
+            }
+        }
+
+        private void advance(int expected) {
+            if (stage != expected) {
+                throw new IllegalStateException("Blueprint container sections written out of order");
+            }
+            stage++;
+        }
+    }
+
+    /**
+     * Reads one container in the order it was written: {@link #header}, {@link #objects}, {@link #markers},
+     * {@link #blocks} and then {@link #finish}. Malformed input fails with an {@link IOException}.
+     */
+    public static final class Reader {
+        private final DataInputStream in;
+        private final int[] section = new int[SECTION_VOLUME];
+        private int stage;
+
+        public Reader(InputStream in) {
+            this.in = new DataInputStream(in);
+        }
+
+        public Header header() throws IOException {
+            advance(0);
+            int magic = in.readInt();
+            if (magic != MAGIC) {
+                throw new IOException("Not a blueprint container");
+            }
+            int version = in.readUnsignedByte();
+            if (version != VERSION) {
+                throw new IOException("Unsupported blueprint container version " + version);
+            }
+            String name = in.readBoolean() ? readString(in) : null;
+            return new Header(name, readVec3(), readVec3());
+        }
+
+        public List<String> objects() throws IOException {
+            advance(1);
+            return readTable();
+        }
+
+        public List<String> markers() throws IOException {
+            advance(2);
+            return readTable();
+        }
+
+        /**
+         * @return the block volume, or {@code null} if the blueprint has none
+         */
+        public Blocks blocks() throws IOException {
+            return readBlocks(true);
+        }
+
+        /**
+         * Checks the block volume as {@link #blocks} would, one section at a time, without building the voxel
+         * grid. Used to vet uploads.
+         */
+        public void skipBlocks() throws IOException {
+            readBlocks(false);
+        }
+
+        private Blocks readBlocks(boolean materialize) throws IOException {
+            advance(3);
+            if (!in.readBoolean()) {
+                return null;
+            }
+            int sizeX = readVarInt(in);
+            int sizeY = readVarInt(in);
+            int sizeZ = readVarInt(in);
+            int paletteSize = readVarInt(in);
+            if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0 || paletteSize <= 0 || paletteSize > MAX_PALETTE) {
+                throw new IOException("Invalid blueprint block header");
+            }
+            boolean shortIndices = needsShortIndices(paletteSize);
+            int width = shortIndices ? 2 : 1;
+            long voxelBytes = checkVolume(sizeX, sizeY, sizeZ) * width;
+            if (voxelBytes > MAX_VOXEL_BYTES) {
+                throw new IOException("Blueprint volume too large: " + sizeX + "x" + sizeY + "x" + sizeZ);
+            }
+            List<String> palette = new ArrayList<>(paletteSize);
+            for (int i = 0; i < paletteSize; i++) {
+                palette.add(readString(in));
+            }
+
+            byte[] voxels = materialize ? new byte[(int) voxelBytes] : null;
+            int sectionsX = (sizeX + SECTION_SIZE - 1) / SECTION_SIZE;
+            int sectionsY = (sizeY + SECTION_SIZE - 1) / SECTION_SIZE;
+            int sectionsZ = (sizeZ + SECTION_SIZE - 1) / SECTION_SIZE;
+            int encoding;
+            while ((encoding = in.readUnsignedByte()) != SECTION_END) {
+                int sx = readVarInt(in);
+                int sy = readVarInt(in);
+                int sz = readVarInt(in);
+                if (sx >= sectionsX || sy >= sectionsY || sz >= sectionsZ) {
+                    throw new IOException("Blueprint section out of bounds");
+                }
+                int x0 = sx * SECTION_SIZE;
+                int y0 = sy * SECTION_SIZE;
+                int z0 = sz * SECTION_SIZE;
+                int x1 = Math.min(sizeX, x0 + SECTION_SIZE);
+                int y1 = Math.min(sizeY, y0 + SECTION_SIZE);
+                int z1 = Math.min(sizeZ, z0 + SECTION_SIZE);
+                int count = (x1 - x0) * (y1 - y0) * (z1 - z0);
+                readSection(encoding, count, width, paletteSize);
+                if (voxels == null) {
+                    continue;
+                }
+
+                int i = 0;
+                for (int y = y0; y < y1; y++) {
+                    for (int z = z0; z < z1; z++) {
+                        int row = (y * sizeZ + z) * sizeX;
+                        for (int x = x0; x < x1; x++) {
+                            int value = section[i++];
+                            int voxel = row + x;
+                            if (shortIndices) {
+                                voxels[voxel * 2] = (byte) value;
+                                voxels[voxel * 2 + 1] = (byte) (value >> 8);
+                            } else {
+                                voxels[voxel] = (byte) value;
+                            }
+                        }
+                    }
+                }
+            }
+
+            int entityCount = readVarInt(in);
+            List<BlockEntity> entities = new ArrayList<>(Math.min(entityCount, 1024));
+            for (int i = 0; i < entityCount; i++) {
+                entities.add(new BlockEntity(readVarInt(in), readVarInt(in), readVarInt(in), readString(in)));
+            }
+            return new Blocks(sizeX, sizeY, sizeZ, palette, voxels, shortIndices, entities);
+        }
+
+        public void finish() throws IOException {
+            advance(4);
+            if (in.readUnsignedByte() != END_MARKER) {
+                throw new IOException("Blueprint container is missing its end marker");
+            }
+        }
+
+        private void readSection(int encoding, int count, int width, int paletteSize) throws IOException {
+            if (encoding == SECTION_DIRECT) {
+                for (int i = 0; i < count; i++) {
+                    int value = width == 2 ? in.readUnsignedShort() : in.readUnsignedByte();
+                    section[i] = checkIndex(value, paletteSize);
+                }
+                return;
+            }
+            if (encoding != SECTION_RUNS) {
+                throw new IOException("Unknown blueprint section encoding " + encoding);
+            }
+            int runs = readVarInt(in);
+            int filled = 0;
+            for (int r = 0; r < runs; r++) {
+                int value = checkIndex(readVarInt(in), paletteSize);
+                int length = readVarInt(in);
+                if (length <= 0 || length > count - filled) {
+                    throw new IOException("Blueprint section run overflows its section");
+                }
+                Arrays.fill(section, filled, filled + length, value);
+                filled += length;
+            }
+            if (filled != count) {
+                throw new IOException("Blueprint section has " + filled + " of " + count + " voxels");
+            }
+        }
+
+        private List<String> readTable() throws IOException {
+            int count = readVarInt(in);
+            List<String> entries = new ArrayList<>(Math.min(count, 1024));
+            for (int i = 0; i < count; i++) {
+                entries.add(readString(in));
+            }
+            return entries;
+        }
+
+        private float[] readVec3() throws IOException {
+            return new float[]{in.readFloat(), in.readFloat(), in.readFloat()};
+        }
+
+        private void advance(int expected) {
+            if (stage != expected) {
+                throw new IllegalStateException("Blueprint container sections read out of order");
+            }
+            stage++;
+        }
+    }
+
+    private static int checkIndex(int value, int paletteSize) throws IOException {
+        if (value >= paletteSize) {
+            throw new IOException("Blueprint palette index " + value + " out of range");
+        }
+        return value;
+    }
+
+    private static int readIndex(byte[] voxels, boolean shortIndices, int index) {
+        if (shortIndices) {
+            int offset = index * 2;
+            if (offset + 1 >= voxels.length) return 0;
+            return (voxels[offset] & 0xFF) | ((voxels[offset + 1] & 0xFF) << 8);
+        }
+        if (index >= voxels.length) return 0;
+        return voxels[index] & 0xFF;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarInt(out, bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = readVarInt(in);
+        if (length > MAX_STRING_BYTES) {
+            throw new IOException("Blueprint string too long: " + length + " bytes");
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeVarInt(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    private static int readVarInt(DataInputStream in) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 35; shift += 7) {
+            int b = in.read();
+            if (b < 0) {
+                throw new EOFException("Truncated blueprint container");
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                if (value < 0) {
+                    throw new IOException("Negative varint in blueprint container");
+                }
+                return value;
+            }
+        }
+        throw new IOException("Varint too long in blueprint container");
+    }
+
+    private static int varIntSize(int value) {
+        return value < 0 ? 5 : (31 - Integer.numberOfLeadingZeros(value | 1)) / 7 + 1;
+    }
+}
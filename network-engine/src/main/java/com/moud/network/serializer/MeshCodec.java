@@ -0,0 +1,348 @@
+package com.moud.network.serializer;
+
+import com.moud.network.limits.NetworkLimits;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Wire encoding for collision meshes (chunk and model collision payloads).
+ * <p>
+ * Vertices are welded and quantized to 1/4096 of a block relative to the mesh bounds, then written as
+ * zigzag varint deltas against the previous vertex. Indices are remapped to the welded vertices,
+ * degenerate triangles are dropped, and the rest is written as zigzag varint deltas. Both blobs are then
+ * run through raw deflate at {@code moud.network.meshCodec.level} (default: fastest), which costs far
+ * less than GZIP over raw floats since the input is already a fraction of the size.
+ * <p>
+ * Blob layout: format byte, varint uncompressed length, deflate stream.
+ */
+public final class MeshCodec {
+    public static final int FORMAT = 1;
+
+    private static final int LEVEL = Math.max(Deflater.BEST_SPEED,
+            Math.min(Deflater.BEST_COMPRESSION, Integer.getInteger("moud.network.meshCodec.level", Deflater.BEST_SPEED)));
+    private static final double POSITION_SCALE = 4096.0;
+    private static final double MAX_QUANTIZED = (double) (1 << 30);
+    private static final int MAX_ELEMENTS = NetworkLimits.MAX_PACKET_BYTES;
+
+    private static final ThreadLocal<Deflater> DEFLATER = ThreadLocal.withInitial(() -> new Deflater(LEVEL, true));
+    private static final ThreadLocal<Inflater> INFLATER = ThreadLocal.withInitial(() -> new Inflater(true));
+
+    private MeshCodec() {
+    }
+
+    public record EncodedMesh(byte[] vertices, byte[] indices) {
+    }
+
+    public record DecodedMesh(float[] vertices, int[] indices) {
+    }
+
+    /**
+     * Encodes a triangle mesh given as xyz vertex triples and triangle indices.
+     *
+     * @return the encoded blobs, or {@code null} if nothing but degenerate triangles remain
+     */
+    public static EncodedMesh encode(float[] vertices, int[] indices) {
+        if (vertices == null || indices == null || vertices.length % 3 != 0 || indices.length % 3 != 0) {
+            throw new IllegalArgumentException("Mesh needs xyz vertex triples and triangle indices");
+        }
+        int vertexCount = vertices.length / 3;
+        if (vertexCount == 0 || indices.length == 0) {
+            return null;
+        }
+
+        float minX = Float.POSITIVE_INFINITY, minY = Float.POSITIVE_INFINITY, minZ = Float.POSITIVE_INFINITY;
+        float maxX = Float.NEGATIVE_INFINITY, maxY = Float.NEGATIVE_INFINITY, maxZ = Float.NEGATIVE_INFINITY;
+        for (int i = 0; i < vertices.length; i += 3) {
+            float x = vertices[i], y = vertices[i + 1], z = vertices[i + 2];
+            if (!Float.isFinite(x) || !Float.isFinite(y) || !Float.isFinite(z)) {
+                throw new IllegalArgumentException("Mesh vertex " + i / 3 + " is not finite");
+            }
+            minX = Math.min(minX, x);
+            minY = Math.min(minY, y);
+            minZ = Math.min(minZ, z);
+            maxX = Math.max(maxX, x);
+            maxY = Math.max(maxY, y);
+            maxZ = Math.max(maxZ, z);
+        }
+        double extent = Math.max(maxX - minX, Math.max(maxY - minY, maxZ - minZ));
+        double scale = Math.min(POSITION_SCALE, MAX_QUANTIZED / Math.max(extent, 1.0e-9));
+
+        // Weld on quantized coordinates so coincident corners of neighbouring faces share one vertex.
+        int[] quantized = new int[vertices.length];
+        int[] remap = new int[vertexCount];
+        int[] table = new int[tableSize(vertexCount)];
+        Arrays.fill(table, -1);
+        int mask = table.length - 1;
+        int welded = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            int qx = (int) Math.round((vertices[v * 3] - minX) * scale);
+            int qy = (int) Math.round((vertices[v * 3 + 1] - minY) * scale);
+            int qz = (int) Math.round((vertices[v * 3 + 2] - minZ) * scale);
+            int slot = hash(qx, qy, qz) & mask;
+            while (true) {
+                int candidate = table[slot];
+                if (candidate < 0) {
+                    table[slot] = welded;
+                    quantized[welded * 3] = qx;
+                    quantized[welded * 3 + 1] = qy;
+                    quantized[welded * 3 + 2] = qz;
+                    remap[v] = welded++;
+                    break;
+                }
+                if (quantized[candidate * 3] == qx && quantized[candidate * 3 + 1] == qy
+                        && quantized[candidate * 3 + 2] == qz) {
+                    remap[v] = candidate;
+                    break;
+                }
+                slot = (slot + 1) & mask;
+            }
+        }
+
+        Buffer indexData = new Buffer(indices.length + 8);
+        int[] triangles = new int[indices.length];
+        int triangleValues = 0;
+        for (int i = 0; i < indices.length; i += 3) {
+            int a = remapIndex(remap, indices[i]);
+            int b = remapIndex(remap, indices[i + 1]);
+            int c = remapIndex(remap, indices[i + 2]);
+            if (a == b || b == c || a == c) {
+                continue;
+            }
+            triangles[triangleValues++] = a;
+            triangles[triangleValues++] = b;
+            triangles[triangleValues++] = c;
+        }
+        if (triangleValues == 0) {
+            return null;
+        }
+        indexData.writeVarInt(triangleValues);
+        int previous = 0;
+        for (int i = 0; i < triangleValues; i++) {
+            indexData.writeZigZag(triangles[i] - previous);
+            previous = triangles[i];
+        }
+
+        Buffer vertexData = new Buffer(welded * 4 + 32);
+        vertexData.writeVarInt(welded);
+        vertexData.writeFloat(minX);
+        vertexData.writeFloat(minY);
+        vertexData.writeFloat(minZ);
+        vertexData.writeFloat((float) (1.0 / scale));
+        int px = 0, py = 0, pz = 0;
+        for (int v = 0; v < welded; v++) {
+            int qx = quantized[v * 3], qy = quantized[v * 3 + 1], qz = quantized[v * 3 + 2];
+            vertexData.writeZigZag(qx - px);
+            vertexData.writeZigZag(qy - py);
+            vertexData.writeZigZag(qz - pz);
+            px = qx;
+            py = qy;
+            pz = qz;
+        }
+
+        return new EncodedMesh(deflate(vertexData), deflate(indexData));
+    }
+
+    /**
+     * Decodes blobs produced by {@link #encode(float[], int[])}.
+     *
+     * @throws IllegalArgumentException if either blob is malformed or exceeds the network limits
+     */
+    public static DecodedMesh decode(byte[] vertexBlob, byte[] indexBlob) {
+        Reader vertexData = new Reader(inflate(vertexBlob));
+        int vertexCount = vertexData.readCount(3);
+        float minX = vertexData.readFloat();
+        float minY = vertexData.readFloat();
+        float minZ = vertexData.readFloat();
+        float step = vertexData.readFloat();
+        if (!Float.isFinite(minX) || !Float.isFinite(minY) || !Float.isFinite(minZ) || !(step > 0.0f)) {
+            throw new IllegalArgumentException("Invalid mesh bounds");
+        }
+        float[] vertices = new float[Math.multiplyExact(vertexCount, 3)];
+        int qx = 0, qy = 0, qz = 0;
+        for (int v = 0; v < vertexCount; v++) {
+            qx += vertexData.readZigZag();
+            qy += vertexData.readZigZag();
+            qz += vertexData.readZigZag();
+            vertices[v * 3] = (float) (minX + (double) qx * step);
+            vertices[v * 3 + 1] = (float) (minY + (double) qy * step);
+            vertices[v * 3 + 2] = (float) (minZ + (double) qz * step);
+        }
+
+        Reader indexData = new Reader(inflate(indexBlob));
+        int indexCount = indexData.readCount(1);
+        if (indexCount % 3 != 0) {
+            throw new IllegalArgumentException("Mesh index count is not a multiple of 3: " + indexCount);
+        }
+        int[] indices = new int[indexCount];
+        int index = 0;
+        for (int i = 0; i < indexCount; i++) {
+            index += indexData.readZigZag();
+            if (index < 0 || index >= vertexCount) {
+                throw new IllegalArgumentException("Mesh index out of range: " + index);
+            }
+            indices[i] = index;
+        }
+        return new DecodedMesh(vertices, indices);
+    }
+
+    private static int remapIndex(int[] remap, int index) {
+        if (index < 0 || index >= remap.length) {
+            throw new IllegalArgumentException("Mesh index out of range: " + index);
+        }
+        return remap[index];
+    }
+
+    private static int tableSize(int entries) {
+        return Integer.highestOneBit(Math.max(16, entries * 2 - 1)) << 1;
+    }
+
+    private static int hash(int x, int y, int z) {
+        int h = x * 0x9E3779B1 ^ y * 0x85EBCA77 ^ z * 0xC2B2AE3D;
+        return h ^ (h >>> 15);
+    }
+
+    private static byte[] deflate(Buffer raw) {
+        Deflater deflater = DEFLATER.get();
+        deflater.reset();
+        deflater.setInput(raw.data, 0, raw.size);
+        deflater.finish();
+        Buffer out = new Buffer(raw.size / 2 + 16);
+        out.writeByte(FORMAT);
+        out.writeVarInt(raw.size);
+        while (!deflater.finished()) {
+            out.ensure(Math.max(64, raw.size / 4));
+            out.size += deflater.deflate(out.data, out.size, out.data.length - out.size);
+        }
+        return Arrays.copyOf(out.data, out.size);
+    }
+
+    private static byte[] inflate(byte[] blob) {
+        if (blob == null || blob.length == 0) {
+            throw new IllegalArgumentException("Missing mesh data");
+        }
+        Reader header = new Reader(blob);
+        int format = header.readByte();
+        if (format != FORMAT) {
+            throw new IllegalArgumentException("Unsupported mesh format " + format);
+        }
+        int length = header.readVarInt();
+        if (length < 0 || length > NetworkLimits.MAX_PACKET_BYTES * 4) {
+            throw new IllegalArgumentException("Mesh data length out of range: " + length);
+        }
+        byte[] raw = new byte[length];
+        Inflater inflater = INFLATER.get();
+        inflater.reset();
+        inflater.setInput(blob, header.position, blob.length - header.position);
+        try {
+            int inflated = 0;
+            while (inflated < length) {
+                int n = inflater.inflate(raw, inflated, length - inflated);
+                if (n == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                inflated += n;
+            }
+            if (inflated != length) {
+                throw new IllegalArgumentException("Truncated mesh data: " + inflated + " of " + length + " bytes");
+            }
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Corrupt mesh data", e);
+        }
+        return raw;
+    }
+
+    private static final class Buffer {
+        private byte[] data;
+        private int size;
+
+        Buffer(int initialCapacity) {
+            this.data = new byte[Math.max(16, initialCapacity)];
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            data[size++] = (byte) value;
+        }
+
+        void writeFloat(float value) {
+            int bits = Float.floatToIntBits(value);
+            ensure(4);
+            data[size++] = (byte) (bits >>> 24);
+            data[size++] = (byte) (bits >>> 16);
+            data[size++] = (byte) (bits >>> 8);
+            data[size++] = (byte) bits;
+        }
+
+        void writeZigZag(int value) {
+            writeVarInt((value << 1) ^ (value >> 31));
+        }
+
+        void writeVarInt(int value) {
+            ensure(5);
+            while ((value & ~0x7F) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        void ensure(int bytes) {
+            if (size + bytes > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Truncated mesh data at " + position);
+            }
+            return data[position++] & 0xFF;
+        }
+
+        float readFloat() {
+            int bits = readByte() << 24 | readByte() << 16 | readByte() << 8 | readByte();
+            return Float.intBitsToFloat(bits);
+        }
+
+        /**
+         * Reads an element count, rejecting counts the remaining bytes cannot hold (every element takes at
+         * least one byte per component) before anything is allocated for them.
+         */
+        int readCount(int components) {
+            int count = readVarInt();
+            if (count < 0 || count > MAX_ELEMENTS || (long) count * components > data.length - position) {
+                throw new IllegalArgumentException("Mesh element count out of range: " + count);
+            }
+            return count;
+        }
+
+        int readZigZag() {
+            int raw = readVarInt();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        int readVarInt() {
+            int value = 0;
+            for (int shift = 0; shift < 35; shift += 7) {
+                int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Mesh varint is too long");
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package com.moud.network.serializer;
+
+import com.moud.network.buffer.ByteBuffer;
+
+import java.lang.invoke.MethodHandle;
+import java.util.function.Function;
+
+/**
+ * Specialized writer/reader for a single packet type, produced by {@link PacketCodecCompiler}.
+ * <p>
+ * All type dispatch, accessor lookup and constructor resolution happens once at compile time, so
+ * encoding a packet is a straight walk over pre-resolved field codecs. The wire format is identical
+ * to the reflective path in {@link PacketSerializer}.
+ */
+public final class PacketCodec {
+    private final Class<?> packetClass;
+    private final String[] fieldNames;
+    private final Function<Object, Object>[] getters;
+    private final PacketCodecCompiler.ValueCodec[] codecs;
+    private final boolean[] optional;
+    private final MethodHandle constructor;
+
+    PacketCodec(Class<?> packetClass,
+                String[] fieldNames,
+                Function<Object, Object>[] getters,
+                PacketCodecCompiler.ValueCodec[] codecs,
+                boolean[] optional,
+                MethodHandle constructor) {
+        this.packetClass = packetClass;
+        this.fieldNames = fieldNames;
+        this.getters = getters;
+        this.codecs = codecs;
+        this.optional = optional;
+        this.constructor = constructor;
+    }
+
+    public Class<?> packetClass() {
+        return packetClass;
+    }
+
+    public void write(ByteBuffer buffer, Object packet) {
+        for (int i = 0; i < codecs.length; i++) {
+            Object value = getters[i].apply(packet);
+            if (optional[i]) {
+                buffer.writeBoolean(value != null);
+                if (value == null) {
+                    continue;
+                }
+            } else if (value == null) {
+                throw new IllegalArgumentException("Non-optional field " + fieldNames[i] + " is null");
+            }
+            codecs[i].write(buffer, value);
+        }
+    }
+
+    public Object read(ByteBuffer buffer) {
+        Object[] args = new Object[codecs.length];
+        for (int i = 0; i < codecs.length; i++) {
+            if (optional[i] && !buffer.readBoolean()) {
+                continue;
+            }
+            args[i] = codecs[i].read(buffer);
+        }
+        try {
+            return (Object) constructor.invokeExact(args);
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Throwable t) {
+            throw new RuntimeException("Failed to create instance of " + packetClass, t);
+        }
+    }
+}
@@ -0,0 +1,395 @@
+package com.moud.network.serializer;
+
+import com.moud.network.buffer.ByteBuffer;
+import com.moud.network.limits.NetworkLimits;
+import com.moud.network.metadata.PacketMetadata;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.RecordComponent;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Builds {@link PacketCodec}s from {@link PacketMetadata}.
+ * <p>
+ * Record accessors are bound through {@link LambdaMetafactory}, which spins a hidden class per
+ * accessor that the JIT can inline like a direct call. Constructors are bound as spreading
+ * {@link MethodHandle}s. Anything that cannot be bound that way falls back to a plain method handle.
+ */
+final class PacketCodecCompiler {
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    private final Map<Class<?>, PacketSerializer.TypeSerializer<?>> serializers;
+    private final Map<Type, ValueCodec> compiled = new HashMap<>();
+
+    PacketCodecCompiler(Map<Class<?>, PacketSerializer.TypeSerializer<?>> serializers) {
+        this.serializers = serializers;
+    }
+
+    @SuppressWarnings("unchecked")
+    PacketCodec compile(PacketMetadata metadata) {
+        List<PacketMetadata.FieldMetadata> fields = metadata.fields();
+        int count = fields.size();
+        String[] names = new String[count];
+        Function<Object, Object>[] getters = new Function[count];
+        ValueCodec[] codecs = new ValueCodec[count];
+        boolean[] optional = new boolean[count];
+
+        for (int i = 0; i < count; i++) {
+            PacketMetadata.FieldMetadata field = fields.get(i);
+            names[i] = field.getField().getName();
+            getters[i] = fieldGetter(metadata.packetClass(), field);
+            codecs[i] = codecFor(field.getType(), field.getGenericType());
+            optional[i] = field.isOptional();
+        }
+
+        MethodHandle constructor = packetConstructor(metadata.packetClass(), count);
+        return new PacketCodec(metadata.packetClass(), names, getters, codecs, optional, constructor);
+    }
+
+    private ValueCodec codecFor(Class<?> rawType, Type genericType) {
+        Type key = genericType != null ? genericType : rawType;
+        ValueCodec existing = compiled.get(key);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (rawType.isRecord() && !serializers.containsKey(rawType)) {
+            // Insert a forwarding codec first so self-referencing records do not recurse forever.
+            ForwardingCodec forward = new ForwardingCodec();
+            compiled.put(key, forward);
+            ValueCodec codec = recordCodec(rawType);
+            forward.target = codec;
+            compiled.put(key, codec);
+            return codec;
+        }
+
+        ValueCodec codec = createCodec(rawType, genericType);
+        compiled.put(key, codec);
+        return codec;
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueCodec createCodec(Class<?> rawType, Type genericType) {
+        if (rawType.isEnum()) {
+            return new EnumCodec(rawType);
+        }
+        if (Map.class.isAssignableFrom(rawType)) {
+            return MAP_CODEC;
+        }
+        if (List.class.isAssignableFrom(rawType)) {
+            if (!(genericType instanceof ParameterizedType parameterizedType)) {
+                return new UnsupportedCodec("Cannot serialize raw List without generic type information");
+            }
+            Type elementType = parameterizedType.getActualTypeArguments()[0];
+            return new ListCodec(codecFor(rawClass(elementType), elementType));
+        }
+        PacketSerializer.TypeSerializer<Object> serializer =
+                (PacketSerializer.TypeSerializer<Object>) serializers.get(rawType);
+        if (serializer != null) {
+            return new SerializerCodec(serializer);
+        }
+        return new UnsupportedCodec("No serializer for type: " + rawType);
+    }
+
+    @SuppressWarnings("unchecked")
+    private ValueCodec recordCodec(Class<?> recordType) {
+        RecordComponent[] components = recordType.getRecordComponents();
+        int count = components.length;
+        String[] names = new String[count];
+        Function<Object, Object>[] getters = new Function[count];
+        ValueCodec[] codecs = new ValueCodec[count];
+        Class<?>[] paramTypes = new Class<?>[count];
+
+        for (int i = 0; i < count; i++) {
+            RecordComponent component = components[i];
+            names[i] = component.getName();
+            getters[i] = accessorGetter(recordType, component.getAccessor());
+            codecs[i] = codecFor(rawClass(component.getGenericType()), component.getGenericType());
+            paramTypes[i] = component.getType();
+        }
+
+        MethodHandle constructor;
+        try {
+            constructor = spreadConstructor(recordType.getDeclaredConstructor(paramTypes));
+        } catch (ReflectiveOperationException e) {
+            constructor = packetConstructor(recordType, count);
+        }
+        return new RecordCodec(recordType, names, getters, codecs, constructor);
+    }
+
+    private Function<Object, Object> fieldGetter(Class<?> owner, PacketMetadata.FieldMetadata field) {
+        if (owner.isRecord()) {
+            try {
+                return accessorGetter(owner, owner.getMethod(field.getField().getName()));
+            } catch (NoSuchMethodException ignored) {
+                // Fall through to the field handle below.
+            }
+        }
+        try {
+            return handleGetter(LOOKUP.unreflectGetter(field.getField()));
+        } catch (IllegalAccessException e) {
+            return field::getValue;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Function<Object, Object> accessorGetter(Class<?> owner, Method accessor) {
+        try {
+            MethodHandle target = LOOKUP.unreflect(accessor);
+            Class<?> returnType = MethodType.methodType(accessor.getReturnType()).wrap().returnType();
+            CallSite site = LambdaMetafactory.metafactory(
+                    LOOKUP,
+                    "apply",
+                    MethodType.methodType(Function.class),
+                    MethodType.methodType(Object.class, Object.class),
+                    target,
+                    MethodType.methodType(returnType, owner)
+            );
+            return (Function<Object, Object>) site.getTarget().invokeExact();
+        } catch (Throwable t) {
+            try {
+                accessor.setAccessible(true);
+                return handleGetter(LOOKUP.unreflect(accessor));
+            } catch (IllegalAccessException | RuntimeException e) {
+                throw new IllegalStateException("Cannot access " + owner.getSimpleName() + "." + accessor.getName(), e);
+            }
+        }
+    }
+
+    private static Function<Object, Object> handleGetter(MethodHandle handle) {
+        MethodHandle generic = handle.asType(MethodType.methodType(Object.class, Object.class));
+        return instance -> {
+            try {
+                return (Object) generic.invokeExact(instance);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to read field", t);
+            }
+        };
+    }
+
+    private MethodHandle packetConstructor(Class<?> clazz, int parameterCount) {
+        for (Constructor<?> constructor : clazz.getConstructors()) {
+            if (constructor.getParameterCount() == parameterCount) {
+                return spreadConstructor(constructor);
+            }
+        }
+        throw new IllegalStateException("No suitable constructor found for " + clazz);
+    }
+
+    private MethodHandle spreadConstructor(Constructor<?> constructor) {
+        try {
+            constructor.setAccessible(true);
+            int count = constructor.getParameterCount();
+            return LOOKUP.unreflectConstructor(constructor)
+                    .asType(MethodType.genericMethodType(count))
+                    .asSpreader(Object[].class, count);
+        } catch (IllegalAccessException | RuntimeException e) {
+            throw new IllegalStateException("Cannot bind constructor of " + constructor.getDeclaringClass(), e);
+        }
+    }
+
+    private static Class<?> rawClass(Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+        if (type instanceof ParameterizedType parameterizedType
+                && parameterizedType.getRawType() instanceof Class<?> raw) {
+            return raw;
+        }
+        throw new UnsupportedOperationException("Unsupported type: " + type);
+    }
+
+    interface ValueCodec {
+        void write(ByteBuffer buffer, Object value);
+
+        Object read(ByteBuffer buffer);
+    }
+
+    private static final ValueCodec MAP_CODEC = new ValueCodec() {
+        @Override
+        @SuppressWarnings("unchecked")
+        public void write(ByteBuffer buffer, Object value) {
+            MapSerializerUtil.writeStringObjectMap(buffer, (Map<String, Object>) value);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return MapSerializerUtil.readStringObjectMap(buffer);
+        }
+    };
+
+    private static final class SerializerCodec implements ValueCodec {
+        private final PacketSerializer.TypeSerializer<Object> serializer;
+
+        private SerializerCodec(PacketSerializer.TypeSerializer<Object> serializer) {
+            this.serializer = serializer;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            serializer.write(buffer, value);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return serializer.read(buffer);
+        }
+    }
+
+    private static final class EnumCodec implements ValueCodec {
+        private final Class<?> enumType;
+        private final Object[] constants;
+
+        private EnumCodec(Class<?> enumType) {
+            this.enumType = enumType;
+            this.constants = enumType.getEnumConstants();
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            buffer.writeInt(((Enum<?>) value).ordinal());
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int ordinal = buffer.readInt();
+            if (ordinal >= 0 && ordinal < constants.length) {
+                return constants[ordinal];
+            }
+            throw new IndexOutOfBoundsException("Invalid ordinal " + ordinal + " for enum " + enumType.getSimpleName());
+        }
+    }
+
+    private static final class ListCodec implements ValueCodec {
+        private final ValueCodec element;
+
+        private ListCodec(ValueCodec element) {
+            this.element = element;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            List<?> list = (List<?>) value;
+            buffer.writeInt(list.size());
+            for (Object item : list) {
+                element.write(buffer, item);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            int size = buffer.readInt();
+            if (size < 0 || size > NetworkLimits.MAX_COLLECTION_ELEMENTS) {
+                throw new IllegalArgumentException(
+                        "List size " + size + " exceeds limit " + NetworkLimits.MAX_COLLECTION_ELEMENTS
+                );
+            }
+            List<Object> list = new ArrayList<>(size);
+            for (int i = 0; i < size; i++) {
+                list.add(element.read(buffer));
+            }
+            return list;
+        }
+    }
+
+    private static final class RecordCodec implements ValueCodec {
+        private final Class<?> recordType;
+        private final String[] names;
+        private final Function<Object, Object>[] getters;
+        private final ValueCodec[] codecs;
+        private final MethodHandle constructor;
+
+        private RecordCodec(Class<?> recordType,
+                            String[] names,
+                            Function<Object, Object>[] getters,
+                            ValueCodec[] codecs,
+                            MethodHandle constructor) {
+            this.recordType = recordType;
+            this.names = names;
+            this.getters = getters;
+            this.codecs = codecs;
+            this.constructor = constructor;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            if (value == null) {
+                throw new IllegalArgumentException("Cannot serialize null record: " + recordType.getSimpleName());
+            }
+            for (int i = 0; i < codecs.length; i++) {
+                Object componentValue = getters[i].apply(value);
+                if (componentValue == null) {
+                    throw new IllegalArgumentException(
+                            "Non-optional record component " + names[i] + " is null for " + recordType.getSimpleName()
+                    );
+                }
+                codecs[i].write(buffer, componentValue);
+            }
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            Object[] args = new Object[codecs.length];
+            for (int i = 0; i < codecs.length; i++) {
+                args[i] = codecs[i].read(buffer);
+            }
+            try {
+                return (Object) constructor.invokeExact(args);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Throwable t) {
+                throw new RuntimeException("Failed to create instance of " + recordType, t);
+            }
+        }
+    }
+
+    /**
+     * Defers unsupported field types to use time, matching the reflective path, so a single bad
+     * packet declaration does not prevent the rest of the registry from compiling.
+     */
+    private static final class UnsupportedCodec implements ValueCodec {
+        private final String message;
+
+        private UnsupportedCodec(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            throw new UnsupportedOperationException(message);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            throw new UnsupportedOperationException(message);
+        }
+    }
+
+    private static final class ForwardingCodec implements ValueCodec {
+        private ValueCodec target;
+
+        @Override
+        public void write(ByteBuffer buffer, Object value) {
+            target.write(buffer, value);
+        }
+
+        @Override
+        public Object read(ByteBuffer buffer) {
+            return target.read(buffer);
+        }
+    }
+}
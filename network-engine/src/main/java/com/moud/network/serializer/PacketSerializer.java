@@ -13,9 +13,15 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.ParameterizedType;
 import java.lang.reflect.RecordComponent;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 public class PacketSerializer {
+    private static final Vector3Serializer VECTOR3 = new Vector3Serializer();
+    private static final QuaternionSerializer QUATERNION = new QuaternionSerializer();
+
     private final Map<Class<?>, TypeSerializer<?>> serializers = new HashMap<>();
+    private final Map<Class<?>, PacketCodec> codecs = new ConcurrentHashMap<>();
+    private PacketCodecCompiler compiler;
 
     public PacketSerializer() {
         registerDefaults();
@@ -34,10 +40,10 @@ public class PacketSerializer {
         register(long.class, new LongSerializer());
         register(Long.class, new LongSerializer());
         register(UUID.class, new UUIDSerializer());
-        register(Vector3.class, new Vector3Serializer());
+        register(Vector3.class, VECTOR3);
         register(byte[].class, new ByteArraySerializer());
         register(float[].class, new FloatArraySerializer());
-        register(Quaternion.class, new QuaternionSerializer());
+        register(Quaternion.class, QUATERNION);
         register(byte[].class, new ByteArraySerializer());
         register(MoudPackets.CursorUpdateData.class, new CursorUpdateDataSerializer());
         register(MoudPackets.SceneObjectSnapshot.class, new SceneObjectSnapshotSerializer());
@@ -63,11 +69,65 @@ public class PacketSerializer {
         register(MoudPackets.ZoneDefinition.class, new ZoneDefinitionSerializer());
     }
 
-    public <T> void register(Class<T> type, TypeSerializer<T> serializer) {
+    public synchronized <T> void register(Class<T> type, TypeSerializer<T> serializer) {
         serializers.put(type, serializer);
+        codecs.clear();
+        compiler = null;
+    }
+
+    /**
+     * Compiles a {@link PacketCodec} for every given packet up front so the first send of each packet
+     * does not pay the binding cost on the tick thread.
+     */
+    public int compile(Collection<PacketMetadata> metadata) {
+        int count = 0;
+        for (PacketMetadata packet : metadata) {
+            codecFor(packet);
+            count++;
+        }
+        return count;
+    }
+
+    public PacketCodec codecFor(PacketMetadata metadata) {
+        PacketCodec codec = codecs.get(metadata.packetClass());
+        if (codec != null) {
+            return codec;
+        }
+        synchronized (this) {
+            codec = codecs.get(metadata.packetClass());
+            if (codec == null) {
+                if (compiler == null) {
+                    compiler = new PacketCodecCompiler(serializers);
+                }
+                codec = compiler.compile(metadata);
+                codecs.put(metadata.packetClass(), codec);
+            }
+            return codec;
+        }
     }
 
     public byte[] serialize(Object packet, PacketMetadata metadata, ByteBuffer buffer) {
+        write(packet, metadata, buffer);
+        return buffer.toByteArray();
+    }
+
+    /**
+     * Writes the packet fields into {@code buffer} and leaves it to the caller to frame or copy them.
+     */
+    public void write(Object packet, PacketMetadata metadata, ByteBuffer buffer) {
+        codecFor(metadata).write(buffer, packet);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T deserialize(byte[] data, Class<T> packetClass, PacketMetadata metadata, ByteBuffer buffer) {
+        return (T) codecFor(metadata).read(buffer);
+    }
+
+    /**
+     * Reflective reference implementation of {@link #serialize}. Kept for codec equivalence tests and
+     * benchmarks; production traffic goes through the compiled {@link PacketCodec}.
+     */
+    public byte[] serializeReflective(Object packet, PacketMetadata metadata, ByteBuffer buffer) {
         for (PacketMetadata.FieldMetadata field : metadata.fields()) {
             Object value = field.getValue(packet);
 
@@ -87,7 +147,7 @@ public class PacketSerializer {
         return buffer.toByteArray();
     }
 
-    public <T> T deserialize(byte[] data, Class<T> packetClass, PacketMetadata metadata, ByteBuffer buffer) {
+    public <T> T deserializeReflective(byte[] data, Class<T> packetClass, PacketMetadata metadata, ByteBuffer buffer) {
         Object[] args = new Object[metadata.fields().size()];
 
         for (int i = 0; i < metadata.fields().size(); i++) {
@@ -458,18 +518,18 @@ public class PacketSerializer {
     private class CursorUpdateDataSerializer implements TypeSerializer<MoudPackets.CursorUpdateData> {
         @Override
         public void write(ByteBuffer buffer, MoudPackets.CursorUpdateData value) {
-            writeValue(buffer, value.playerId(), UUID.class, UUID.class);
-            writeValue(buffer, value.position(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.normal(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.hit(), boolean.class, boolean.class);
+            buffer.writeUuid(value.playerId());
+            VECTOR3.write(buffer, value.position());
+            VECTOR3.write(buffer, value.normal());
+            buffer.writeBoolean(value.hit());
         }
 
         @Override
         public MoudPackets.CursorUpdateData read(ByteBuffer buffer) {
-            UUID playerId = (UUID) readValue(buffer, UUID.class, UUID.class);
-            Vector3 position = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            Vector3 normal = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            boolean hit = (boolean) readValue(buffer, boolean.class, boolean.class);
+            UUID playerId = buffer.readUuid();
+            Vector3 position = VECTOR3.read(buffer);
+            Vector3 normal = VECTOR3.read(buffer);
+            boolean hit = buffer.readBoolean();
             return new MoudPackets.CursorUpdateData(playerId, position, normal, hit);
         }
     }
@@ -529,16 +589,16 @@ public class PacketSerializer {
     private class CollisionBoxDataSerializer implements TypeSerializer<MoudPackets.CollisionBoxData> {
         @Override
         public void write(ByteBuffer buffer, MoudPackets.CollisionBoxData value) {
-            writeValue(buffer, value.center(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.halfExtents(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.rotation(), Quaternion.class, Quaternion.class);
+            VECTOR3.write(buffer, value.center());
+            VECTOR3.write(buffer, value.halfExtents());
+            QUATERNION.write(buffer, value.rotation());
         }
 
         @Override
         public MoudPackets.CollisionBoxData read(ByteBuffer buffer) {
-            Vector3 center = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            Vector3 halfExtents = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            Quaternion rotation = (Quaternion) readValue(buffer, Quaternion.class, Quaternion.class);
+            Vector3 center = VECTOR3.read(buffer);
+            Vector3 halfExtents = VECTOR3.read(buffer);
+            Quaternion rotation = QUATERNION.read(buffer);
             return new MoudPackets.CollisionBoxData(center, halfExtents, rotation);
         }
     }
@@ -578,11 +638,11 @@ public class PacketSerializer {
     private class PrimitiveBatchEntrySerializer implements TypeSerializer<MoudPackets.PrimitiveBatchEntry> {
         @Override
         public void write(ByteBuffer buffer, MoudPackets.PrimitiveBatchEntry value) {
-            writeValue(buffer, value.primitiveId(), long.class, long.class);
+            buffer.writeLong(value.primitiveId());
             writeValue(buffer, value.type(), MoudPackets.PrimitiveType.class, MoudPackets.PrimitiveType.class);
-            writeValue(buffer, value.position(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.rotation(), Quaternion.class, Quaternion.class);
-            writeValue(buffer, value.scale(), Vector3.class, Vector3.class);
+            VECTOR3.write(buffer, value.position());
+            QUATERNION.write(buffer, value.rotation());
+            VECTOR3.write(buffer, value.scale());
             writeValue(buffer, value.material(), MoudPackets.PrimitiveMaterial.class, MoudPackets.PrimitiveMaterial.class);
             boolean hasVerts = value.vertices() != null;
             buffer.writeBoolean(hasVerts);
@@ -608,11 +668,11 @@ public class PacketSerializer {
 
         @Override
         public MoudPackets.PrimitiveBatchEntry read(ByteBuffer buffer) {
-            long id = (long) readValue(buffer, long.class, long.class);
+            long id = buffer.readLong();
             MoudPackets.PrimitiveType type = (MoudPackets.PrimitiveType) readValue(buffer, MoudPackets.PrimitiveType.class, MoudPackets.PrimitiveType.class);
-            Vector3 pos = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            Quaternion rot = (Quaternion) readValue(buffer, Quaternion.class, Quaternion.class);
-            Vector3 scale = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
+            Vector3 pos = VECTOR3.read(buffer);
+            Quaternion rot = QUATERNION.read(buffer);
+            Vector3 scale = VECTOR3.read(buffer);
             MoudPackets.PrimitiveMaterial mat = (MoudPackets.PrimitiveMaterial) readValue(buffer, MoudPackets.PrimitiveMaterial.class, MoudPackets.PrimitiveMaterial.class);
             boolean hasVerts = buffer.readBoolean();
             @SuppressWarnings("unchecked")
@@ -631,18 +691,18 @@ public class PacketSerializer {
     private class PrimitiveTransformEntrySerializer implements TypeSerializer<MoudPackets.PrimitiveTransformEntry> {
         @Override
         public void write(ByteBuffer buffer, MoudPackets.PrimitiveTransformEntry value) {
-            writeValue(buffer, value.primitiveId(), long.class, long.class);
-            writeValue(buffer, value.position(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.rotation(), Quaternion.class, Quaternion.class);
-            writeValue(buffer, value.scale(), Vector3.class, Vector3.class);
+            buffer.writeLong(value.primitiveId());
+            VECTOR3.write(buffer, value.position());
+            QUATERNION.write(buffer, value.rotation());
+            VECTOR3.write(buffer, value.scale());
         }
 
         @Override
         public MoudPackets.PrimitiveTransformEntry read(ByteBuffer buffer) {
-            long id = (long) readValue(buffer, long.class, long.class);
-            Vector3 pos = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            Quaternion rot = (Quaternion) readValue(buffer, Quaternion.class, Quaternion.class);
-            Vector3 scale = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
+            long id = buffer.readLong();
+            Vector3 pos = VECTOR3.read(buffer);
+            Quaternion rot = QUATERNION.read(buffer);
+            Vector3 scale = VECTOR3.read(buffer);
             return new MoudPackets.PrimitiveTransformEntry(id, pos, rot, scale);
         }
     }
@@ -650,14 +710,14 @@ public class PacketSerializer {
     private class IKJointDataSerializer implements TypeSerializer<MoudPackets.IKJointData> {
         @Override
         public void write(ByteBuffer buffer, MoudPackets.IKJointData value) {
-            writeValue(buffer, value.position(), Vector3.class, Vector3.class);
-            writeValue(buffer, value.rotation(), Quaternion.class, Quaternion.class);
+            VECTOR3.write(buffer, value.position());
+            QUATERNION.write(buffer, value.rotation());
         }
 
         @Override
         public MoudPackets.IKJointData read(ByteBuffer buffer) {
-            Vector3 pos = (Vector3) readValue(buffer, Vector3.class, Vector3.class);
-            Quaternion rot = (Quaternion) readValue(buffer, Quaternion.class, Quaternion.class);
+            Vector3 pos = VECTOR3.read(buffer);
+            Quaternion rot = QUATERNION.read(buffer);
             return new MoudPackets.IKJointData(pos, rot);
         }
     }
@@ -665,16 +725,16 @@ public class PacketSerializer {
     private class PrimitivePhysicsSerializer implements TypeSerializer<MoudPackets.PrimitivePhysics> {
         @Override
         public void write(ByteBuffer buffer, MoudPackets.PrimitivePhysics value) {
-            writeValue(buffer, value.hasCollision(), boolean.class, boolean.class);
-            writeValue(buffer, value.isDynamic(), boolean.class, boolean.class);
-            writeValue(buffer, value.mass(), float.class, float.class);
+            buffer.writeBoolean(value.hasCollision());
+            buffer.writeBoolean(value.isDynamic());
+            buffer.writeFloat(value.mass());
         }
 
         @Override
         public MoudPackets.PrimitivePhysics read(ByteBuffer buffer) {
-            boolean hasCollision = (boolean) readValue(buffer, boolean.class, boolean.class);
-            boolean isDynamic = (boolean) readValue(buffer, boolean.class, boolean.class);
-            float mass = (float) readValue(buffer, float.class, float.class);
+            boolean hasCollision = buffer.readBoolean();
+            boolean isDynamic = buffer.readBoolean();
+            float mass = buffer.readFloat();
             return new MoudPackets.PrimitivePhysics(hasCollision, isDynamic, mass);
         }
     }
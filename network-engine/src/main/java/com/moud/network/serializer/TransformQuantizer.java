@@ -0,0 +1,484 @@
+package com.moud.network.serializer;
+
+import com.moud.api.math.Quaternion;
+import com.moud.api.math.Vector3;
+import com.moud.network.MoudPackets;
+import com.moud.network.limits.NetworkLimits;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compact fixed-point encoding for high frequency state (transforms, player snapshots, IK poses).
+ * <p>
+ * Positions are stored as 1/4096-block fixed point split into a chunk section coordinate (zigzag
+ * varint) and an unsigned 16-bit offset inside that section. Rotations use smallest-three packing
+ * into a single int, and scales/velocities are half floats. Transform entries carry a field mask so
+ * fields that did not change against a {@link Baseline} are skipped entirely; absent fields decode
+ * as {@code null}, meaning "keep the current value".
+ */
+public final class TransformQuantizer {
+    /**
+     * Enables the quantized encodings for transform, snapshot and IK replication.
+     * <p>
+     * Enable via {@code -Dmoud.network.quantizedTransforms=true}
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("moud.network.quantizedTransforms");
+
+    public static final int FIELD_POSITION = 1;
+    public static final int FIELD_ROTATION = 1 << 1;
+    public static final int FIELD_SCALE = 1 << 2;
+    public static final int ALL_FIELDS = FIELD_POSITION | FIELD_ROTATION | FIELD_SCALE;
+
+    private static final int POSITION_BITS = 12;
+    private static final double POSITION_SCALE = 1 << POSITION_BITS;
+    private static final int SECTION_SHIFT = 4 + POSITION_BITS;
+    private static final int OFFSET_MASK = (1 << SECTION_SHIFT) - 1;
+
+    private static final int ROTATION_BITS = 10;
+    private static final int ROTATION_MAX = (1 << ROTATION_BITS) - 1;
+    private static final float ROTATION_RANGE = (float) (1.0 / Math.sqrt(2.0));
+
+    private static final int IK_TARGET_PRESENT = 1;
+    private static final int IK_TARGET_REACHED = 1 << 1;
+
+    private TransformQuantizer() {
+    }
+
+    public static long quantizePosition(double value) {
+        return (long) Math.floor(value * POSITION_SCALE + 0.5);
+    }
+
+    public static double dequantizePosition(long value) {
+        return value / POSITION_SCALE;
+    }
+
+    public static int packRotation(Quaternion rotation) {
+        float x = rotation.x;
+        float y = rotation.y;
+        float z = rotation.z;
+        float w = rotation.w;
+        float length = (float) Math.sqrt(x * x + y * y + z * z + w * w);
+        if (length < 1.0e-6f || !Float.isFinite(length)) {
+            x = 0.0f;
+            y = 0.0f;
+            z = 0.0f;
+            w = 1.0f;
+        } else {
+            x /= length;
+            y /= length;
+            z /= length;
+            w /= length;
+        }
+
+        float[] components = {x, y, z, w};
+        int largest = 0;
+        for (int i = 1; i < 4; i++) {
+            if (Math.abs(components[i]) > Math.abs(components[largest])) {
+                largest = i;
+            }
+        }
+        // q and -q are the same rotation; flip so the dropped component is positive.
+        float sign = components[largest] < 0.0f ? -1.0f : 1.0f;
+
+        int packed = largest;
+        for (int i = 0; i < 4; i++) {
+            if (i == largest) {
+                continue;
+            }
+            float normalized = (components[i] * sign / ROTATION_RANGE + 1.0f) * 0.5f;
+            int quantized = Math.round(Math.max(0.0f, Math.min(1.0f, normalized)) * ROTATION_MAX);
+            packed = (packed << ROTATION_BITS) | quantized;
+        }
+        return packed;
+    }
+
+    public static Quaternion unpackRotation(int packed) {
+        int largest = (packed >>> (ROTATION_BITS * 3)) & 0b11;
+        float[] components = new float[4];
+        float sumSquares = 0.0f;
+        int shift = ROTATION_BITS * 2;
+        for (int i = 0; i < 4; i++) {
+            if (i == largest) {
+                continue;
+            }
+            int quantized = (packed >>> shift) & ROTATION_MAX;
+            shift -= ROTATION_BITS;
+            float value = ((quantized / (float) ROTATION_MAX) * 2.0f - 1.0f) * ROTATION_RANGE;
+            components[i] = value;
+            sumSquares += value * value;
+        }
+        components[largest] = (float) Math.sqrt(Math.max(0.0f, 1.0f - sumSquares));
+        return new Quaternion(components[0], components[1], components[2], components[3]);
+    }
+
+    public static long packHalfVector(Vector3 value) {
+        return (Float.floatToFloat16(value.x) & 0xFFFFL)
+                | (Float.floatToFloat16(value.y) & 0xFFFFL) << 16
+                | (Float.floatToFloat16(value.z) & 0xFFFFL) << 32;
+    }
+
+    public static Vector3 unpackHalfVector(long packed) {
+        return new Vector3(
+                Float.float16ToFloat((short) packed),
+                Float.float16ToFloat((short) (packed >>> 16)),
+                Float.float16ToFloat((short) (packed >>> 32))
+        );
+    }
+
+    public static List<MoudPackets.PrimitiveTransformEntry> decodePrimitiveTransforms(byte[] data) {
+        Reader reader = new Reader(data);
+        List<MoudPackets.PrimitiveTransformEntry> result = new ArrayList<>();
+        while (reader.hasRemaining()) {
+            long id = reader.readVarLong();
+            int mask = reader.readByte();
+            result.add(new MoudPackets.PrimitiveTransformEntry(
+                    id,
+                    (mask & FIELD_POSITION) != 0 ? reader.readPosition() : null,
+                    (mask & FIELD_ROTATION) != 0 ? unpackRotation(reader.readInt()) : null,
+                    (mask & FIELD_SCALE) != 0 ? unpackHalfVector(reader.readHalfVector()) : null
+            ));
+            reader.checkCount(result.size());
+        }
+        return result;
+    }
+
+    public static List<MoudPackets.S2C_UpdateModelTransformPacket> decodeModelTransforms(byte[] data) {
+        List<MoudPackets.PrimitiveTransformEntry> entries = decodePrimitiveTransforms(data);
+        List<MoudPackets.S2C_UpdateModelTransformPacket> result = new ArrayList<>(entries.size());
+        for (MoudPackets.PrimitiveTransformEntry entry : entries) {
+            result.add(new MoudPackets.S2C_UpdateModelTransformPacket(
+                    entry.primitiveId(), entry.position(), entry.rotation(), entry.scale()));
+        }
+        return result;
+    }
+
+    public static MoudPackets.S2C_QuantizedPlayerSnapshotPacket encodeSnapshot(
+            MoudPackets.PlayerSnapshotPacket snapshot) {
+        Writer writer = new Writer(24);
+        writer.writePosition(
+                quantizePosition(snapshot.x()), quantizePosition(snapshot.y()), quantizePosition(snapshot.z()));
+        writer.writeHalfVector(packHalfVector(new Vector3(snapshot.velX(), snapshot.velY(), snapshot.velZ())));
+        writer.writeByte(snapshot.onGround() ? 1 : 0);
+        return new MoudPackets.S2C_QuantizedPlayerSnapshotPacket(snapshot.lastProcessedSeq(), writer.toByteArray());
+    }
+
+    public static MoudPackets.PlayerSnapshotPacket decodeSnapshot(
+            MoudPackets.S2C_QuantizedPlayerSnapshotPacket packet) {
+        Reader reader = new Reader(packet.state());
+        double x = dequantizePosition(reader.readFixedPoint());
+        double y = dequantizePosition(reader.readFixedPoint());
+        double z = dequantizePosition(reader.readFixedPoint());
+        Vector3 velocity = unpackHalfVector(reader.readHalfVector());
+        boolean onGround = reader.readByte() != 0;
+        return new MoudPackets.PlayerSnapshotPacket(
+                packet.lastProcessedSeq(), x, y, z, velocity.x, velocity.y, velocity.z, onGround);
+    }
+
+    public static MoudPackets.S2C_QuantizedIKBatchUpdatePacket encodeIKBatch(
+            MoudPackets.S2C_IKBatchUpdatePacket packet) {
+        Writer writer = new Writer(packet.chains().size() * 64);
+        for (MoudPackets.IKChainBatchEntry chain : packet.chains()) {
+            writer.writeString(chain.chainId());
+            int flags = (chain.targetPosition() != null ? IK_TARGET_PRESENT : 0)
+                    | (chain.targetReached() ? IK_TARGET_REACHED : 0);
+            writer.writeByte(flags);
+            if (chain.targetPosition() != null) {
+                writer.writePosition(chain.targetPosition());
+            }
+            List<MoudPackets.IKJointData> joints = chain.joints() != null ? chain.joints() : List.of();
+            writer.writeVarLong(joints.size());
+            for (MoudPackets.IKJointData joint : joints) {
+                int mask = (joint.position() != null ? FIELD_POSITION : 0)
+                        | (joint.rotation() != null ? FIELD_ROTATION : 0);
+                writer.writeByte(mask);
+                if (joint.position() != null) {
+                    writer.writePosition(joint.position());
+                }
+                if (joint.rotation() != null) {
+                    writer.writeInt(packRotation(joint.rotation()));
+                }
+            }
+        }
+        return new MoudPackets.S2C_QuantizedIKBatchUpdatePacket(packet.timestamp(), writer.toByteArray());
+    }
+
+    public static MoudPackets.S2C_IKBatchUpdatePacket decodeIKBatch(
+            MoudPackets.S2C_QuantizedIKBatchUpdatePacket packet) {
+        Reader reader = new Reader(packet.chains());
+        List<MoudPackets.IKChainBatchEntry> chains = new ArrayList<>();
+        while (reader.hasRemaining()) {
+            String chainId = reader.readString();
+            int flags = reader.readByte();
+            Vector3 target = (flags & IK_TARGET_PRESENT) != 0 ? reader.readPosition() : null;
+            int jointCount = (int) reader.readVarLong();
+            reader.checkCount(jointCount);
+            List<MoudPackets.IKJointData> joints = new ArrayList<>(jointCount);
+            for (int i = 0; i < jointCount; i++) {
+                int mask = reader.readByte();
+                Vector3 position = (mask & FIELD_POSITION) != 0 ? reader.readPosition() : null;
+                Quaternion rotation = (mask & FIELD_ROTATION) != 0 ? unpackRotation(reader.readInt()) : null;
+                joints.add(new MoudPackets.IKJointData(position, rotation));
+            }
+            chains.add(new MoudPackets.IKChainBatchEntry(chainId, joints, target, (flags & IK_TARGET_REACHED) != 0));
+            reader.checkCount(chains.size());
+        }
+        return new MoudPackets.S2C_IKBatchUpdatePacket(chains, packet.timestamp());
+    }
+
+    /**
+     * Last replicated quantized state per object id. Fields whose quantized value matches the
+     * baseline are left out of the next delta.
+     * <p>
+     * Not thread-safe; owned by whichever tick flushes the replication channel.
+     */
+    public static final class Baseline {
+        private final Map<Long, long[]> states = new HashMap<>();
+
+        /**
+         * Appends a delta entry for {@code id} and updates the baseline. Returns {@code false} when
+         * nothing changed and no bytes were written.
+         */
+        public boolean writeDelta(Writer writer, long id, Vector3 position, Quaternion rotation, Vector3 scale,
+                                  boolean keyframe) {
+            long[] state = states.get(id);
+            boolean fresh = state == null;
+            if (fresh) {
+                state = new long[5];
+                states.put(id, state);
+            }
+
+            int mask = 0;
+            if (position != null) {
+                long px = quantizePosition(position.x);
+                long py = quantizePosition(position.y);
+                long pz = quantizePosition(position.z);
+                if (fresh || keyframe || state[0] != px || state[1] != py || state[2] != pz) {
+                    state[0] = px;
+                    state[1] = py;
+                    state[2] = pz;
+                    mask |= FIELD_POSITION;
+                }
+            }
+            if (rotation != null) {
+                int packed = packRotation(rotation);
+                if (fresh || keyframe || state[3] != packed) {
+                    state[3] = packed;
+                    mask |= FIELD_ROTATION;
+                }
+            }
+            if (scale != null) {
+                long packed = packHalfVector(scale);
+                if (fresh || keyframe || state[4] != packed) {
+                    state[4] = packed;
+                    mask |= FIELD_SCALE;
+                }
+            }
+            if (mask == 0) {
+                return false;
+            }
+
+            writer.writeVarLong(id);
+            writer.writeByte(mask);
+            if ((mask & FIELD_POSITION) != 0) {
+                writer.writePosition(state[0], state[1], state[2]);
+            }
+            if ((mask & FIELD_ROTATION) != 0) {
+                writer.writeInt((int) state[3]);
+            }
+            if ((mask & FIELD_SCALE) != 0) {
+                writer.writeHalfVector(state[4]);
+            }
+            return true;
+        }
+
+        public void forget(long id) {
+            states.remove(id);
+        }
+
+        public int size() {
+            return states.size();
+        }
+    }
+
+    public static final class Writer {
+        private byte[] data;
+        private int size;
+
+        public Writer(int initialCapacity) {
+            this.data = new byte[Math.max(16, initialCapacity)];
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public byte[] toByteArray() {
+            return Arrays.copyOf(data, size);
+        }
+
+        public void reset() {
+            size = 0;
+        }
+
+        void writePosition(Vector3 position) {
+            writePosition(quantizePosition(position.x), quantizePosition(position.y), quantizePosition(position.z));
+        }
+
+        void writePosition(long x, long y, long z) {
+            writeFixedPoint(x);
+            writeFixedPoint(y);
+            writeFixedPoint(z);
+        }
+
+        private void writeFixedPoint(long value) {
+            writeZigZag(value >> SECTION_SHIFT);
+            int offset = (int) (value & OFFSET_MASK);
+            ensure(2);
+            data[size++] = (byte) (offset >>> 8);
+            data[size++] = (byte) offset;
+        }
+
+        void writeHalfVector(long packed) {
+            ensure(6);
+            for (int shift = 0; shift < 48; shift += 8) {
+                data[size++] = (byte) (packed >>> shift);
+            }
+        }
+
+        void writeInt(int value) {
+            ensure(4);
+            data[size++] = (byte) (value >>> 24);
+            data[size++] = (byte) (value >>> 16);
+            data[size++] = (byte) (value >>> 8);
+            data[size++] = (byte) value;
+        }
+
+        void writeByte(int value) {
+            ensure(1);
+            data[size++] = (byte) value;
+        }
+
+        void writeString(String value) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length);
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, data, size, bytes.length);
+            size += bytes.length;
+        }
+
+        private void writeZigZag(long value) {
+            writeVarLong((value << 1) ^ (value >> 63));
+        }
+
+        void writeVarLong(long value) {
+            ensure(10);
+            while ((value & ~0x7FL) != 0) {
+                data[size++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[size++] = (byte) value;
+        }
+
+        private void ensure(int bytes) {
+            if (size + bytes > data.length) {
+                data = Arrays.copyOf(data, Math.max(data.length * 2, size + bytes));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        boolean hasRemaining() {
+            return position < data.length;
+        }
+
+        void checkCount(int count) {
+            if (count > NetworkLimits.MAX_COLLECTION_ELEMENTS) {
+                throw new IllegalArgumentException("Quantized entry count exceeds limit: " + count);
+            }
+        }
+
+        Vector3 readPosition() {
+            return new Vector3(
+                    dequantizePosition(readFixedPoint()),
+                    dequantizePosition(readFixedPoint()),
+                    dequantizePosition(readFixedPoint())
+            );
+        }
+
+        long readFixedPoint() {
+            long section = readZigZag();
+            require(2);
+            int offset = (data[position++] & 0xFF) << 8 | (data[position++] & 0xFF);
+            return (section << SECTION_SHIFT) | offset;
+        }
+
+        long readHalfVector() {
+            require(6);
+            long packed = 0;
+            for (int shift = 0; shift < 48; shift += 8) {
+                packed |= (data[position++] & 0xFFL) << shift;
+            }
+            return packed;
+        }
+
+        int readInt() {
+            require(4);
+            return (data[position++] & 0xFF) << 24
+                    | (data[position++] & 0xFF) << 16
+                    | (data[position++] & 0xFF) << 8
+                    | (data[position++] & 0xFF);
+        }
+
+        int readByte() {
+            require(1);
+            return data[position++] & 0xFF;
+        }
+
+        String readString() {
+            long length = readVarLong();
+            if (length < 0 || length > NetworkLimits.MAX_STRING_BYTES) {
+                throw new IllegalArgumentException("Quantized string length out of range: " + length);
+            }
+            require((int) length);
+            String value = new String(data, position, (int) length, StandardCharsets.UTF_8);
+            position += (int) length;
+            return value;
+        }
+
+        private long readZigZag() {
+            long raw = readVarLong();
+            return (raw >>> 1) ^ -(raw & 1);
+        }
+
+        long readVarLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Quantized varlong is too long");
+        }
+
+        private void require(int bytes) {
+            if (bytes > data.length - position) {
+                throw new IllegalArgumentException("Truncated quantized payload: need " + bytes
+                        + " bytes at " + position + " of " + data.length);
+            }
+        }
+    }
+}
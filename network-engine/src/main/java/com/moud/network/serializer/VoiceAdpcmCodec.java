@@ -0,0 +1,267 @@
+package com.moud.network.serializer;
+
+import java.util.Arrays;
+
+/**
+ * Wideband speech codec for voice chat, pure Java. Mono PCM is low-passed and decimated to 16 kHz, then coded
+ * as 4-bit IMA ADPCM: 64 kbit/s plus a 5-byte header per frame, about a twelfth of 48 kHz 16-bit PCM.
+ * <p>
+ * Frame layout (little endian): {@code int16 predictor, uint8 stepIndex, uint16 sampleCount}, then
+ * {@code sampleCount} 4-bit codes, low nibble first. The header carries the full ADPCM state, so every frame
+ * decodes on its own and a lost packet costs only that frame. Encoders and decoders keep resampling filter
+ * history between frames and are meant to be used one per stream.
+ */
+public final class VoiceAdpcmCodec {
+
+    public static final String ID = "adpcm_wb";
+    public static final int CODED_SAMPLE_RATE = 16_000;
+    public static final int HEADER_BYTES = 5;
+
+    private static final int TAPS_PER_PHASE = 16;
+    private static final double CUTOFF_HZ = 7_200.0;
+
+    private static final int[] INDEX_TABLE = {-1, -1, -1, -1, 2, 4, 6, 8};
+    private static final int[] STEP_TABLE = {
+            7, 8, 9, 10, 11, 12, 13, 14, 16, 17, 19, 21, 23, 25, 28, 31, 34, 37, 41, 45,
+            50, 55, 60, 66, 73, 80, 88, 97, 107, 118, 130, 143, 157, 173, 190, 209, 230, 253, 279, 307,
+            337, 371, 408, 449, 494, 544, 598, 658, 724, 796, 876, 963, 1060, 1166, 1282, 1411, 1552, 1707, 1878, 2066,
+            2272, 2499, 2749, 3024, 3327, 3660, 4026, 4428, 4871, 5358, 5894, 6484, 7132, 7845, 8630, 9493, 10442,
+            11487, 12635, 13899, 15289, 16818, 18500, 20350, 22385, 24623, 27086, 29794, 32767
+    };
+
+    private VoiceAdpcmCodec() {
+    }
+
+    /**
+     * @return whether PCM in this format can be coded: mono, at a whole multiple (up to 6x) of 16 kHz
+     */
+    public static boolean supports(int sampleRate, int channels) {
+        return channels == 1 && sampleRate >= CODED_SAMPLE_RATE && sampleRate % CODED_SAMPLE_RATE == 0
+                && sampleRate / CODED_SAMPLE_RATE <= 6;
+    }
+
+    public static Encoder newEncoder(int sampleRate) {
+        return new Encoder(factor(sampleRate));
+    }
+
+    public static Decoder newDecoder(int sampleRate) {
+        return new Decoder(factor(sampleRate));
+    }
+
+    private static int factor(int sampleRate) {
+        if (!supports(sampleRate, 1)) {
+            throw new IllegalArgumentException("Unsupported sample rate for " + ID + ": " + sampleRate);
+        }
+        return sampleRate / CODED_SAMPLE_RATE;
+    }
+
+    public static final class Encoder {
+        private final int factor;
+        private final float[] taps;
+        private float[] window;
+        private final int history;
+        private int phase;
+        private short[] coded = new short[0];
+        private int predictor;
+        private int stepIndex;
+
+        private Encoder(int factor) {
+            this.factor = factor;
+            this.taps = lowPass(factor, 1.0f);
+            this.window = new float[taps.length - 1];
+            this.history = taps.length - 1;
+        }
+
+        /**
+         * Codes {@code length} samples at the encoder's input rate into one frame.
+         */
+        public byte[] encode(short[] pcm, int length) {
+            int count = decimate(pcm, length);
+            byte[] out = new byte[HEADER_BYTES + (count + 1) / 2];
+            out[0] = (byte) predictor;
+            out[1] = (byte) (predictor >> 8);
+            out[2] = (byte) stepIndex;
+            out[3] = (byte) count;
+            out[4] = (byte) (count >> 8);
+            for (int i = 0; i < count; i++) {
+                int code = encodeSample(coded[i]);
+                int offset = HEADER_BYTES + (i >> 1);
+                out[offset] |= (byte) ((i & 1) == 0 ? code : code << 4);
+            }
+            return out;
+        }
+
+        public void reset() {
+            Arrays.fill(window, 0.0f);
+            phase = 0;
+            predictor = 0;
+            stepIndex = 0;
+        }
+
+        private int decimate(short[] pcm, int length) {
+            int needed = history + length;
+            if (window.length < needed) {
+                window = Arrays.copyOf(window, needed);
+            }
+            for (int i = 0; i < length; i++) {
+                window[history + i] = pcm[i];
+            }
+            int maxOut = (length + factor - 1) / factor + 1;
+            if (coded.length < maxOut) {
+                coded = new short[maxOut];
+            }
+            int count = 0;
+            int pos = history + phase;
+            for (; pos < needed; pos += factor) {
+                float acc = 0.0f;
+                for (int k = 0; k < taps.length; k++) {
+                    acc += taps[k] * window[pos - k];
+                }
+                coded[count++] = clamp(acc);
+            }
+            phase = pos - needed;
+            System.arraycopy(window, needed - history, window, 0, history);
+            return count;
+        }
+
+        private int encodeSample(int sample) {
+            int step = STEP_TABLE[stepIndex];
+            int diff = sample - predictor;
+            int code = 0;
+            if (diff < 0) {
+                code = 8;
+                diff = -diff;
+            }
+            int delta = step >> 3;
+            if (diff >= step) {
+                code |= 4;
+                diff -= step;
+                delta += step;
+            }
+            step >>= 1;
+            if (diff >= step) {
+                code |= 2;
+                diff -= step;
+                delta += step;
+            }
+            step >>= 1;
+            if (diff >= step) {
+                code |= 1;
+                delta += step;
+            }
+            predictor = clamp((code & 8) != 0 ? predictor - delta : predictor + delta);
+            stepIndex = Math.max(0, Math.min(STEP_TABLE.length - 1, stepIndex + INDEX_TABLE[code & 7]));
+            return code;
+        }
+    }
+
+    public static final class Decoder {
+        private final int factor;
+        private final float[] taps;
+        private final int history;
+        private float[] window;
+        private short[] coded = new short[0];
+
+        private Decoder(int factor) {
+            this.factor = factor;
+            this.taps = lowPass(factor, factor);
+            this.history = (taps.length + factor - 1) / factor;
+            this.window = new float[history];
+        }
+
+        /**
+         * Decodes one frame to PCM at the decoder's output rate.
+         *
+         * @throws IllegalArgumentException if the frame is truncated
+         */
+        public short[] decode(byte[] frame) {
+            if (frame == null || frame.length < HEADER_BYTES) {
+                throw new IllegalArgumentException("Truncated " + ID + " frame");
+            }
+            int count = (frame[3] & 0xFF) | (frame[4] & 0xFF) << 8;
+            if (frame.length < HEADER_BYTES + (count + 1) / 2) {
+                throw new IllegalArgumentException("Truncated " + ID + " frame: " + count + " samples, "
+                        + frame.length + " bytes");
+            }
+            int predictor = (short) ((frame[0] & 0xFF) | (frame[1] & 0xFF) << 8);
+            int stepIndex = Math.max(0, Math.min(STEP_TABLE.length - 1, frame[2] & 0xFF));
+            if (coded.length < count) {
+                coded = new short[count];
+            }
+            for (int i = 0; i < count; i++) {
+                int packed = frame[HEADER_BYTES + (i >> 1)] & 0xFF;
+                int code = (i & 1) == 0 ? packed & 0x0F : packed >> 4;
+                int step = STEP_TABLE[stepIndex];
+                int delta = step >> 3;
+                if ((code & 4) != 0) delta += step;
+                if ((code & 2) != 0) delta += step >> 1;
+                if ((code & 1) != 0) delta += step >> 2;
+                predictor = clamp((code & 8) != 0 ? predictor - delta : predictor + delta);
+                stepIndex = Math.max(0, Math.min(STEP_TABLE.length - 1, stepIndex + INDEX_TABLE[code & 7]));
+                coded[i] = (short) predictor;
+            }
+            return interpolate(count);
+        }
+
+        public void reset() {
+            Arrays.fill(window, 0.0f);
+        }
+
+        private short[] interpolate(int count) {
+            int needed = history + count;
+            if (window.length < needed) {
+                window = Arrays.copyOf(window, needed);
+            }
+            for (int i = 0; i < count; i++) {
+                window[history + i] = coded[i];
+            }
+            short[] out = new short[count * factor];
+            int base = history * factor;
+            for (int n = 0; n < out.length; n++) {
+                int q = (base + n) / factor;
+                float acc = 0.0f;
+                for (int k = (base + n) % factor, m = q; k < taps.length; k += factor, m--) {
+                    acc += taps[k] * window[m];
+                }
+                out[n] = clamp(acc);
+            }
+            System.arraycopy(window, needed - history, window, 0, history);
+            return out;
+        }
+    }
+
+    /**
+     * Windowed-sinc (Blackman) low-pass at {@link #CUTOFF_HZ} for the rate {@code factor * 16 kHz}.
+     */
+    private static float[] lowPass(int factor, float gain) {
+        int length = factor == 1 ? 1 : TAPS_PER_PHASE * factor + 1;
+        float[] taps = new float[length];
+        if (length == 1) {
+            taps[0] = 1.0f;
+            return taps;
+        }
+        double cutoff = CUTOFF_HZ / (CODED_SAMPLE_RATE * (double) factor);
+        int mid = length / 2;
+        double sum = 0.0;
+        for (int i = 0; i < length; i++) {
+            int n = i - mid;
+            double sinc = n == 0 ? 2.0 * cutoff : Math.sin(2.0 * Math.PI * cutoff * n) / (Math.PI * n);
+            double window = 0.42 - 0.5 * Math.cos(2.0 * Math.PI * i / (length - 1))
+                    + 0.08 * Math.cos(4.0 * Math.PI * i / (length - 1));
+            taps[i] = (float) (sinc * window);
+            sum += taps[i];
+        }
+        for (int i = 0; i < length; i++) {
+            taps[i] = (float) (taps[i] / sum * gain);
+        }
+        return taps;
+    }
+
+    private static short clamp(float value) {
+        return (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(value)));
+    }
+
+    private static int clamp(int value) {
+        return Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, value));
+    }
+}
@@ -0,0 +1,211 @@
+package com.moud.network;
+
+import com.moud.network.serializer.BlueprintContainer;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlueprintContainerTest {
+
+    @Test
+    void roundTripKeepsEveryVoxelAndTable() throws IOException {
+        // Uneven size so edge sections are clipped; a solid floor, sparse noise and air above.
+        int sizeX = 37, sizeY = 20, sizeZ = 18;
+        byte[] voxels = new byte[sizeX * sizeY * sizeZ];
+        Random random = new Random(7);
+        for (int y = 0; y < sizeY; y++) {
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    int value = y < 3 ? 1 : y < 8 && random.nextInt(4) == 0 ? 2 + random.nextInt(3) : 0;
+                    voxels[(y * sizeZ + z) * sizeX + x] = (byte) value;
+                }
+            }
+        }
+        List<String> palette = List.of("minecraft:air", "minecraft:stone", "minecraft:oak_planks",
+                "minecraft:glass", "minecraft:oak_stairs[facing=east,half=bottom]");
+        BlueprintContainer.Blocks blocks = new BlueprintContainer.Blocks(sizeX, sizeY, sizeZ, palette, voxels,
+                false, List.of(new BlueprintContainer.BlockEntity(4, 1, 9, "{id:\"minecraft:chest\"}")));
+
+        byte[] encoded = write("house", List.of("{\"type\":\"model\",\"label\":\"lamp\"}"),
+                List.of("{\"name\":\"spawn\"}"), blocks);
+        assertTrue(encoded.length < voxels.length / 2, "container should beat raw voxels, was " + encoded.length);
+        assertTrue(BlueprintContainer.isContainer(encoded, encoded.length));
+
+        BlueprintContainer.Reader reader = new BlueprintContainer.Reader(new ByteArrayInputStream(encoded));
+        BlueprintContainer.Header header = reader.header();
+        assertEquals("house", header.name());
+        assertArrayEquals(new float[]{1.5f, 64f, -3f}, header.origin());
+        assertEquals(List.of("{\"type\":\"model\",\"label\":\"lamp\"}"), reader.objects());
+        assertEquals(List.of("{\"name\":\"spawn\"}"), reader.markers());
+        BlueprintContainer.Blocks decoded = reader.blocks();
+        reader.finish();
+
+        assertEquals(palette, decoded.palette());
+        assertFalse(decoded.shortIndices());
+        assertArrayEquals(voxels, decoded.voxels());
+        assertEquals(blocks.blockEntities(), decoded.blockEntities());
+    }
+
+    @Test
+    void largePalettesUseShortIndices() throws IOException {
+        int sizeX = 20, sizeY = 17, sizeZ = 5;
+        List<String> palette = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            palette.add("minecraft:block_" + i);
+        }
+        byte[] voxels = new byte[sizeX * sizeY * sizeZ * 2];
+        for (int i = 0; i < voxels.length / 2; i++) {
+            int value = (i * 31) % palette.size();
+            voxels[i * 2] = (byte) value;
+            voxels[i * 2 + 1] = (byte) (value >> 8);
+        }
+        byte[] encoded = write(null, List.of(), List.of(),
+                new BlueprintContainer.Blocks(sizeX, sizeY, sizeZ, palette, voxels, true, null));
+
+        BlueprintContainer.Reader reader = new BlueprintContainer.Reader(new ByteArrayInputStream(encoded));
+        assertNull(reader.header().name());
+        reader.objects();
+        reader.markers();
+        BlueprintContainer.Blocks decoded = reader.blocks();
+        reader.finish();
+        assertTrue(decoded.shortIndices());
+        assertArrayEquals(voxels, decoded.voxels());
+    }
+
+    @Test
+    void rejectsTruncatedAndCorruptInput() throws IOException {
+        byte[] voxels = new byte[16 * 16 * 16];
+        Arrays.fill(voxels, (byte) 1);
+        byte[] encoded = write("solid", List.of(), List.of(),
+                new BlueprintContainer.Blocks(16, 16, 16, List.of("minecraft:air", "minecraft:stone"), voxels,
+                        false, List.of()));
+
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 3);
+        assertThrows(IOException.class, () -> readAll(truncated));
+
+        byte[] badMagic = encoded.clone();
+        badMagic[0] = '{';
+        assertThrows(IOException.class, () -> readAll(badMagic));
+    }
+
+    @Test
+    void oversizedVolumesFailBeforeAllocating() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BlueprintContainer.Writer(out)
+                .header("huge", new float[3], new float[3])
+                .objects(List.of())
+                .markers(List.of());
+        // A block header claiming 2^30 voxels of a one entry palette, with no sections behind it.
+        out.write(1);
+        writeVarInt(out, 1024);
+        writeVarInt(out, 1024);
+        writeVarInt(out, 1024);
+        writeVarInt(out, 1);
+        writeVarInt(out, 1);
+        out.write('a');
+        byte[] encoded = out.toByteArray();
+
+        assertThrows(IOException.class, () -> readAll(encoded));
+        assertThrows(IOException.class, () -> validate(encoded));
+    }
+
+    @Test
+    void writerRefusesVolumesReadersWouldReject() {
+        BlueprintContainer.Blocks huge = new BlueprintContainer.Blocks(1024, 1024, 1024, List.of("minecraft:air"),
+                new byte[0], false, List.of());
+        assertThrows(IOException.class, () -> new BlueprintContainer.Writer(new ByteArrayOutputStream())
+                .header("huge", new float[3], new float[3])
+                .objects(List.of())
+                .markers(List.of())
+                .blocks(huge));
+    }
+
+    @Test
+    void skippingBlocksChecksSectionsWithoutDecodingThem() throws IOException {
+        byte[] voxels = new byte[20 * 4 * 20];
+        for (int i = 0; i < voxels.length; i++) {
+            voxels[i] = (byte) (i % 7 == 0 ? 1 : 0);
+        }
+        byte[] encoded = write("floor", List.of(), List.of(),
+                new BlueprintContainer.Blocks(20, 4, 20, List.of("minecraft:air", "minecraft:stone"), voxels,
+                        false, List.of()));
+        validate(encoded);
+
+        // Drop the last palette entry while a section still uses it.
+        voxels[voxels.length - 1] = 2;
+        byte[] encoded3 = write("floor", List.of(), List.of(),
+                new BlueprintContainer.Blocks(20, 4, 20,
+                        List.of("minecraft:air", "minecraft:stone", "minecraft:glass"), voxels, false, List.of()));
+        int glass = indexOf(encoded3, "minecraft:glass".getBytes(StandardCharsets.UTF_8)) - 1;
+        byte[] dangling = new byte[encoded3.length - 16];
+        System.arraycopy(encoded3, 0, dangling, 0, glass);
+        System.arraycopy(encoded3, glass + 16, dangling, glass, encoded3.length - glass - 16);
+        dangling[indexOf(dangling, "minecraft:air".getBytes(StandardCharsets.UTF_8)) - 2] = 2;
+        assertThrows(IOException.class, () -> validate(dangling));
+    }
+
+    private static byte[] write(String name, List<String> objects, List<String> markers,
+                                BlueprintContainer.Blocks blocks) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new BlueprintContainer.Writer(out)
+                .header(name, new float[]{1.5f, 64f, -3f}, new float[]{37f, 20f, 18f})
+                .objects(objects)
+                .markers(markers)
+                .blocks(blocks)
+                .finish();
+        return out.toByteArray();
+    }
+
+    private static void validate(byte[] data) throws IOException {
+        BlueprintContainer.Reader reader = new BlueprintContainer.Reader(new ByteArrayInputStream(data));
+        reader.header();
+        reader.objects();
+        reader.markers();
+        reader.skipBlocks();
+        reader.finish();
+    }
+
+    private static int indexOf(byte[] data, byte[] needle) {
+        outer:
+        for (int i = 0; i + needle.length <= data.length; i++) {
+            for (int j = 0; j < needle.length; j++) {
+                if (data[i + j] != needle[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        throw new AssertionError("not found");
+    }
+
+    private static void writeVarInt(ByteArrayOutputStream out, int value) {
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+    }
+
+    private static void readAll(byte[] data) throws IOException {
+        BlueprintContainer.Reader reader = new BlueprintContainer.Reader(new ByteArrayInputStream(data));
+        reader.header();
+        reader.objects();
+        reader.markers();
+        reader.blocks();
+        reader.finish();
+    }
+}
@@ -0,0 +1,78 @@
+package com.moud.network;
+
+import com.moud.network.serializer.MeshCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MeshCodecTest {
+
+    private static final double POSITION_EPSILON = 1.0 / 4096.0;
+
+    @Test
+    void weldedRoundTripKeepsEveryTriangle() {
+        // Top faces of a 4x4 floor in the chunk mesher's layout: six unshared vertices per face.
+        int faces = 16;
+        float[] vertices = new float[faces * 6 * 3];
+        int[] indices = new int[faces * 6];
+        int v = 0;
+        for (int x = 0; x < 4; x++) {
+            for (int z = 0; z < 4; z++) {
+                float wx = 160 + x, wz = -48 + z, y = 64.0625f;
+                float[][] quad = {{wx, y, wz}, {wx + 1, y, wz}, {wx + 1, y, wz + 1}, {wx, y, wz + 1}};
+                for (int corner : new int[]{2, 1, 0, 0, 3, 2}) {
+                    System.arraycopy(quad[corner], 0, vertices, v * 3, 3);
+                    indices[v] = v;
+                    v++;
+                }
+            }
+        }
+
+        MeshCodec.EncodedMesh encoded = MeshCodec.encode(vertices, indices);
+        assertNotNull(encoded);
+        MeshCodec.DecodedMesh decoded = MeshCodec.decode(encoded.vertices(), encoded.indices());
+
+        assertEquals(25 * 3, decoded.vertices().length, "Shared corners should be welded");
+        assertEquals(indices.length, decoded.indices().length);
+        for (int i = 0; i < indices.length; i++) {
+            int source = indices[i];
+            int target = decoded.indices()[i];
+            for (int axis = 0; axis < 3; axis++) {
+                assertEquals(vertices[source * 3 + axis], decoded.vertices()[target * 3 + axis], POSITION_EPSILON);
+            }
+        }
+        assertTrue(encoded.vertices().length + encoded.indices().length < vertices.length + indices.length,
+                "Encoded mesh should be at least 4x smaller than raw floats and ints");
+    }
+
+    @Test
+    void degenerateTrianglesAreDropped() {
+        float[] vertices = {0, 0, 0, 1, 0, 0, 0, 0, 1, 1, 0, 0};
+        int[] indices = {0, 1, 2, 1, 3, 2};
+
+        MeshCodec.EncodedMesh encoded = MeshCodec.encode(vertices, indices);
+        MeshCodec.DecodedMesh decoded = MeshCodec.decode(encoded.vertices(), encoded.indices());
+        assertEquals(3, decoded.indices().length);
+
+        assertNull(MeshCodec.encode(new float[]{0, 0, 0, 0, 0, 0, 0, 0, 0}, new int[]{0, 1, 2}));
+    }
+
+    @Test
+    void corruptBlobsAreRejected() {
+        float[] vertices = {0, 0, 0, 1, 0, 0, 0, 0, 1};
+        MeshCodec.EncodedMesh encoded = MeshCodec.encode(vertices, new int[]{0, 1, 2});
+        byte[] truncated = Arrays.copyOf(encoded.vertices(), encoded.vertices().length - 2);
+        assertThrows(IllegalArgumentException.class, () -> MeshCodec.decode(truncated, encoded.indices()));
+
+        byte[] legacy = encoded.indices().clone();
+        legacy[0] = 0x1F;
+        assertThrows(IllegalArgumentException.class, () -> MeshCodec.decode(encoded.vertices(), legacy));
+        assertThrows(IllegalArgumentException.class, () -> MeshCodec.encode(vertices, new int[]{0, 1, 3}));
+    }
+}
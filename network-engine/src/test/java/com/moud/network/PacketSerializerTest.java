@@ -207,6 +207,60 @@ class PacketSerializerTest {
         assertArrayEquals(packet.scale(), decoded.scale(), 0.0001f);
     }
 
+    @Test
+    void compiledCodecMatchesReflectiveWireFormat() {
+        List<Object> packets = List.of(
+                new MoudPackets.CursorPositionUpdatePacket(List.of(new MoudPackets.CursorUpdateData(
+                        UUID.randomUUID(),
+                        new Vector3(1.25f, 2.5f, -3.75f),
+                        new Vector3(0.0f, 1.0f, 0.0f),
+                        true
+                ))),
+                new MoudPackets.SceneEditPacket("scene-main", "update", java.util.Map.of("objectId", "tree-42"), 7L),
+                new MoudPackets.SceneEditAckPacket("scene-main", false, "rejected", null, 3L, null),
+                new MoudPackets.S2C_PrimitiveCreatePacket(
+                        7L,
+                        MoudPackets.PrimitiveType.MESH,
+                        new Vector3(1.0f, 2.0f, 3.0f),
+                        new Quaternion(0.0f, 0.0f, 0.0f, 1.0f),
+                        new Vector3(1.0f, 1.0f, 1.0f),
+                        MoudPackets.PrimitiveMaterial.solid(0.1f, 0.2f, 0.3f),
+                        List.of(new Vector3(0, 0, 0), new Vector3(1, 0, 0), new Vector3(0, 1, 0)),
+                        null,
+                        List.of(0, 1, 2),
+                        null
+                )
+        );
+
+        for (Object packet : packets) {
+            PacketMetadata metadata = requireMetadata(packet.getClass());
+            byte[] reflective = serializer.serializeReflective(packet, metadata, new TestByteBuffer());
+            byte[] compiled = serializer.serialize(packet, metadata, new TestByteBuffer());
+            assertArrayEquals(reflective, compiled, "Wire format diverged for " + packet.getClass().getSimpleName());
+
+            Object decoded = serializer.deserialize(compiled, packet.getClass(), metadata, new TestByteBuffer(compiled));
+            assertEquals(packet, decoded, packet.getClass().getSimpleName() + " did not round-trip through codec");
+        }
+    }
+
+    @Test
+    void numericIdsAreDenseAndStableAcrossRegistries() {
+        PacketRegistry other = new PacketRegistry();
+        other.scan("com.moud.network");
+        assertEquals(registry.getSchemaHash(), other.getSchemaHash(), "Schema hash must be deterministic");
+
+        int count = registry.getNumericIdCount();
+        assertEquals(registry.getAllMetadata().size(), count);
+        for (int id = 0; id < count; id++) {
+            PacketMetadata metadata = registry.getByNumericId(id);
+            assertNotNull(metadata, "Gap in numeric ids at " + id);
+            assertEquals(id, registry.getNumericId(metadata.packetClass()));
+            assertEquals(metadata.packetId(), other.getByNumericId(id).packetId());
+        }
+        assertEquals(-1, registry.getNumericId(String.class));
+        assertEquals(null, registry.getByNumericId(count));
+    }
+
     @Test
     void rejectsOversizedListPayloads() {
         PacketMetadata metadata = requireMetadata(MoudPackets.UIOverlayRemovePacket.class);
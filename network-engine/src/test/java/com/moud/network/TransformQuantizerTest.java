@@ -0,0 +1,120 @@
+package com.moud.network;
+
+import com.moud.api.math.Quaternion;
+import com.moud.api.math.Vector3;
+import com.moud.network.serializer.TransformQuantizer;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransformQuantizerTest {
+
+    private static final double POSITION_EPSILON = 1.0 / 4096.0;
+
+    @Test
+    void rotationRoundTripStaysCloseToSource() {
+        Quaternion[] samples = {
+                Quaternion.identity(),
+                Quaternion.fromEuler(30.0f, 45.0f, 10.0f),
+                Quaternion.fromEuler(-170.0f, 90.0f, 60.0f),
+                new Quaternion(0.0f, -1.0f, 0.0f, 0.0f)
+        };
+        for (Quaternion source : samples) {
+            Quaternion decoded = TransformQuantizer.unpackRotation(TransformQuantizer.packRotation(source));
+            float dot = Math.abs(source.x * decoded.x + source.y * decoded.y
+                    + source.z * decoded.z + source.w * decoded.w);
+            assertTrue(dot > 0.9995f, "Rotation drifted too far: dot=" + dot);
+        }
+    }
+
+    @Test
+    void deltaSkipsUnchangedFieldsAndKeyframeResendsAll() {
+        TransformQuantizer.Baseline baseline = new TransformQuantizer.Baseline();
+        TransformQuantizer.Writer writer = new TransformQuantizer.Writer(64);
+        Vector3 position = new Vector3(-1234.56f, 70.125f, 98765.4f);
+        Quaternion rotation = Quaternion.fromEuler(0.0f, 90.0f, 0.0f);
+        Vector3 scale = new Vector3(1.0f, 2.0f, 0.5f);
+
+        assertTrue(baseline.writeDelta(writer, 7L, position, rotation, scale, false));
+        List<MoudPackets.PrimitiveTransformEntry> full =
+                TransformQuantizer.decodePrimitiveTransforms(writer.toByteArray());
+        assertEquals(1, full.size());
+        assertEquals(7L, full.get(0).primitiveId());
+        assertEquals(position.x, full.get(0).position().x, 0.01);
+        assertEquals(position.z, full.get(0).position().z, 0.01);
+        assertEquals(2.0f, full.get(0).scale().y, 0.0f);
+
+        writer.reset();
+        assertFalse(baseline.writeDelta(writer, 7L, position, rotation, scale, false));
+        assertEquals(0, writer.size());
+
+        Vector3 moved = new Vector3(position.x + 0.5f, position.y, position.z);
+        assertTrue(baseline.writeDelta(writer, 7L, moved, rotation, scale, false));
+        MoudPackets.PrimitiveTransformEntry delta =
+                TransformQuantizer.decodePrimitiveTransforms(writer.toByteArray()).get(0);
+        assertNotNull(delta.position());
+        assertNull(delta.rotation());
+        assertNull(delta.scale());
+
+        writer.reset();
+        assertTrue(baseline.writeDelta(writer, 7L, moved, rotation, scale, true));
+        MoudPackets.PrimitiveTransformEntry keyframe =
+                TransformQuantizer.decodePrimitiveTransforms(writer.toByteArray()).get(0);
+        assertNotNull(keyframe.position());
+        assertNotNull(keyframe.rotation());
+        assertNotNull(keyframe.scale());
+    }
+
+    @Test
+    void snapshotRoundTripKeepsSubBlockPrecision() {
+        MoudPackets.PlayerSnapshotPacket source = new MoudPackets.PlayerSnapshotPacket(
+                42L, -15.123456, 64.0, 1_000_000.987654, 0.25f, -0.078f, 3.5f, true);
+        MoudPackets.PlayerSnapshotPacket decoded =
+                TransformQuantizer.decodeSnapshot(TransformQuantizer.encodeSnapshot(source));
+
+        assertEquals(42L, decoded.lastProcessedSeq());
+        assertEquals(source.x(), decoded.x(), POSITION_EPSILON);
+        assertEquals(source.y(), decoded.y(), POSITION_EPSILON);
+        assertEquals(source.z(), decoded.z(), POSITION_EPSILON);
+        assertEquals(source.velY(), decoded.velY(), 0.001f);
+        assertTrue(decoded.onGround());
+    }
+
+    @Test
+    void ikBatchRoundTrip() {
+        MoudPackets.S2C_IKBatchUpdatePacket source = new MoudPackets.S2C_IKBatchUpdatePacket(List.of(
+                new MoudPackets.IKChainBatchEntry("arm", List.of(
+                        new MoudPackets.IKJointData(new Vector3(1.0f, 2.0f, 3.0f), Quaternion.identity()),
+                        new MoudPackets.IKJointData(new Vector3(1.5f, 2.5f, 3.0f), null)
+                ), new Vector3(4.0f, 5.0f, 6.0f), true),
+                new MoudPackets.IKChainBatchEntry("leg", List.of(), null, false)
+        ), 99L);
+
+        MoudPackets.S2C_IKBatchUpdatePacket decoded =
+                TransformQuantizer.decodeIKBatch(TransformQuantizer.encodeIKBatch(source));
+
+        assertEquals(99L, decoded.timestamp());
+        assertEquals(2, decoded.chains().size());
+        MoudPackets.IKChainBatchEntry arm = decoded.chains().get(0);
+        assertEquals("arm", arm.chainId());
+        assertTrue(arm.targetReached());
+        assertEquals(5.0f, arm.targetPosition().y, 0.001f);
+        assertEquals(2.5f, arm.joints().get(1).position().y, 0.001f);
+        assertNull(arm.joints().get(1).rotation());
+        assertNull(decoded.chains().get(1).targetPosition());
+    }
+
+    @Test
+    void rejectsTruncatedPayload() {
+        MoudPackets.S2C_QuantizedPlayerSnapshotPacket truncated =
+                new MoudPackets.S2C_QuantizedPlayerSnapshotPacket(1L, new byte[]{0x02, 0x00});
+        assertThrows(IllegalArgumentException.class, () -> TransformQuantizer.decodeSnapshot(truncated));
+    }
+}
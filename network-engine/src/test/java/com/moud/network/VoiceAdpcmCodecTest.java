@@ -0,0 +1,138 @@
+package com.moud.network;
+
+import com.moud.network.serializer.VoiceAdpcmCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoiceAdpcmCodecTest {
+
+    private static final int SAMPLE_RATE = 48_000;
+    private static final int FRAME_SAMPLES = SAMPLE_RATE / 50;
+
+    @Test
+    void speechFramesStayUnderBitrateAndAboveQualityFloor() {
+        List<short[]> frames = speechFrames(150, 7);
+        VoiceAdpcmCodec.Encoder encoder = VoiceAdpcmCodec.newEncoder(SAMPLE_RATE);
+        VoiceAdpcmCodec.Decoder decoder = VoiceAdpcmCodec.newDecoder(SAMPLE_RATE);
+
+        short[] source = new short[frames.size() * FRAME_SAMPLES];
+        short[] decoded = new short[source.length];
+        long encodedBytes = 0;
+        for (int i = 0; i < frames.size(); i++) {
+            byte[] encoded = encoder.encode(frames.get(i), FRAME_SAMPLES);
+            encodedBytes += encoded.length;
+            short[] pcm = decoder.decode(encoded);
+            assertEquals(FRAME_SAMPLES, pcm.length);
+            System.arraycopy(frames.get(i), 0, source, i * FRAME_SAMPLES, FRAME_SAMPLES);
+            System.arraycopy(pcm, 0, decoded, i * FRAME_SAMPLES, FRAME_SAMPLES);
+        }
+
+        double kbps = encodedBytes * 8.0 / (frames.size() * 0.020) / 1000.0;
+        assertTrue(kbps <= 66.5, "Bitrate regressed: " + kbps + " kbit/s");
+        assertTrue(kbps * 11 < 768, "Less than 11x smaller than PCM: " + kbps + " kbit/s");
+
+        double snr = alignedSnr(source, decoded);
+        assertTrue(snr >= 28.0, "Speech SNR regressed: " + snr + " dB");
+    }
+
+    @Test
+    void framesDecodeIndependently() {
+        List<short[]> frames = speechFrames(10, 11);
+        VoiceAdpcmCodec.Encoder encoder = VoiceAdpcmCodec.newEncoder(SAMPLE_RATE);
+        VoiceAdpcmCodec.Decoder continuous = VoiceAdpcmCodec.newDecoder(VoiceAdpcmCodec.CODED_SAMPLE_RATE);
+        byte[] last = null;
+        short[] continuousLast = null;
+        for (short[] frame : frames) {
+            last = encoder.encode(frame, FRAME_SAMPLES);
+            continuousLast = continuous.decode(last);
+        }
+
+        // A decoder that never saw the earlier frames reproduces the ADPCM stream of the last one exactly.
+        short[] fresh = VoiceAdpcmCodec.newDecoder(VoiceAdpcmCodec.CODED_SAMPLE_RATE).decode(last);
+        assertArrayEquals(continuousLast, fresh);
+        assertEquals(FRAME_SAMPLES / 3, fresh.length);
+    }
+
+    @Test
+    void rejectsTruncatedFramesAndUnsupportedFormats() {
+        VoiceAdpcmCodec.Decoder decoder = VoiceAdpcmCodec.newDecoder(SAMPLE_RATE);
+        assertThrows(IllegalArgumentException.class, () -> decoder.decode(new byte[]{0, 0, 0, 100, 0, 1}));
+        assertTrue(!VoiceAdpcmCodec.supports(44_100, 1));
+        assertTrue(!VoiceAdpcmCodec.supports(SAMPLE_RATE, 2));
+    }
+
+    /**
+     * Deterministic speech-like signal: glottal pulse trains with a wandering pitch through two formant
+     * resonators, separated by unvoiced noise bursts and pauses.
+     */
+    static List<short[]> speechFrames(int count, long seed) {
+        Random random = new Random(seed);
+        List<short[]> frames = new ArrayList<>(count);
+        double phase = 0.0;
+        double[] f1 = new double[2];
+        double[] f2 = new double[2];
+        for (int frame = 0; frame < count; frame++) {
+            int segment = (frame / 8) % 4;
+            double pitch = 110.0 + 60.0 * Math.sin(frame * 0.17) + random.nextDouble() * 5.0;
+            double formant1 = 500.0 + 300.0 * Math.sin(frame * 0.11);
+            double formant2 = 1500.0 + 700.0 * Math.cos(frame * 0.07);
+            short[] pcm = new short[FRAME_SAMPLES];
+            for (int i = 0; i < FRAME_SAMPLES; i++) {
+                double excitation;
+                if (segment == 3) {
+                    excitation = 0.0;
+                } else if (segment == 2) {
+                    excitation = (random.nextDouble() - 0.5) * 0.6;
+                } else {
+                    phase += pitch / SAMPLE_RATE;
+                    if (phase >= 1.0) {
+                        phase -= 1.0;
+                    }
+                    excitation = phase < 0.05 ? 1.0 : -0.05;
+                }
+                double y1 = resonate(f1, excitation, formant1, 80.0);
+                double y2 = resonate(f2, excitation, formant2, 120.0);
+                double sample = (y1 + 0.5 * y2) * 2500.0 + (random.nextDouble() - 0.5) * 30.0;
+                pcm[i] = (short) Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, Math.round(sample)));
+            }
+            frames.add(pcm);
+        }
+        return frames;
+    }
+
+    private static double resonate(double[] state, double input, double frequency, double bandwidth) {
+        double r = Math.exp(-Math.PI * bandwidth / SAMPLE_RATE);
+        double a1 = 2.0 * r * Math.cos(2.0 * Math.PI * frequency / SAMPLE_RATE);
+        double a2 = -r * r;
+        double y = (1.0 - r) * input + a1 * state[0] + a2 * state[1];
+        state[1] = state[0];
+        state[0] = y;
+        return y;
+    }
+
+    /**
+     * SNR in dB of the decoded signal against the source, at the lag (resampling filter delay) that fits best.
+     */
+    static double alignedSnr(short[] source, short[] decoded) {
+        double best = Double.NEGATIVE_INFINITY;
+        for (int lag = 0; lag < 128; lag++) {
+            double signal = 0.0;
+            double noise = 0.0;
+            for (int i = 0; i + lag < decoded.length; i++) {
+                double diff = decoded[i + lag] - source[i];
+                signal += (double) source[i] * source[i];
+                noise += diff * diff;
+            }
+            best = Math.max(best, 10.0 * Math.log10(signal / Math.max(noise, 1e-9)));
+        }
+        return best;
+    }
+}
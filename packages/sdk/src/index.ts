@@ -982,6 +982,8 @@ export interface MicrophoneStartOptions {
     sessionId?: string;
     sampleRate?: number;
     frameSizeMs?: number;
+    /** Uplink codec: 'adpcm_wb' (default, ~66 kbit/s) or 'pcm_s16le'. */
+    codec?: string;
     legacyScriptEvents?: boolean;
     inputProcessing?: VoiceProcessingSpec;
     inputProcessors?: Array<string | VoiceProcessorRef>;
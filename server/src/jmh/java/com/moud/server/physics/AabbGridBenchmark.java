@@ -0,0 +1,107 @@
+package com.moud.server.physics;
+
+import com.moud.api.collision.AABB;
+import com.moud.api.math.Quaternion;
+import com.moud.api.math.Vector3;
+import com.moud.plugin.api.services.primitives.PrimitiveMaterial;
+import com.moud.plugin.api.services.primitives.PrimitiveType;
+import com.moud.server.physics.primitives.PrimitiveCollisionBounds;
+import com.moud.server.primitives.PrimitiveInstance;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one player collision query against scripted primitives: the previous full scan, which recomputed
+ * every primitive's bounds per query, against {@link AabbGrid}. Primitives are scattered over a 512x64x512
+ * area; queries are player-sized boxes swept by one tick of sprint-jump movement.
+ * <p>
+ * Run with {@code ./gradlew :server:jmh}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AabbGridBenchmark {
+    private static final int QUERIES = 256;
+
+    @Param({"1000", "10000", "50000"})
+    public int primitives;
+
+    private PrimitiveInstance[] instances;
+    private AabbGrid grid;
+    private AABB[] queries;
+    private final List<AABB> out = new ArrayList<>();
+    private Random random;
+    private int next;
+
+    @Setup
+    public void setup() {
+        random = new Random(7);
+        instances = new PrimitiveInstance[primitives];
+        grid = new AabbGrid(4.0);
+        for (int i = 0; i < primitives; i++) {
+            PrimitiveType type = i % 3 == 0 ? PrimitiveType.SPHERE : PrimitiveType.CUBE;
+            Vector3 scale = new Vector3(0.5f + random.nextFloat() * 2.5f, 0.5f + random.nextFloat() * 2.5f,
+                    0.5f + random.nextFloat() * 2.5f);
+            Quaternion rotation = i % 4 == 0
+                    ? Quaternion.fromEuler(0f, random.nextFloat() * 90f, 0f) : Quaternion.identity();
+            instances[i] = new PrimitiveInstance(i, type, randomPosition(), rotation, scale,
+                    PrimitiveMaterial.white(), null, null);
+            grid.put(i, PrimitiveCollisionBounds.computeAabb(instances[i]));
+        }
+        queries = new AABB[QUERIES];
+        for (int i = 0; i < QUERIES; i++) {
+            Vector3 p = randomPosition();
+            queries[i] = new AABB(p.x - 0.3, p.y, p.z - 0.3, p.x + 0.3, p.y + 1.8, p.z + 0.3)
+                    .expanded(0.3, 0.45, 0.3);
+        }
+    }
+
+    @Benchmark
+    public int linearScan() {
+        AABB query = queries[next++ & (QUERIES - 1)];
+        out.clear();
+        for (PrimitiveInstance instance : instances) {
+            AABB bounds = PrimitiveCollisionBounds.computeAabb(instance);
+            if (bounds != null && bounds.intersects(query)) {
+                out.add(bounds);
+            }
+        }
+        return out.size();
+    }
+
+    @Benchmark
+    public int gridQuery() {
+        AABB query = queries[next++ & (QUERIES - 1)];
+        out.clear();
+        return grid.query(query, out);
+    }
+
+    /**
+     * One primitive moved (as by a physics transform) per query, the steady state with dynamic primitives.
+     */
+    @Benchmark
+    public int gridMoveAndQuery() {
+        int moved = random.nextInt(primitives);
+        AABB bounds = PrimitiveCollisionBounds.computeAabb(instances[moved]);
+        double dx = random.nextDouble() - 0.5;
+        grid.put(moved, new AABB(bounds.minX() + dx, bounds.minY(), bounds.minZ(),
+                bounds.maxX() + dx, bounds.maxY(), bounds.maxZ()));
+        return gridQuery();
+    }
+
+    private Vector3 randomPosition() {
+        return new Vector3(random.nextFloat() * 512f - 256f, 64f + random.nextFloat() * 64f,
+                random.nextFloat() * 512f - 256f);
+    }
+}
@@ -29,6 +29,7 @@ import com.moud.server.particle.ParticleEmitterManager;
 import com.moud.server.permissions.PermissionCommands;
 import com.moud.server.permissions.PermissionManager;
 import com.moud.server.scripting.JavaScriptRuntime;
+import com.moud.server.scripting.SharedScriptEngine;
 import com.moud.server.scripting.MoudScriptModule;
 import com.moud.server.system.MoudSystem;
 import com.moud.server.task.AsyncManager;
@@ -173,6 +174,7 @@ public class MoudEngine {
             clientScriptManager.initialize();
 
             this.eventDispatcher = new EventDispatcher(this);
+            SharedScriptEngine.install(projectRoot);
             this.runtime = new JavaScriptRuntime(this);
             this.sharedPhysicsContext = createSharedPhysicsContext();
             this.sharedPhysicsLoader = new SharedPhysicsLoader(sharedPhysicsContext);
@@ -192,7 +194,8 @@ public class MoudEngine {
 
             this.networkManager = new ServerNetworkManager(eventDispatcher, clientScriptManager, resourcePackService);
             networkManager.initialize();
-            this.voiceChatManager = new ServerVoiceChatManager();
+            this.voiceChatManager = new ServerVoiceChatManager(
+                    projectRoot.resolve(".moud").resolve("cache").resolve("voice-recordings"));
             ServerVoiceChatManager.install(voiceChatManager);
             voiceChatManager.initialize();
             this.particleBatcher = new ParticleBatcher(networkManager);
@@ -453,8 +456,8 @@ public class MoudEngine {
                 .build();
 
         return Context.newBuilder("js")
+                .engine(SharedScriptEngine.getInstance().getEngine())
                 .allowHostAccess(hostAccess)
-                .option("engine.WarnInterpreterOnly", "false")
                 .build();
     }
 
@@ -520,10 +523,12 @@ public class MoudEngine {
                 LOGGER.warn("Failed to close shared physics context cleanly", e);
             }
         }
+        SharedScriptEngine.shutdown();
         if (voiceChatManager != null) voiceChatManager.shutdown();
         if (physicsService != null) physicsService.shutdown();
         if (pluginManager != null) pluginManager.shutdown();
         if (sharedValueManager != null) sharedValueManager.shutdown();
+        if (networkManager != null) networkManager.shutdown();
         if (profilerService != null) profilerService.stop();
         if (systemsTask != null) {
             systemsTask.cancel();
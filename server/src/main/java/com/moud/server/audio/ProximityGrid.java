@@ -0,0 +1,108 @@
+package com.moud.server.audio;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Immutable XZ spatial hash of positioned values, rebuilt wholesale from a {@link Builder} and then shared
+ * read-only across threads. Cells are keyed the same way as the zone grid.
+ */
+final class ProximityGrid<T> {
+    private final int cellSize;
+    private final Map<Long, List<Entry<T>>> cells;
+    private final List<Entry<T>> all;
+
+    private ProximityGrid(int cellSize, Map<Long, List<Entry<T>>> cells, List<Entry<T>> all) {
+        this.cellSize = cellSize;
+        this.cells = cells;
+        this.all = all;
+    }
+
+    static <T> ProximityGrid<T> empty(int cellSize) {
+        return new ProximityGrid<>(cellSize, Map.of(), List.of());
+    }
+
+    static <T> Builder<T> builder(int cellSize) {
+        return new Builder<>(cellSize);
+    }
+
+    int size() {
+        return all.size();
+    }
+
+    /**
+     * Visits every value within {@code range} (3D distance) of the given point. Falls back to a linear scan
+     * when the range spans more cells than are occupied.
+     */
+    void forEachWithin(double x, double y, double z, double range, Consumer<T> consumer) {
+        if (all.isEmpty() || !(range >= 0.0)) {
+            return;
+        }
+        double rangeSq = range * range;
+        int minCellX = cell(x - range);
+        int maxCellX = cell(x + range);
+        int minCellZ = cell(z - range);
+        int maxCellZ = cell(z + range);
+        long span = (long) (maxCellX - minCellX + 1) * (maxCellZ - minCellZ + 1);
+        if (span > cells.size()) {
+            visit(all, x, y, z, rangeSq, consumer);
+            return;
+        }
+        for (int cx = minCellX; cx <= maxCellX; cx++) {
+            for (int cz = minCellZ; cz <= maxCellZ; cz++) {
+                List<Entry<T>> bucket = cells.get(cellHash(cx, cz));
+                if (bucket != null) {
+                    visit(bucket, x, y, z, rangeSq, consumer);
+                }
+            }
+        }
+    }
+
+    private static <T> void visit(List<Entry<T>> entries, double x, double y, double z, double rangeSq,
+                                  Consumer<T> consumer) {
+        for (Entry<T> entry : entries) {
+            double dx = entry.x - x;
+            double dy = entry.y - y;
+            double dz = entry.z - z;
+            if (dx * dx + dy * dy + dz * dz <= rangeSq) {
+                consumer.accept(entry.value);
+            }
+        }
+    }
+
+    private int cell(double coordinate) {
+        return (int) Math.floor(coordinate / cellSize);
+    }
+
+    private static long cellHash(int cellX, int cellZ) {
+        return (long) cellX << 32 | (long) cellZ & 0xFFFFFFFFL;
+    }
+
+    private record Entry<T>(T value, double x, double y, double z) {
+    }
+
+    static final class Builder<T> {
+        private final int cellSize;
+        private final Map<Long, List<Entry<T>>> cells = new HashMap<>();
+        private final List<Entry<T>> all = new ArrayList<>();
+
+        private Builder(int cellSize) {
+            this.cellSize = Math.max(1, cellSize);
+        }
+
+        Builder<T> add(T value, double x, double y, double z) {
+            Entry<T> entry = new Entry<>(value, x, y, z);
+            long key = cellHash((int) Math.floor(x / cellSize), (int) Math.floor(z / cellSize));
+            cells.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            all.add(entry);
+            return this;
+        }
+
+        ProximityGrid<T> build() {
+            return new ProximityGrid<>(cellSize, cells, all);
+        }
+    }
+}
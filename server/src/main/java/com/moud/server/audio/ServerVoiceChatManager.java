@@ -4,6 +4,7 @@ import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.moud.api.math.Vector3;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.VoiceAdpcmCodec;
 import com.moud.server.MoudEngine;
 import com.moud.server.events.EventDispatcher;
 import com.moud.server.network.ServerNetworkManager;
@@ -16,16 +17,20 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 public final class ServerVoiceChatManager {
 
@@ -40,11 +45,15 @@ public final class ServerVoiceChatManager {
     private static final int MAX_PACKET_BYTES = Integer.getInteger("moud.voice.maxPacketBytes", 32 * 1024);
     private static final int MAX_ACTIVE_STREAMS_PER_RECEIVER =
             Integer.getInteger("moud.voice.maxStreamsPerReceiver", 8);
+    private static final int GRID_CELL_SIZE = Integer.getInteger("moud.voice.gridCellSize", 16);
 
     private final ConcurrentMap<UUID, VoiceSession> sessions = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, VoiceRoutingConfig> routingConfigs = new ConcurrentHashMap<>();
     private final ConcurrentMap<UUID, ReceiverState> receiverStates = new ConcurrentHashMap<>();
-    private final ConcurrentMap<String, VoiceRecording> recordings = new ConcurrentHashMap<>();
+    private final VoiceRecordingStore recordingStore;
+    private final ConcurrentMap<String, Set<UUID>> channelMembers = new ConcurrentHashMap<>();
+    // Receiver positions as of the last voice tick; proximity routing reads this instead of scanning players.
+    private volatile ProximityGrid<Player> receiverGrid = ProximityGrid.empty(GRID_CELL_SIZE);
 
     private volatile boolean initialized;
     private Task tickTask;
@@ -54,6 +63,11 @@ public final class ServerVoiceChatManager {
     }
 
     public ServerVoiceChatManager() {
+        this(Path.of(System.getProperty("java.io.tmpdir"), "moud-voice-recordings"));
+    }
+
+    public ServerVoiceChatManager(Path recordingDirectory) {
+        this.recordingStore = VoiceRecordingStore.fromSystemProperties(recordingDirectory);
     }
 
     public static ServerVoiceChatManager getInstance() {
@@ -85,8 +99,10 @@ public final class ServerVoiceChatManager {
         }
         sessions.clear();
         routingConfigs.clear();
+        channelMembers.clear();
+        receiverGrid = ProximityGrid.empty(GRID_CELL_SIZE);
         receiverStates.clear();
-        recordings.clear();
+        recordingStore.clear();
         initialized = false;
         LOGGER.info("Voice chat manager shut down");
     }
@@ -147,9 +163,9 @@ public final class ServerVoiceChatManager {
         }
 
         if (session.activeRecordingId != null) {
-            VoiceRecording recording = recordings.get(session.activeRecordingId);
+            VoiceRecordingStore.Recording recording = recordingStore.get(session.activeRecordingId);
             if (recording != null) {
-                recording.appendFrame(speaker.getUuid(), codecParams, packet);
+                recording.append(speaker.getUuid(), packet);
             }
         }
 
@@ -182,10 +198,26 @@ public final class ServerVoiceChatManager {
         if (options == null || options.isEmpty()) {
             return;
         }
-        routingConfigs.compute(playerId, (uuid, current) -> {
-            VoiceRoutingConfig base = current != null ? current : VoiceRoutingConfig.defaults();
-            return base.merge(options);
-        });
+        synchronized (channelMembers) {
+            VoiceRoutingConfig previous = routingConfigs.get(playerId);
+            VoiceRoutingConfig updated = routingConfigs.compute(playerId, (uuid, current) -> {
+                VoiceRoutingConfig base = current != null ? current : VoiceRoutingConfig.defaults();
+                return base.merge(options);
+            });
+            String previousChannel = previous != null ? previous.channel : "";
+            if (!previousChannel.equals(updated.channel)) {
+                if (!previousChannel.isEmpty()) {
+                    channelMembers.computeIfPresent(previousChannel, (channel, members) -> {
+                        members.remove(playerId);
+                        return members.isEmpty() ? null : members;
+                    });
+                }
+                if (!updated.channel.isEmpty()) {
+                    channelMembers.computeIfAbsent(updated.channel, channel -> ConcurrentHashMap.newKeySet())
+                            .add(playerId);
+                }
+            }
+        }
     }
 
     public Map<String, Object> getRouting(UUID playerId) {
@@ -205,8 +237,14 @@ public final class ServerVoiceChatManager {
         }
         String id = recordingId != null && !recordingId.isBlank() ? recordingId : UUID.randomUUID().toString();
         long clampedMaxDuration = Math.max(1_000L, Math.min(maxDurationMs, 5 * 60_000L));
-        recordings.put(id, new VoiceRecording(id, clampedMaxDuration));
-        sessions.computeIfAbsent(playerId, uuid -> new VoiceSession()).activeRecordingId = id;
+        if (recordingStore.create(id, clampedMaxDuration) == null) {
+            return null;
+        }
+        VoiceSession session = sessions.computeIfAbsent(playerId, uuid -> new VoiceSession());
+        if (session.activeRecordingId != null && !session.activeRecordingId.equals(id)) {
+            finishRecording(session.activeRecordingId);
+        }
+        session.activeRecordingId = id;
         return id;
     }
 
@@ -215,16 +253,24 @@ public final class ServerVoiceChatManager {
             return;
         }
         VoiceSession session = sessions.get(playerId);
-        if (session != null) {
+        if (session != null && session.activeRecordingId != null) {
+            finishRecording(session.activeRecordingId);
             session.activeRecordingId = null;
         }
     }
 
+    private void finishRecording(String recordingId) {
+        VoiceRecordingStore.Recording recording = recordingStore.get(recordingId);
+        if (recording != null) {
+            recording.finish();
+        }
+    }
+
     public void deleteRecording(String recordingId) {
         if (recordingId == null || recordingId.isBlank()) {
             return;
         }
-        recordings.remove(recordingId);
+        recordingStore.delete(recordingId);
         sessions.values().forEach(session -> {
             if (recordingId.equals(session.activeRecordingId)) {
                 session.activeRecordingId = null;
@@ -236,18 +282,19 @@ public final class ServerVoiceChatManager {
         if (recordingId == null || recordingId.isBlank()) {
             return;
         }
-        VoiceRecording recording = recordings.get(recordingId);
+        VoiceRecordingStore.Recording recording = recordingStore.get(recordingId);
         if (recording == null) {
             return;
         }
 
-        List<VoiceFrame> frames = recording.snapshotFrames();
-        if (frames.isEmpty()) {
+        // Frames appended after this point are not part of the replay.
+        int frameCount = recording.frameCount();
+        if (frameCount == 0) {
             return;
         }
 
         ReplayOptions parsed = ReplayOptions.from(options);
-        UUID sourceSpeakerId = frames.getFirst().speakerId;
+        UUID sourceSpeakerId = recording.firstSpeakerId();
         List<Player> targets = resolveTargets(parsed, sourceSpeakerId);
         if (targets.isEmpty()) {
             return;
@@ -258,10 +305,11 @@ public final class ServerVoiceChatManager {
                 : "replay:" + recordingId;
 
         long startedAtMs = System.currentTimeMillis();
-        long baseTimestamp = frames.getFirst().timestampMs;
+        long baseTimestamp = recording.timestampAt(0);
 
         ReplayRunnable replayRunnable = new ReplayRunnable(
-                frames,
+                recording,
+                frameCount,
                 targets,
                 parsed,
                 replayId,
@@ -326,6 +374,10 @@ public final class ServerVoiceChatManager {
         return new ArrayList<>(online);
     }
 
+    /**
+     * Relays one microphone frame. Receivers come from the proximity grid, the channel member index or the
+     * direct target list, and the outbound packet is encoded once for all of them.
+     */
     private void routeToTargets(Player speaker,
                                 MoudPackets.VoiceMicrophoneChunkPacket packet,
                                 VoiceRoutingConfig routing) {
@@ -334,77 +386,89 @@ public final class ServerVoiceChatManager {
             return;
         }
 
-        Collection<Player> online = MinecraftServer.getConnectionManager().getOnlinePlayers();
-        if (online.isEmpty()) {
+        List<Player> receivers = new ArrayList<>();
+        collectCandidates(routing, speaker, candidate -> {
+            if (candidate.getUuid().equals(speaker.getUuid())) {
+                return;
+            }
+            ReceiverState receiverState = receiverStates.computeIfAbsent(
+                    candidate.getUuid(),
+                    uuid -> new ReceiverState()
+            );
+            if (receiverState.allowStream(speaker.getUuid(), routing.priority, packet.speaking())) {
+                receivers.add(candidate);
+            }
+        });
+        if (receivers.isEmpty()) {
             return;
         }
 
         Vector3 position = routing.positional
                 ? new Vector3(speaker.getPosition().x(), speaker.getPosition().y(), speaker.getPosition().z())
                 : null;
+        MoudPackets.VoiceStreamChunkPacket out = new MoudPackets.VoiceStreamChunkPacket(
+                speaker.getUuid(),
+                packet.sessionId(),
+                packet.sequence(),
+                packet.timestampMs(),
+                packet.codec(),
+                packet.sampleRate(),
+                packet.channels(),
+                packet.frameSizeMs(),
+                packet.level(),
+                packet.speaking(),
+                packet.data(),
+                routing.outputProcessing,
+                position,
+                null
+        );
+        network.sendToPlayers(out, receivers);
+    }
 
-        for (Player receiver : online) {
-            if (receiver.getUuid().equals(speaker.getUuid())) {
-                continue;
+    private void collectCandidates(VoiceRoutingConfig routing, Player speaker, Consumer<Player> consumer) {
+        switch (routing.mode) {
+            case PROXIMITY -> {
+                Pos origin = speaker.getPosition();
+                receiverGrid.forEachWithin(origin.x(), origin.y(), origin.z(), routing.effectiveRange(), consumer);
             }
-            if (!shouldReceive(routing, speaker, receiver)) {
-                continue;
+            case CHANNEL, RADIO -> {
+                if (routing.channel.isBlank()) {
+                    return;
+                }
+                Set<UUID> members = channelMembers.get(routing.channel);
+                if (members != null) {
+                    for (UUID memberId : members) {
+                        Player member = findOnlinePlayer(memberId);
+                        if (member != null) {
+                            consumer.accept(member);
+                        }
+                    }
+                }
             }
-
-            ReceiverState receiverState = receiverStates.computeIfAbsent(
-                    receiver.getUuid(),
-                    uuid -> new ReceiverState()
-            );
-            if (!receiverState.allowStream(speaker.getUuid(), routing.priority, packet.speaking())) {
-                continue;
+            case DIRECT -> {
+                for (UUID targetId : routing.targets) {
+                    Player target = findOnlinePlayer(targetId);
+                    if (target != null) {
+                        consumer.accept(target);
+                    }
+                }
             }
-
-            MoudPackets.VoiceStreamChunkPacket out = new MoudPackets.VoiceStreamChunkPacket(
-                    speaker.getUuid(),
-                    packet.sessionId(),
-                    packet.sequence(),
-                    packet.timestampMs(),
-                    packet.codec(),
-                    packet.sampleRate(),
-                    packet.channels(),
-                    packet.frameSizeMs(),
-                    packet.level(),
-                    packet.speaking(),
-                    packet.data(),
-                    routing.outputProcessing,
-                    position,
-                    null
-            );
-            network.send(receiver, out);
         }
     }
 
-    private boolean shouldReceive(VoiceRoutingConfig routing, Player speaker, Player receiver) {
-        if (routing == null) {
-            return false;
+    private void rebuildReceiverGrid() {
+        ProximityGrid.Builder<Player> builder = ProximityGrid.builder(GRID_CELL_SIZE);
+        for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
+            Pos pos = player.getPosition();
+            builder.add(player, pos.x(), pos.y(), pos.z());
         }
-
-        return switch (routing.mode) {
-            case PROXIMITY -> {
-                double range = routing.effectiveRange();
-                yield receiver.getPosition().distanceSquared(speaker.getPosition()) <= range * range;
-            }
-            case CHANNEL, RADIO -> {
-                if (routing.channel == null || routing.channel.isBlank()) {
-                    yield false;
-                }
-                VoiceRoutingConfig receiverConfig = routingConfigs.getOrDefault(
-                        receiver.getUuid(),
-                        VoiceRoutingConfig.defaults()
-                );
-                yield Objects.equals(routing.channel, receiverConfig.channel);
-            }
-            case DIRECT -> routing.targets.contains(receiver.getUuid());
-        };
+        receiverGrid = builder.build();
     }
 
     private void tick() {
         long nowMs = System.currentTimeMillis();
+        rebuildReceiverGrid();
+        recordingStore.enforceRetention(nowMs);
 
         sessions.forEach((uuid, session) -> {
             long sincePacket = nowMs - session.lastPacketAtMs;
@@ -434,16 +498,15 @@ public final class ServerVoiceChatManager {
         if (playerId == null) {
             return null;
         }
-        for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
-            if (player.getUuid().equals(playerId)) {
-                return player;
-            }
-        }
-        return null;
+        return MinecraftServer.getConnectionManager().getOnlinePlayerByUuid(playerId);
     }
 
+    /**
+     * Streams a recording from disk, reading each frame through the store only when it is due.
+     */
     private final class ReplayRunnable implements Runnable {
-        private final List<VoiceFrame> frames;
+        private final VoiceRecordingStore.Recording recording;
+        private final int frameCount;
         private final List<Player> targets;
         private final ReplayOptions options;
         private final String replayId;
@@ -452,13 +515,15 @@ public final class ServerVoiceChatManager {
         private Task task;
         private int index;
 
-        private ReplayRunnable(List<VoiceFrame> frames,
+        private ReplayRunnable(VoiceRecordingStore.Recording recording,
+                               int frameCount,
                                List<Player> targets,
                                ReplayOptions options,
                                String replayId,
                                long startedAtMs,
                                long baseTimestampMs) {
-            this.frames = frames;
+            this.recording = recording;
+            this.frameCount = frameCount;
             this.targets = targets;
             this.options = options;
             this.replayId = replayId;
@@ -475,25 +540,30 @@ public final class ServerVoiceChatManager {
             long nowMs = System.currentTimeMillis();
             long elapsedMs = Math.max(0L, nowMs - startedAtMs);
 
-            while (index < frames.size()) {
-                VoiceFrame frame = frames.get(index);
-                long dueMs = Math.max(0L, frame.timestampMs - baseTimestampMs);
+            while (index < frameCount) {
+                long dueMs = Math.max(0L, recording.timestampAt(index) - baseTimestampMs);
                 if (dueMs > elapsedMs + 25L) {
                     break;
                 }
+                VoiceRecordingStore.StoredFrame frame = recording.read(index);
+                if (frame == null) {
+                    // Deleted or evicted while replaying.
+                    index = frameCount;
+                    break;
+                }
 
                 MoudPackets.VoiceStreamChunkPacket out = new MoudPackets.VoiceStreamChunkPacket(
-                        frame.speakerId,
-                        frame.sessionId,
-                        frame.sequence,
-                        frame.timestampMs,
-                        frame.codecParams.codec(),
-                        frame.codecParams.sampleRate(),
-                        frame.codecParams.channels(),
-                        frame.codecParams.frameSizeMs(),
-                        frame.level,
-                        frame.speaking,
-                        frame.data,
+                        frame.speakerId(),
+                        frame.sessionId(),
+                        frame.sequence(),
+                        frame.timestampMs(),
+                        frame.codec(),
+                        frame.sampleRate(),
+                        frame.channels(),
+                        frame.frameSizeMs(),
+                        frame.level(),
+                        frame.speaking(),
+                        frame.data(),
                         options.outputProcessing,
                         options.position,
                         replayId
@@ -506,7 +576,7 @@ public final class ServerVoiceChatManager {
                 index++;
             }
 
-            if (index >= frames.size() && task != null) {
+            if (index >= frameCount && task != null) {
                 task.cancel();
             }
         }
@@ -595,7 +665,7 @@ public final class ServerVoiceChatManager {
 
     private record CodecParams(String codec, int sampleRate, int channels, int frameSizeMs) {
         static CodecParams defaults() {
-            return new CodecParams("pcm_s16le", 48000, 1, 20);
+            return new CodecParams(VoiceAdpcmCodec.ID, 48000, 1, 20);
         }
 
         Map<String, Object> toMap() {
@@ -643,7 +713,7 @@ public final class ServerVoiceChatManager {
             this.range = range;
             this.speechMode = speechMode;
             this.channel = channel == null ? "" : channel;
-            this.targets = targets != null ? List.copyOf(targets) : List.of();
+            this.targets = targets != null ? List.copyOf(new LinkedHashSet<>(targets)) : List.of();
             this.priority = priority;
             this.positional = positional;
             this.outputProcessing = outputProcessing != null && !outputProcessing.isEmpty()
@@ -899,78 +969,6 @@ public final class ServerVoiceChatManager {
         }
     }
 
-    private static final class VoiceRecording {
-        private final String id;
-        private final long maxDurationMs;
-        private final List<VoiceFrame> frames = new ArrayList<>();
-        private volatile boolean closed;
-
-        private VoiceRecording(String id, long maxDurationMs) {
-            this.id = id;
-            this.maxDurationMs = maxDurationMs;
-        }
-
-        synchronized void appendFrame(UUID speakerId,
-                                      CodecParams codecParams,
-                                      MoudPackets.VoiceMicrophoneChunkPacket packet) {
-            if (closed) {
-                return;
-            }
-            if (!frames.isEmpty()) {
-                long baseTimestamp = frames.getFirst().timestampMs;
-                long duration = packet.timestampMs() - baseTimestamp;
-                if (duration > maxDurationMs) {
-                    closed = true;
-                    return;
-                }
-            }
-
-            frames.add(new VoiceFrame(
-                    speakerId,
-                    packet.sessionId(),
-                    packet.sequence(),
-                    packet.timestampMs(),
-                    codecParams,
-                    packet.level(),
-                    packet.speaking(),
-                    packet.data() != null ? packet.data().clone() : new byte[0]
-            ));
-        }
-
-        synchronized List<VoiceFrame> snapshotFrames() {
-            return new ArrayList<>(frames);
-        }
-    }
-
-    private static final class VoiceFrame {
-        private final UUID speakerId;
-        private final String sessionId;
-        private final int sequence;
-        private final long timestampMs;
-        private final CodecParams codecParams;
-        private final float level;
-        private final boolean speaking;
-        private final byte[] data;
-
-        private VoiceFrame(UUID speakerId,
-                           String sessionId,
-                           int sequence,
-                           long timestampMs,
-                           CodecParams codecParams,
-                           float level,
-                           boolean speaking,
-                           byte[] data) {
-            this.speakerId = Objects.requireNonNull(speakerId, "speakerId");
-            this.sessionId = sessionId == null ? "" : sessionId;
-            this.sequence = sequence;
-            this.timestampMs = timestampMs;
-            this.codecParams = codecParams;
-            this.level = level;
-            this.speaking = speaking;
-            this.data = data != null ? data : new byte[0];
-        }
-    }
-
     private static final class ReplayOptions {
         private final List<UUID> targetUuids;
         private final Double range;
@@ -0,0 +1,439 @@
+package com.moud.server.audio;
+
+import com.moud.network.MoudPackets;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Disk-backed voice recordings. Each recording appends its frames to numbered segment files in its own directory
+ * and keeps only a primitive frame index (segment, offset, timestamp) on the heap; replays read frames back
+ * through read-only memory mappings of the segments.
+ * <p>
+ * Limits, all overridable with system properties: {@code moud.voice.recording.segmentBytes} per segment file
+ * (4 MiB), {@code moud.voice.recording.maxBytes} per recording (64 MiB), {@code moud.voice.recording.storeMaxBytes}
+ * across the store (512 MiB; finished recordings are evicted oldest first to make room) and
+ * {@code moud.voice.recording.retentionMs} since a recording's last frame (one hour). Recordings do not outlive the
+ * server; leftovers from a previous run are purged when the store is first used.
+ */
+final class VoiceRecordingStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(VoiceRecordingStore.class);
+    private static final String RECORDING_SUFFIX = ".rec";
+    private static final int RECORD_HEADER_BYTES = 4;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final long maxRecordingBytes;
+    private final long maxStoreBytes;
+    private final long retentionMs;
+    private final ConcurrentMap<String, Recording> recordings = new ConcurrentHashMap<>();
+    private final AtomicLong storeBytes = new AtomicLong();
+    private final AtomicInteger nextDirectory = new AtomicInteger();
+    private volatile boolean prepared;
+
+    VoiceRecordingStore(Path directory, long segmentBytes, long maxRecordingBytes, long maxStoreBytes,
+                        long retentionMs) {
+        this.directory = directory;
+        this.segmentBytes = Math.max(4 * 1024, segmentBytes);
+        this.maxRecordingBytes = maxRecordingBytes;
+        this.maxStoreBytes = maxStoreBytes;
+        this.retentionMs = retentionMs;
+    }
+
+    static VoiceRecordingStore fromSystemProperties(Path directory) {
+        return new VoiceRecordingStore(
+                directory,
+                Long.getLong("moud.voice.recording.segmentBytes", 4L * 1024 * 1024),
+                Long.getLong("moud.voice.recording.maxBytes", 64L * 1024 * 1024),
+                Long.getLong("moud.voice.recording.storeMaxBytes", 512L * 1024 * 1024),
+                Long.getLong("moud.voice.recording.retentionMs", 60 * 60_000L)
+        );
+    }
+
+    /**
+     * Starts a new recording, replacing any existing recording with the same id.
+     *
+     * @return the recording, or null if the store directory cannot be written
+     */
+    @Nullable
+    Recording create(String id, long maxDurationMs) {
+        Path recordingDirectory;
+        try {
+            prepare();
+            recordingDirectory = directory.resolve(String.format("%08d%s", nextDirectory.incrementAndGet(),
+                    RECORDING_SUFFIX));
+            Files.createDirectories(recordingDirectory);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to create voice recording '{}' under {}", id, directory, e);
+            return null;
+        }
+        Recording recording = new Recording(id, recordingDirectory, maxDurationMs);
+        Recording previous = recordings.put(id, recording);
+        if (previous != null) {
+            previous.delete();
+        }
+        return recording;
+    }
+
+    @Nullable
+    Recording get(String id) {
+        return recordings.get(id);
+    }
+
+    void delete(String id) {
+        Recording recording = recordings.remove(id);
+        if (recording != null) {
+            recording.delete();
+        }
+    }
+
+    void clear() {
+        for (String id : List.copyOf(recordings.keySet())) {
+            delete(id);
+        }
+    }
+
+    long sizeBytes() {
+        return storeBytes.get();
+    }
+
+    /**
+     * Deletes recordings whose last frame is older than the retention period.
+     */
+    void enforceRetention(long nowMs) {
+        if (retentionMs <= 0) {
+            return;
+        }
+        recordings.forEach((id, recording) -> {
+            if (nowMs - recording.lastWriteMs > retentionMs && recordings.remove(id, recording)) {
+                recording.delete();
+            }
+        });
+    }
+
+    private boolean reserve(Recording requester, long bytes) {
+        if (storeBytes.addAndGet(bytes) <= maxStoreBytes) {
+            return true;
+        }
+        List<Recording> finished = new ArrayList<>();
+        for (Recording recording : recordings.values()) {
+            if (recording != requester && recording.closed) {
+                finished.add(recording);
+            }
+        }
+        finished.sort(Comparator.comparingLong(recording -> recording.lastWriteMs));
+        for (Recording recording : finished) {
+            if (storeBytes.get() <= maxStoreBytes) {
+                break;
+            }
+            if (recordings.remove(recording.id, recording)) {
+                LOGGER.info("Evicting voice recording '{}' to stay under the store limit", recording.id);
+                recording.delete();
+            }
+        }
+        if (storeBytes.get() <= maxStoreBytes) {
+            return true;
+        }
+        storeBytes.addAndGet(-bytes);
+        return false;
+    }
+
+    private void prepare() throws IOException {
+        if (prepared) {
+            return;
+        }
+        synchronized (this) {
+            if (prepared) {
+                return;
+            }
+            Files.createDirectories(directory);
+            try (DirectoryStream<Path> stale = Files.newDirectoryStream(directory, "*" + RECORDING_SUFFIX)) {
+                for (Path leftover : stale) {
+                    deleteRecursively(leftover);
+                }
+            }
+            prepared = true;
+        }
+    }
+
+    private static void deleteRecursively(Path path) {
+        try {
+            if (Files.isDirectory(path)) {
+                try (DirectoryStream<Path> children = Files.newDirectoryStream(path)) {
+                    for (Path child : children) {
+                        deleteRecursively(child);
+                    }
+                }
+            }
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.debug("Failed to delete {}: {}", path, e.getMessage());
+        }
+    }
+
+    record StoredFrame(UUID speakerId,
+                       String sessionId,
+                       int sequence,
+                       long timestampMs,
+                       String codec,
+                       int sampleRate,
+                       int channels,
+                       int frameSizeMs,
+                       float level,
+                       boolean speaking,
+                       byte[] data) {
+    }
+
+    /**
+     * One recording. Appends come from the speaker's packet thread, reads from replay tasks; both synchronize on
+     * the recording.
+     */
+    final class Recording {
+        private final String id;
+        private final Path directory;
+        private final long maxDurationMs;
+        private final List<Path> segments = new ArrayList<>();
+        private MappedByteBuffer[] mappings = new MappedByteBuffer[0];
+        private FileChannel writer;
+        private long writerOffset;
+        private ByteBuffer scratch = ByteBuffer.allocate(512);
+        private int[] frameSegments = new int[256];
+        private int[] frameOffsets = new int[256];
+        private long[] frameTimestamps = new long[256];
+        private int frameCount;
+        private long bytes;
+        private UUID firstSpeakerId;
+        private volatile long lastWriteMs = System.currentTimeMillis();
+        private volatile boolean closed;
+        private boolean deleted;
+
+        private Recording(String id, Path directory, long maxDurationMs) {
+            this.id = id;
+            this.directory = directory;
+            this.maxDurationMs = maxDurationMs;
+        }
+
+        String id() {
+            return id;
+        }
+
+        /**
+         * Appends a frame unless the recording is finished or a duration or size limit is reached, in which case
+         * the recording is finished instead.
+         */
+        synchronized boolean append(UUID speakerId, MoudPackets.VoiceMicrophoneChunkPacket packet) {
+            if (closed) {
+                return false;
+            }
+            if (frameCount > 0 && packet.timestampMs() - frameTimestamps[0] > maxDurationMs) {
+                finish();
+                return false;
+            }
+            ByteBuffer record = encode(speakerId, packet);
+            int length = record.remaining();
+            if (bytes + length > maxRecordingBytes || !reserve(this, length)) {
+                LOGGER.info("Voice recording '{}' reached its size limit after {} frames", id, frameCount);
+                finish();
+                return false;
+            }
+            try {
+                if (writer == null || writerOffset + length > segmentBytes) {
+                    rollSegment();
+                }
+                int offset = (int) writerOffset;
+                while (record.hasRemaining()) {
+                    writerOffset += writer.write(record, writerOffset);
+                }
+                index(segments.size() - 1, offset, packet.timestampMs());
+            } catch (IOException e) {
+                storeBytes.addAndGet(-length);
+                LOGGER.warn("Failed to append to voice recording '{}', finishing it", id, e);
+                finish();
+                return false;
+            }
+            bytes += length;
+            if (firstSpeakerId == null) {
+                firstSpeakerId = speakerId;
+            }
+            lastWriteMs = System.currentTimeMillis();
+            return true;
+        }
+
+        /**
+         * Stops accepting frames and releases the segment writer. Frames already written stay readable.
+         */
+        synchronized void finish() {
+            closed = true;
+            closeWriter();
+        }
+
+        synchronized int frameCount() {
+            return frameCount;
+        }
+
+        synchronized long sizeBytes() {
+            return bytes;
+        }
+
+        @Nullable
+        synchronized UUID firstSpeakerId() {
+            return firstSpeakerId;
+        }
+
+        synchronized long timestampAt(int index) {
+            return frameTimestamps[index];
+        }
+
+        /**
+         * Reads one frame back through the segment's memory mapping.
+         *
+         * @return the frame, or null if the recording was deleted or the segment cannot be read
+         */
+        @Nullable
+        synchronized StoredFrame read(int index) {
+            if (deleted || index < 0 || index >= frameCount) {
+                return null;
+            }
+            try {
+                MappedByteBuffer mapping = mapping(frameSegments[index], frameOffsets[index]);
+                return decode(mapping, frameOffsets[index]);
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Failed to read frame {} of voice recording '{}'", index, id, e);
+                return null;
+            }
+        }
+
+        private void delete() {
+            synchronized (this) {
+                if (deleted) {
+                    return;
+                }
+                deleted = true;
+                closed = true;
+                closeWriter();
+                mappings = new MappedByteBuffer[0];
+                storeBytes.addAndGet(-bytes);
+            }
+            deleteRecursively(directory);
+        }
+
+        private void rollSegment() throws IOException {
+            closeWriter();
+            Path segment = directory.resolve(String.format("%05d.seg", segments.size()));
+            writer = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING);
+            writerOffset = 0;
+            segments.add(segment);
+        }
+
+        private void closeWriter() {
+            if (writer == null) {
+                return;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                LOGGER.debug("Failed to close voice recording segment: {}", e.getMessage());
+            }
+            writer = null;
+        }
+
+        private MappedByteBuffer mapping(int segment, int offset) throws IOException {
+            if (mappings.length < segments.size()) {
+                mappings = Arrays.copyOf(mappings, segments.size());
+            }
+            MappedByteBuffer mapping = mappings[segment];
+            // The open segment keeps growing; remap it once a frame lies beyond the current mapping.
+            if (mapping == null || offset + RECORD_HEADER_BYTES > mapping.capacity()
+                    || offset + RECORD_HEADER_BYTES + mapping.getInt(offset) > mapping.capacity()) {
+                try (FileChannel channel = FileChannel.open(segments.get(segment), StandardOpenOption.READ)) {
+                    mapping = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                }
+                mappings[segment] = mapping;
+            }
+            return mapping;
+        }
+
+        private void index(int segment, int offset, long timestampMs) {
+            if (frameCount == frameOffsets.length) {
+                int capacity = frameCount * 2;
+                frameSegments = Arrays.copyOf(frameSegments, capacity);
+                frameOffsets = Arrays.copyOf(frameOffsets, capacity);
+                frameTimestamps = Arrays.copyOf(frameTimestamps, capacity);
+            }
+            frameSegments[frameCount] = segment;
+            frameOffsets[frameCount] = offset;
+            frameTimestamps[frameCount] = timestampMs;
+            frameCount++;
+        }
+
+        private ByteBuffer encode(UUID speakerId, MoudPackets.VoiceMicrophoneChunkPacket packet) {
+            byte[] session = packet.sessionId() != null
+                    ? packet.sessionId().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            byte[] codec = packet.codec() != null ? packet.codec().getBytes(StandardCharsets.UTF_8) : new byte[0];
+            byte[] data = packet.data() != null ? packet.data() : new byte[0];
+            int body = 16 + 2 + session.length + 4 + 8 + 2 + codec.length + 4 + 4 + 4 + 4 + 1 + 4 + data.length;
+            if (scratch.capacity() < RECORD_HEADER_BYTES + body) {
+                scratch = ByteBuffer.allocate(RECORD_HEADER_BYTES + body);
+            }
+            ByteBuffer out = scratch.clear();
+            out.putInt(body);
+            out.putLong(speakerId.getMostSignificantBits());
+            out.putLong(speakerId.getLeastSignificantBits());
+            out.putShort((short) session.length).put(session);
+            out.putInt(packet.sequence());
+            out.putLong(packet.timestampMs());
+            out.putShort((short) codec.length).put(codec);
+            out.putInt(packet.sampleRate());
+            out.putInt(packet.channels());
+            out.putInt(packet.frameSizeMs());
+            out.putFloat(packet.level());
+            out.put((byte) (packet.speaking() ? 1 : 0));
+            out.putInt(data.length).put(data);
+            return out.flip();
+        }
+
+        private static StoredFrame decode(MappedByteBuffer mapping, int offset) {
+            ByteBuffer in = mapping.duplicate().position(offset + RECORD_HEADER_BYTES);
+            UUID speakerId = new UUID(in.getLong(), in.getLong());
+            String sessionId = readString(in);
+            int sequence = in.getInt();
+            long timestampMs = in.getLong();
+            String codec = readString(in);
+            int sampleRate = in.getInt();
+            int channels = in.getInt();
+            int frameSizeMs = in.getInt();
+            float level = in.getFloat();
+            boolean speaking = in.get() != 0;
+            byte[] data = new byte[in.getInt()];
+            in.get(data);
+            return new StoredFrame(speakerId, sessionId, sequence, timestampMs, codec, sampleRate, channels,
+                    frameSizeMs, level, speaking, data);
+        }
+
+        private static String readString(ByteBuffer in) {
+            byte[] bytes = new byte[in.getShort() & 0xFFFF];
+            in.get(bytes);
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -45,7 +45,7 @@ final class BedPlacementRule extends BlockPlacementRule {
         if (!(state.instance() instanceof Instance instance)) {
             return null;
         }
-        instance.setBlock(headPos, head);
+        PlacementRuleUtils.setCompanionBlock(instance, headPos, head);
         return bed;
     }
 
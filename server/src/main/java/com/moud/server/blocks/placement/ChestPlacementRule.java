@@ -61,13 +61,13 @@ final class ChestPlacementRule extends BlockPlacementRule {
         if (mergeLeft) {
             Block updatedSelf = base.withProperty(PROP_TYPE, TYPE_RIGHT);
             Block updatedNeighbor = left.withProperty(PROP_TYPE, TYPE_LEFT);
-            instance.setBlock(pos.relative(leftDir), updatedNeighbor);
+            PlacementRuleUtils.setCompanionBlock(instance, pos.relative(leftDir), updatedNeighbor);
             return updatedSelf;
         }
 
         Block updatedSelf = base.withProperty(PROP_TYPE, TYPE_LEFT);
         Block updatedNeighbor = right.withProperty(PROP_TYPE, TYPE_RIGHT);
-        instance.setBlock(pos.relative(rightDir), updatedNeighbor);
+        PlacementRuleUtils.setCompanionBlock(instance, pos.relative(rightDir), updatedNeighbor);
         return updatedSelf;
     }
 
@@ -59,7 +59,7 @@ final class DoorPlacementRule extends BlockPlacementRule {
         if (!(state.instance() instanceof Instance instance)) {
             return null;
         }
-        instance.setBlock(upperPos, doorUpper);
+        PlacementRuleUtils.setCompanionBlock(instance, upperPos, doorUpper);
         return doorLower;
     }
 
@@ -1,6 +1,8 @@
 package com.moud.server.blocks.placement;
 
+import com.moud.server.instance.InstanceManager;
 import net.minestom.server.coordinate.Point;
+import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.block.Block;
 import net.minestom.server.instance.block.BlockFace;
 import net.minestom.server.instance.block.rule.BlockPlacementRule;
@@ -25,6 +27,15 @@ final class PlacementRuleUtils {
         return block.withProperty(PROP_WATERLOGGED, waterlogged ? "true" : "false");
     }
 
+    /**
+     * Sets a block the placed one drags along (the other half of a bed, chest or door). It may sit in a
+     * neighbouring chunk, which no player event marks for the scene journal.
+     */
+    static void setCompanionBlock(@NotNull Instance instance, @NotNull Point position, @NotNull Block block) {
+        instance.setBlock(position, block);
+        InstanceManager.getInstance().markBlockChanged(instance, position.blockX(), position.blockZ());
+    }
+
     static boolean shouldWaterlog(@NotNull BlockPlacementRule.PlacementState state) {
         Block existing = state.instance().getBlock(state.placePosition());
         return existing != null && "minecraft:water".equals(existing.namespace().asString());
@@ -53,6 +53,23 @@ public final class NetworkProbeCommand extends Command {
                 snapshot.inboundCount(),
                 humanBytes(snapshot.inboundBytes()))));
 
+        NetworkProbe.BufferPoolSnapshot pool = snapshot.bufferPool();
+        sender.sendMessage(Component.text(String.format(Locale.US,
+                "Buffer pool: %d acquires, hit rate %.1f%%, %d discarded",
+                pool.acquires(),
+                pool.hitRate() * 100.0,
+                pool.discards())));
+
+        snapshot.lanes().stream()
+                .filter(NetworkProbe.LaneSnapshot::hasTraffic)
+                .forEach(lane -> sender.sendMessage(Component.text(String.format(Locale.US,
+                        "  lane %s: queued=%d (%s), sent=%d (%s)",
+                        lane.lane(),
+                        lane.queuedPackets(),
+                        humanBytes(lane.queuedBytes()),
+                        lane.sentPackets(),
+                        humanBytes(lane.sentBytes())))));
+
         sender.sendMessage(Component.text("Top outbound packets:"));
         snapshot.outbound().stream()
                 .filter(NetworkProbe.PacketStatSnapshot::hasTraffic)
@@ -0,0 +1,174 @@
+package com.moud.server.editor;
+
+import com.moud.server.instance.InstanceManager;
+import com.moud.server.logging.MoudLogger;
+import com.moud.server.physics.PhysicsService;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.instance.Chunk;
+import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.block.Block;
+import net.minestom.server.timer.Task;
+import net.minestom.server.timer.TaskSchedule;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Applies blueprint block placements a whole chunk at a time from a tick task. Each chunk's blocks are written
+ * straight into its sections under the chunk lock and the chunk is then sent once, instead of one block change
+ * per voxel. Placements share a per-tick block budget ({@code -Dmoud.blueprint.blocksPerTick}); a chunk is never
+ * split across ticks, so the budget can be overshot by at most one chunk. When a placement finishes, every chunk
+ * it touched gets exactly one collision remesh.
+ */
+public final class BlueprintBlockPlacer {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(BlueprintBlockPlacer.class);
+    private static final int BLOCKS_PER_TICK = Integer.getInteger("moud.blueprint.blocksPerTick", 32_768);
+    private static final long CHUNK_LOAD_TIMEOUT_NANOS = 30_000_000_000L;
+
+    private final Queue<Job> jobs = new ConcurrentLinkedQueue<>();
+    private Task tickTask;
+
+    /**
+     * Queues a placement; {@code onComplete} receives the number of blocks written, on the tick thread.
+     */
+    public synchronized void submit(Instance instance, Block[] palette, BlueprintPlacementPlan plan, int minY,
+                                    Consumer<Integer> onComplete) {
+        jobs.add(new Job(instance, palette, plan, minY, onComplete));
+        if (tickTask == null) {
+            tickTask = MinecraftServer.getSchedulerManager()
+                    .buildTask(this::tick)
+                    .repeat(TaskSchedule.tick(1))
+                    .schedule();
+        }
+    }
+
+    public synchronized void shutdown() {
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
+        }
+        jobs.clear();
+    }
+
+    private void tick() {
+        int budget = BLOCKS_PER_TICK;
+        while (budget > 0) {
+            Job job = jobs.peek();
+            if (job == null) {
+                return;
+            }
+            if (!job.instance.isRegistered()) {
+                jobs.poll();
+                LOGGER.warn("Dropping blueprint placement: its instance was unregistered");
+                continue;
+            }
+            int written = job.step(budget);
+            budget -= written;
+            if (job.isDone()) {
+                jobs.poll();
+                job.finish();
+            } else if (written == 0) {
+                // Only chunks that are still loading are left.
+                if (job.isStalled()) {
+                    jobs.poll();
+                    LOGGER.warn("Giving up on {} blueprint chunks that did not load", job.remaining.size());
+                    job.finish();
+                    continue;
+                }
+                return;
+            }
+        }
+    }
+
+    private static final class Job {
+        private final Instance instance;
+        private final Block[] palette;
+        private final int minY;
+        private final Consumer<Integer> onComplete;
+        private final ArrayDeque<BlueprintPlacementPlan.ChunkGroup> remaining;
+        private final List<BlueprintPlacementPlan.ChunkGroup> touched = new ArrayList<>();
+        private int placed;
+        private long lastProgressNanos = System.nanoTime();
+
+        private Job(Instance instance, Block[] palette, BlueprintPlacementPlan plan, int minY,
+                    Consumer<Integer> onComplete) {
+            this.instance = instance;
+            this.palette = palette;
+            this.minY = minY;
+            this.onComplete = onComplete;
+            this.remaining = new ArrayDeque<>(plan.chunks());
+        }
+
+        /**
+         * Writes whole chunks until {@code budget} blocks are spent. Chunks that are not loaded yet are requested
+         * and retried after the rest.
+         *
+         * @return blocks written
+         */
+        private int step(int budget) {
+            int written = 0;
+            int deferred = 0;
+            while (written < budget && deferred < remaining.size()) {
+                BlueprintPlacementPlan.ChunkGroup group = remaining.poll();
+                Chunk chunk = instance.getChunk(group.chunkX(), group.chunkZ());
+                if (chunk == null) {
+                    instance.loadChunk(group.chunkX(), group.chunkZ());
+                    remaining.add(group);
+                    deferred++;
+                    continue;
+                }
+                deferred = 0;
+                written += apply(chunk, group);
+                touched.add(group);
+                lastProgressNanos = System.nanoTime();
+            }
+            placed += written;
+            return written;
+        }
+
+        private int apply(Chunk chunk, BlueprintPlacementPlan.ChunkGroup group) {
+            int baseX = group.chunkX() << 4;
+            int baseZ = group.chunkZ() << 4;
+            synchronized (chunk) {
+                for (int i = 0; i < group.size(); i++) {
+                    long entry = group.entry(i);
+                    chunk.setBlock(
+                            baseX + BlueprintPlacementPlan.localX(entry),
+                            BlueprintPlacementPlan.blockY(entry, minY),
+                            baseZ + BlueprintPlacementPlan.localZ(entry),
+                            palette[BlueprintPlacementPlan.paletteIndex(entry)]
+                    );
+                }
+            }
+            chunk.sendChunk();
+            InstanceManager.getInstance().markBlockChanged(instance, baseX, baseZ);
+            return group.size();
+        }
+
+        private boolean isDone() {
+            return remaining.isEmpty();
+        }
+
+        private boolean isStalled() {
+            return System.nanoTime() - lastProgressNanos > CHUNK_LOAD_TIMEOUT_NANOS;
+        }
+
+        private void finish() {
+            var chunkPhysics = PhysicsService.getInstance().getChunkPhysicsManager();
+            if (chunkPhysics != null) {
+                for (BlueprintPlacementPlan.ChunkGroup group : touched) {
+                    chunkPhysics.requestChunkRefresh(instance, group.chunkX(), group.chunkZ());
+                }
+            }
+            try {
+                onComplete.accept(placed);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Blueprint placement callback failed", e);
+            }
+        }
+    }
+}
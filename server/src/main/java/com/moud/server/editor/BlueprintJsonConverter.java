@@ -0,0 +1,234 @@
+package com.moud.server.editor;
+
+import com.google.gson.JsonParser;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+import com.moud.network.serializer.BlueprintContainer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Converts between the legacy JSON blueprint document (voxels as base64 inside the {@code blocks} object) and
+ * {@link BlueprintContainer}. Both directions stream: JSON is tokenized straight from the reader, and objects
+ * and markers are carried over verbatim as one JSON document each.
+ */
+final class BlueprintJsonConverter {
+
+    private BlueprintJsonConverter() {
+    }
+
+    static void toContainer(Reader json, OutputStream out) throws IOException {
+        JsonReader reader = new JsonReader(json);
+        String name = null;
+        float[] origin = null;
+        float[] size = null;
+        List<String> objects = List.of();
+        List<String> markers = List.of();
+        BlueprintContainer.Blocks blocks = null;
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (key) {
+                case "name" -> name = reader.nextString();
+                case "origin" -> origin = readVec3(reader);
+                case "size" -> size = readVec3(reader);
+                case "objects" -> objects = readDocuments(reader);
+                case "markers" -> markers = readDocuments(reader);
+                case "blocks" -> blocks = readBlocks(reader);
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+
+        new BlueprintContainer.Writer(out)
+                .header(name, origin, size)
+                .objects(objects)
+                .markers(markers)
+                .blocks(blocks)
+                .finish();
+    }
+
+    static void toJson(InputStream container, Writer json) throws IOException {
+        BlueprintContainer.Reader reader = new BlueprintContainer.Reader(container);
+        BlueprintContainer.Header header = reader.header();
+        JsonWriter writer = new JsonWriter(json);
+        writer.beginObject();
+        if (header.name() != null) {
+            writer.name("name").value(header.name());
+        }
+        writeVec3(writer.name("origin"), header.origin());
+        writeVec3(writer.name("size"), header.size());
+        writeDocuments(writer.name("objects"), reader.objects());
+        writeDocuments(writer.name("markers"), reader.markers());
+
+        BlueprintContainer.Blocks blocks = reader.blocks();
+        if (blocks != null) {
+            writer.name("blocks").beginObject();
+            writer.name("sizeX").value(blocks.sizeX());
+            writer.name("sizeY").value(blocks.sizeY());
+            writer.name("sizeZ").value(blocks.sizeZ());
+            writer.name("palette").beginArray();
+            for (String state : blocks.palette()) {
+                writer.value(state);
+            }
+            writer.endArray();
+            writer.name("voxels").value(Base64.getEncoder().encodeToString(blocks.voxels()));
+            writer.name("useShortIndices").value(blocks.shortIndices());
+            if (!blocks.blockEntities().isEmpty()) {
+                writer.name("blockEntities").beginArray();
+                for (BlueprintContainer.BlockEntity entity : blocks.blockEntities()) {
+                    writer.beginObject()
+                            .name("x").value(entity.x())
+                            .name("y").value(entity.y())
+                            .name("z").value(entity.z())
+                            .name("nbt").value(entity.nbt())
+                            .endObject();
+                }
+                writer.endArray();
+            }
+            writer.endObject();
+        }
+        reader.finish();
+        writer.endObject();
+        writer.flush();
+    }
+
+    private static BlueprintContainer.Blocks readBlocks(JsonReader reader) throws IOException {
+        int sizeX = 0;
+        int sizeY = 0;
+        int sizeZ = 0;
+        List<String> palette = new ArrayList<>();
+        byte[] voxels = null;
+        boolean shortIndices = false;
+        List<BlueprintContainer.BlockEntity> entities = new ArrayList<>();
+
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (key) {
+                case "sizeX" -> sizeX = reader.nextInt();
+                case "sizeY" -> sizeY = reader.nextInt();
+                case "sizeZ" -> sizeZ = reader.nextInt();
+                case "palette" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        palette.add(reader.nextString());
+                    }
+                    reader.endArray();
+                }
+                case "voxels" -> voxels = readVoxels(reader);
+                case "useShortIndices" -> shortIndices = reader.nextBoolean();
+                case "blockEntities" -> {
+                    reader.beginArray();
+                    while (reader.hasNext()) {
+                        entities.add(readBlockEntity(reader));
+                    }
+                    reader.endArray();
+                }
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        BlueprintContainer.checkVolume(sizeX, sizeY, sizeZ);
+        return new BlueprintContainer.Blocks(sizeX, sizeY, sizeZ, palette, voxels, shortIndices, entities);
+    }
+
+    private static byte[] readVoxels(JsonReader reader) throws IOException {
+        if (reader.peek() == JsonToken.STRING) {
+            try {
+                return Base64.getDecoder().decode(reader.nextString());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Invalid base64 voxel payload", e);
+            }
+        }
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            buffer.write(reader.nextInt());
+        }
+        reader.endArray();
+        return buffer.toByteArray();
+    }
+
+    private static BlueprintContainer.BlockEntity readBlockEntity(JsonReader reader) throws IOException {
+        int x = 0;
+        int y = 0;
+        int z = 0;
+        String nbt = "";
+        reader.beginObject();
+        while (reader.hasNext()) {
+            String key = reader.nextName();
+            if (reader.peek() == JsonToken.NULL) {
+                reader.nextNull();
+                continue;
+            }
+            switch (key) {
+                case "x" -> x = reader.nextInt();
+                case "y" -> y = reader.nextInt();
+                case "z" -> z = reader.nextInt();
+                case "nbt" -> nbt = reader.nextString();
+                default -> reader.skipValue();
+            }
+        }
+        reader.endObject();
+        return new BlueprintContainer.BlockEntity(x, y, z, nbt);
+    }
+
+    private static List<String> readDocuments(JsonReader reader) throws IOException {
+        List<String> documents = new ArrayList<>();
+        reader.beginArray();
+        while (reader.hasNext()) {
+            documents.add(JsonParser.parseReader(reader).toString());
+        }
+        reader.endArray();
+        return documents;
+    }
+
+    private static void writeDocuments(JsonWriter writer, List<String> documents) throws IOException {
+        writer.beginArray();
+        for (String document : documents) {
+            writer.jsonValue(document);
+        }
+        writer.endArray();
+    }
+
+    private static float[] readVec3(JsonReader reader) throws IOException {
+        float[] vec = new float[3];
+        int i = 0;
+        reader.beginArray();
+        while (reader.hasNext()) {
+            float value = (float) reader.nextDouble();
+            if (i < 3) {
+                vec[i++] = value;
+            }
+        }
+        reader.endArray();
+        return vec;
+    }
+
+    private static void writeVec3(JsonWriter writer, float[] vec) throws IOException {
+        writer.beginArray();
+        for (float value : vec) {
+            writer.value(Float.valueOf(value));
+        }
+        writer.endArray();
+    }
+}
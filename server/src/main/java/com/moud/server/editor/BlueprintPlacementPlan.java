@@ -0,0 +1,173 @@
+package com.moud.server.editor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Voxels of one blueprint placement grouped by target chunk, ready to be written a chunk at a time. Built in a
+ * single allocation-free pass over the voxel grid; within a chunk, entries stay in ascending Y so they fill one
+ * section after another.
+ * <p>
+ * Each entry packs the palette index (high 32 bits), the block's height above the dimension's minimum Y (24 bits)
+ * and its chunk-local Z and X (4 bits each).
+ */
+public final class BlueprintPlacementPlan {
+
+    private final List<ChunkGroup> chunks;
+    private final int blockCount;
+
+    private BlueprintPlacementPlan(List<ChunkGroup> chunks, int blockCount) {
+        this.chunks = chunks;
+        this.blockCount = blockCount;
+    }
+
+    /**
+     * Rotation (quarter turns around Y) and mirroring applied to grid coordinates before offsetting them by the
+     * origin. {@code outSizeX}/{@code outSizeZ} are the footprint after rotation.
+     */
+    public record Transform(int originX, int originY, int originZ, int rotationSteps, boolean mirrorX,
+                            boolean mirrorZ, int outSizeX, int outSizeZ) {
+    }
+
+    public static final class ChunkGroup {
+        private final int chunkX;
+        private final int chunkZ;
+        private long[] entries = new long[64];
+        private int size;
+
+        private ChunkGroup(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+
+        public int chunkX() {
+            return chunkX;
+        }
+
+        public int chunkZ() {
+            return chunkZ;
+        }
+
+        public int size() {
+            return size;
+        }
+
+        public long entry(int index) {
+            return entries[index];
+        }
+
+        private void add(long entry) {
+            if (size == entries.length) {
+                entries = Arrays.copyOf(entries, size * 2);
+            }
+            entries[size++] = entry;
+        }
+    }
+
+    public static int paletteIndex(long entry) {
+        return (int) (entry >>> 32);
+    }
+
+    public static int blockY(long entry, int minY) {
+        return (int) ((entry >>> 8) & 0xFFFFFF) + minY;
+    }
+
+    public static int localX(long entry) {
+        return (int) (entry & 0xF);
+    }
+
+    public static int localZ(long entry) {
+        return (int) ((entry >>> 4) & 0xF);
+    }
+
+    /**
+     * Groups every voxel whose palette entry is {@code placeable} by the chunk it lands in. Voxels outside
+     * {@code [minY, maxY)} are dropped.
+     */
+    public static BlueprintPlacementPlan group(byte[] voxels, boolean shortIndices, int sizeX, int sizeY, int sizeZ,
+                                               boolean[] placeable, Transform transform, int minY, int maxY) {
+        Map<Long, ChunkGroup> byChunk = new HashMap<>();
+        List<ChunkGroup> ordered = new ArrayList<>();
+        ChunkGroup last = null;
+        int blockCount = 0;
+
+        for (int y = 0; y < sizeY; y++) {
+            int worldY = transform.originY() + y;
+            if (worldY < minY || worldY >= maxY) {
+                continue;
+            }
+            long yBits = (long) (worldY - minY) << 8;
+            for (int z = 0; z < sizeZ; z++) {
+                for (int x = 0; x < sizeX; x++) {
+                    int paletteIndex = readVoxelIndex(voxels, shortIndices, sizeX, sizeZ, x, y, z);
+                    if (paletteIndex <= 0 || paletteIndex >= placeable.length || !placeable[paletteIndex]) {
+                        continue;
+                    }
+
+                    int mx = transform.mirrorX() ? sizeX - 1 - x : x;
+                    int mz = transform.mirrorZ() ? sizeZ - 1 - z : z;
+                    int tx;
+                    int tz;
+                    switch (transform.rotationSteps()) {
+                        case 1 -> {
+                            tx = transform.outSizeX() - 1 - mz;
+                            tz = mx;
+                        }
+                        case 2 -> {
+                            tx = transform.outSizeX() - 1 - mx;
+                            tz = transform.outSizeZ() - 1 - mz;
+                        }
+                        case 3 -> {
+                            tx = mz;
+                            tz = transform.outSizeZ() - 1 - mx;
+                        }
+                        default -> {
+                            tx = mx;
+                            tz = mz;
+                        }
+                    }
+                    int worldX = transform.originX() + tx;
+                    int worldZ = transform.originZ() + tz;
+
+                    int chunkX = worldX >> 4;
+                    int chunkZ = worldZ >> 4;
+                    if (last == null || last.chunkX != chunkX || last.chunkZ != chunkZ) {
+                        long key = (long) chunkX << 32 | (long) chunkZ & 0xFFFFFFFFL;
+                        last = byChunk.get(key);
+                        if (last == null) {
+                            last = new ChunkGroup(chunkX, chunkZ);
+                            byChunk.put(key, last);
+                            ordered.add(last);
+                        }
+                    }
+                    last.add((long) paletteIndex << 32 | yBits | (long) (worldZ & 0xF) << 4 | worldX & 0xF);
+                    blockCount++;
+                }
+            }
+        }
+        return new BlueprintPlacementPlan(ordered, blockCount);
+    }
+
+    public List<ChunkGroup> chunks() {
+        return chunks;
+    }
+
+    public int blockCount() {
+        return blockCount;
+    }
+
+    static int readVoxelIndex(byte[] voxels, boolean useShort, int sx, int sz, int x, int y, int z) {
+        int index = (y * sz + z) * sx + x;
+        if (useShort) {
+            int offset = index * 2;
+            if (offset + 1 >= voxels.length) return 0;
+            return (voxels[offset] & 0xFF) | ((voxels[offset + 1] & 0xFF) << 8);
+        } else {
+            if (index >= voxels.length) return 0;
+            return voxels[index] & 0xFF;
+        }
+    }
+}
@@ -1,16 +1,36 @@
 package com.moud.server.editor;
 
+import com.moud.network.serializer.BlueprintContainer;
 import com.moud.server.logging.MoudLogger;
 
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.StringWriter;
+import java.nio.channels.SeekableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Stream;
 
+/**
+ * Blueprints on disk as {@link BlueprintContainer} files ({@code .mbp}). Legacy {@code .json} documents found in
+ * the directory are converted on startup and kept alongside as {@code .json.migrated}; JSON handed to
+ * {@link #save} is converted on the way in. Writes go through a temp file and an atomic rename, so a reader never
+ * sees a half-written blueprint.
+ */
 public final class BlueprintStorage {
     private static final MoudLogger LOGGER = MoudLogger.getLogger(BlueprintStorage.class);
+    private static final String EXTENSION = ".mbp";
+    private static final String LEGACY_EXTENSION = ".json";
     private final Path directory;
 
     public BlueprintStorage(Path projectRoot) {
@@ -21,6 +41,7 @@ public final class BlueprintStorage {
         } catch (IOException e) {
             LOGGER.error("Failed to create blueprint directory {}", directory, e);
         }
+        migrateLegacy();
     }
 
     public Path getDirectory() {
@@ -28,11 +49,44 @@ public final class BlueprintStorage {
     }
 
     public void save(String name, byte[] data) throws IOException {
-        Files.write(resolvePath(name), data);
+        save(name, new ByteArrayInputStream(data));
     }
 
-    public byte[] load(String name) throws IOException {
-        return Files.readAllBytes(resolvePath(name));
+    /**
+     * Stores a blueprint read from {@code data}, either a container or a legacy JSON document.
+     */
+    public void save(String name, InputStream data) throws IOException {
+        store(resolvePath(name), data);
+    }
+
+    /**
+     * Opens the stored container for streaming; the caller closes it.
+     */
+    public InputStream open(String name) throws IOException {
+        return new BufferedInputStream(Files.newInputStream(resolvePath(name)));
+    }
+
+    /**
+     * Opens the stored container as a channel, whose {@code size()} always belongs to the bytes it reads even if
+     * the blueprint is replaced meanwhile; the caller closes it.
+     */
+    public SeekableByteChannel openChannel(String name) throws IOException {
+        return Files.newByteChannel(resolvePath(name));
+    }
+
+    public long size(String name) throws IOException {
+        return Files.size(resolvePath(name));
+    }
+
+    /**
+     * Renders the blueprint as the legacy JSON document, for callers that still speak JSON.
+     */
+    public String loadJson(String name) throws IOException {
+        StringWriter json = new StringWriter();
+        try (InputStream in = open(name)) {
+            BlueprintJsonConverter.toJson(in, json);
+        }
+        return json.toString();
     }
 
     public boolean exists(String name) {
@@ -45,9 +99,9 @@ public final class BlueprintStorage {
             return names;
         }
         try (Stream<Path> stream = Files.list(directory)) {
-            stream.filter(p -> p.toString().endsWith(".json"))
+            stream.filter(p -> p.toString().endsWith(EXTENSION))
                     .map(p -> p.getFileName().toString())
-                    .map(n -> n.substring(0, n.length() - 5)) // remove .json
+                    .map(n -> n.substring(0, n.length() - EXTENSION.length()))
                     .sorted()
                     .forEach(names::add);
         } catch (IOException e) {
@@ -72,15 +126,72 @@ public final class BlueprintStorage {
         }
     }
 
+    private void store(Path target, InputStream data) throws IOException {
+        BufferedInputStream in = new BufferedInputStream(data);
+        in.mark(4);
+        byte[] prefix = in.readNBytes(4);
+        in.reset();
+
+        Path temp = Files.createTempFile(directory, ".upload-", ".tmp");
+        try {
+            if (BlueprintContainer.isContainer(prefix, prefix.length)) {
+                Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            } else {
+                try (Reader json = new InputStreamReader(in, StandardCharsets.UTF_8);
+                     OutputStream out = new BufferedOutputStream(Files.newOutputStream(temp))) {
+                    BlueprintJsonConverter.toContainer(json, out);
+                }
+            }
+            // Converted JSON is vetted too, so nothing is stored that placing or downloading would reject.
+            validate(temp);
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void validate(Path container) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(container))) {
+            BlueprintContainer.Reader reader = new BlueprintContainer.Reader(in);
+            reader.header();
+            reader.objects();
+            reader.markers();
+            reader.skipBlocks();
+            reader.finish();
+        }
+    }
+
+    private void migrateLegacy() {
+        List<Path> legacy = new ArrayList<>();
+        try (Stream<Path> stream = Files.list(directory)) {
+            stream.filter(p -> p.toString().endsWith(LEGACY_EXTENSION)).forEach(legacy::add);
+        } catch (IOException e) {
+            LOGGER.error("Failed to scan {} for legacy blueprints", directory, e);
+            return;
+        }
+        for (Path json : legacy) {
+            String fileName = json.getFileName().toString();
+            Path target = resolvePath(fileName.substring(0, fileName.length() - LEGACY_EXTENSION.length()));
+            try {
+                if (!Files.exists(target)) {
+                    try (InputStream in = Files.newInputStream(json)) {
+                        store(target, in);
+                    }
+                }
+                Files.move(json, json.resolveSibling(fileName + ".migrated"), StandardCopyOption.REPLACE_EXISTING);
+                LOGGER.info("Migrated blueprint {} to {}", fileName, target.getFileName());
+            } catch (IOException | RuntimeException e) {
+                LOGGER.error("Failed to migrate legacy blueprint {}; leaving it in place", json, e);
+            }
+        }
+    }
+
     private Path resolvePath(String name) {
         String sanitized = sanitize(name);
         if (sanitized.isEmpty()) {
             sanitized = "blueprint";
         }
-        if (!sanitized.endsWith(".json")) {
-            sanitized += ".json";
-        }
-        return directory.resolve(sanitized);
+        return directory.resolve(sanitized + EXTENSION);
     }
 
     private String sanitize(String name) {
@@ -0,0 +1,133 @@
+package com.moud.server.events;
+
+import com.moud.server.logging.MoudLogger;
+import org.graalvm.polyglot.proxy.ProxyArray;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Folds high-frequency script events into one invocation per player per tick. {@link Mode#LATEST} keeps only the
+ * last event of the tick; {@link Mode#BATCH} keeps all of them, passing the last argument of each event as one
+ * array (leading arguments, such as the player, are taken from the first event).
+ * <p>
+ * Modes come from {@code -Dmoud.events.coalesce}, e.g. {@code player.move=latest,player.mousemove=batch};
+ * {@code player.move} coalesces to its latest event unless configured otherwise.
+ */
+public final class EventCoalescer {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(EventCoalescer.class);
+    private static final String DEFAULT_MODES = "player.move=latest";
+
+    public enum Mode {
+        NONE,
+        LATEST,
+        BATCH
+    }
+
+    private final Map<String, Mode> modes = new ConcurrentHashMap<>();
+    private final Map<String, ConcurrentHashMap<UUID, Object>> pending = new ConcurrentHashMap<>();
+
+    EventCoalescer() {
+        parseModes(DEFAULT_MODES);
+        parseModes(System.getProperty("moud.events.coalesce", ""));
+    }
+
+    public Mode getMode(String eventName) {
+        return modes.getOrDefault(eventName, Mode.NONE);
+    }
+
+    public void setMode(String eventName, Mode mode) {
+        if (mode == null || mode == Mode.NONE) {
+            modes.remove(eventName);
+        } else {
+            modes.put(eventName, mode);
+        }
+    }
+
+    /**
+     * Queues an event for the next flush, replacing or extending what the player already queued this tick.
+     *
+     * @return false if the event is not coalesced and should be dispatched directly
+     */
+    boolean offer(String eventName, UUID playerId, Object[] args) {
+        Mode mode = getMode(eventName);
+        if (mode == Mode.NONE || playerId == null) {
+            return false;
+        }
+        ConcurrentHashMap<UUID, Object> queued = pending.computeIfAbsent(eventName, k -> new ConcurrentHashMap<>());
+        if (mode == Mode.LATEST) {
+            queued.put(playerId, args);
+        } else {
+            queued.compute(playerId, (id, existing) -> {
+                @SuppressWarnings("unchecked")
+                List<Object[]> events = existing instanceof List<?> ? (List<Object[]>) existing : new ArrayList<>();
+                events.add(args);
+                return events;
+            });
+        }
+        return true;
+    }
+
+    /**
+     * Drains everything queued since the previous flush, handing each event name its per-player argument lists.
+     */
+    void flush(BiConsumer<String, List<Object[]>> sink) {
+        for (var entry : pending.entrySet()) {
+            ConcurrentHashMap<UUID, Object> queued = entry.getValue();
+            if (queued.isEmpty()) {
+                continue;
+            }
+            List<Object[]> arguments = new ArrayList<>(queued.size());
+            for (UUID playerId : queued.keySet()) {
+                Object value = queued.remove(playerId);
+                if (value instanceof Object[] args) {
+                    arguments.add(args);
+                } else if (value instanceof List<?> events && !events.isEmpty()) {
+                    arguments.add(mergeBatch(events));
+                }
+            }
+            if (!arguments.isEmpty()) {
+                sink.accept(entry.getKey(), arguments);
+            }
+        }
+    }
+
+    private static Object[] mergeBatch(List<?> events) {
+        Object[] first = (Object[]) events.get(0);
+        if (first.length == 0) {
+            return first;
+        }
+        Object[] payloads = new Object[events.size()];
+        for (int i = 0; i < payloads.length; i++) {
+            Object[] args = (Object[]) events.get(i);
+            payloads[i] = args.length > 0 ? args[args.length - 1] : null;
+        }
+        Object[] merged = first.clone();
+        merged[merged.length - 1] = ProxyArray.fromArray(payloads);
+        return merged;
+    }
+
+    private void parseModes(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return;
+        }
+        for (String part : spec.split(",")) {
+            int eq = part.indexOf('=');
+            if (eq <= 0) {
+                continue;
+            }
+            String eventName = part.substring(0, eq).trim();
+            String modeName = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            try {
+                setMode(eventName, Mode.valueOf(modeName));
+            } catch (IllegalArgumentException e) {
+                LOGGER.warn("Unknown coalescing mode '{}' for event '{}'", modeName, eventName);
+            }
+        }
+    }
+}
@@ -18,6 +18,8 @@ import net.minestom.server.event.player.PlayerChatEvent;
 import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
+import net.minestom.server.event.trait.PlayerEvent;
+import net.minestom.server.timer.TaskSchedule;
 import org.graalvm.polyglot.Value;
 import org.graalvm.polyglot.proxy.ProxyArray;
 import org.graalvm.polyglot.proxy.ProxyObject;
@@ -37,6 +39,7 @@ public class EventDispatcher {
     private final EventNode<Event> eventNode;
     private final ConcurrentHashMap<String, CopyOnWriteArrayList<HandlerEntry>> handlers;
     private final EventConverter converter;
+    private final EventCoalescer coalescer;
     private final MoudEngine engine;
 
     public EventDispatcher(MoudEngine engine) {
@@ -44,9 +47,14 @@ public class EventDispatcher {
         this.eventNode = EventNode.all("moud-events");
         this.handlers = new ConcurrentHashMap<>();
         this.converter = new EventConverter();
+        this.coalescer = new EventCoalescer();
 
         MinecraftServer.getGlobalEventHandler().addChild(eventNode);
         registerMinestomListeners();
+        MinecraftServer.getSchedulerManager()
+                .buildTask(() -> coalescer.flush(this::dispatchCoalesced))
+                .repeat(TaskSchedule.tick(1))
+                .schedule();
 
         LOGGER.info("Event dispatcher initialized.");
     }
@@ -80,6 +88,10 @@ public class EventDispatcher {
                 dispatch("player.move", event));
     }
 
+    public EventCoalescer getCoalescer() {
+        return coalescer;
+    }
+
     public void register(String eventName, Value handler) {
         addHandler(eventName, handler, false);
     }
@@ -118,16 +130,27 @@ public class EventDispatcher {
         CopyOnWriteArrayList<HandlerEntry> handlerList = handlers.get(eventName);
         if (handlerList == null || handlerList.isEmpty()) return;
 
+        Object scriptEvent;
+        try {
+            scriptEvent = converter.convert(eventName, minestomEvent);
+        } catch (Exception e) {
+            LOGGER.error("Error during event dispatch for '{}'", eventName, e);
+            return;
+        }
+        if (minestomEvent instanceof PlayerEvent playerEvent
+                && coalescer.offer(eventName, playerEvent.getPlayer().getUuid(), new Object[]{scriptEvent})) {
+            return;
+        }
+
+        String detail = minestomEvent != null ? minestomEvent.getClass().getSimpleName() : "";
+        ScriptExecutionMetadata metadata = ScriptExecutionMetadata.of(
+                ScriptExecutionType.EVENT,
+                eventName,
+                detail
+        );
         List<HandlerEntry> toRemove = null;
         for (HandlerEntry entry : handlerList) {
             try {
-                Object scriptEvent = converter.convert(eventName, minestomEvent);
-                String detail = minestomEvent != null ? minestomEvent.getClass().getSimpleName() : "";
-                ScriptExecutionMetadata metadata = ScriptExecutionMetadata.of(
-                        ScriptExecutionType.EVENT,
-                        eventName,
-                        detail
-                );
                 engine.getRuntime().executeCallback(entry.callback(), metadata, scriptEvent);
             } catch (Exception e) {
                 LOGGER.error("Error during event dispatch for '{}'", eventName, e);
@@ -143,6 +166,37 @@ public class EventDispatcher {
         pruneHandlers(eventName, handlerList, toRemove);
     }
 
+    private void dispatchCoalesced(String eventName, List<Object[]> arguments) {
+        CopyOnWriteArrayList<HandlerEntry> handlerList = handlers.get(eventName);
+        if (handlerList == null || handlerList.isEmpty()) {
+            return;
+        }
+        ScriptExecutionMetadata metadata = ScriptExecutionMetadata.of(
+                ScriptExecutionType.EVENT,
+                eventName,
+                "coalesced x" + arguments.size()
+        );
+        List<Value> callbacks = new ArrayList<>(handlerList.size());
+        List<HandlerEntry> toRemove = null;
+        for (HandlerEntry entry : handlerList) {
+            if (entry.once()) {
+                if (toRemove == null) {
+                    toRemove = new ArrayList<>();
+                }
+                toRemove.add(entry);
+                engine.getRuntime().executeCallback(entry.callback(), metadata, arguments.get(0));
+            } else {
+                callbacks.add(entry.callback());
+            }
+        }
+        try {
+            engine.getRuntime().executeCallbacks(callbacks, metadata, arguments);
+        } catch (Exception e) {
+            LOGGER.error("Error during coalesced dispatch for '{}'", eventName, e);
+        }
+        pruneHandlers(eventName, handlerList, toRemove);
+    }
+
     public void dispatchMovementEvent(Player player, MoudPackets.MovementStatePacket packet) {
         CopyOnWriteArrayList<HandlerEntry> handlerList = handlers.get("player.movement_state");
         if (handlerList == null || handlerList.isEmpty()) {
@@ -162,6 +216,9 @@ public class EventDispatcher {
                     "onGround", packet.onGround(),
                     "speed", packet.speed()
             ));
+            if (coalescer.offer("player.movement_state", player.getUuid(), new Object[]{playerProxy, movementData})) {
+                return;
+            }
 
             for (HandlerEntry entry : handlerList) {
                 ScriptExecutionMetadata metadata = ScriptExecutionMetadata.of(
@@ -315,13 +372,17 @@ public class EventDispatcher {
 
         try {
             ProxyObject data = ProxyObject.fromMap(Map.of("deltaX", deltaX, "deltaY", deltaY));
+            PlayerProxy playerProxy = new PlayerProxy(player);
+            if (coalescer.offer("player.mousemove", player.getUuid(), new Object[]{playerProxy, data})) {
+                return;
+            }
             for (HandlerEntry entry : handlerList) {
                 ScriptExecutionMetadata metadata = ScriptExecutionMetadata.of(
                         ScriptExecutionType.EVENT,
                         "player.mousemove",
                         player.getUsername()
                 );
-                engine.getRuntime().executeCallback(entry.callback(), metadata, new PlayerProxy(player), data);
+                engine.getRuntime().executeCallback(entry.callback(), metadata, playerProxy, data);
             }
         } catch (Exception e) {
             LOGGER.error("Error during mouse move event dispatch for player {}", player.getUsername(), e);
@@ -6,6 +6,7 @@ import com.moud.api.ik.IKSolver;
 import com.moud.api.ik.IKSolverFactory;
 import com.moud.api.math.Vector3;
 import com.moud.network.MoudPackets.*;
+import com.moud.network.serializer.TransformQuantizer;
 import com.moud.plugin.api.services.IKService;
 import com.moud.plugin.api.services.ik.IKHandle;
 import net.minestom.server.MinecraftServer;
@@ -272,7 +273,11 @@ public class IKServiceImpl implements IKService {
             ));
         }
         S2C_IKBatchUpdatePacket packet = new S2C_IKBatchUpdatePacket(entries, getCurrentTick());
-        packetSender.broadcastToAll(packet);
+        if (TransformQuantizer.ENABLED) {
+            packetSender.broadcastToAll(TransformQuantizer.encodeIKBatch(packet));
+        } else {
+            packetSender.broadcastToAll(packet);
+        }
     }
 
     public interface IKPacketSender {
@@ -4,67 +4,320 @@ import com.moud.server.logging.MoudLogger;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.entity.Player;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
+import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
+import net.minestom.server.timer.TaskSchedule;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 /**
- * Eagerly loads a small chunk radius around players to avoid lazy chunk pop-in.
+ * Eagerly loads a small chunk radius around players to avoid lazy chunk pop-in, without blocking the tick.
+ * <p>
+ * Each player wants the missing chunks within {@code radius} of their chunk and of the chunk they will reach
+ * in {@code moud.chunk.preloadLookaheadTicks} at their current speed. Requests are queued by how soon the
+ * player reaches them along their velocity and loaded at most {@code moud.chunk.preloadConcurrency} at a
+ * time. When a player turns around or moves on, queued chunks nobody wants any more are dropped. Chunks that
+ * must exist before a player spawns are requested with {@link #preloadForSpawn}.
  */
 public final class ChunkPreloader {
     private static final MoudLogger LOGGER = MoudLogger.getLogger(ChunkPreloader.class);
+    private static final int MAX_CONCURRENT = Math.max(1, Integer.getInteger("moud.chunk.preloadConcurrency", 4));
+    private static final int LOOKAHEAD_TICKS = Math.max(0, Integer.getInteger("moud.chunk.preloadLookaheadTicks", 40));
+    private static final double MIN_SPEED = 0.05; // blocks per tick, below this the player counts as standing
+    private static final double VELOCITY_SMOOTHING = 0.3;
+    private static final int LATENCY_SAMPLES = 512;
+    private static final UUID SPAWN_OWNER = new UUID(0L, 0L);
+
     private final int radius;
-    private final Map<java.util.UUID, Long> playerChunkCache = new ConcurrentHashMap<>();
+    private final Map<UUID, PlayerTrack> players = new HashMap<>();
+    private final Map<RequestKey, Request> requests = new HashMap<>();
+    private final PriorityQueue<QueueEntry> queue = new PriorityQueue<>(Comparator.comparingDouble(QueueEntry::score));
+    private final long[] latencyNanos = new long[LATENCY_SAMPLES];
+    private int latencyCursor;
+    private int latencyCount;
+    private int inFlight;
+    private long completed;
+    private long cancelled;
+    private long failed;
 
     public ChunkPreloader(int radius) {
         this.radius = Math.max(1, radius);
     }
 
+    /**
+     * Queue length, throughput and load latency over the last {@value #LATENCY_SAMPLES} loads.
+     */
+    public record Stats(int queued, int inFlight, long completed, long cancelled, long failed,
+                        double p50Millis, double p95Millis, double p99Millis) {
+    }
+
     public void register() {
         var handler = MinecraftServer.getGlobalEventHandler();
         handler.addListener(PlayerSpawnEvent.class, event -> {
             Player player = event.getPlayer();
-            preloadAround(player, player.getPosition());
+            track(player, player.getPosition());
         });
-        handler.addListener(PlayerMoveEvent.class, event -> {
-            Player player = event.getPlayer();
-            Pos newPos = event.getNewPosition();
-            if (chunkKey(newPos) != playerChunkCache.getOrDefault(player.getUuid(), Long.MIN_VALUE)) {
-                preloadAround(player, newPos);
+        handler.addListener(PlayerMoveEvent.class, event -> track(event.getPlayer(), event.getNewPosition()));
+        handler.addListener(PlayerDisconnectEvent.class, event -> forget(event.getPlayer().getUuid()));
+        MinecraftServer.getSchedulerManager().buildTask(this::pump).repeat(TaskSchedule.tick(1)).schedule();
+        LOGGER.info("Chunk preloader registered with radius {} chunks, {} concurrent loads", radius, MAX_CONCURRENT);
+    }
+
+    /**
+     * Requests the chunks within {@code spawnRadius} of {@code pos} ahead of every player's preloading.
+     *
+     * @return completes once all of them are loaded or have failed to load
+     */
+    public synchronized CompletableFuture<Void> preloadForSpawn(Instance instance, Pos pos, int spawnRadius) {
+        if (instance == null || pos == null) {
+            return CompletableFuture.completedFuture(null);
+        }
+        int centerX = pos.chunkX();
+        int centerZ = pos.chunkZ();
+        List<CompletableFuture<Chunk>> pending = new ArrayList<>();
+        for (int dx = -spawnRadius; dx <= spawnRadius; dx++) {
+            for (int dz = -spawnRadius; dz <= spawnRadius; dz++) {
+                if (instance.getChunk(centerX + dx, centerZ + dz) != null) {
+                    continue;
+                }
+                Request request = acquire(SPAWN_OWNER, new RequestKey(instance, centerX + dx, centerZ + dz),
+                        -1.0 / (1 + Math.abs(dx) + Math.abs(dz)));
+                request.pinned = true;
+                if (request.future == null) {
+                    request.future = new CompletableFuture<>();
+                }
+                pending.add(request.future);
             }
-        });
-        LOGGER.info("Chunk preloader registered with radius {} chunks", radius);
+        }
+        pump();
+        // Failed loads still release the spawn; the player would otherwise wait forever.
+        return CompletableFuture.allOf(pending.stream()
+                .map(future -> future.handle((chunk, error) -> null))
+                .toArray(CompletableFuture[]::new));
+    }
+
+    public synchronized Stats stats() {
+        long[] samples = Arrays.copyOf(latencyNanos, latencyCount);
+        Arrays.sort(samples);
+        return new Stats(requests.size() - inFlight, inFlight, completed, cancelled, failed,
+                percentileMillis(samples, 0.50), percentileMillis(samples, 0.95), percentileMillis(samples, 0.99));
     }
 
-    private void preloadAround(Player player, Pos pos) {
+    private synchronized void track(Player player, Pos pos) {
         Instance instance = player.getInstance();
-        if (instance == null) return;
+        if (instance == null || pos == null) {
+            return;
+        }
+        PlayerTrack track = players.computeIfAbsent(player.getUuid(), ignored -> new PlayerTrack());
+        if (track.instance == instance) {
+            track.vx += (pos.x() - track.x - track.vx) * VELOCITY_SMOOTHING;
+            track.vz += (pos.z() - track.z - track.vz) * VELOCITY_SMOOTHING;
+        } else {
+            track.vx = 0;
+            track.vz = 0;
+        }
+        track.x = pos.x();
+        track.z = pos.z();
+
+        double speed = Math.hypot(track.vx, track.vz);
+        int heading = speed < MIN_SPEED ? -1 : Math.floorMod((int) Math.round(Math.atan2(track.vz, track.vx) / (Math.PI / 4)), 8);
+        long chunkKey = chunkKey(pos.chunkX(), pos.chunkZ());
+        if (track.instance == instance && track.chunkKey == chunkKey && track.heading == heading) {
+            return;
+        }
+        track.instance = instance;
+        track.chunkKey = chunkKey;
+        track.heading = heading;
+        replan(player.getUuid(), track, instance, pos);
+        pump();
+    }
+
+    private void replan(UUID owner, PlayerTrack track, Instance instance, Pos pos) {
+        double endX = pos.x() + track.vx * LOOKAHEAD_TICKS;
+        double endZ = pos.z() + track.vz * LOOKAHEAD_TICKS;
+        int endChunkX = (int) Math.floor(endX / 16.0);
+        int endChunkZ = (int) Math.floor(endZ / 16.0);
+
+        Map<RequestKey, Double> wanted = new HashMap<>();
+        collect(instance, pos.chunkX(), pos.chunkZ(), pos.x(), pos.z(), endX, endZ, wanted);
+        if (endChunkX != pos.chunkX() || endChunkZ != pos.chunkZ()) {
+            collect(instance, endChunkX, endChunkZ, pos.x(), pos.z(), endX, endZ, wanted);
+        }
 
-        int chunkX = (int) Math.floor(pos.x() / 16.0);
-        int chunkZ = (int) Math.floor(pos.z() / 16.0);
-        playerChunkCache.put(player.getUuid(), chunkKey(pos));
+        for (RequestKey key : track.wanted) {
+            if (!wanted.containsKey(key)) {
+                release(owner, key);
+            }
+        }
+        for (Map.Entry<RequestKey, Double> entry : wanted.entrySet()) {
+            acquire(owner, entry.getKey(), entry.getValue());
+        }
+        track.wanted = wanted.keySet();
+    }
 
+    private void collect(Instance instance, int centerX, int centerZ, double startX, double startZ,
+                         double endX, double endZ, Map<RequestKey, Double> wanted) {
         for (int dx = -radius; dx <= radius; dx++) {
             for (int dz = -radius; dz <= radius; dz++) {
-                int targetX = chunkX + dx;
-                int targetZ = chunkZ + dz;
-                if (instance.getChunk(targetX, targetZ) == null) {
-                    try {
-                        instance.loadChunk(targetX, targetZ).join();
-                    } catch (Exception e) {
-                        LOGGER.warn("Failed to pre-load chunk ({}, {}) for {}", targetX, targetZ, player.getUsername(), e);
-                    }
+                int chunkX = centerX + dx;
+                int chunkZ = centerZ + dz;
+                if (instance.getChunk(chunkX, chunkZ) != null) {
+                    continue;
                 }
+                wanted.put(new RequestKey(instance, chunkX, chunkZ),
+                        priority(chunkX * 16 + 8, chunkZ * 16 + 8, startX, startZ, endX, endZ));
             }
         }
     }
 
-    private long chunkKey(Pos pos) {
-        int chunkX = (int) Math.floor(pos.x() / 16.0);
-        int chunkZ = (int) Math.floor(pos.z() / 16.0);
+    /**
+     * Lower is sooner. Chunks on the player's path are ordered by how far along it they are; chunks off it
+     * additionally by their distance from it, so a chunk right beside the player still beats one far ahead.
+     */
+    private static double priority(double x, double z, double startX, double startZ, double endX, double endZ) {
+        double pathX = endX - startX;
+        double pathZ = endZ - startZ;
+        double lengthSquared = pathX * pathX + pathZ * pathZ;
+        double t = lengthSquared > 0 ? ((x - startX) * pathX + (z - startZ) * pathZ) / lengthSquared : 0;
+        t = Math.max(0, Math.min(1, t));
+        double offPath = Math.hypot(x - (startX + pathX * t), z - (startZ + pathZ * t));
+        return offPath * 2 + t * Math.sqrt(lengthSquared);
+    }
+
+    private Request acquire(UUID owner, RequestKey key, double score) {
+        Request request = requests.computeIfAbsent(key, Request::new);
+        boolean newOwner = request.owners.add(owner);
+        double previous = request.score;
+        request.score = request.owners.size() == 1 ? score : Math.min(request.score, score);
+        if (!request.loading && (newOwner || request.score != previous)) {
+            request.version++;
+            queue.add(new QueueEntry(request, request.version, request.score));
+        }
+        return request;
+    }
+
+    private void release(UUID owner, RequestKey key) {
+        Request request = requests.get(key);
+        if (request == null || !request.owners.remove(owner)) {
+            return;
+        }
+        if (request.owners.isEmpty() && !request.pinned && !request.loading) {
+            // Its queue entry goes stale and is skipped.
+            requests.remove(key);
+            cancelled++;
+        }
+    }
+
+    private synchronized void forget(UUID owner) {
+        PlayerTrack track = players.remove(owner);
+        if (track != null) {
+            for (RequestKey key : track.wanted) {
+                release(owner, key);
+            }
+        }
+    }
+
+    private synchronized void pump() {
+        while (inFlight < MAX_CONCURRENT && !queue.isEmpty()) {
+            QueueEntry entry = queue.poll();
+            Request request = entry.request();
+            if (requests.get(request.key) != request || request.version != entry.version() || request.loading) {
+                continue;
+            }
+            RequestKey key = request.key;
+            Chunk existing = key.instance().getChunk(key.chunkX(), key.chunkZ());
+            if (existing != null) {
+                requests.remove(key);
+                if (request.future != null) {
+                    request.future.complete(existing);
+                }
+                continue;
+            }
+            request.loading = true;
+            inFlight++;
+            long start = System.nanoTime();
+            try {
+                key.instance().loadChunk(key.chunkX(), key.chunkZ())
+                        .whenComplete((chunk, error) -> onLoaded(request, start, chunk, error));
+            } catch (RuntimeException e) {
+                onLoaded(request, start, null, e);
+            }
+        }
+    }
+
+    private synchronized void onLoaded(Request request, long startNanos, Chunk chunk, Throwable error) {
+        inFlight--;
+        requests.remove(request.key, request);
+        if (error != null) {
+            failed++;
+            LOGGER.warn("Failed to pre-load chunk ({}, {})", request.key.chunkX(), request.key.chunkZ(), error);
+            if (request.future != null) {
+                request.future.completeExceptionally(error);
+            }
+            return;
+        }
+        completed++;
+        latencyNanos[latencyCursor] = System.nanoTime() - startNanos;
+        latencyCursor = (latencyCursor + 1) % LATENCY_SAMPLES;
+        latencyCount = Math.min(latencyCount + 1, LATENCY_SAMPLES);
+        if (request.future != null) {
+            request.future.complete(chunk);
+        }
+    }
+
+    private static double percentileMillis(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(sorted.length - 1, index))] / 1_000_000.0;
+    }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
         return (((long) chunkX) << 32) ^ (chunkZ & 0xffffffffL);
     }
+
+    private record RequestKey(Instance instance, int chunkX, int chunkZ) {
+    }
+
+    private record QueueEntry(Request request, long version, double score) {
+    }
+
+    private static final class Request {
+        private final RequestKey key;
+        private final Set<UUID> owners = new HashSet<>();
+        private double score = Double.MAX_VALUE;
+        private long version;
+        private boolean loading;
+        private boolean pinned;
+        private CompletableFuture<Chunk> future;
+
+        private Request(RequestKey key) {
+            this.key = key;
+        }
+    }
+
+    private static final class PlayerTrack {
+        private Instance instance;
+        private double x;
+        private double z;
+        private double vx;
+        private double vz;
+        private long chunkKey = Long.MIN_VALUE;
+        private int heading = -2;
+        private Set<RequestKey> wanted = Set.of();
+    }
 }
@@ -8,6 +8,8 @@ import net.minestom.server.MinecraftServer;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.player.AsyncPlayerConfigurationEvent;
+import net.minestom.server.event.player.PlayerBlockBreakEvent;
+import net.minestom.server.event.player.PlayerBlockPlaceEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.InstanceContainer;
@@ -57,6 +59,8 @@ public class InstanceManager {
     private static final Pos FALLBACK_SPAWN = new Pos(0.5, 66, 0.5);
     private static final long NON_MOUD_LIMBO_GRACE_MILLIS = 2_000L;
     private static final long MOUD_LIMBO_MAX_WAIT_MILLIS = 120_000L;
+    private static final int SPAWN_CHUNK_RADIUS = Integer.getInteger("moud.chunk.spawnRadius", 1);
+    private ChunkPreloader chunkPreloader;
 
     public static synchronized void install(InstanceManager instanceManager) {
         instance = Objects.requireNonNull(instanceManager, "instanceManager");
@@ -85,8 +89,10 @@ public class InstanceManager {
         createDefaultInstance();
         createLimboInstance();
         registerSpawnListener();
+        registerDirtyChunkTracking();
         int preloadRadius = Integer.parseInt(System.getProperty("moud.chunk.preloadRadius", "3"));
-        new ChunkPreloader(preloadRadius).register();
+        chunkPreloader = new ChunkPreloader(preloadRadius);
+        chunkPreloader.register();
         configureAutosave();
         configurePeriodicBackups();
     }
@@ -114,6 +120,9 @@ public class InstanceManager {
 
                 Pos finalSpawnPosition = spawnPosition;
                 long spawnStart = System.currentTimeMillis();
+                CompletableFuture<Void> spawnChunks = chunkPreloader != null
+                        ? chunkPreloader.preloadForSpawn(realInstance, finalSpawnPosition, SPAWN_CHUNK_RADIUS)
+                        : CompletableFuture.completedFuture(null);
 
                 final Task[] gateTask = new Task[1];
                 gateTask[0] = MinecraftServer.getSchedulerManager()
@@ -129,7 +138,8 @@ public class InstanceManager {
 
                             ServerNetworkManager networkManager = ServerNetworkManager.getInstance();
                             boolean isMoudClient = networkManager != null && networkManager.isMoudClient(player);
-                            boolean clientReady = isMoudClient && networkManager.isClientReady(player);
+                            boolean chunksReady = spawnChunks.isDone();
+                            boolean clientReady = isMoudClient && networkManager.isClientReady(player) && chunksReady;
                             long elapsedMillis = System.currentTimeMillis() - spawnStart;
 
                             if (clientReady) {
@@ -141,7 +151,7 @@ public class InstanceManager {
                                 return;
                             }
 
-                            if (!isMoudClient && elapsedMillis >= NON_MOUD_LIMBO_GRACE_MILLIS) {
+                            if (!isMoudClient && chunksReady && elapsedMillis >= NON_MOUD_LIMBO_GRACE_MILLIS) {
                                 gateTask[0].cancel();
                                 player.setInstance(realInstance, finalSpawnPosition).thenRun(() -> {
                                     player.setRespawnPoint(finalSpawnPosition);
@@ -164,6 +174,25 @@ public class InstanceManager {
         });
     }
 
+    private void registerDirtyChunkTracking() {
+        var handler = MinecraftServer.getGlobalEventHandler();
+        handler.addListener(PlayerBlockPlaceEvent.class, event ->
+                markBlockChanged(event.getInstance(), event.getBlockPosition().blockX(), event.getBlockPosition().blockZ()));
+        handler.addListener(PlayerBlockBreakEvent.class, event ->
+                markBlockChanged(event.getInstance(), event.getBlockPosition().blockX(), event.getBlockPosition().blockZ()));
+    }
+
+    /**
+     * Tells the instance's scene storage that a block changed, so the next autosave journals its chunk. Block
+     * edits that do not go through a player event must call this.
+     */
+    public void markBlockChanged(Instance instance, int blockX, int blockZ) {
+        if (instance instanceof InstanceContainer container
+                && container.getChunkLoader() instanceof SceneWorldChunkLoader loader) {
+            loader.markDirty(Math.floorDiv(blockX, 16), Math.floorDiv(blockZ, 16));
+        }
+    }
+
     private void createDefaultInstance() {
         if (defaultInstance == null) {
             defaultInstance = minestomInstanceManager.createInstanceContainer();
@@ -187,6 +216,10 @@ public class InstanceManager {
         }
     }
 
+    public ChunkPreloader getChunkPreloader() {
+        return chunkPreloader;
+    }
+
     public InstanceContainer getDefaultInstance() {
         if (defaultInstance == null) {
             createDefaultInstance();
@@ -298,7 +331,10 @@ public class InstanceManager {
         }
 
         try {
-            Path backupPath = createBackup(sceneWorldFile, "auto");
+            // The journal holds edits since the last compaction, so back up what the loader has saved instead.
+            SceneWorldChunkLoader loader = defaultInstance != null
+                    && defaultInstance.getChunkLoader() instanceof SceneWorldChunkLoader sceneLoader ? sceneLoader : null;
+            Path backupPath = createBackup(sceneWorldFile, "auto", loader);
             LOGGER.info("Created automatic backup: {}", backupPath);
             return backupPath;
         } catch (IOException e) {
@@ -342,7 +378,7 @@ public class InstanceManager {
 
         Path backupPath = null;
         try {
-            backupPath = createBackup(sceneWorldFile, "corrupted");
+            backupPath = createBackup(sceneWorldFile, "corrupted", null);
             System.err.println("\n✓ Corrupted file backed up to: " + backupPath);
         } catch (IOException e) {
             System.err.println("\n✗ Warning: Failed to create backup: " + e.getMessage());
@@ -360,6 +396,8 @@ public class InstanceManager {
             if (response.equals("yes") || response.equals("y")) {
                 try {
                     Files.deleteIfExists(sceneWorldFile);
+                    // Its journal would otherwise be replayed onto the fresh world.
+                    Files.deleteIfExists(SceneWorldChunkLoader.journalFile(sceneWorldFile));
                     LOGGER.warn("Deleted corrupted world file: {}", sceneWorldFile);
 
                     SceneWorldAccess worldAccess = new SceneWorldAccess(SceneDefaults.DEFAULT_SCENE_ID, projectRoot);
@@ -392,7 +430,11 @@ public class InstanceManager {
         }
     }
 
-    private Path createBackup(Path sourceFile, String reason) throws IOException {
+    /**
+     * @param loader the loader serving {@code sourceFile}, which writes the backup with its journal applied; if
+     *               {@code null} the file is copied and its journal copied alongside
+     */
+    private Path createBackup(Path sourceFile, String reason, SceneWorldChunkLoader loader) throws IOException {
         if (!Files.exists(sourceFile)) {
             throw new IOException("Source file does not exist: " + sourceFile);
         }
@@ -406,7 +448,15 @@ public class InstanceManager {
 
         Path backupPath = backupDir.resolve(backupFilename);
 
-        Files.copy(sourceFile, backupPath, StandardCopyOption.REPLACE_EXISTING);
+        if (loader != null) {
+            loader.backup(backupPath);
+        } else {
+            Files.copy(sourceFile, backupPath, StandardCopyOption.REPLACE_EXISTING);
+            Path journal = SceneWorldChunkLoader.journalFile(sourceFile);
+            if (Files.exists(journal)) {
+                Files.copy(journal, SceneWorldChunkLoader.journalFile(backupPath), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
 
         LOGGER.info("Created backup: {} -> {}", sourceFile, backupPath);
 
@@ -431,6 +481,7 @@ public class InstanceManager {
             if (backups.size() > maxBackups) {
                 for (int i = maxBackups; i < backups.size(); i++) {
                     Files.deleteIfExists(backups.get(i));
+                    Files.deleteIfExists(SceneWorldChunkLoader.journalFile(backups.get(i)));
                     LOGGER.debug("Deleted old backup: {}", backups.get(i));
                 }
                 LOGGER.info("Cleaned up {} old backups", backups.size() - maxBackups);
@@ -478,7 +529,7 @@ public class InstanceManager {
 
             instance.setChunkLoader(worldLoader);
             worldLoader.loadInstance(instance);
-            instance.saveChunksToStorage().join();
+            worldLoader.saveInstance(instance).join();
             LOGGER.info(
                     "Migrated {} chunks from legacy Anvil world {} to {}",
                     loadedChunks,
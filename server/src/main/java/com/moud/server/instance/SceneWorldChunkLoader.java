@@ -1,35 +1,79 @@
 package com.moud.server.instance;
 
+import com.moud.server.logging.MoudLogger;
+import net.hollowcube.polar.PolarChunk;
 import net.hollowcube.polar.PolarLoader;
+import net.hollowcube.polar.PolarReader;
+import net.hollowcube.polar.PolarWorld;
+import net.hollowcube.polar.PolarWriter;
 import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.IChunkLoader;
 import net.minestom.server.instance.Instance;
+import net.minestom.server.network.NetworkBuffer;
 import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ForkJoinPool;
 
+/**
+ * Polar-backed storage for scene worlds.
+ * <p>
+ * The Polar world is kept in memory and only written as a whole by {@link #saveInstance} and by compaction,
+ * always through a temporary file and an atomic move. In the default {@code journal} persistence mode
+ * ({@code -Dmoud.scene.persistence=journal|snapshot}) {@link #saveChunks} only writes chunks that were marked
+ * with {@link #markDirty} or are missing from the world, appending them to a {@link SceneWorldJournal} next to
+ * the {@code .polar} file. Autosave cost is therefore proportional to what changed. Once the journal exceeds
+ * {@code moud.scene.journalCompactBytes} or {@code moud.scene.compactSeconds} have passed, the next save writes a
+ * full snapshot in the background instead. On startup a leftover journal is replayed and compacted.
+ */
 final class SceneWorldChunkLoader implements IChunkLoader {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(SceneWorldChunkLoader.class);
+    private static final boolean JOURNAL = !"snapshot".equalsIgnoreCase(System.getProperty("moud.scene.persistence", "journal"));
+    private static final long COMPACT_BYTES = Long.getLong("moud.scene.journalCompactBytes", 64L << 20);
+    private static final long COMPACT_NANOS = Long.getLong("moud.scene.compactSeconds", 900L) * 1_000_000_000L;
+
+    private final Path worldFile;
     private final PolarLoader delegate;
     private final SceneWorldAccess worldAccess;
     private final Executor ioExecutor;
+    private final SceneWorldJournal journal;
+    private final Set<Long> dirtyChunks = ConcurrentHashMap.newKeySet();
+    private final Object ioLock = new Object();
+    private volatile long lastSnapshotNanos = System.nanoTime();
 
     SceneWorldChunkLoader(Path worldFile, SceneWorldAccess worldAccess) throws IOException {
         this(worldFile, worldAccess, ForkJoinPool.commonPool());
     }
 
     SceneWorldChunkLoader(Path worldFile, SceneWorldAccess worldAccess, Executor ioExecutor) throws IOException {
+        this.worldFile = Objects.requireNonNull(worldFile, "World file path cannot be null");
         this.worldAccess = Objects.requireNonNull(worldAccess, "worldAccess");
         this.ioExecutor = Objects.requireNonNull(ioExecutor, "ioExecutor");
+        this.journal = new SceneWorldJournal(journalFile(worldFile));
 
-        this.delegate = createLoader(worldFile)
+        PolarWorld world = readWorld(worldFile);
+        int replayed = journal.replay(world);
+        this.delegate = new PolarLoader(world)
                 .setWorldAccess(worldAccess)
                 .setParallel(false);
+        if (replayed > 0) {
+            LOGGER.info("Replayed {} journal records into {}", replayed, worldFile.getFileName());
+            synchronized (ioLock) {
+                writeSnapshot();
+            }
+        }
     }
 
     @Override
@@ -43,17 +87,28 @@ final class SceneWorldChunkLoader implements IChunkLoader {
         return delegate.loadChunk(instance, chunkX, chunkZ);
     }
 
+    /**
+     * Records that a chunk's blocks changed, so the next {@link #saveChunks} journals it.
+     */
+    void markDirty(int chunkX, int chunkZ) {
+        dirtyChunks.add(chunkKey(chunkX, chunkZ));
+    }
+
+    /**
+     * Serializes every loaded chunk and the scene data and writes a full snapshot, emptying the journal.
+     */
     @Override
     public @NotNull CompletableFuture<Void> saveInstance(@NotNull Instance instance) {
         return CompletableFuture.runAsync(() -> {
-            delegate.saveInstance(instance);
+            synchronized (ioLock) {
+                snapshot(instance);
+            }
         }, ioExecutor);
     }
 
     @Override
     public @NotNull CompletableFuture<Void> saveChunk(@NotNull Chunk chunk) {
-        Instance instance = chunk.getInstance();
-        return saveInstance(instance);
+        return saveChunks(List.of(chunk));
     }
 
     @Override
@@ -62,7 +117,52 @@ final class SceneWorldChunkLoader implements IChunkLoader {
             return CompletableFuture.completedFuture(null);
         }
         Instance instance = chunks.iterator().next().getInstance();
-        return saveInstance(instance);
+        if (!JOURNAL) {
+            return saveInstance(instance);
+        }
+        List<Chunk> changed = new ArrayList<>();
+        PolarWorld world = delegate.world();
+        for (Chunk chunk : chunks) {
+            int chunkX = chunk.getChunkX();
+            int chunkZ = chunk.getChunkZ();
+            if (dirtyChunks.remove(chunkKey(chunkX, chunkZ)) || world.chunkAt(chunkX, chunkZ) == null) {
+                changed.add(chunk);
+            }
+        }
+        return CompletableFuture.runAsync(() -> {
+            synchronized (ioLock) {
+                try {
+                    appendJournal(instance, changed);
+                } catch (RuntimeException e) {
+                    for (Chunk chunk : changed) {
+                        markDirty(chunk.getChunkX(), chunk.getChunkZ());
+                    }
+                    throw e;
+                }
+                if (shouldCompact()) {
+                    // A full save also picks up edits that bypassed markDirty.
+                    snapshot(instance);
+                }
+            }
+        }, ioExecutor);
+    }
+
+    /**
+     * Writes the world as last saved, journalled edits included, to {@code target} as a single Polar file.
+     */
+    void backup(Path target) throws IOException {
+        byte[] saved;
+        synchronized (ioLock) {
+            saved = PolarWriter.write(delegate.world());
+        }
+        Files.write(target, saved);
+    }
+
+    /**
+     * The journal that belongs to {@code worldFile}; it is replayed onto that file on load.
+     */
+    static Path journalFile(Path worldFile) {
+        return worldFile.resolveSibling(worldFile.getFileName() + ".journal");
     }
 
     @Override
@@ -80,13 +180,82 @@ final class SceneWorldChunkLoader implements IChunkLoader {
         return false;
     }
 
-    private static PolarLoader createLoader(Path worldFile) throws IOException {
-        if (worldFile == null) throw new IOException("World file path cannot be null");
+    /**
+     * Writes the changed chunks into the in-memory world, then appends them with the current scene data as
+     * one journal record.
+     */
+    private void appendJournal(Instance instance, List<Chunk> changed) {
+        if (!changed.isEmpty()) {
+            delegate.saveChunks(changed).join();
+        }
+        PolarWorld world = delegate.world();
+        byte[] userData = NetworkBuffer.makeArray(buffer -> worldAccess.saveWorldData(instance, buffer));
+        world.userData(userData);
+
+        List<PolarChunk> records = new ArrayList<>(changed.size());
+        for (Chunk chunk : changed) {
+            PolarChunk saved = world.chunkAt(chunk.getChunkX(), chunk.getChunkZ());
+            if (saved != null) {
+                records.add(saved);
+            }
+        }
+        PolarWorld record = new PolarWorld(world.version(), world.dataVersion(), world.compression(),
+                world.minSection(), world.maxSection(), userData, records);
         try {
-            return new PolarLoader(worldFile);
+            journal.append(PolarWriter.write(record));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append to world journal " + journal.file(), e);
+        }
+    }
+
+    private void snapshot(Instance instance) {
+        dirtyChunks.clear();
+        delegate.saveInstance(instance).join();
+        writeSnapshot();
+    }
+
+    private boolean shouldCompact() {
+        try {
+            return journal.size() > COMPACT_BYTES || System.nanoTime() - lastSnapshotNanos > COMPACT_NANOS;
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Replaces the world file atomically with the in-memory world and drops the journal it now contains.
+     * Callers hold {@link #ioLock}.
+     */
+    private void writeSnapshot() {
+        try {
+            Path parent = worldFile.toAbsolutePath().getParent();
+            Path temp = Files.createTempFile(parent, worldFile.getFileName().toString(), ".tmp");
+            try {
+                Files.write(temp, PolarWriter.write(delegate.world()));
+                Files.move(temp, worldFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            journal.reset();
+            lastSnapshotNanos = System.nanoTime();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write world snapshot " + worldFile, e);
+        }
+    }
+
+    private static PolarWorld readWorld(Path worldFile) throws IOException {
+        if (!Files.exists(worldFile)) {
+            return new PolarWorld();
+        }
+        try {
+            return PolarReader.read(Files.readAllBytes(worldFile));
         } catch (IndexOutOfBoundsException e) {
             throw new IOException("Corrupted or invalid Polar world file: " + worldFile +
                                 " (file may be empty or have invalid header data)", e);
         }
     }
+
+    private static long chunkKey(int chunkX, int chunkZ) {
+        return (((long) chunkX) << 32) ^ (chunkZ & 0xffffffffL);
+    }
 }
@@ -0,0 +1,156 @@
+package com.moud.server.instance;
+
+import com.moud.server.logging.MoudLogger;
+import net.hollowcube.polar.PolarChunk;
+import net.hollowcube.polar.PolarReader;
+import net.hollowcube.polar.PolarWorld;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of chunk updates next to a Polar world file.
+ * <p>
+ * Every record is a complete Polar world holding only the chunks saved since the previous record (and the
+ * scene user data), framed as {@code [int length][int crc32][bytes]} after an 8 byte file header. Records are
+ * forced to disk before {@link #append} returns. A torn tail from a crash fails its length or checksum and is
+ * truncated by {@link #replay}.
+ */
+final class SceneWorldJournal {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(SceneWorldJournal.class);
+    private static final int MAGIC = 0x4D4A4E4C; // "MJNL"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 256 * 1024 * 1024;
+
+    private final Path file;
+    private FileChannel channel;
+
+    SceneWorldJournal(Path file) {
+        this.file = file;
+    }
+
+    Path file() {
+        return file;
+    }
+
+    /**
+     * Applies every intact record to {@code world} in order and truncates anything after the last one.
+     *
+     * @return the number of records applied
+     */
+    synchronized int replay(PolarWorld world) throws IOException {
+        if (!Files.exists(file)) {
+            return 0;
+        }
+        int applied = 0;
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long size = in.size();
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            if (size < HEADER_BYTES || !readFully(in, header, 0) || header.getInt(0) != MAGIC
+                    || header.getInt(4) != VERSION) {
+                LOGGER.warn("Ignoring unreadable world journal {}", file);
+                in.truncate(0);
+                return 0;
+            }
+
+            long position = HEADER_BYTES;
+            ByteBuffer frame = ByteBuffer.allocate(8);
+            while (position < size) {
+                frame.clear();
+                if (!readFully(in, frame, position)) {
+                    break;
+                }
+                int length = frame.getInt(0);
+                int checksum = frame.getInt(4);
+                if (length <= 0 || length > MAX_RECORD_BYTES || position + 8 + length > size) {
+                    break;
+                }
+                ByteBuffer body = ByteBuffer.allocate(length);
+                if (!readFully(in, body, position + 8) || crc(body.array(), length) != checksum) {
+                    break;
+                }
+                apply(world, PolarReader.read(body.array()));
+                applied++;
+                position += 8 + length;
+            }
+            if (position < size) {
+                LOGGER.warn("Truncating torn world journal {} at byte {} of {}", file, position, size);
+                in.truncate(position);
+            }
+        }
+        return applied;
+    }
+
+    synchronized void append(byte[] record) throws IOException {
+        FileChannel out = channel();
+        ByteBuffer frame = ByteBuffer.allocate(8 + record.length);
+        frame.putInt(record.length).putInt(crc(record, record.length)).put(record).flip();
+        while (frame.hasRemaining()) {
+            out.write(frame);
+        }
+        out.force(false);
+    }
+
+    synchronized long size() throws IOException {
+        return Files.exists(file) ? Files.size(file) : 0;
+    }
+
+    /**
+     * Empties the journal once its records are contained in a snapshot.
+     */
+    synchronized void reset() throws IOException {
+        close();
+        Files.deleteIfExists(file);
+    }
+
+    synchronized void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private FileChannel channel() throws IOException {
+        if (channel == null) {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            if (channel.size() == 0) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+        }
+        return channel;
+    }
+
+    private static void apply(PolarWorld world, PolarWorld record) {
+        for (PolarChunk chunk : record.chunks()) {
+            world.updateChunkAt(chunk.x(), chunk.z(), chunk);
+        }
+        if (record.userData().length > 0) {
+            world.userData(record.userData());
+        }
+    }
+
+    private static boolean readFully(FileChannel in, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            int read = in.read(buffer, position + buffer.position());
+            if (read < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int crc(byte[] bytes, int length) {
+        CRC32 crc = new CRC32();
+        crc.update(bytes, 0, length);
+        return (int) crc.getValue();
+    }
+}
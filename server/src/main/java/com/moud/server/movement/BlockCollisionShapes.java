@@ -0,0 +1,69 @@
+package com.moud.server.movement;
+
+import net.minestom.server.collision.Shape;
+import net.minestom.server.coordinate.Point;
+import net.minestom.server.instance.block.Block;
+
+/**
+ * Block-relative collision box of every block state, computed once from the registry so collision queries go
+ * straight from a palette state id to a box. A state collides with the bounds of its collision shape; air,
+ * liquids and degenerate shapes do not collide. Returned arrays are shared and must not be modified.
+ */
+final class BlockCollisionShapes {
+    private static final double[] FULL = {0.0, 0.0, 0.0, 1.0, 1.0, 1.0};
+    private static final double[][] BOXES = build();
+
+    private BlockCollisionShapes() {
+    }
+
+    static boolean isKnown(int stateId) {
+        return stateId >= 0 && stateId < BOXES.length;
+    }
+
+    /**
+     * @return {@code minX, minY, minZ, maxX, maxY, maxZ} relative to the block, or {@code null} if the state does
+     * not collide; only valid for {@link #isKnown} states
+     */
+    static double[] box(int stateId) {
+        return BOXES[stateId];
+    }
+
+    static double[] compute(Block block) {
+        if (block == null || block.isAir() || block.isLiquid()) {
+            return null;
+        }
+        Shape shape = block.registry().collisionShape();
+        if (shape == null) {
+            return null;
+        }
+        Point start = shape.relativeStart();
+        Point end = shape.relativeEnd();
+        if (start == null || end == null) {
+            return null;
+        }
+        if (start.x() == end.x() || start.y() == end.y() || start.z() == end.z()) {
+            return null;
+        }
+        if (start.x() == 0.0 && start.y() == 0.0 && start.z() == 0.0
+                && end.x() == 1.0 && end.y() == 1.0 && end.z() == 1.0) {
+            return FULL;
+        }
+        return new double[]{start.x(), start.y(), start.z(), end.x(), end.y(), end.z()};
+    }
+
+    private static double[][] build() {
+        int maxStateId = 0;
+        for (Block block : Block.values()) {
+            for (Block state : block.possibleStates()) {
+                maxStateId = Math.max(maxStateId, state.stateId());
+            }
+        }
+        double[][] boxes = new double[maxStateId + 1][];
+        for (Block block : Block.values()) {
+            for (Block state : block.possibleStates()) {
+                boxes[state.stateId()] = compute(state);
+            }
+        }
+        return boxes;
+    }
+}
@@ -41,7 +41,8 @@ public final class JoltPredictionCollisionWorld {
     }
 
     private PhysicsSystem physicsSystem;
-    private TempAllocator tempAllocator;
+    // Characters are stepped from several movement workers at once; each thread gets its own scratch allocator.
+    private final ThreadLocal<TempAllocator> tempAllocators = ThreadLocal.withInitial(TempAllocatorMalloc::new);
     private ObjectLayerPairFilterTable pairFilter;
     private BroadPhaseLayerInterfaceTable bpInterface;
     private ObjectVsBroadPhaseLayerFilterTable bpFilter;
@@ -82,13 +83,12 @@ public final class JoltPredictionCollisionWorld {
         physicsSystem.setGravity(new Vec3(0, 0, 0));
         physicsSystem.optimizeBroadPhase();
 
-        tempAllocator = new TempAllocatorMalloc();
         initialized = true;
         LOGGER.info("JoltPredictionCollisionWorld initialized");
     }
 
     public boolean isInitialized() {
-        return initialized && physicsSystem != null && tempAllocator != null;
+        return initialized && physicsSystem != null;
     }
 
     public CharacterVirtual createCharacter(float width, float height) {
@@ -183,6 +183,9 @@ public final class JoltPredictionCollisionWorld {
         }
     }
 
+    /**
+     * @param vertices chunk-local triangles; the body is placed at the chunk's origin
+     */
     public synchronized void upsertChunkMesh(Instance instance, int chunkX, int chunkZ, float[] vertices, int[] indices) {
         if (instance == null) {
             return;
@@ -202,7 +205,8 @@ public final class JoltPredictionCollisionWorld {
         ChunkMeshEntry existing = chunkMeshes.get(key);
         if (existing == null || existing.body == null || existing.meshHash != meshHash) {
             removeChunkMesh(key, existing);
-            Body body = createStaticMeshBody(vertices, indices, Vector3.zero(), Quaternion.identity(), Vector3.one(), "chunk(" + chunkX + "," + chunkZ + ")");
+            Vector3 origin = new Vector3(chunkX * 16.0, 0.0, chunkZ * 16.0);
+            Body body = createStaticMeshBody(vertices, indices, origin, Quaternion.identity(), Vector3.one(), "chunk(" + chunkX + "," + chunkZ + ")");
             if (body == null) {
                 return;
             }
@@ -533,6 +537,10 @@ public final class JoltPredictionCollisionWorld {
         }
     }
 
+    /**
+     * Moves a character against the static bodies. Only reads the physics system, so different characters may be
+     * moved from different threads concurrently; a single character must not be.
+     */
     public MoveResult moveCharacter(
             CharacterVirtual character,
             double feetX,
@@ -578,7 +586,7 @@ public final class JoltPredictionCollisionWorld {
                     physicsSystem.getDefaultLayerFilter(LAYER_PLAYER),
                     new BodyFilter(),
                     new ShapeFilter(),
-                    tempAllocator
+                    tempAllocators.get()
             );
 
             RVec3 newCenterPos = character.getPosition();
@@ -630,7 +638,7 @@ public final class JoltPredictionCollisionWorld {
                     physicsSystem.getDefaultLayerFilter(LAYER_PLAYER),
                     new BodyFilter(),
                     new ShapeFilter(),
-                    tempAllocator
+                    tempAllocators.get()
             );
 
             return character.getGroundState() == EGroundState.OnGround;
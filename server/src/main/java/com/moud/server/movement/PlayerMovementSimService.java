@@ -2,6 +2,7 @@ package com.moud.server.movement;
 
 import com.moud.api.collision.AABB;
 import com.moud.api.math.Vector3;
+import com.moud.api.physics.player.CollisionBuffer;
 import com.moud.api.physics.player.CollisionWorld;
 import com.moud.api.physics.player.PlayerInput;
 import com.moud.api.physics.player.PlayerPhysicsController;
@@ -9,39 +10,47 @@ import com.moud.api.physics.player.PlayerPhysicsConfig;
 import com.moud.api.physics.player.PlayerPhysicsControllers;
 import com.moud.api.physics.player.PlayerState;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.TransformQuantizer;
+import com.moud.server.logging.MoudLogger;
 import com.moud.server.network.ServerNetworkManager;
 import com.moud.server.physics.PhysicsService;
 import com.moud.server.scripting.ScriptPlayerContextProvider;
 import com.moud.server.scripting.ScriptThreadContext;
-import com.moud.server.physics.primitives.PrimitiveCollisionBounds;
-import com.moud.server.primitives.PrimitiveInstance;
 import com.moud.server.primitives.PrimitiveServiceImpl;
 import com.moud.server.zone.ZoneManager;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.collision.BoundingBox;
-import net.minestom.server.collision.Shape;
-import net.minestom.server.coordinate.Point;
 import net.minestom.server.coordinate.Pos;
 import net.minestom.server.entity.Entity;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.event.player.PlayerGameModeChangeEvent;
 import net.minestom.server.event.player.PlayerMoveEvent;
+import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
+import net.minestom.server.instance.Section;
 import net.minestom.server.instance.block.Block;
+import net.minestom.server.instance.palette.Palette;
 import net.minestom.server.timer.Task;
 import net.minestom.server.timer.TaskSchedule;
 
 import java.util.ArrayList;
 import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
 import java.util.NavigableMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public final class PlayerMovementSimService {
     private static final float FIXED_DT_SECONDS = MinecraftServer.TICK_MS / 1000f;
@@ -49,7 +58,11 @@ public final class PlayerMovementSimService {
     private static final int INPUT_DECAY_TICKS = 6;
     private static final double COLLISION_QUERY_EPS = 1.0e-9;
     private static final double MESH_GROUND_PROBE = 0.05;
+    private static final int SIM_THREADS = Math.max(0, Integer.getInteger("moud.movement.simThreads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+    private static final int PARALLEL_THRESHOLD = Math.max(2, Integer.getInteger("moud.movement.parallelThreshold", 8));
 
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(PlayerMovementSimService.class);
     private static final PlayerMovementSimService INSTANCE = new PlayerMovementSimService();
 
     public static PlayerMovementSimService getInstance() {
@@ -59,6 +72,7 @@ public final class PlayerMovementSimService {
     private final PlayerPhysicsConfig defaultConfig = PlayerPhysicsConfig.predictionDefaults();
     private final ConcurrentMap<UUID, SimPlayer> players = new ConcurrentHashMap<>();
     private final AtomicBoolean handlersRegistered = new AtomicBoolean(false);
+    private final ExecutorService simWorkers = createSimWorkers();
     private volatile Task tickTask;
 
     private PlayerMovementSimService() {
@@ -149,6 +163,15 @@ public final class PlayerMovementSimService {
         sim.pendingInputs.put(seq, decodeInput(packet));
     }
 
+    private static ExecutorService createSimWorkers() {
+        AtomicInteger threadIds = new AtomicInteger();
+        return Executors.newFixedThreadPool(Math.max(1, SIM_THREADS), r -> {
+            Thread t = new Thread(r, "Moud-MovementSim-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
     private void startTickTask() {
         if (tickTask != null) {
             return;
@@ -204,6 +227,13 @@ public final class PlayerMovementSimService {
         });
     }
 
+    /**
+     * Runs in three phases. On the tick thread, players are resolved, inputs polled and each instance's meshes and
+     * collider indexes synced once. The controller and Jolt steps then run for all players in parallel on
+     * {@link #SIM_THREADS} workers (or inline below {@link #PARALLEL_THRESHOLD} players); a step only touches its
+     * own {@link SimPlayer} and its own Jolt character. Finally, back on the tick thread and in player id order,
+     * results are applied: positions, snapshots and pushes.
+     */
     private void tick() {
         if (players.isEmpty()) {
             return;
@@ -213,6 +243,8 @@ public final class PlayerMovementSimService {
         PhysicsService physics = PhysicsService.getInstance();
         JoltPredictionCollisionWorld joltWorld = JoltPredictionCollisionWorld.getInstance();
 
+        List<SimStep> steps = new ArrayList<>(players.size());
+        Set<Instance> instances = new HashSet<>();
         List<UUID> toRemove = null;
         for (SimPlayer sim : players.values()) {
             Player player = MinecraftServer.getConnectionManager().getOnlinePlayerByUuid(sim.playerId);
@@ -227,22 +259,35 @@ public final class PlayerMovementSimService {
             if (instance == null) {
                 continue;
             }
+            instances.add(instance);
+            steps.add(new SimStep(sim, player, instance, sim.nextInput()));
+        }
+        if (toRemove != null) {
+            for (UUID id : toRemove) {
+                players.remove(id);
+            }
+        }
+        if (steps.isEmpty()) {
+            return;
+        }
+        steps.sort(Comparator.comparing(step -> step.sim.playerId));
 
+        for (Instance instance : instances) {
             joltWorld.syncMeshesForInstance(instance);
+        }
+        physics.refreshPlayerBlockingColliders();
+        PrimitiveServiceImpl.getInstance().refreshColliderIndex();
 
-            PlayerInput input = sim.nextInput();
-            CollisionWorld world = new ServerCollisionWorld(instance, physics);
-            PlayerState nextState;
-            ScriptThreadContext.setPlayer(sim.playerId, sim.contextProvider);
-            try {
-                PlayerState grounded = applyJoltMeshGroundProbe(joltWorld, sim, sim.state, sim.config);
-                nextState = sim.controller.step(grounded, input, sim.config, world, FIXED_DT_SECONDS);
+        simulate(steps, joltWorld, physics);
 
-                nextState = applyJoltMeshCollision(joltWorld, sim, grounded, nextState, sim.config);
-            } finally {
-                ScriptThreadContext.clear();
+        for (SimStep step : steps) {
+            PlayerState nextState = step.result;
+            if (nextState == null) {
+                continue;
             }
-
+            SimPlayer sim = step.sim;
+            Player player = step.player;
+            PlayerInput input = step.input;
             sim.state = nextState;
             sim.lastProcessedSeq = Math.max(sim.lastProcessedSeq, input.sequenceId());
 
@@ -250,7 +295,7 @@ public final class PlayerMovementSimService {
             player.refreshPosition(new Pos(nextState.x(), nextState.y(), nextState.z(), input.yaw(), input.pitch()));
 
             if (network != null && network.isMoudClient(player)) {
-                network.send(player, new MoudPackets.PlayerSnapshotPacket(
+                MoudPackets.PlayerSnapshotPacket snapshot = new MoudPackets.PlayerSnapshotPacket(
                         sim.lastProcessedSeq,
                         nextState.x(),
                         nextState.y(),
@@ -259,17 +304,51 @@ public final class PlayerMovementSimService {
                         nextState.velY(),
                         nextState.velZ(),
                         nextState.onGround()
-                ));
+                );
+                if (TransformQuantizer.ENABLED) {
+                    network.send(player, TransformQuantizer.encodeSnapshot(snapshot));
+                } else {
+                    network.send(player, snapshot);
+                }
             }
 
             AABB playerBox = playerAabb(nextState, sim.config);
             Vector3 vel = new Vector3(nextState.velX(), nextState.velY(), nextState.velZ());
             physics.applyPlayerPush(playerBox, vel, PLAYER_PUSH_STRENGTH);
         }
+    }
 
-        if (toRemove != null) {
-            for (UUID id : toRemove) {
-                players.remove(id);
+    private void simulate(List<SimStep> steps, JoltPredictionCollisionWorld joltWorld, PhysicsService physics) {
+        int partitions = Math.min(SIM_THREADS + 1, steps.size() / Math.max(1, PARALLEL_THRESHOLD / 2));
+        if (partitions <= 1 || steps.size() < PARALLEL_THRESHOLD) {
+            for (SimStep step : steps) {
+                step.run(joltWorld, physics);
+            }
+            return;
+        }
+
+        // The tick thread takes the first partition itself instead of idling.
+        int per = (steps.size() + partitions - 1) / partitions;
+        List<Future<?>> futures = new ArrayList<>(partitions - 1);
+        for (int from = per; from < steps.size(); from += per) {
+            List<SimStep> slice = steps.subList(from, Math.min(steps.size(), from + per));
+            futures.add(simWorkers.submit(() -> {
+                for (SimStep step : slice) {
+                    step.run(joltWorld, physics);
+                }
+            }));
+        }
+        for (SimStep step : steps.subList(0, Math.min(per, steps.size()))) {
+            step.run(joltWorld, physics);
+        }
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                LOGGER.error("Movement simulation worker failed", e.getCause());
             }
         }
     }
@@ -448,9 +527,18 @@ public final class PlayerMovementSimService {
         return Math.signum(allowed) == Math.signum(requested) && Math.abs(allowed) < Math.abs(requested) - 1e-6;
     }
 
+    /**
+     * Block, primitive and physics-body colliders for one player step. Blocks are read straight from the section
+     * palettes of the chunk under the query, cached between queries, and mapped to boxes through
+     * {@link BlockCollisionShapes}; nothing is allocated per block.
+     */
     private static final class ServerCollisionWorld implements CollisionWorld {
         private final Instance instance;
         private final PhysicsService physicsService;
+        private int minY = Integer.MIN_VALUE;
+        private Chunk chunk;
+        private int chunkX;
+        private int chunkZ;
 
         private ServerCollisionWorld(Instance instance, PhysicsService physicsService) {
             this.instance = instance;
@@ -462,66 +550,112 @@ public final class PlayerMovementSimService {
             if (instance == null || query == null) {
                 return List.of();
             }
+            CollisionBuffer buffer = new CollisionBuffer();
+            collectCollisions(query.minX(), query.minY(), query.minZ(), query.maxX(), query.maxY(), query.maxZ(), buffer);
+            return buffer.toList();
+        }
 
-            int minX = (int) Math.floor(query.minX());
-            int minY = (int) Math.floor(query.minY());
-            int minZ = (int) Math.floor(query.minZ());
+        @Override
+        public void collectCollisions(
+                double queryMinX,
+                double queryMinY,
+                double queryMinZ,
+                double queryMaxX,
+                double queryMaxY,
+                double queryMaxZ,
+                CollisionBuffer out
+        ) {
+            if (instance == null) {
+                return;
+            }
+            if (minY == Integer.MIN_VALUE) {
+                minY = MinecraftServer.getDimensionTypeRegistry().get(instance.getDimensionType()).minY();
+            }
 
-            int maxX = (int) Math.floor(query.maxX() - COLLISION_QUERY_EPS);
-            int maxY = (int) Math.floor(query.maxY() - COLLISION_QUERY_EPS);
-            int maxZ = (int) Math.floor(query.maxZ() - COLLISION_QUERY_EPS);
+            int minX = (int) Math.floor(queryMinX);
+            int minBlockY = (int) Math.floor(queryMinY);
+            int minZ = (int) Math.floor(queryMinZ);
 
-            List<AABB> result = new ArrayList<>();
+            int maxX = (int) Math.floor(queryMaxX - COLLISION_QUERY_EPS);
+            int maxBlockY = (int) Math.floor(queryMaxY - COLLISION_QUERY_EPS);
+            int maxZ = (int) Math.floor(queryMaxZ - COLLISION_QUERY_EPS);
 
             for (int x = minX; x <= maxX; x++) {
-                for (int y = minY; y <= maxY; y++) {
-                    for (int z = minZ; z <= maxZ; z++) {
-                        Block block = instance.getBlock(x, y, z);
-                        if (block.isAir() || block.isLiquid()) {
-                            continue;
-                        }
-                        Shape shape = block.registry().collisionShape();
-                        if (shape == null) {
+                for (int z = minZ; z <= maxZ; z++) {
+                    Chunk column = chunkAt(x >> 4, z >> 4);
+                    if (column == null) {
+                        continue;
+                    }
+                    List<Section> sections = column.getSections();
+                    Palette palette = null;
+                    int paletteSection = -1;
+                    for (int y = minBlockY; y <= maxBlockY; y++) {
+                        int sectionIndex = (y - minY) >> 4;
+                        if (sectionIndex < 0 || sectionIndex >= sections.size()) {
                             continue;
                         }
-                        Point relStart = shape.relativeStart();
-                        Point relEnd = shape.relativeEnd();
-                        if (relStart == null || relEnd == null) {
-                            continue;
+                        if (sectionIndex != paletteSection) {
+                            palette = sections.get(sectionIndex).blockPalette();
+                            paletteSection = sectionIndex;
                         }
-                        if (relStart.x() == relEnd.x() || relStart.y() == relEnd.y() || relStart.z() == relEnd.z()) {
-                            continue;
+                        int stateId = palette.get(x & 15, y & 15, z & 15);
+                        double[] box = BlockCollisionShapes.isKnown(stateId)
+                                ? BlockCollisionShapes.box(stateId)
+                                : BlockCollisionShapes.compute(column.getBlock(x, y, z, Block.Getter.Condition.TYPE));
+                        if (box != null) {
+                            out.add(x + box[0], y + box[1], z + box[2], x + box[3], y + box[4], z + box[5]);
                         }
-                        result.add(new AABB(
-                                x + relStart.x(),
-                                y + relStart.y(),
-                                z + relStart.z(),
-                                x + relEnd.x(),
-                                y + relEnd.y(),
-                                z + relEnd.z()
-                        ));
                     }
                 }
             }
 
-            PrimitiveServiceImpl primitiveService = PrimitiveServiceImpl.getInstance();
-            for (PrimitiveInstance primitive : primitiveService.getPrimitiveInstances()) {
-                AABB bounds = PrimitiveCollisionBounds.computeAabb(primitive);
-                if (bounds == null || !bounds.intersects(query)) {
-                    continue;
-                }
-                result.add(bounds);
-            }
+            PrimitiveServiceImpl.getInstance()
+                    .collectColliders(queryMinX, queryMinY, queryMinZ, queryMaxX, queryMaxY, queryMaxZ, out);
 
             if (physicsService != null) {
-                result.addAll(physicsService.getPlayerBlockingColliders(instance, query));
+                physicsService.collectPlayerBlockingColliders(
+                        instance, queryMinX, queryMinY, queryMinZ, queryMaxX, queryMaxY, queryMaxZ, out);
+            }
+
+            out.sortByMinY();
+        }
+
+        private Chunk chunkAt(int x, int z) {
+            if (chunk == null || chunkX != x || chunkZ != z) {
+                chunk = instance.getChunk(x, z);
+                chunkX = x;
+                chunkZ = z;
             }
+            return chunk;
+        }
+    }
 
-            if (result.size() <= 1) {
-                return result;
+    private static final class SimStep {
+        private final SimPlayer sim;
+        private final Player player;
+        private final Instance instance;
+        private final PlayerInput input;
+        private PlayerState result;
+
+        private SimStep(SimPlayer sim, Player player, Instance instance, PlayerInput input) {
+            this.sim = sim;
+            this.player = player;
+            this.instance = instance;
+            this.input = input;
+        }
+
+        private void run(JoltPredictionCollisionWorld joltWorld, PhysicsService physics) {
+            CollisionWorld world = new ServerCollisionWorld(instance, physics);
+            ScriptThreadContext.setPlayer(sim.playerId, sim.contextProvider);
+            try {
+                PlayerState grounded = applyJoltMeshGroundProbe(joltWorld, sim, sim.state, sim.config);
+                PlayerState nextState = sim.controller.step(grounded, input, sim.config, world, FIXED_DT_SECONDS);
+                result = applyJoltMeshCollision(joltWorld, sim, grounded, nextState, sim.config);
+            } catch (RuntimeException e) {
+                LOGGER.warn("Movement step failed for player {}", sim.playerId, e);
+            } finally {
+                ScriptThreadContext.clear();
             }
-            result.sort(Comparator.comparingDouble(AABB::minY));
-            return result;
         }
     }
 
@@ -14,6 +14,10 @@ final class InboundPacketByteBuffer implements ByteBuffer {
         this.buffer = java.nio.ByteBuffer.wrap(data);
     }
 
+    InboundPacketByteBuffer(byte[] data, int offset, int length) {
+        this.buffer = java.nio.ByteBuffer.wrap(data, offset, length);
+    }
+
     @Override
     public void writeString(String value) {
         throw new UnsupportedOperationException("InboundPacketByteBuffer is read-only");
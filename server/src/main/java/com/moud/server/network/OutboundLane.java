@@ -0,0 +1,82 @@
+package com.moud.server.network;
+
+import com.moud.network.MoudPackets;
+
+import java.util.Map;
+
+/**
+ * Priority classes for outbound traffic to a Moud client.
+ * <p>
+ * Immediate lanes are written as soon as they are sent and only charged against the connection's
+ * byte budget. Priority lanes drain in declaration order from the main budget. Bulk lanes share a
+ * reserved slice of the budget round-robin, so a multi-megabyte transfer in one lane neither blocks
+ * the others nor latency-sensitive traffic.
+ */
+public enum OutboundLane {
+    INPUT_ACK(Kind.IMMEDIATE),
+    TRANSFORM(Kind.IMMEDIATE),
+    DIRECT(Kind.IMMEDIATE),
+    UI(Kind.PRIORITY),
+    SYNC(Kind.PRIORITY),
+    BULK_MESH(Kind.BULK),
+    BULK_BLUEPRINT(Kind.BULK),
+    BULK_SCRIPT(Kind.BULK);
+
+    enum Kind {
+        IMMEDIATE,
+        PRIORITY,
+        BULK
+    }
+
+    private static final Map<Class<?>, OutboundLane> IMMEDIATE_LANES = Map.ofEntries(
+            Map.entry(MoudPackets.PlayerSnapshotPacket.class, INPUT_ACK),
+            Map.entry(MoudPackets.S2C_QuantizedPlayerSnapshotPacket.class, INPUT_ACK),
+            Map.entry(MoudPackets.SceneEditAckPacket.class, INPUT_ACK),
+            Map.entry(MoudPackets.S2C_PacketSchemaAckPacket.class, INPUT_ACK),
+            Map.entry(MoudPackets.S2C_TransformBatchPacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_QuantizedTransformBatchPacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_UpdateModelTransformPacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_UpdateDisplayTransformPacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_PrimitiveTransformPacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_PrimitiveBatchTransformPacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_IKBatchUpdatePacket.class, TRANSFORM),
+            Map.entry(MoudPackets.S2C_QuantizedIKBatchUpdatePacket.class, TRANSFORM)
+    );
+
+    private static final Map<Class<?>, OutboundLane> SCHEDULED_LANES = Map.of(
+            MoudPackets.UIOverlayUpsertPacket.class, UI,
+            MoudPackets.UIOverlayRemovePacket.class, UI,
+            MoudPackets.UIOverlayClearPacket.class, UI
+    );
+
+    private final Kind kind;
+
+    OutboundLane(Kind kind) {
+        this.kind = kind;
+    }
+
+    Kind kind() {
+        return kind;
+    }
+
+    public boolean isImmediate() {
+        return kind == Kind.IMMEDIATE;
+    }
+
+    /**
+     * Lane used for unscheduled sends: the packet is written immediately, the lane only decides how
+     * its bytes are reported.
+     */
+    public static OutboundLane immediateLaneFor(Class<?> packetType) {
+        return IMMEDIATE_LANES.getOrDefault(packetType, DIRECT);
+    }
+
+    /**
+     * Lane a packet type always travels on, whether it is sent or broadcast; {@code fallback} for types with no
+     * fixed lane.
+     */
+    public static OutboundLane laneFor(Class<?> packetType, OutboundLane fallback) {
+        OutboundLane lane = IMMEDIATE_LANES.get(packetType);
+        return lane != null ? lane : SCHEDULED_LANES.getOrDefault(packetType, fallback);
+    }
+}
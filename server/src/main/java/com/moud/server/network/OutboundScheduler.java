@@ -0,0 +1,250 @@
+package com.moud.server.network;
+
+import com.moud.server.network.diagnostics.NetworkProbe;
+import net.minestom.server.MinecraftServer;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-connection outbound scheduler with a byte budget per tick.
+ * <p>
+ * The budget is split into two token buckets refilled every tick: the bulk bucket
+ * ({@code moud.network.bulkSharePercent} of {@code moud.network.bytesPerTick}) is reserved for bulk
+ * lanes, the main bucket serves priority lanes first and hands what is left to bulk. Immediate lanes
+ * bypass the queues but are charged to the main bucket, never below the priority headroom, so a burst of
+ * transforms cannot starve UI and sync traffic. Transforms still queue behind pending sync traffic, so a
+ * client never receives one before the create or snapshot of the object it moves. A bucket may be
+ * overdrawn by one packet so that packets larger than a tick's budget still go out; the debt is repaid
+ * over the following ticks.
+ * <p>
+ * Bulk lanes are served with deficit round-robin, which keeps them fair to each other regardless of
+ * packet size. A packet offered to an idle lane with budget to spare is written straight away, so
+ * scheduling only adds latency when the connection is actually saturated.
+ */
+final class OutboundScheduler {
+    static final int BYTES_PER_TICK = Math.max(1024, Integer.getInteger("moud.network.bytesPerTick", 256 * 1024));
+    private static final int BULK_SHARE_PERCENT =
+            Math.min(100, Math.max(1, Integer.getInteger("moud.network.bulkSharePercent", 25)));
+    private static final int BULK_QUANTUM =
+            Math.max(512, Integer.getInteger("moud.network.bulkQuantumBytes", 16 * 1024));
+    private static final long BULK_RATE = (long) BYTES_PER_TICK * BULK_SHARE_PERCENT / 100;
+    private static final long MAIN_RATE = Math.max(1, BYTES_PER_TICK - BULK_RATE);
+    /**
+     * Part of the main bucket that bulk lanes never borrow and immediate lanes never consume, so priority
+     * packets arriving mid-tick go out at once.
+     */
+    private static final long PRIORITY_HEADROOM = MAIN_RATE / 4;
+    static final long TICK_NANOS = MinecraftServer.TICK_MS * 1_000_000L;
+    private static final long REFILL_GRANULARITY_NANOS = 1_000_000L;
+
+    private static final OutboundLane[] LANES = OutboundLane.values();
+    private static final OutboundLane[] PRIORITY_LANES = lanesOf(OutboundLane.Kind.PRIORITY);
+    private static final OutboundLane[] BULK_LANES = lanesOf(OutboundLane.Kind.BULK);
+
+    @FunctionalInterface
+    interface Sink {
+        void write(ServerPacketWrapper.PacketEnvelope envelope, OutboundLane lane);
+    }
+
+    /**
+     * @param lane the lane the envelope was sent on, which a queued transform does not share with its queue
+     */
+    private record Pending(ServerPacketWrapper.PacketEnvelope envelope, int bytes, OutboundLane lane) {
+    }
+
+    @SuppressWarnings("unchecked")
+    private final ArrayDeque<Pending>[] queues = new ArrayDeque[LANES.length];
+    private final long[] deficits = new long[LANES.length];
+    private long mainTokens = MAIN_RATE;
+    private long bulkTokens = BULK_RATE;
+    private final LongSupplier clock;
+    private long lastRefillNanos;
+    private int priorityPending;
+    private int bulkPending;
+    private int bulkCursor;
+
+    OutboundScheduler() {
+        this(System::nanoTime);
+    }
+
+    OutboundScheduler(LongSupplier clock) {
+        this.clock = clock;
+        this.lastRefillNanos = clock.getAsLong();
+        for (OutboundLane lane : LANES) {
+            if (!lane.isImmediate()) {
+                queues[lane.ordinal()] = new ArrayDeque<>();
+            }
+        }
+    }
+
+    /**
+     * Writes or queues an envelope on a scheduled lane.
+     *
+     * @return {@code true} if it was written immediately, {@code false} if it is waiting for budget
+     */
+    synchronized boolean offer(OutboundLane lane, ServerPacketWrapper.PacketEnvelope envelope, int bytes, Sink sink) {
+        if (lane.isImmediate()) {
+            throw new IllegalArgumentException("Immediate lane " + lane + " cannot be queued");
+        }
+        refill();
+        ArrayDeque<Pending> queue = queues[lane.ordinal()];
+        boolean canWrite = queue.isEmpty() && (lane.kind() == OutboundLane.Kind.PRIORITY
+                ? mainTokens > 0
+                : bulkPending == 0 && bulkBudget() > 0);
+        if (canWrite) {
+            write(lane, new Pending(envelope, bytes, lane), sink);
+            return true;
+        }
+        queue.addLast(new Pending(envelope, bytes, lane));
+        if (lane.kind() == OutboundLane.Kind.PRIORITY) {
+            priorityPending++;
+        } else {
+            bulkPending++;
+        }
+        NetworkProbe.getInstance().recordLaneQueued(lane, bytes);
+        return false;
+    }
+
+    /**
+     * Writes an envelope on an immediate lane, or queues a transform behind sync traffic still waiting for
+     * budget.
+     *
+     * @return {@code true} if it was written immediately, {@code false} if it is waiting for budget
+     */
+    synchronized boolean sendImmediate(OutboundLane lane, ServerPacketWrapper.PacketEnvelope envelope, int bytes,
+                                       Sink sink) {
+        if (!lane.isImmediate()) {
+            throw new IllegalArgumentException("Scheduled lane " + lane + " cannot be sent immediately");
+        }
+        ArrayDeque<Pending> sync = queues[OutboundLane.SYNC.ordinal()];
+        if (lane == OutboundLane.TRANSFORM && !sync.isEmpty()) {
+            sync.addLast(new Pending(envelope, bytes, lane));
+            priorityPending++;
+            NetworkProbe.getInstance().recordLaneQueued(OutboundLane.SYNC, bytes);
+            return false;
+        }
+        sink.write(envelope, lane);
+        charge(lane, bytes);
+        return true;
+    }
+
+    /**
+     * Accounts for bytes written outside the queues on an immediate lane.
+     */
+    synchronized void charge(OutboundLane lane, int bytes) {
+        refill();
+        mainTokens = Math.max(Math.min(mainTokens, PRIORITY_HEADROOM), mainTokens - bytes);
+        NetworkProbe.getInstance().recordLaneSent(lane, bytes);
+    }
+
+    /**
+     * Writes as much queued traffic as this tick's budget allows.
+     *
+     * @return whether anything is still queued
+     */
+    synchronized boolean drain(Sink sink) {
+        refill();
+        for (OutboundLane lane : PRIORITY_LANES) {
+            ArrayDeque<Pending> queue = queues[lane.ordinal()];
+            while (mainTokens > 0 && !queue.isEmpty()) {
+                priorityPending--;
+                Pending pending = queue.pollFirst();
+                NetworkProbe.getInstance().recordLaneDequeued(lane, pending.bytes());
+                write(lane, pending, sink);
+            }
+        }
+
+        if (bulkTokens < 0 && spareMainTokens() > 0) {
+            // Priority lanes are idle this tick: let their unused budget repay bulk overdraft.
+            long repay = Math.min(-bulkTokens, spareMainTokens());
+            bulkTokens += repay;
+            mainTokens -= repay;
+        }
+
+        while (bulkPending > 0 && bulkBudget() > 0) {
+            OutboundLane lane = BULK_LANES[bulkCursor];
+            bulkCursor = (bulkCursor + 1) % BULK_LANES.length;
+            ArrayDeque<Pending> queue = queues[lane.ordinal()];
+            if (queue.isEmpty()) {
+                deficits[lane.ordinal()] = 0;
+                continue;
+            }
+            deficits[lane.ordinal()] += BULK_QUANTUM;
+            while (!queue.isEmpty() && queue.peekFirst().bytes() <= deficits[lane.ordinal()] && bulkBudget() > 0) {
+                Pending pending = queue.pollFirst();
+                bulkPending--;
+                deficits[lane.ordinal()] -= pending.bytes();
+                NetworkProbe.getInstance().recordLaneDequeued(lane, pending.bytes());
+                write(lane, pending, sink);
+            }
+            if (queue.isEmpty()) {
+                deficits[lane.ordinal()] = 0;
+            }
+        }
+        return priorityPending > 0 || bulkPending > 0;
+    }
+
+    synchronized boolean hasPending() {
+        return priorityPending > 0 || bulkPending > 0;
+    }
+
+    /**
+     * Drops everything still queued, e.g. when the client disconnects.
+     */
+    synchronized void clear() {
+        for (OutboundLane lane : LANES) {
+            ArrayDeque<Pending> queue = queues[lane.ordinal()];
+            if (queue == null) {
+                continue;
+            }
+            for (Pending pending : queue) {
+                NetworkProbe.getInstance().recordLaneDequeued(lane, pending.bytes());
+            }
+            queue.clear();
+            deficits[lane.ordinal()] = 0;
+        }
+        priorityPending = 0;
+        bulkPending = 0;
+    }
+
+    private long bulkBudget() {
+        return bulkTokens + spareMainTokens();
+    }
+
+    private long spareMainTokens() {
+        return priorityPending == 0 ? Math.max(0, mainTokens - PRIORITY_HEADROOM) : 0;
+    }
+
+    private void write(OutboundLane lane, Pending pending, Sink sink) {
+        if (lane.kind() == OutboundLane.Kind.BULK) {
+            // Bulk may borrow what the main bucket has spare, but any overdraft stays in the bulk bucket so
+            // a large transfer never pushes priority lanes into debt.
+            long fromMain = Math.max(0, Math.min(spareMainTokens(), pending.bytes() - Math.max(0, bulkTokens)));
+            mainTokens -= fromMain;
+            bulkTokens -= pending.bytes() - fromMain;
+        } else {
+            mainTokens -= pending.bytes();
+        }
+        NetworkProbe.getInstance().recordLaneSent(pending.lane(), pending.bytes());
+        sink.write(pending.envelope(), pending.lane());
+    }
+
+    private void refill() {
+        long now = clock.getAsLong();
+        long elapsed = Math.min(now - lastRefillNanos, TICK_NANOS * 4);
+        if (elapsed < REFILL_GRANULARITY_NANOS) {
+            return;
+        }
+        lastRefillNanos = now;
+        mainTokens = Math.min(MAIN_RATE, mainTokens + MAIN_RATE * elapsed / TICK_NANOS);
+        bulkTokens = Math.min(BULK_RATE, bulkTokens + BULK_RATE * elapsed / TICK_NANOS);
+    }
+
+    private static OutboundLane[] lanesOf(OutboundLane.Kind kind) {
+        return Arrays.stream(OutboundLane.values())
+                .filter(lane -> lane.kind() == kind)
+                .toArray(OutboundLane[]::new);
+    }
+}
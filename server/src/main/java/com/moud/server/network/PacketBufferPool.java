@@ -0,0 +1,46 @@
+package com.moud.server.network;
+
+import com.moud.server.network.diagnostics.NetworkProbe;
+
+import java.util.ArrayDeque;
+
+/**
+ * Thread-local pool of {@link PooledPacketBuffer}s for outbound encoding.
+ * <p>
+ * Buffers that grew past {@code moud.network.bufferPool.maxRetainedBytes} (large mesh or script
+ * payloads) are dropped on release instead of pinning the memory to the thread. Hits and misses are
+ * reported to {@link NetworkProbe}.
+ */
+final class PacketBufferPool {
+    private static final int INITIAL_CAPACITY = 512;
+    private static final int MAX_RETAINED_BYTES =
+            Integer.getInteger("moud.network.bufferPool.maxRetainedBytes", 256 * 1024);
+    private static final int BUFFERS_PER_THREAD =
+            Math.max(1, Integer.getInteger("moud.network.bufferPool.perThread", 2));
+
+    private static final ThreadLocal<ArrayDeque<PooledPacketBuffer>> POOL =
+            ThreadLocal.withInitial(() -> new ArrayDeque<>(BUFFERS_PER_THREAD));
+
+    private PacketBufferPool() {
+    }
+
+    static PooledPacketBuffer acquire(int headerReserve) {
+        PooledPacketBuffer buffer = POOL.get().pollFirst();
+        boolean hit = buffer != null;
+        if (!hit) {
+            buffer = new PooledPacketBuffer(Math.max(INITIAL_CAPACITY, headerReserve * 2));
+        }
+        NetworkProbe.getInstance().recordBufferAcquire(hit);
+        buffer.begin(headerReserve);
+        return buffer;
+    }
+
+    static void release(PooledPacketBuffer buffer) {
+        ArrayDeque<PooledPacketBuffer> pool = POOL.get();
+        boolean retained = buffer.capacity() <= MAX_RETAINED_BYTES && pool.size() < BUFFERS_PER_THREAD;
+        if (retained) {
+            pool.offerFirst(buffer);
+        }
+        NetworkProbe.getInstance().recordBufferRelease(retained);
+    }
+}
@@ -0,0 +1,232 @@
+package com.moud.server.network;
+
+import com.moud.network.buffer.ByteBuffer;
+
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.UUID;
+
+/**
+ * Write-only, growable packet buffer that leaves room in front of the payload for the wrapper frame
+ * header. Once the packet is written, {@link #frame} drops the header in place and copies the whole
+ * frame out exactly once.
+ * <p>
+ * Instances come from {@link PacketBufferPool} and must be returned to it after framing.
+ */
+final class PooledPacketBuffer implements ByteBuffer {
+    private static final int VARINT_MAX_BYTES = 5;
+
+    private byte[] data;
+    private java.nio.ByteBuffer view;
+    private int payloadStart;
+    private int writerIndex;
+
+    PooledPacketBuffer(int initialCapacity) {
+        setBacking(new byte[initialCapacity]);
+    }
+
+    void begin(int headerReserve) {
+        ensureCapacity(headerReserve);
+        payloadStart = headerReserve;
+        writerIndex = headerReserve;
+    }
+
+    int capacity() {
+        return data.length;
+    }
+
+    int payloadLength() {
+        return writerIndex - payloadStart;
+    }
+
+    /**
+     * Writes {@code header} (and the payload length as a varint when {@code lengthPrefixed}) directly
+     * in front of the payload and returns a copy of the resulting frame.
+     */
+    byte[] frame(byte[] header, boolean lengthPrefixed) {
+        int payloadLength = payloadLength();
+        int lengthBytes = lengthPrefixed ? varIntSize(payloadLength) : 0;
+        int start = payloadStart - lengthBytes - header.length;
+        if (start < 0) {
+            throw new IllegalStateException("Frame header of " + (header.length + lengthBytes)
+                    + " bytes exceeds reserved " + payloadStart);
+        }
+        System.arraycopy(header, 0, data, start, header.length);
+        if (lengthPrefixed) {
+            putVarInt(data, start + header.length, payloadLength);
+        }
+        return Arrays.copyOfRange(data, start, writerIndex);
+    }
+
+    static int maxHeaderBytes(byte[] header, boolean lengthPrefixed) {
+        return header.length + (lengthPrefixed ? VARINT_MAX_BYTES : 0);
+    }
+
+    static int varIntSize(int value) {
+        int size = 1;
+        while ((value & ~0x7F) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    static int putVarInt(byte[] target, int index, int value) {
+        while ((value & ~0x7F) != 0) {
+            target[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        target[index++] = (byte) value;
+        return index;
+    }
+
+    @Override
+    public void writeString(String value) {
+        int length = value.length();
+        int utf8Length = 0;
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                ascii = false;
+                break;
+            }
+            utf8Length++;
+        }
+        if (!ascii) {
+            writeByteArray(value.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+            return;
+        }
+        ensureWritable(VARINT_MAX_BYTES + utf8Length);
+        writerIndex = putVarInt(data, writerIndex, utf8Length);
+        for (int i = 0; i < length; i++) {
+            data[writerIndex++] = (byte) value.charAt(i);
+        }
+    }
+
+    @Override
+    public void writeInt(int value) {
+        ensureWritable(Integer.BYTES);
+        view.putInt(writerIndex, value);
+        writerIndex += Integer.BYTES;
+    }
+
+    @Override
+    public void writeFloat(float value) {
+        ensureWritable(Float.BYTES);
+        view.putFloat(writerIndex, value);
+        writerIndex += Float.BYTES;
+    }
+
+    @Override
+    public void writeDouble(double value) {
+        ensureWritable(Double.BYTES);
+        view.putDouble(writerIndex, value);
+        writerIndex += Double.BYTES;
+    }
+
+    @Override
+    public void writeBoolean(boolean value) {
+        ensureWritable(1);
+        data[writerIndex++] = (byte) (value ? 1 : 0);
+    }
+
+    @Override
+    public void writeLong(long value) {
+        ensureWritable(Long.BYTES);
+        view.putLong(writerIndex, value);
+        writerIndex += Long.BYTES;
+    }
+
+    @Override
+    public void writeUuid(UUID value) {
+        writeLong(value.getMostSignificantBits());
+        writeLong(value.getLeastSignificantBits());
+    }
+
+    @Override
+    public void writeByteArray(byte[] value) {
+        ensureWritable(VARINT_MAX_BYTES + value.length);
+        writerIndex = putVarInt(data, writerIndex, value.length);
+        System.arraycopy(value, 0, data, writerIndex, value.length);
+        writerIndex += value.length;
+    }
+
+    @Override
+    public byte[] toByteArray() {
+        return Arrays.copyOfRange(data, payloadStart, writerIndex);
+    }
+
+    @Override
+    public int readableBytes() {
+        return payloadLength();
+    }
+
+    @Override
+    public String readString() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public int readInt() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public float readFloat() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public double readDouble() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public boolean readBoolean() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public long readLong() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public UUID readUuid() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public byte[] readByteArray() {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    @Override
+    public void readBytes(byte[] dst) {
+        throw new UnsupportedOperationException("PooledPacketBuffer is write-only");
+    }
+
+    private void ensureWritable(int bytes) {
+        ensureCapacity(writerIndex + bytes);
+    }
+
+    private void ensureCapacity(int required) {
+        if (required <= data.length) {
+            return;
+        }
+        int grown = data.length;
+        while (grown < required) {
+            grown = grown << 1;
+            if (grown <= 0) {
+                grown = required;
+                break;
+            }
+        }
+        setBacking(Arrays.copyOf(data, grown));
+    }
+
+    private void setBacking(byte[] backing) {
+        this.data = backing;
+        this.view = java.nio.ByteBuffer.wrap(backing).order(ByteOrder.BIG_ENDIAN);
+    }
+}
@@ -8,6 +8,7 @@ import com.moud.server.entity.DisplayManager;
 import com.moud.server.entity.ModelManager;
 import com.moud.server.editor.SceneManager;
 import com.moud.server.editor.BlueprintStorage;
+import com.moud.server.editor.BlueprintBlockPlacer;
 import com.moud.server.events.EventDispatcher;
 import com.moud.server.lighting.ServerLightingManager;
 import com.moud.server.camera.CameraRegistry;
@@ -42,6 +43,7 @@ import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.event.player.PlayerPluginMessageEvent;
 import net.minestom.server.event.player.PlayerSpawnEvent;
 import net.minestom.server.event.player.PlayerResourcePackStatusEvent;
+import net.minestom.server.utils.PacketUtils;
 
 import java.time.Duration;
 import java.time.Instant;
@@ -65,8 +67,6 @@ public final class ServerNetworkManager {
             LogContext.builder().put("subsystem", "network").build()
     );
     private static final String HELLO_PACKET_ID = "moud:hello";
-    private static final int SYNC_PACKETS_PER_TICK = Integer.getInteger("moud.network.syncPacketsPerTick", 20);
-    private static final int BROADCAST_PACKETS_PER_TICK = Integer.getInteger("moud.network.broadcastPacketsPerTick", 15);
 
     private final EventDispatcher eventDispatcher;
     private final ClientScriptManager clientScriptManager;
@@ -74,9 +74,10 @@ public final class ServerNetworkManager {
     private final ConcurrentMap<UUID, ClientSession> moudClients = new ConcurrentHashMap<>();
     private final Set<UUID> resourcePackRequested = ConcurrentHashMap.newKeySet();
     private final ConcurrentMap<UUID, Integer> resourcePackAttempts = new ConcurrentHashMap<>();
-    private final ConcurrentMap<UUID, java.util.Queue<Object>> broadcastQueues = new ConcurrentHashMap<>();
-    private volatile boolean broadcastFlushScheduled = false;
+    private volatile boolean outboundFlushScheduled = false;
+    private final TransformReplicationChannel transformChannel = new TransformReplicationChannel(this);
     private final BlueprintStorage blueprintStorage;
+    private final BlueprintBlockPlacer blueprintPlacer = new BlueprintBlockPlacer();
     private static ServerNetworkManager instance;
 
     public ServerNetworkManager(
@@ -95,6 +96,17 @@ public final class ServerNetworkManager {
         return instance;
     }
 
+    public TransformReplicationChannel getTransformChannel() {
+        return transformChannel;
+    }
+
+    /**
+     * Cancels blueprint placements still queued, so none keep writing blocks once the engine is gone.
+     */
+    public void shutdown() {
+        blueprintPlacer.shutdown();
+    }
+
     public void initialize() {
         registerMinestomListeners();
         registerPacketHandlers();
@@ -108,6 +120,16 @@ public final class ServerNetworkManager {
             public void sendToPlayer(Player player, Object packet) {
                 send(player, packet);
             }
+
+            @Override
+            public void replicateTransform(MoudPackets.PrimitiveTransformEntry entry) {
+                transformChannel.submitPrimitive(entry);
+            }
+
+            @Override
+            public void discardTransform(long primitiveId) {
+                transformChannel.discardPrimitive(primitiveId);
+            }
         });
         com.moud.server.ik.IKServiceImpl.getInstance().setPacketSender(new com.moud.server.ik.IKServiceImpl.IKPacketSender() {
             @Override
@@ -134,11 +156,12 @@ public final class ServerNetworkManager {
     private void registerPacketHandlers() {
         PacketRegistry registry = new PacketRegistry();
         registry.register(HelloPacket.class, this::handleHelloPacket);
+        registry.register(C2S_PacketSchemaPacket.class, this::handlePacketSchema);
         registry.registerGroup(new CorePacketHandlers(this, eventDispatcher));
         registry.registerGroup(new ScenePacketHandlers(this));
         registry.registerGroup(new AnimationPacketHandlers(this));
         registry.registerGroup(new RuntimeUpdatePacketHandlers(this));
-        registry.registerGroup(new BlueprintPacketHandlers(this, blueprintStorage));
+        registry.registerGroup(new BlueprintPacketHandlers(this, blueprintStorage, blueprintPlacer));
         registry.registerGroup(new VoicePacketHandlers(this, eventDispatcher));
         registry.registerGroup(new ClientReadyPacketHandler(this));
         registry.registerGroup(new DevPacketHandlers());
@@ -147,7 +170,11 @@ public final class ServerNetworkManager {
         String outerChannel = event.getIdentifier();
         Player player = event.getPlayer();
 
-        if ("moud:wrapper".equals(outerChannel)) {
+        if (MoudProtocol.COMPACT_CHANNEL.equals(outerChannel)) {
+            onCompactPluginMessage(player, event.getMessage());
+            return;
+        }
+        if (MoudProtocol.WRAPPER_CHANNEL.equals(outerChannel)) {
             byte[] message = event.getMessage();
             if (message == null) {
                 return;
@@ -186,15 +213,38 @@ public final class ServerNetworkManager {
                 if (!isMoudClient(player) && !HELLO_PACKET_ID.equals(innerChannel)) {
                     return;
                 }
-                byte[] innerData = new byte[payloadLength];
-                buffer.get(innerData);
-                ServerPacketWrapper.handleIncoming(innerChannel, innerData, player);
+                ServerPacketWrapper.handleIncoming(innerChannel, message, buffer.position(), payloadLength, player);
             } catch (Exception e) {
                 LOGGER.error(playerContext(player), "Failed to unwrap Moud payload from client {}", e, player.getUsername());
             }
         }
     }
 
+    private void onCompactPluginMessage(Player player, byte[] message) {
+        if (message == null || !usesCompactIds(player)) {
+            return;
+        }
+        if (message.length > NetworkLimits.MAX_WRAPPER_BYTES) {
+            LOGGER.warn(
+                    playerContext(player),
+                    "Dropping oversized compact payload from {}: {} bytes > {}",
+                    player.getUsername(),
+                    message.length,
+                    NetworkLimits.MAX_WRAPPER_BYTES
+            );
+            player.kick(Component.text("Packet too large."));
+            return;
+        }
+
+        try {
+            java.nio.ByteBuffer buffer = java.nio.ByteBuffer.wrap(message);
+            int packetId = readVarInt(buffer);
+            ServerPacketWrapper.handleIncoming(packetId, message, buffer.position(), buffer.remaining(), player);
+        } catch (Exception e) {
+            LOGGER.error(playerContext(player), "Failed to unwrap compact Moud payload from client {}", e, player.getUsername());
+        }
+    }
+
     private static int readVarInt(java.nio.ByteBuffer buffer) {
         int numRead = 0;
         int result = 0;
@@ -232,15 +282,27 @@ public final class ServerNetworkManager {
     }
 
     public <T> boolean send(Player player, T packet) {
-        if (!isMoudClient(player)) {
+        return send(player, packet, OutboundLane.laneFor(packet.getClass(), OutboundLane.DIRECT));
+    }
+
+    /**
+     * Sends a packet on the given lane. Immediate lanes are written right away; scheduled lanes are
+     * written when the connection's byte budget allows, in FIFO order within the lane.
+     *
+     * @return whether the packet was written or accepted for sending
+     */
+    public <T> boolean send(Player player, T packet, OutboundLane lane) {
+        ClientSession session = moudClients.get(player.getUuid());
+        if (session == null) {
             LOGGER.trace(playerContext(player), "Skipping packet send to non-Moud client {}", player.getUsername());
             return false;
         }
 
         long start = System.nanoTime();
+        boolean compactIds = session.isCompactPacketIds();
         ServerPacketWrapper.PacketEnvelope envelope;
         try {
-            envelope = ServerPacketWrapper.wrapPacket(packet);
+            envelope = ServerPacketWrapper.wrapPacket(packet, compactIds);
         } catch (Exception e) {
             LogContext failureContext = playerContext(player).merge(LogContext.builder()
                     .put("packet", packet.getClass().getSimpleName())
@@ -255,34 +317,153 @@ public final class ServerNetworkManager {
         NetworkProbe.getInstance().recordPacketDetail(
                 "OUT",
                 packet.getClass().getSimpleName(),
-                envelope.totalBytes(),
+                envelope.totalBytes(compactIds),
                 packet
         );
 
+        return dispatch(player, session, envelope, lane, start);
+    }
+
+    private boolean dispatch(Player player, ClientSession session, ServerPacketWrapper.PacketEnvelope envelope,
+                             OutboundLane lane, long start) {
+        boolean compactIds = session.isCompactPacketIds();
+        int bytes = envelope.totalBytes(compactIds);
+        if (lane.isImmediate()) {
+            boolean[] sent = {true};
+            if (!session.outbound().sendImmediate(lane, envelope, bytes, (immediate, immediateLane) ->
+                    sent[0] = sendEnvelope(player, immediate, start))) {
+                scheduleOutboundFlush();
+            }
+            return sent[0];
+        }
+        if (!session.outbound().offer(lane, envelope, bytes, (queued, queuedLane) ->
+                sendEnvelope(player, queued, System.nanoTime()))) {
+            scheduleOutboundFlush();
+        }
+        return true;
+    }
+
+    private boolean sendEnvelope(Player player, ServerPacketWrapper.PacketEnvelope envelope, long start) {
         boolean success = false;
+        boolean compactIds = usesCompactIds(player);
         try {
-            player.sendPacket(envelope.packet());
+            player.sendPacket(envelope.packetFor(compactIds));
             success = true;
             return true;
         } catch (Exception e) {
             LogContext failureContext = playerContext(player).merge(LogContext.builder()
-                    .put("packet", packet.getClass().getSimpleName())
+                    .put("packet", envelope.packetType())
                     .build());
-            LOGGER.error(failureContext, "Failed to send packet {} to {}", e, packet.getClass().getSimpleName(), player.getUsername());
+            LOGGER.error(failureContext, "Failed to send packet {} to {}", e, envelope.packetType(), player.getUsername());
             return false;
         } finally {
             NetworkProbe.getInstance().recordOutbound(
                     player,
-                    packet.getClass().getSimpleName(),
-                    packet.getClass().getSimpleName(),
+                    envelope.packetType(),
+                    envelope.packetType(),
                     envelope.payloadBytes(),
-                    envelope.totalBytes(),
+                    envelope.totalBytes(compactIds),
                     System.nanoTime() - start,
                     success
             );
         }
     }
 
+    /**
+     * Encodes a packet once for delivery to several players. The returned envelope wraps an immutable
+     * plugin message that can be handed to every recipient as-is. {@code compactIds} picks the framing
+     * built up front; the other one is derived lazily if a recipient needs it.
+     */
+    private <T> ServerPacketWrapper.PacketEnvelope encodeShared(T packet, boolean compactIds) {
+        long start = System.nanoTime();
+        try {
+            ServerPacketWrapper.PacketEnvelope envelope = ServerPacketWrapper.wrapPacket(packet, compactIds);
+            NetworkProbe.getInstance().recordPacketDetail(
+                    "OUT",
+                    envelope.packetType(),
+                    envelope.payloadBytes(),
+                    packet
+            );
+            return envelope;
+        } catch (Exception e) {
+            LogContext failureContext = LogContext.builder()
+                    .put("packet", packet.getClass().getSimpleName())
+                    .put("phase", "encode")
+                    .build();
+            LOGGER.error(failureContext, "Failed to encode broadcast packet {}", e, packet.getClass().getSimpleName());
+            NetworkProbe.getInstance().recordOutbound(null, packet.getClass().getSimpleName(), "encode-error", 0, 0, System.nanoTime() - start, false);
+            return null;
+        }
+    }
+
+    /**
+     * Sends one packet to every Moud client in {@code candidates}, serializing it exactly once and
+     * letting Minestom frame the shared payload for the whole group.
+     */
+    private <T> int fanOut(T packet, Iterable<Player> candidates, Player exceptPlayer) {
+        List<Player> targets = new ArrayList<>();
+        for (Player player : candidates) {
+            if (exceptPlayer != null && player.getUuid().equals(exceptPlayer.getUuid())) {
+                continue;
+            }
+            if (isMoudClient(player)) {
+                targets.add(player);
+            }
+        }
+        if (targets.isEmpty()) {
+            return 0;
+        }
+
+        List<Player> compactTargets = new ArrayList<>(targets.size());
+        List<Player> channelTargets = new ArrayList<>();
+        for (Player player : targets) {
+            (usesCompactIds(player) ? compactTargets : channelTargets).add(player);
+        }
+
+        long start = System.nanoTime();
+        ServerPacketWrapper.PacketEnvelope envelope = encodeShared(packet, !compactTargets.isEmpty());
+        if (envelope == null) {
+            return 0;
+        }
+
+        boolean success = false;
+        try {
+            if (!compactTargets.isEmpty()) {
+                PacketUtils.sendGroupedPacket(compactTargets, envelope.packetFor(true));
+            }
+            if (!channelTargets.isEmpty()) {
+                PacketUtils.sendGroupedPacket(channelTargets, envelope.packetFor(false));
+            }
+            success = true;
+        } catch (Exception e) {
+            LogContext failureContext = LogContext.builder()
+                    .put("packet", envelope.packetType())
+                    .put("recipients", targets.size())
+                    .build();
+            LOGGER.error(failureContext, "Failed to broadcast packet {}", e, envelope.packetType());
+        }
+
+        long perRecipientNanos = (System.nanoTime() - start) / targets.size();
+        OutboundLane lane = OutboundLane.immediateLaneFor(packet.getClass());
+        for (Player player : targets) {
+            int totalBytes = envelope.totalBytes(usesCompactIds(player));
+            NetworkProbe.getInstance().recordOutbound(
+                    player,
+                    envelope.packetType(),
+                    envelope.packetType(),
+                    envelope.payloadBytes(),
+                    totalBytes,
+                    perRecipientNanos,
+                    success
+            );
+            ClientSession session = moudClients.get(player.getUuid());
+            if (success && session != null) {
+                session.outbound().charge(lane, totalBytes);
+            }
+        }
+        return success ? targets.size() : 0;
+    }
+
     public <T> int broadcast(T packet) {
         return broadcast(packet, true);
     }
@@ -292,25 +473,31 @@ public final class ServerNetworkManager {
     }
 
     private <T> int broadcast(T packet, boolean throttle) {
+        if (!throttle) {
+            int sent = fanOut(packet, MinecraftServer.getConnectionManager().getOnlinePlayers(), null);
+            if (sent == 0) {
+                LOGGER.trace("Broadcast {} skipped - no active Moud clients", packet.getClass().getSimpleName());
+            }
+            return sent;
+        }
+
+        // Transform and input-ack types keep their immediate lane; everything else waits for budget.
+        OutboundLane lane = OutboundLane.laneFor(packet.getClass(), OutboundLane.SYNC);
+        ServerPacketWrapper.PacketEnvelope envelope = null;
         int queuedCount = 0;
         for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
-            if (!isMoudClient(player)) {
+            ClientSession session = moudClients.get(player.getUuid());
+            if (session == null) {
                 continue;
             }
-            if (throttle) {
-                java.util.Queue<Object> queue = broadcastQueues.computeIfAbsent(
-                        player.getUuid(), k -> new java.util.concurrent.ConcurrentLinkedQueue<>());
-                queue.offer(packet);
-                queuedCount++;
-            } else {
-                if (send(player, packet)) {
-                    queuedCount++;
+            if (envelope == null) {
+                envelope = encodeShared(packet, session.isCompactPacketIds());
+                if (envelope == null) {
+                    return 0;
                 }
             }
-        }
-
-        if (throttle && queuedCount > 0) {
-            scheduleBroadcastFlush();
+            dispatch(player, session, envelope, lane, System.nanoTime());
+            queuedCount++;
         }
 
         if (queuedCount == 0) {
@@ -320,67 +507,44 @@ public final class ServerNetworkManager {
         return queuedCount;
     }
 
-    private void scheduleBroadcastFlush() {
-        if (broadcastFlushScheduled) {
+    private void scheduleOutboundFlush() {
+        if (outboundFlushScheduled) {
             return;
         }
-        broadcastFlushScheduled = true;
-        MinecraftServer.getSchedulerManager().scheduleNextTick(this::flushBroadcastQueues);
+        outboundFlushScheduled = true;
+        MinecraftServer.getSchedulerManager().scheduleNextTick(this::flushOutbound);
     }
 
-    private void flushBroadcastQueues() {
-        broadcastFlushScheduled = false;
+    private void flushOutbound() {
+        outboundFlushScheduled = false;
         boolean hasMore = false;
-        int perTick = Math.max(1, BROADCAST_PACKETS_PER_TICK);
 
-        for (var entry : broadcastQueues.entrySet()) {
-            UUID playerId = entry.getKey();
-            java.util.Queue<Object> queue = entry.getValue();
-            Player player = MinecraftServer.getConnectionManager().getOnlinePlayerByUuid(playerId);
-            if (player == null || !player.isOnline()) {
-                queue.clear();
+        for (var entry : moudClients.entrySet()) {
+            ClientSession session = entry.getValue();
+            if (!session.outbound().hasPending()) {
                 continue;
             }
-
-            int sent = 0;
-            while (sent < perTick && !queue.isEmpty()) {
-                Object packet = queue.poll();
-                if (packet != null) {
-                    send(player, packet);
-                    sent++;
-                }
+            Player player = MinecraftServer.getConnectionManager().getOnlinePlayerByUuid(entry.getKey());
+            if (player == null || !player.isOnline()) {
+                session.outbound().clear();
+                continue;
             }
-            if (!queue.isEmpty()) {
+            if (session.outbound().drain((envelope, lane) -> sendEnvelope(player, envelope, System.nanoTime()))) {
                 hasMore = true;
             }
         }
 
         if (hasMore) {
-            scheduleBroadcastFlush();
+            scheduleOutboundFlush();
         }
     }
 
     public <T> int broadcastExcept(T packet, Player exceptPlayer) {
-        int sentCount = 0;
-        for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
-            if (player.getUuid().equals(exceptPlayer.getUuid())) {
-                continue;
-            }
-            if (send(player, packet)) {
-                sentCount++;
-            }
-        }
-        return sentCount;
+        return fanOut(packet, MinecraftServer.getConnectionManager().getOnlinePlayers(), exceptPlayer);
     }
 
     public <T> int sendToPlayers(T packet, Collection<Player> players) {
-        int sentCount = 0;
-        for (Player player : players) {
-            if (send(player, packet)) {
-                sentCount++;
-            }
-        }
-        return sentCount;
+        return fanOut(packet, players, null);
     }
 
     public boolean broadcastMeshDataIfNeeded(String modelPath, MoudPackets.CollisionMode collisionMode,
@@ -399,18 +563,17 @@ public final class ServerNetworkManager {
         MoudPackets.S2C_ModelMeshDataPacket meshPacket = new MoudPackets.S2C_ModelMeshDataPacket(
                 modelPath, collisionMode, compressedVertices, compressedIndices);
 
-        boolean sentAny = false;
+        List<Player> recipients = new ArrayList<>();
         for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
             ClientSession session = moudClients.get(player.getUuid());
             if (session == null) {
                 continue;
             }
             if (session.markMeshSent(modelPath)) {
-                send(player, meshPacket);
-                sentAny = true;
+                recipients.add(player);
             }
         }
-        return sentAny;
+        return fanOut(meshPacket, recipients, null) > 0;
     }
 
     public boolean sendMeshDataIfNeeded(Player player, String modelPath, MoudPackets.CollisionMode collisionMode,
@@ -441,16 +604,35 @@ public final class ServerNetworkManager {
     }
 
     public <T> int broadcastInRange(T packet, net.minestom.server.coordinate.Pos position, double range) {
-        int sentCount = 0;
         double rangeSq = range * range;
+        List<Player> inRange = new ArrayList<>();
         for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
             if (player.getPosition().distanceSquared(position) <= rangeSq) {
-                if (send(player, packet)) {
-                    sentCount++;
-                }
+                inRange.add(player);
             }
         }
-        return sentCount;
+        return fanOut(packet, inRange, null);
+    }
+
+    private void handlePacketSchema(Player player, C2S_PacketSchemaPacket packet) {
+        ClientSession session = moudClients.get(player.getUuid());
+        if (session == null) {
+            return;
+        }
+        long serverHash = ServerPacketWrapper.schemaHash();
+        boolean matches = packet.schemaHash() == serverHash;
+        boolean compactIds = MoudProtocol.COMPACT_PACKET_IDS && matches;
+        if (!matches) {
+            LogContext mismatchContext = playerContext(player).merge(LogContext.builder()
+                    .put("client_schema", Long.toHexString(packet.schemaHash()))
+                    .put("server_schema", Long.toHexString(serverHash))
+                    .build());
+            LOGGER.warn(mismatchContext, "Packet schema of {} does not match the server build; using string channels",
+                    player.getUsername());
+        }
+        // The ack still goes out on the string channel so the client learns the outcome either way.
+        send(player, new S2C_PacketSchemaAckPacket(serverHash, compactIds));
+        session.setCompactPacketIds(compactIds);
     }
 
     private void handleHelloPacket(Player minestomPlayer, HelloPacket packet) {
@@ -470,6 +652,7 @@ public final class ServerNetworkManager {
         ClientSession previousSession = moudClients.put(minestomPlayer.getUuid(), new ClientSession(Instant.now()));
 
         if (previousSession != null) {
+            previousSession.outbound().clear();
             LogContext resumedContext = baseContext.merge(LogContext.builder()
                     .put("previous_handshake", previousSession.handshakeTime().toString())
                     .build());
@@ -583,35 +766,17 @@ public final class ServerNetworkManager {
         if (player == null || packets == null || packets.isEmpty()) {
             return;
         }
-        int perTick = Math.max(1, SYNC_PACKETS_PER_TICK);
         LogContext context = playerContext(player).merge(LogContext.builder()
                 .put("phase", "sync-batch")
                 .put("label", label)
                 .put("packets", packets.size())
-                .put("per_tick", perTick)
                 .build());
-        LOGGER.debug(context, "Sending {} sync packets to {} in batches", packets.size(), player.getUsername());
-        MinecraftServer.getSchedulerManager().scheduleNextTick(() -> sendBatchedTick(player, packets, 0, perTick, label));
-    }
-
-    private void sendBatchedTick(Player player, List<Object> packets, int start, int perTick, String label) {
-        if (player == null || packets == null) {
-            return;
-        }
-        if (!player.isOnline() || !isMoudClient(player)) {
-            return;
-        }
-        int end = Math.min(packets.size(), start + perTick);
-        for (int i = start; i < end; i++) {
-            Object packet = packets.get(i);
-            if (packet != null) {
-                send(player, packet);
+        LOGGER.debug(context, "Queueing {} sync packets to {}", packets.size(), player.getUsername());
+        for (Object packet : packets) {
+            if (packet != null && !send(player, packet, OutboundLane.SYNC)) {
+                return;
             }
         }
-        if (end >= packets.size()) {
-            return;
-        }
-        MinecraftServer.getSchedulerManager().scheduleNextTick(() -> sendBatchedTick(player, packets, end, perTick, label));
     }
 
     public void syncPermissionState(Player player) {
@@ -726,10 +891,12 @@ public final class ServerNetworkManager {
 
     private void onPlayerDisconnect(PlayerDisconnectEvent event) {
         Player player = event.getPlayer();
-        moudClients.remove(player.getUuid());
+        ClientSession session = moudClients.remove(player.getUuid());
+        if (session != null) {
+            session.outbound().clear();
+        }
         resourcePackRequested.remove(player.getUuid());
         resourcePackAttempts.remove(player.getUuid());
-        broadcastQueues.remove(player.getUuid());
         PlayerCameraManager.getInstance().onPlayerDisconnect(player);
         PlayerCursorDirectionManager.getInstance().onPlayerDisconnect(player);
         CursorService.getInstance().onPlayerQuit(player);
@@ -777,14 +944,15 @@ public final class ServerNetworkManager {
                     int start = i * chunkSize;
                     int end = Math.min(scriptData.length, start + chunkSize);
                     byte[] chunk = java.util.Arrays.copyOfRange(scriptData, start, end);
-                    if (!send(player, new SyncClientScriptsChunkPacket(hash, totalChunks, i, chunk))) {
+                    SyncClientScriptsChunkPacket chunkPacket = new SyncClientScriptsChunkPacket(hash, totalChunks, i, chunk);
+                    if (!send(player, chunkPacket, OutboundLane.BULK_SCRIPT)) {
                         LOGGER.error(String.valueOf(payloadContext), "Failed to send client scripts chunk {} to {}", i, player.getUsername());
                         return;
                     }
                 }
             } else {
                 LOGGER.info(payloadContext, "Sending client scripts to {}: hash={}, size={} bytes", player.getUsername(), hash, scriptData.length);
-                if (!send(player, new SyncClientScriptsPacket(hash, scriptData))) {
+                if (!send(player, new SyncClientScriptsPacket(hash, scriptData), OutboundLane.BULK_SCRIPT)) {
                     LOGGER.error(String.valueOf(payloadContext), "Failed to send client scripts payload to {}", player.getUsername());
                     return;
                 }
@@ -815,6 +983,15 @@ public final class ServerNetworkManager {
         return moudClients.containsKey(player.getUuid());
     }
 
+    /**
+     * Whether packets to and from this player are framed with compact numeric ids instead of string
+     * channels. Only true after the client's packet schema hash matched ours.
+     */
+    public boolean usesCompactIds(Player player) {
+        ClientSession session = moudClients.get(player.getUuid());
+        return session != null && session.isCompactPacketIds();
+    }
+
     public boolean isClientReady(Player player) {
         if (player == null) {
             return false;
@@ -845,12 +1022,18 @@ public final class ServerNetworkManager {
         private String resourcesHash;
         private String resourcePackHash;
         private volatile boolean clientReady;
+        private volatile boolean compactPacketIds;
         private final Set<String> sentMeshPaths = ConcurrentHashMap.newKeySet();
+        private final OutboundScheduler outbound = new OutboundScheduler();
 
         private ClientSession(Instant handshakeTime) {
             this.handshakeTime = handshakeTime;
         }
 
+        public OutboundScheduler outbound() {
+            return outbound;
+        }
+
         public boolean markMeshSent(String modelPath) {
             return sentMeshPaths.add(modelPath);
         }
@@ -886,6 +1069,14 @@ public final class ServerNetworkManager {
         public void setClientReady(boolean clientReady) {
             this.clientReady = clientReady;
         }
+
+        public boolean isCompactPacketIds() {
+            return compactPacketIds;
+        }
+
+        public void setCompactPacketIds(boolean compactPacketIds) {
+            this.compactPacketIds = compactPacketIds;
+        }
     }
 
     public synchronized void reloadResourcePack() {
@@ -3,16 +3,20 @@ package com.moud.server.network;
 import com.moud.network.dispatcher.NetworkDispatcher;
 import com.moud.network.engine.PacketEngine;
 import com.moud.network.limits.NetworkLimits;
+import com.moud.network.protocol.MoudProtocol;
 import com.moud.server.network.diagnostics.NetworkProbe;
 import net.minestom.server.entity.Player;
 import net.minestom.server.network.packet.server.common.PluginMessagePacket;
 
+import java.nio.charset.StandardCharsets;
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class ServerPacketWrapper {
     private static final PacketEngine ENGINE = new PacketEngine();
     private static final NetworkDispatcher DISPATCHER;
-    private static final String WRAPPER_CHANNEL = "moud:wrapper";
+    private static final ConcurrentMap<Class<?>, PacketFraming> FRAMINGS = new ConcurrentHashMap<>();
 
     static {
         ENGINE.initialize("com.moud.network");
@@ -26,25 +30,60 @@ public class ServerPacketWrapper {
             public com.moud.network.buffer.ByteBuffer wrap(byte[] data) {
                 return new InboundPacketByteBuffer(data);
             }
+
+            @Override
+            public com.moud.network.buffer.ByteBuffer wrap(byte[] data, int offset, int length) {
+                return new InboundPacketByteBuffer(data, offset, length);
+            }
         });
     }
 
     public static <T> PacketEnvelope wrapPacket(T packet) {
+        return wrapPacket(packet, false);
+    }
+
+    /**
+     * Serializes {@code packet} into a pooled buffer behind reserved header space and frames it in
+     * place, so the only allocation is the plugin message array itself.
+     */
+    public static <T> PacketEnvelope wrapPacket(T packet, boolean compactIds) {
         Objects.requireNonNull(packet, "packet");
-        NetworkDispatcher.PacketData packetData = DISPATCHER.send(null, packet);
-
-        MinestomByteBuffer wrapperBuffer = new MinestomByteBuffer();
-        wrapperBuffer.writeString(packetData.channel());
-        wrapperBuffer.writeByteArray(packetData.data());
-        byte[] payload = wrapperBuffer.toByteArray();
-        return new PacketEnvelope(
-                new PluginMessagePacket(WRAPPER_CHANNEL, payload),
-                packetData.channel(),
-                packet.getClass().getSimpleName(),
-                packetData.data().length,
-                payload.length,
-                packetData.data()
-        );
+        PacketFraming framing = FRAMINGS.computeIfAbsent(packet.getClass(), ServerPacketWrapper::createFraming);
+        boolean compact = compactIds && framing.compactHeader() != null;
+        byte[] header = compact ? framing.compactHeader() : framing.channelHeader();
+
+        PooledPacketBuffer buffer = PacketBufferPool.acquire(PooledPacketBuffer.maxHeaderBytes(header, !compact));
+        try {
+            DISPATCHER.write(packet, buffer);
+            int payloadBytes = buffer.payloadLength();
+            byte[] frame = buffer.frame(header, !compact);
+            return new PacketEnvelope(framing, packet.getClass().getSimpleName(), payloadBytes, frame, compact);
+        } finally {
+            PacketBufferPool.release(buffer);
+        }
+    }
+
+    private static PacketFraming createFraming(Class<?> packetClass) {
+        String channel = ENGINE.getPacketId(packetClass);
+        if (channel == null) {
+            throw new IllegalArgumentException("Unregistered packet type: " + packetClass.getName());
+        }
+        byte[] channelBytes = channel.getBytes(StandardCharsets.UTF_8);
+        byte[] channelHeader = new byte[PooledPacketBuffer.varIntSize(channelBytes.length) + channelBytes.length];
+        int offset = PooledPacketBuffer.putVarInt(channelHeader, 0, channelBytes.length);
+        System.arraycopy(channelBytes, 0, channelHeader, offset, channelBytes.length);
+
+        int packetId = ENGINE.getNumericPacketId(packetClass);
+        byte[] compactHeader = null;
+        if (packetId >= 0) {
+            compactHeader = new byte[PooledPacketBuffer.varIntSize(packetId)];
+            PooledPacketBuffer.putVarInt(compactHeader, 0, packetId);
+        }
+        return new PacketFraming(channel, channelHeader, compactHeader);
+    }
+
+    public static long schemaHash() {
+        return ENGINE.getSchemaHash();
     }
 
     public static <T> PluginMessagePacket createPacket(T packet) {
@@ -64,55 +103,142 @@ public class ServerPacketWrapper {
         });
     }
 
+    public static void handleIncoming(int packetId, byte[] data, Object player) {
+        handleIncoming(packetId, data, 0, data != null ? data.length : 0, player);
+    }
+
+    /**
+     * Decodes the packet in {@code data[offset, offset + length)} without copying it out of the
+     * enclosing plugin message.
+     */
+    public static void handleIncoming(int packetId, byte[] data, int offset, int length, Object player) {
+        String channel = ENGINE.getPacketId(packetId);
+        handleIncoming(channel != null ? channel : "#" + packetId, data, offset, length, player,
+                () -> DISPATCHER.handle(packetId, data, offset, length, player));
+    }
+
     public static void handleIncoming(String channel, byte[] data, Object player) {
+        handleIncoming(channel, data, 0, data != null ? data.length : 0, player);
+    }
+
+    public static void handleIncoming(String channel, byte[] data, int offset, int length, Object player) {
+        handleIncoming(channel, data, offset, length, player,
+                () -> DISPATCHER.handle(channel, data, offset, length, player));
+    }
+
+    private static void handleIncoming(String channel, byte[] data, int offset, int length, Object player,
+                                       Runnable dispatch) {
         long start = System.nanoTime();
         boolean success = false;
+        int size = data != null ? length : 0;
 
-        NetworkProbe.getInstance().recordPacketDetail(
-                "IN",
-                channel,
-                data != null ? data.length : 0,
-                formatHexDump(data)
-        );
+        NetworkProbe.getInstance().recordPacketDetail("IN", channel, data, offset, length);
 
         try {
-            if (data != null && data.length <= NetworkLimits.MAX_PACKET_BYTES) {
-                DISPATCHER.handle(channel, data, player);
+            if (data != null && length <= NetworkLimits.MAX_PACKET_BYTES) {
+                dispatch.run();
                 success = true;
             }
         } finally {
             Player minestomPlayer = player instanceof Player ? (Player) player : null;
-            NetworkProbe.getInstance().recordInbound(minestomPlayer, channel, data != null ? data.length : 0, System.nanoTime() - start, success);
+            NetworkProbe.getInstance().recordInbound(minestomPlayer, channel, size, System.nanoTime() - start, success);
         }
     }
 
-    private static String formatHexDump(byte[] data) {
-        if (data == null) return "null";
-        if (data.length == 0) return "empty";
+    private record PacketFraming(String channel, byte[] channelHeader, byte[] compactHeader) {
+    }
 
-        StringBuilder sb = new StringBuilder();
-        sb.append("Binary Payload (").append(data.length).append(" bytes)\n");
-        sb.append("------------------------------------------------\n");
+    /**
+     * A serialized packet that can be framed either with its string channel or with its compact
+     * numeric id. One framing is produced while encoding; the other is derived from it with a single
+     * copy on first use. Both are shared by every recipient.
+     */
+    public static final class PacketEnvelope {
+        private final PacketFraming framing;
+        private final String packetType;
+        private final int payloadBytes;
+        private volatile byte[] channelFrame;
+        private volatile byte[] compactFrame;
+        private volatile PluginMessagePacket channelPacket;
+        private volatile PluginMessagePacket compactPacket;
+
+        private PacketEnvelope(PacketFraming framing, String packetType, int payloadBytes, byte[] frame,
+                               boolean compact) {
+            this.framing = framing;
+            this.packetType = packetType;
+            this.payloadBytes = payloadBytes;
+            if (compact) {
+                this.compactFrame = frame;
+                this.compactPacket = new PluginMessagePacket(MoudProtocol.COMPACT_CHANNEL, frame);
+            } else {
+                this.channelFrame = frame;
+                this.channelPacket = new PluginMessagePacket(MoudProtocol.WRAPPER_CHANNEL, frame);
+            }
+        }
 
-        int len = Math.min(data.length, 256);
-        for (int i = 0; i < len; i++) {
-            if (i > 0 && i % 16 == 0) sb.append("\n");
-            sb.append(String.format("%02X ", data[i]));
+        public PluginMessagePacket packet() {
+            return packetFor(false);
         }
 
-        if (data.length > 256) {
-            sb.append("\n... (rest)");
+        public PluginMessagePacket packetFor(boolean compactIds) {
+            if (compactIds && framing.compactHeader() != null) {
+                PluginMessagePacket packet = compactPacket;
+                if (packet == null) {
+                    byte[] frame = reframe(framing.compactHeader(), false);
+                    compactFrame = frame;
+                    packet = new PluginMessagePacket(MoudProtocol.COMPACT_CHANNEL, frame);
+                    compactPacket = packet;
+                }
+                return packet;
+            }
+            PluginMessagePacket packet = channelPacket;
+            if (packet == null) {
+                byte[] frame = reframe(framing.channelHeader(), true);
+                channelFrame = frame;
+                packet = new PluginMessagePacket(MoudProtocol.WRAPPER_CHANNEL, frame);
+                channelPacket = packet;
+            }
+            return packet;
         }
-        return sb.toString();
-    }
 
-    public record PacketEnvelope(PluginMessagePacket packet,
-                                 String innerChannel,
-                                 String packetType,
-                                 int payloadBytes,
-                                 int totalBytes,
-                                 byte[] payload) {
+        private byte[] reframe(byte[] header, boolean lengthPrefixed) {
+            byte[] source = channelFrame;
+            int sourceOffset;
+            if (source != null) {
+                sourceOffset = framing.channelHeader().length + PooledPacketBuffer.varIntSize(payloadBytes);
+            } else {
+                source = compactFrame;
+                sourceOffset = framing.compactHeader().length;
+            }
+            int lengthBytes = lengthPrefixed ? PooledPacketBuffer.varIntSize(payloadBytes) : 0;
+            byte[] frame = new byte[header.length + lengthBytes + payloadBytes];
+            System.arraycopy(header, 0, frame, 0, header.length);
+            if (lengthPrefixed) {
+                PooledPacketBuffer.putVarInt(frame, header.length, payloadBytes);
+            }
+            System.arraycopy(source, sourceOffset, frame, header.length + lengthBytes, payloadBytes);
+            return frame;
+        }
 
+        public String innerChannel() {
+            return framing.channel();
+        }
+
+        public String packetType() {
+            return packetType;
+        }
+
+        public int payloadBytes() {
+            return payloadBytes;
+        }
+
+        /**
+         * Size of the framed plugin message for the given framing; builds the framing if needed.
+         */
+        public int totalBytes(boolean compactIds) {
+            packetFor(compactIds);
+            return compactIds && framing.compactHeader() != null ? compactFrame.length : channelFrame.length;
+        }
     }
 
 }
@@ -0,0 +1,208 @@
+package com.moud.server.network;
+
+import com.moud.network.MoudPackets;
+import com.moud.network.serializer.TransformQuantizer;
+import com.moud.server.logging.LogContext;
+import com.moud.server.logging.MoudLogger;
+import net.minestom.server.MinecraftServer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Latest-wins replication for high frequency transform updates (models, displays, primitives).
+ * <p>
+ * Each object holds at most one pending transform; newer writes replace older ones. Pending
+ * transforms are flushed once per tick as a single {@link MoudPackets.S2C_TransformBatchPacket},
+ * so memory stays proportional to the number of moving objects regardless of how often scripts
+ * write.
+ * <p>
+ * With {@link TransformQuantizer#ENABLED}, models and primitives are instead sent as a
+ * {@link MoudPackets.S2C_QuantizedTransformBatchPacket} that only carries fields whose quantized
+ * value changed since the last flush, with a full keyframe every {@code moud.network.transformKeyframeTicks}.
+ */
+public final class TransformReplicationChannel {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(
+            TransformReplicationChannel.class,
+            LogContext.builder().put("subsystem", "network").put("component", "transform-replication").build()
+    );
+    private static final int MAX_ENTRIES_PER_PACKET = Integer.getInteger("moud.network.transformBatchSize", 2048);
+    private static final int KEYFRAME_INTERVAL =
+            Math.max(1, Integer.getInteger("moud.network.transformKeyframeTicks", 40));
+
+    private final ServerNetworkManager networkManager;
+    private final ConcurrentMap<Long, MoudPackets.S2C_UpdateModelTransformPacket> pendingModels = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, MoudPackets.S2C_UpdateDisplayTransformPacket> pendingDisplays = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, MoudPackets.PrimitiveTransformEntry> pendingPrimitives = new ConcurrentHashMap<>();
+    private final AtomicBoolean flushScheduled = new AtomicBoolean();
+    private final TransformQuantizer.Baseline modelBaseline = new TransformQuantizer.Baseline();
+    private final TransformQuantizer.Baseline primitiveBaseline = new TransformQuantizer.Baseline();
+    private final ConcurrentMap<Long, Boolean> discardedModels = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Boolean> discardedPrimitives = new ConcurrentHashMap<>();
+    private int flushesSinceKeyframe;
+
+    TransformReplicationChannel(ServerNetworkManager networkManager) {
+        this.networkManager = networkManager;
+    }
+
+    public void submitModel(MoudPackets.S2C_UpdateModelTransformPacket update) {
+        pendingModels.put(update.modelId(), update);
+        scheduleFlush();
+    }
+
+    public void submitDisplay(MoudPackets.S2C_UpdateDisplayTransformPacket update) {
+        pendingDisplays.put(update.displayId(), update);
+        scheduleFlush();
+    }
+
+    public void submitPrimitive(MoudPackets.PrimitiveTransformEntry update) {
+        pendingPrimitives.put(update.primitiveId(), update);
+        scheduleFlush();
+    }
+
+    public void discardModel(long modelId) {
+        pendingModels.remove(modelId);
+        if (TransformQuantizer.ENABLED) {
+            discardedModels.put(modelId, Boolean.TRUE);
+        }
+    }
+
+    public void discardDisplay(long displayId) {
+        pendingDisplays.remove(displayId);
+    }
+
+    public void discardPrimitive(long primitiveId) {
+        pendingPrimitives.remove(primitiveId);
+        if (TransformQuantizer.ENABLED) {
+            discardedPrimitives.put(primitiveId, Boolean.TRUE);
+        }
+    }
+
+    public int pendingCount() {
+        return pendingModels.size() + pendingDisplays.size() + pendingPrimitives.size();
+    }
+
+    private void scheduleFlush() {
+        if (flushScheduled.compareAndSet(false, true)) {
+            MinecraftServer.getSchedulerManager().scheduleNextTick(this::flush);
+        }
+    }
+
+    void flush() {
+        flushScheduled.set(false);
+        List<MoudPackets.S2C_UpdateModelTransformPacket> models = drain(pendingModels);
+        List<MoudPackets.S2C_UpdateDisplayTransformPacket> displays = drain(pendingDisplays);
+        List<MoudPackets.PrimitiveTransformEntry> primitives = drain(pendingPrimitives);
+        if (TransformQuantizer.ENABLED) {
+            forgetDiscarded();
+            flushQuantized(models, primitives);
+            models = List.of();
+            primitives = List.of();
+        }
+        int total = models.size() + displays.size() + primitives.size();
+        if (total == 0) {
+            return;
+        }
+
+        int modelIndex = 0;
+        int displayIndex = 0;
+        int primitiveIndex = 0;
+        while (modelIndex < models.size() || displayIndex < displays.size() || primitiveIndex < primitives.size()) {
+            int budget = MAX_ENTRIES_PER_PACKET;
+            int modelEnd = Math.min(models.size(), modelIndex + budget);
+            budget -= modelEnd - modelIndex;
+            int displayEnd = Math.min(displays.size(), displayIndex + budget);
+            budget -= displayEnd - displayIndex;
+            int primitiveEnd = Math.min(primitives.size(), primitiveIndex + budget);
+
+            networkManager.broadcast(new MoudPackets.S2C_TransformBatchPacket(
+                    models.subList(modelIndex, modelEnd),
+                    displays.subList(displayIndex, displayEnd),
+                    primitives.subList(primitiveIndex, primitiveEnd)
+            ));
+            modelIndex = modelEnd;
+            displayIndex = displayEnd;
+            primitiveIndex = primitiveEnd;
+        }
+        LOGGER.trace("Flushed {} coalesced transforms", total);
+    }
+
+    private void flushQuantized(List<MoudPackets.S2C_UpdateModelTransformPacket> models,
+                                List<MoudPackets.PrimitiveTransformEntry> primitives) {
+        if (models.isEmpty() && primitives.isEmpty()) {
+            return;
+        }
+        boolean keyframe = ++flushesSinceKeyframe >= KEYFRAME_INTERVAL;
+        if (keyframe) {
+            flushesSinceKeyframe = 0;
+        }
+
+        TransformQuantizer.Writer modelWriter = new TransformQuantizer.Writer(models.size() * 16);
+        TransformQuantizer.Writer primitiveWriter = new TransformQuantizer.Writer(primitives.size() * 16);
+        int entries = 0;
+        int written = 0;
+        for (MoudPackets.S2C_UpdateModelTransformPacket model : models) {
+            if (modelBaseline.writeDelta(modelWriter, model.modelId(), model.position(), model.rotation(),
+                    model.scale(), keyframe)) {
+                written++;
+                if (++entries >= MAX_ENTRIES_PER_PACKET) {
+                    sendQuantized(modelWriter, primitiveWriter);
+                    entries = 0;
+                }
+            }
+        }
+        for (MoudPackets.PrimitiveTransformEntry primitive : primitives) {
+            if (primitiveBaseline.writeDelta(primitiveWriter, primitive.primitiveId(), primitive.position(),
+                    primitive.rotation(), primitive.scale(), keyframe)) {
+                written++;
+                if (++entries >= MAX_ENTRIES_PER_PACKET) {
+                    sendQuantized(modelWriter, primitiveWriter);
+                    entries = 0;
+                }
+            }
+        }
+        if (entries > 0) {
+            sendQuantized(modelWriter, primitiveWriter);
+        }
+        LOGGER.trace("Flushed {} quantized transforms ({} unchanged)",
+                written, models.size() + primitives.size() - written);
+    }
+
+    private void sendQuantized(TransformQuantizer.Writer models, TransformQuantizer.Writer primitives) {
+        networkManager.broadcast(new MoudPackets.S2C_QuantizedTransformBatchPacket(
+                models.toByteArray(),
+                primitives.toByteArray()
+        ));
+        models.reset();
+        primitives.reset();
+    }
+
+    private void forgetDiscarded() {
+        for (Long id : discardedModels.keySet()) {
+            discardedModels.remove(id);
+            modelBaseline.forget(id);
+        }
+        for (Long id : discardedPrimitives.keySet()) {
+            discardedPrimitives.remove(id);
+            primitiveBaseline.forget(id);
+        }
+    }
+
+    private static <T> List<T> drain(ConcurrentMap<Long, T> pending) {
+        if (pending.isEmpty()) {
+            return List.of();
+        }
+        List<T> drained = new ArrayList<>(pending.size());
+        for (Map.Entry<Long, T> entry : pending.entrySet()) {
+            // Only remove the value we read; a concurrent newer write stays queued for the next tick.
+            if (pending.remove(entry.getKey(), entry.getValue())) {
+                drained.add(entry.getValue());
+            }
+        }
+        return drained;
+    }
+}
@@ -1,5 +1,6 @@
 package com.moud.server.network.diagnostics;
 
+import com.moud.server.network.OutboundLane;
 import com.moud.server.profiler.model.PacketLog;
 import net.minestom.server.entity.Player;
 
@@ -7,21 +8,44 @@ import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 import java.util.concurrent.atomic.LongAdder;
 import java.util.stream.Collectors;
 
 public final class NetworkProbe {
+    /**
+     * Packet detail history for the profiler's network inspector. Writers claim a slot with a single
+     * atomic increment; the ring holds the last {@link #HISTORY_SIZE} sampled packets.
+     */
+    private static final int HISTORY_SIZE =
+            Integer.highestOneBit(Math.max(16, Integer.getInteger("moud.network.probe.historySize", 1024)));
+    private static final int HISTORY_MASK = HISTORY_SIZE - 1;
+    /**
+     * Records one in N packets while nobody is inspecting. 0 disables background sampling; every
+     * packet is recorded while a profiler capture or the network inspector is recording.
+     */
+    private static final int DETAIL_SAMPLE_RATE =
+            Math.max(0, Integer.getInteger("moud.network.probe.detailSampleRate", 16));
+
     private static final NetworkProbe INSTANCE = new NetworkProbe();
 
     private final ConcurrentMap<String, PacketStats> outboundStats = new ConcurrentHashMap<>();
     private final ConcurrentMap<String, PacketStats> inboundStats = new ConcurrentHashMap<>();
 
-    private static final int HISTORY_SIZE = 1000;
-    private final PacketLog[] packetHistory = new PacketLog[HISTORY_SIZE];
-    private int historyHead = 0;
-    private int historyCount = 0;
-    private final Object historyLock = new Object();
+    private final AtomicReferenceArray<PacketLog> packetHistory = new AtomicReferenceArray<>(HISTORY_SIZE);
+    private final AtomicLong historySequence = new AtomicLong();
+    private volatile long historyFloor = 0L;
+    private final AtomicInteger detailCaptures = new AtomicInteger();
+
+    private final LaneStats[] laneStats = createLaneStats();
+
+    private final LongAdder bufferAcquires = new LongAdder();
+    private final LongAdder bufferHits = new LongAdder();
+    private final LongAdder bufferReleases = new LongAdder();
+    private final LongAdder bufferDiscards = new LongAdder();
 
     private NetworkProbe() {
     }
@@ -30,35 +54,69 @@ public final class NetworkProbe {
         return INSTANCE;
     }
 
+    /**
+     * Starts recording every packet's detail, e.g. while the network inspector is open. Calls nest and
+     * must be paired with {@link #endDetailCapture()}.
+     */
+    public void beginDetailCapture() {
+        detailCaptures.incrementAndGet();
+    }
+
+    public void endDetailCapture() {
+        detailCaptures.updateAndGet(count -> Math.max(0, count - 1));
+    }
+
+    public boolean shouldRecordDetail() {
+        if (detailCaptures.get() > 0) {
+            return true;
+        }
+        return DETAIL_SAMPLE_RATE > 0
+                && (DETAIL_SAMPLE_RATE == 1 || ThreadLocalRandom.current().nextInt(DETAIL_SAMPLE_RATE) == 0);
+    }
+
+    /**
+     * Records a packet for the inspector if it is sampled. {@code packetPayload} is kept by reference
+     * and only rendered when the inspector selects the entry.
+     */
     public void recordPacketDetail(String direction, String packetName, int size, Object packetPayload) {
-        synchronized (historyLock) {
-            packetHistory[historyHead] = new PacketLog(
-                    System.currentTimeMillis(),
-                    direction,
-                    packetName,
-                    size,
-                    packetPayload
-            );
-
-            historyHead = (historyHead + 1) % HISTORY_SIZE;
-            if (historyCount < HISTORY_SIZE) {
-                historyCount++;
-            }
+        if (!shouldRecordDetail()) {
+            return;
         }
+        appendHistory(new PacketLog(System.currentTimeMillis(), direction, packetName, size, packetPayload));
     }
 
-    public List<PacketLog> getRecentPackets() {
-        List<PacketLog> list = new ArrayList<>(historyCount);
-        synchronized (historyLock) {
+    /**
+     * Records raw packet bytes for the inspector if sampled. Only the previewed prefix is copied; the
+     * hex dump is rendered on demand by {@link PayloadPreview}.
+     */
+    public void recordPacketDetail(String direction, String packetName, byte[] data, int offset, int length) {
+        if (!shouldRecordDetail()) {
+            return;
+        }
+        int size = data != null ? length : 0;
+        appendHistory(new PacketLog(System.currentTimeMillis(), direction, packetName, size,
+                PayloadPreview.of(data, offset, length)));
+    }
 
-            int current = (historyHead - historyCount + HISTORY_SIZE) % HISTORY_SIZE;
-            for (int i = 0; i < historyCount; i++) {
-                list.add(packetHistory[current]);
-                current = (current + 1) % HISTORY_SIZE;
+    private void appendHistory(PacketLog entry) {
+        long sequence = historySequence.getAndIncrement();
+        packetHistory.set((int) (sequence & HISTORY_MASK), entry);
+    }
+
+    /**
+     * Most recent sampled packets, newest first. Entries written concurrently with this call may or
+     * may not be included.
+     */
+    public List<PacketLog> getRecentPackets() {
+        long end = historySequence.get();
+        long start = Math.max(historyFloor, end - HISTORY_SIZE);
+        List<PacketLog> list = new ArrayList<>((int) Math.max(0, end - start));
+        for (long sequence = end - 1; sequence >= start; sequence--) {
+            PacketLog entry = packetHistory.get((int) (sequence & HISTORY_MASK));
+            if (entry != null) {
+                list.add(entry);
             }
         }
-        Collections.reverse(list);
-
         return list;
     }
 
@@ -76,6 +134,67 @@ public final class NetworkProbe {
                 .record(playerKey, channel, payloadBytes, payloadBytes, durationNanos, success);
     }
 
+    public void recordBufferAcquire(boolean pooled) {
+        bufferAcquires.increment();
+        if (pooled) {
+            bufferHits.increment();
+        }
+    }
+
+    public void recordBufferRelease(boolean retained) {
+        bufferReleases.increment();
+        if (!retained) {
+            bufferDiscards.increment();
+        }
+    }
+
+    public BufferPoolSnapshot bufferPoolSnapshot() {
+        long acquires = bufferAcquires.sum();
+        long hits = bufferHits.sum();
+        double hitRate = acquires == 0 ? 0.0 : (double) hits / acquires;
+        return new BufferPoolSnapshot(acquires, hits, acquires - hits, bufferReleases.sum(), bufferDiscards.sum(), hitRate);
+    }
+
+    public void recordLaneQueued(OutboundLane lane, int bytes) {
+        LaneStats stats = laneStats[lane.ordinal()];
+        stats.queuedPackets.increment();
+        stats.queuedBytes.add(bytes);
+    }
+
+    public void recordLaneDequeued(OutboundLane lane, int bytes) {
+        LaneStats stats = laneStats[lane.ordinal()];
+        stats.queuedPackets.decrement();
+        stats.queuedBytes.add(-bytes);
+    }
+
+    public void recordLaneSent(OutboundLane lane, int bytes) {
+        LaneStats stats = laneStats[lane.ordinal()];
+        stats.sentPackets.increment();
+        stats.sentBytes.add(bytes);
+    }
+
+    /**
+     * Outbound scheduler state summed over all connections: packets and bytes still waiting for budget,
+     * and totals written so far.
+     */
+    public List<LaneSnapshot> laneSnapshots() {
+        List<LaneSnapshot> lanes = new ArrayList<>(laneStats.length);
+        for (OutboundLane lane : OutboundLane.values()) {
+            LaneStats stats = laneStats[lane.ordinal()];
+            lanes.add(new LaneSnapshot(lane.name(), stats.queuedPackets.sum(), stats.queuedBytes.sum(),
+                    stats.sentPackets.sum(), stats.sentBytes.sum()));
+        }
+        return lanes;
+    }
+
+    private static LaneStats[] createLaneStats() {
+        LaneStats[] stats = new LaneStats[OutboundLane.values().length];
+        for (int i = 0; i < stats.length; i++) {
+            stats[i] = new LaneStats();
+        }
+        return stats;
+    }
+
     public NetworkSnapshot snapshot() {
         List<PacketStatSnapshot> outbound = outboundStats.entrySet().stream()
                 .map(entry -> entry.getValue().snapshot(entry.getKey()))
@@ -92,16 +211,28 @@ public final class NetworkProbe {
         long outCount = outbound.stream().mapToLong(PacketStatSnapshot::totalCount).sum();
         long inCount = inbound.stream().mapToLong(PacketStatSnapshot::totalCount).sum();
 
-        return new NetworkSnapshot(Instant.now(), outbound, inbound, outBytes, inBytes, outCount, inCount);
+        return new NetworkSnapshot(Instant.now(), outbound, inbound, outBytes, inBytes, outCount, inCount, bufferPoolSnapshot(), laneSnapshots());
     }
 
     public void reset() {
         outboundStats.clear();
         inboundStats.clear();
-        synchronized (historyLock) {
-            historyCount = 0;
-            historyHead = 0;
+        bufferAcquires.reset();
+        bufferHits.reset();
+        bufferReleases.reset();
+        bufferDiscards.reset();
+        for (LaneStats stats : laneStats) {
+            stats.sentPackets.reset();
+            stats.sentBytes.reset();
         }
+        historyFloor = historySequence.get();
+    }
+
+    private static final class LaneStats {
+        private final LongAdder queuedPackets = new LongAdder();
+        private final LongAdder queuedBytes = new LongAdder();
+        private final LongAdder sentPackets = new LongAdder();
+        private final LongAdder sentBytes = new LongAdder();
     }
 
     private static final class PacketStats {
@@ -141,5 +272,11 @@ public final class NetworkProbe {
         public boolean hasTraffic() { return totalCount > 0; }
     }
 
-    public record NetworkSnapshot(Instant generatedAt, List<PacketStatSnapshot> outbound, List<PacketStatSnapshot> inbound, long outboundBytes, long inboundBytes, long outboundCount, long inboundCount) {}
+    public record NetworkSnapshot(Instant generatedAt, List<PacketStatSnapshot> outbound, List<PacketStatSnapshot> inbound, long outboundBytes, long inboundBytes, long outboundCount, long inboundCount, BufferPoolSnapshot bufferPool, List<LaneSnapshot> lanes) {}
+
+    public record LaneSnapshot(String lane, long queuedPackets, long queuedBytes, long sentPackets, long sentBytes) {
+        public boolean hasTraffic() { return queuedPackets > 0 || sentPackets > 0; }
+    }
+
+    public record BufferPoolSnapshot(long acquires, long hits, long misses, long releases, long discards, double hitRate) {}
 }
\ No newline at end of file
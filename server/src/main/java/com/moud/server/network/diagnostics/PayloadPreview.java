@@ -0,0 +1,43 @@
+package com.moud.server.network.diagnostics;
+
+import java.util.Arrays;
+
+/**
+ * Captured prefix of a raw packet payload. The hex dump is only built when the network inspector
+ * displays the entry.
+ */
+public record PayloadPreview(byte[] head, int totalLength) {
+    static final int PREVIEW_BYTES = 256;
+    private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+
+    static PayloadPreview of(byte[] data, int offset, int length) {
+        if (data == null) {
+            return null;
+        }
+        return new PayloadPreview(Arrays.copyOfRange(data, offset, offset + Math.min(length, PREVIEW_BYTES)), length);
+    }
+
+    public String render() {
+        if (totalLength == 0) return "empty";
+
+        StringBuilder sb = new StringBuilder(64 + head.length * 3 + head.length / 16);
+        sb.append("Binary Payload (").append(totalLength).append(" bytes)\n");
+        sb.append("------------------------------------------------\n");
+
+        for (int i = 0; i < head.length; i++) {
+            if (i > 0 && i % 16 == 0) sb.append('\n');
+            int value = head[i] & 0xFF;
+            sb.append(HEX[value >>> 4]).append(HEX[value & 0x0F]).append(' ');
+        }
+
+        if (totalLength > head.length) {
+            sb.append("\n... (rest)");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return render();
+    }
+}
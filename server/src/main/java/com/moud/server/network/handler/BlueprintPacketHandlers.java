@@ -5,22 +5,34 @@ import com.google.gson.JsonArray;
 import com.google.gson.JsonElement;
 import com.google.gson.JsonObject;
 import com.moud.network.MoudPackets.*;
+import com.moud.network.serializer.BlueprintContainer;
+import com.moud.server.editor.BlueprintBlockPlacer;
+import com.moud.server.editor.BlueprintPlacementPlan;
 import com.moud.server.editor.BlueprintStorage;
 import com.moud.server.editor.SceneManager;
 import com.moud.server.logging.LogContext;
 import com.moud.server.logging.MoudLogger;
+import com.moud.server.network.OutboundLane;
 import com.moud.server.network.ServerNetworkManager;
 import com.moud.server.permissions.PermissionManager;
 import com.moud.server.permissions.ServerPermission;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
 import net.minestom.server.instance.Instance;
 import net.minestom.server.instance.block.Block;
+import net.minestom.server.world.DimensionType;
 
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.SeekableByteChannel;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
 
 public final class BlueprintPacketHandlers implements PacketHandlerGroup {
 
@@ -34,12 +46,15 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
 
     private final ServerNetworkManager networkManager;
     private final BlueprintStorage blueprintStorage;
+    private final BlueprintBlockPlacer blockPlacer;
 
     private final ConcurrentMap<String, PendingUpload> pendingUploads = new ConcurrentHashMap<>();
 
-    public BlueprintPacketHandlers(ServerNetworkManager networkManager, BlueprintStorage blueprintStorage) {
+    public BlueprintPacketHandlers(ServerNetworkManager networkManager, BlueprintStorage blueprintStorage,
+                                   BlueprintBlockPlacer blockPlacer) {
         this.networkManager = networkManager;
         this.blueprintStorage = blueprintStorage;
+        this.blockPlacer = blockPlacer;
     }
 
     @Override
@@ -66,7 +81,7 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
         try {
             blueprintStorage.save(name, data);
             sendSaveAck(player, name, true, "Saved successfully");
-        } catch (IOException e) {
+        } catch (IOException | RuntimeException e) {
             LOGGER.error("Failed to save blueprint " + name, e);
             sendSaveAck(player, name, false, "Storage error");
         }
@@ -95,8 +110,7 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
         if (upload.isComplete()) {
             pendingUploads.remove(uploadKey);
             try {
-                byte[] fullData = upload.assemble();
-                blueprintStorage.save(name, fullData);
+                blueprintStorage.save(name, upload.stream());
                 sendSaveAck(player, name, true, "Saved successfully");
             } catch (Exception e) {
                 LOGGER.error("Failed to assemble blueprint " + name, e);
@@ -115,25 +129,32 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
             return;
         }
 
-        try {
-            byte[] data = blueprintStorage.load(name);
+        // The stored container is streamed off disk a chunk at a time, never held whole. Size and bytes come
+        // from the same open file, so a save replacing it meanwhile cannot mix the two.
+        try (SeekableByteChannel channel = blueprintStorage.openChannel(name);
+             InputStream in = new BufferedInputStream(Channels.newInputStream(channel))) {
+            long size = channel.size();
 
-            if (data.length <= INLINE_LIMIT) {
-                networkManager.send(player, new BlueprintDataPacket(name, data, true, "Loaded"));
+            if (size <= INLINE_LIMIT) {
+                networkManager.send(player, new BlueprintDataPacket(name, in.readAllBytes(), true, "Loaded"));
                 return;
             }
 
-            int totalChunks = (int) Math.ceil((double) data.length / CHUNK_SIZE);
+            int totalChunks = (int) ((size + CHUNK_SIZE - 1) / CHUNK_SIZE);
 
             for (int i = 0; i < totalChunks; i++) {
-                int start = i * CHUNK_SIZE;
-                int end = Math.min(data.length, start + CHUNK_SIZE);
-                byte[] chunk = Arrays.copyOfRange(data, start, end);
+                byte[] chunk = in.readNBytes(CHUNK_SIZE);
+                if (chunk.length == 0) {
+                    throw new IOException("Blueprint changed while it was being sent");
+                }
 
-                networkManager.send(player, new BlueprintDataChunkPacket(name, totalChunks, i, chunk));
+                networkManager.send(player, new BlueprintDataChunkPacket(name, totalChunks, i, chunk),
+                        OutboundLane.BULK_BLUEPRINT);
             }
 
-            networkManager.send(player, new BlueprintDataPacket(name, null, true, "Chunked transfer sent"));
+            // Same lane as the chunks so the completion marker cannot overtake them.
+            networkManager.send(player, new BlueprintDataPacket(name, null, true, "Chunked transfer sent"),
+                    OutboundLane.BULK_BLUEPRINT);
 
         } catch (IOException e) {
             LOGGER.error("Failed to load blueprint " + name, e);
@@ -170,41 +191,41 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
             return;
         }
 
-        try {
-            byte[] rawData = blueprintStorage.load(name);
-            String jsonString = new String(rawData, StandardCharsets.UTF_8);
-            JsonObject blueprint = GSON.fromJson(jsonString, JsonObject.class);
+        try (InputStream in = blueprintStorage.open(name)) {
+            BlueprintContainer.Reader reader = new BlueprintContainer.Reader(in);
+            reader.header();
+            List<String> objects = reader.objects();
+            List<String> markers = reader.markers();
+            BlueprintContainer.Blocks blocks = reader.blocks();
 
-            PlacementSettings settings = new PlacementSettings(blueprint, packet.position(), packet.rotation(), packet.scale());
+            PlacementSettings settings = new PlacementSettings(blocks, packet.position(), packet.rotation(), packet.scale());
             List<String> createdObjectIds = new ArrayList<>();
 
-            if (blueprint.has("objects")) {
-                JsonArray objects = blueprint.getAsJsonArray("objects");
-                for (JsonElement element : objects) {
-                    if (element.isJsonObject()) {
-                        String id = placeObject(player, sceneId, element.getAsJsonObject(), settings);
-                        if (id != null) createdObjectIds.add(id);
-                    }
+            for (String object : objects) {
+                JsonElement element = GSON.fromJson(object, JsonElement.class);
+                if (element != null && element.isJsonObject()) {
+                    String id = placeObject(player, sceneId, element.getAsJsonObject(), settings);
+                    if (id != null) createdObjectIds.add(id);
                 }
             }
 
-            if (blueprint.has("markers")) {
-                JsonArray markers = blueprint.getAsJsonArray("markers");
-                for (JsonElement element : markers) {
-                    if (element.isJsonObject()) {
-                        String id = placeMarker(player, sceneId, element.getAsJsonObject(), settings);
-                        if (id != null) createdObjectIds.add(id);
-                    }
+            for (String marker : markers) {
+                JsonElement element = GSON.fromJson(marker, JsonElement.class);
+                if (element != null && element.isJsonObject()) {
+                    String id = placeMarker(player, sceneId, element.getAsJsonObject(), settings);
+                    if (id != null) createdObjectIds.add(id);
                 }
             }
 
-            if (blueprint.has("blocks")) {
-                placeBlocks(player, blueprint.getAsJsonObject("blocks"), settings);
+            // Blocks are written over the next ticks; the ack goes out once the last chunk is placed.
+            Consumer<Integer> onPlaced = placed -> {
+                LOGGER.info("Player {} placed blueprint {} ({} blocks)", player.getUsername(), name, placed);
+                sendPlaceAck(player, name, true, "Placed successfully", createdObjectIds);
+            };
+            if (blocks == null || !placeBlocks(player, blocks, settings, onPlaced)) {
+                onPlaced.accept(0);
             }
 
-            LOGGER.info("Player {} placed blueprint {}", player.getUsername(), name);
-            sendPlaceAck(player, name, true, "Placed successfully", createdObjectIds);
-
         } catch (Exception e) {
             LOGGER.error("Failed to place blueprint " + name, e);
             sendPlaceAck(player, name, false, "Placement error: " + e.getMessage(), null);
@@ -212,83 +233,40 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
     }
 
 
-    private void placeBlocks(Player player, JsonObject blocksJson, PlacementSettings settings) {
+    /**
+     * Groups the blueprint's voxels by target chunk and hands them to the block placer, which writes them over the
+     * next ticks.
+     *
+     * @return whether blocks were queued; {@code onPlaced} then runs once they are all written
+     */
+    private boolean placeBlocks(Player player, BlueprintContainer.Blocks blocks, PlacementSettings settings,
+                                Consumer<Integer> onPlaced) {
         Instance instance = player.getInstance();
-        if (instance == null) return;
+        if (instance == null) return false;
 
-        int sizeX = getInt(blocksJson, "sizeX", 0);
-        int sizeY = getInt(blocksJson, "sizeY", 0);
-        int sizeZ = getInt(blocksJson, "sizeZ", 0);
-
-        if (sizeX <= 0 || sizeY <= 0 || sizeZ <= 0) return;
-
-        List<String> palette = new ArrayList<>();
-        blocksJson.getAsJsonArray("palette").forEach(e -> palette.add(e.getAsString()));
-
-        byte[] voxels = decodeBase64(blocksJson.get("voxels"));
-        if (voxels == null || palette.isEmpty()) return;
-
-        boolean shortIndices = getBoolean(blocksJson, "useShortIndices", false);
+        int sizeX = blocks.sizeX();
+        int sizeY = blocks.sizeY();
+        int sizeZ = blocks.sizeZ();
+        List<String> palette = blocks.palette();
+        byte[] voxels = blocks.voxels();
+        boolean shortIndices = blocks.shortIndices();
 
         Block[] transformedPalette = new Block[palette.size()];
+        boolean[] placeable = new boolean[palette.size()];
         for (int i = 0; i < palette.size(); i++) {
             transformedPalette[i] = resolveTransformedBlock(palette.get(i), settings);
+            placeable[i] = transformedPalette[i] != null;
         }
 
-        for (int y = 0; y < sizeY; y++) {
-            for (int z = 0; z < sizeZ; z++) {
-                for (int x = 0; x < sizeX; x++) {
-
-                    int paletteIndex = readVoxelIndex(voxels, shortIndices, sizeX, sizeZ, x, y, z);
-
-                    if (paletteIndex <= 0 || paletteIndex >= transformedPalette.length) {
-                        continue;
-                    }
-
-                    Block block = transformedPalette[paletteIndex];
-                    if (block == null) continue;
-
-                    int[] localPos = transformGridCoordinate(x, y, z, sizeX, sizeZ, settings);
-
-                    int worldX = settings.originX + localPos[0];
-                    int worldY = settings.originY + localPos[1];
-                    int worldZ = settings.originZ + localPos[2];
-
-                    instance.setBlock(worldX, worldY, worldZ, block);
-                }
-            }
-        }
-    }
-
-    private int[] transformGridCoordinate(int x, int y, int z, int sizeX, int sizeZ, PlacementSettings settings) {
-        int mx = settings.mirrorX ? (sizeX - 1 - x) : x;
-        int mz = settings.mirrorZ ? (sizeZ - 1 - z) : z;
-
-        int tx, tz;
+        DimensionType dimension = MinecraftServer.getDimensionTypeRegistry().get(instance.getDimensionType());
+        BlueprintPlacementPlan plan = BlueprintPlacementPlan.group(voxels, shortIndices, sizeX, sizeY, sizeZ,
+                placeable, settings.gridTransform(), dimension.minY(), dimension.maxY());
+        if (plan.blockCount() == 0) return false;
 
-        switch (settings.rotationSteps) {
-            case 1 -> { // 90 degrees
-                tx = settings.outSizeX - 1 - mz;
-                tz = mx;
-            }
-            case 2 -> { // 180 degrees
-                tx = settings.outSizeX - 1 - mx;
-                tz = settings.outSizeZ - 1 - mz;
-            }
-            case 3 -> { // 270 degrees
-                tx = mz;
-                tz = settings.outSizeZ - 1 - mx;
-            }
-            default -> { // 0 degrees
-                tx = mx;
-                tz = mz;
-            }
-        }
-
-        return new int[]{tx, y, tz};
+        blockPlacer.submit(instance, transformedPalette, plan, dimension.minY(), onPlaced);
+        return true;
     }
 
-
     private String placeObject(Player player, String sceneId, JsonObject obj, PlacementSettings settings) {
         String type = getString(obj, "type", "group");
         return createEntityInScene(sceneId, type, obj, settings);
@@ -365,10 +343,9 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
         final float[] targetRot;
         final float[] targetScale;
 
-        PlacementSettings(JsonObject blueprint, float[] pos, float[] rot, float[] scale) {
-            JsonObject blocks = blueprint.getAsJsonObject("blocks");
-            this.schematicSizeX = getInt(blocks, "sizeX", 1);
-            this.schematicSizeZ = getInt(blocks, "sizeZ", 1);
+        PlacementSettings(BlueprintContainer.Blocks blocks, float[] pos, float[] rot, float[] scale) {
+            this.schematicSizeX = blocks != null ? blocks.sizeX() : 1;
+            this.schematicSizeZ = blocks != null ? blocks.sizeZ() : 1;
 
             this.targetRot = rot != null ? rot : new float[3];
             this.targetScale = scale != null ? scale : new float[]{1, 1, 1};
@@ -392,6 +369,11 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
             }
         }
 
+        BlueprintPlacementPlan.Transform gridTransform() {
+            return new BlueprintPlacementPlan.Transform(originX, originY, originZ, rotationSteps, mirrorX, mirrorZ,
+                    outSizeX, outSizeZ);
+        }
+
         float[] transformPosition(float[] vec) {
             float x = vec[0];
             float y = vec[1];
@@ -512,16 +494,10 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
             return received == totalChunks;
         }
 
-        byte[] assemble() {
-            int size = 0;
-            for (byte[] c : chunks) size += c.length;
-            byte[] out = new byte[size];
-            int offset = 0;
-            for (byte[] c : chunks) {
-                System.arraycopy(c, 0, out, offset, c.length);
-                offset += c.length;
-            }
-            return out;
+        InputStream stream() {
+            List<InputStream> parts = new ArrayList<>(chunks.length);
+            for (byte[] c : chunks) parts.add(new ByteArrayInputStream(c));
+            return new SequenceInputStream(Collections.enumeration(parts));
         }
     }
 
@@ -548,30 +524,10 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
         networkManager.send(p, new BlueprintPlaceAckPacket(name, success, msg, ids));
     }
 
-    private int readVoxelIndex(byte[] voxels, boolean useShort, int sx, int sz, int x, int y, int z) {
-        int index = (y * sz + z) * sx + x;
-        if (useShort) {
-            int offset = index * 2;
-            if (offset + 1 >= voxels.length) return 0;
-            return (voxels[offset] & 0xFF) | ((voxels[offset + 1] & 0xFF) << 8);
-        } else {
-            if (index >= voxels.length) return 0;
-            return voxels[index] & 0xFF;
-        }
-    }
-
-    private static int getInt(JsonObject o, String key, int def) {
-        return o.has(key) ? o.get(key).getAsInt() : def;
-    }
-
     private static String getString(JsonObject o, String key, String def) {
         return o.has(key) ? o.get(key).getAsString() : def;
     }
 
-    private static boolean getBoolean(JsonObject o, String key, boolean def) {
-        return o.has(key) ? o.get(key).getAsBoolean() : def;
-    }
-
     private static float[] getVec3(JsonObject o, String key) {
         return getVec3(o, key, new float[3]);
     }
@@ -586,15 +542,6 @@ public final class BlueprintPacketHandlers implements PacketHandlerGroup {
         return def;
     }
 
-    private static byte[] decodeBase64(JsonElement element) {
-        if (element != null && !element.isJsonNull()) {
-            try {
-                return Base64.getDecoder().decode(element.getAsString());
-            } catch (Exception ignored) {}
-        }
-        return null;
-    }
-
     private static Map<String, Object> mapVec3(float[] v) {
         Map<String, Object> m = new HashMap<>();
         m.put("x", v[0]);
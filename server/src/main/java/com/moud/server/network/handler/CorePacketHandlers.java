@@ -115,6 +115,6 @@ public final class CorePacketHandlers implements PacketHandlerGroup {
         }
         PhysicsService.getInstance()
                 .getChunkPhysicsManager()
-                .handleChunkCollisionRequest(player, packet.chunkX(), packet.chunkZ());
+                .handleChunkCollisionRequest(player, packet.chunkX(), packet.chunkZ(), packet.knownMeshHash());
     }
 }
@@ -0,0 +1,255 @@
+package com.moud.server.physics;
+
+import com.moud.api.collision.AABB;
+import com.moud.api.physics.player.CollisionBuffer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * Uniform hash grid of axis-aligned boxes keyed by id, used as a broad phase for collision queries that would
+ * otherwise test every collider.
+ * <p>
+ * Boxes are stored in every cell they overlap; a box spanning more than {@link #MAX_CELLS_PER_ENTRY} cells (or
+ * with non-finite bounds) is kept in a separate list that every query checks. Moving a box within the same cell
+ * range only swaps its bounds. Queries may run concurrently with each other; updates are exclusive.
+ */
+public final class AabbGrid {
+    static final int MAX_CELLS_PER_ENTRY = 64;
+    private static final int MAX_QUERY_CELLS = 4096;
+    private static final int CELL_BITS = 21;
+    private static final long CELL_MASK = (1L << CELL_BITS) - 1;
+
+    private final double inverseCellSize;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private final Map<Long, ArrayList<Entry>> cells = new HashMap<>();
+    private final ArrayList<Entry> oversized = new ArrayList<>();
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public AabbGrid(double cellSize) {
+        if (!(cellSize > 0.0) || Double.isInfinite(cellSize)) {
+            throw new IllegalArgumentException("cellSize must be positive: " + cellSize);
+        }
+        this.inverseCellSize = 1.0 / cellSize;
+    }
+
+    /**
+     * Inserts or moves the box with the given id.
+     */
+    public void put(long id, AABB bounds) {
+        Entry moved = new Entry(bounds);
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.get(id);
+            if (existing != null && existing.sameCells(moved)) {
+                existing.bounds = bounds;
+                return;
+            }
+            if (existing != null) {
+                unlink(existing);
+            }
+            entries.put(id, moved);
+            link(moved);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean remove(long id) {
+        lock.writeLock().lock();
+        try {
+            Entry existing = entries.remove(id);
+            if (existing == null) {
+                return false;
+            }
+            unlink(existing);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            entries.clear();
+            cells.clear();
+            oversized.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the bounds of every box intersecting {@code query} to {@code out}, each at most once.
+     *
+     * @return the number of boxes added
+     */
+    public int query(AABB query, Collection<? super AABB> out) {
+        return visit(query.minX(), query.minY(), query.minZ(), query.maxX(), query.maxY(), query.maxZ(), out::add);
+    }
+
+    /**
+     * Same as {@link #query(AABB, Collection)}, appending to a flat buffer instead.
+     */
+    public int query(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                     CollisionBuffer out) {
+        return visit(minX, minY, minZ, maxX, maxY, maxZ, out::add);
+    }
+
+    private int visit(double qMinX, double qMinY, double qMinZ, double qMaxX, double qMaxY, double qMaxZ,
+                      Consumer<AABB> sink) {
+        int minX = cell(qMinX);
+        int minY = cell(qMinY);
+        int minZ = cell(qMinZ);
+        int maxX = cell(qMaxX);
+        int maxY = cell(qMaxY);
+        int maxZ = cell(qMaxZ);
+        long queryCells = ((long) maxX - minX + 1) * ((long) maxY - minY + 1) * ((long) maxZ - minZ + 1);
+        boolean finite = Double.isFinite(qMinX) && Double.isFinite(qMinY) && Double.isFinite(qMinZ)
+                && Double.isFinite(qMaxX) && Double.isFinite(qMaxY) && Double.isFinite(qMaxZ);
+
+        int added = 0;
+        lock.readLock().lock();
+        try {
+            if (!finite || queryCells > MAX_QUERY_CELLS || queryCells > entries.size()) {
+                for (Entry entry : entries.values()) {
+                    if (entry.intersects(qMinX, qMinY, qMinZ, qMaxX, qMaxY, qMaxZ)) {
+                        sink.accept(entry.bounds);
+                        added++;
+                    }
+                }
+                return added;
+            }
+            for (int i = 0, n = oversized.size(); i < n; i++) {
+                Entry entry = oversized.get(i);
+                if (entry.intersects(qMinX, qMinY, qMinZ, qMaxX, qMaxY, qMaxZ)) {
+                    sink.accept(entry.bounds);
+                    added++;
+                }
+            }
+            for (int x = minX; x <= maxX; x++) {
+                for (int y = minY; y <= maxY; y++) {
+                    for (int z = minZ; z <= maxZ; z++) {
+                        ArrayList<Entry> bucket = cells.get(key(x, y, z));
+                        if (bucket == null) {
+                            continue;
+                        }
+                        for (int i = 0, n = bucket.size(); i < n; i++) {
+                            Entry entry = bucket.get(i);
+                            // A box shared by several query cells is reported from the first one only.
+                            if (x != Math.max(entry.minX, minX) || y != Math.max(entry.minY, minY)
+                                    || z != Math.max(entry.minZ, minZ)) {
+                                continue;
+                            }
+                            if (entry.intersects(qMinX, qMinY, qMinZ, qMaxX, qMaxY, qMaxZ)) {
+                                sink.accept(entry.bounds);
+                                added++;
+                            }
+                        }
+                    }
+                }
+            }
+            return added;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void link(Entry entry) {
+        if (entry.oversized) {
+            oversized.add(entry);
+            return;
+        }
+        for (int x = entry.minX; x <= entry.maxX; x++) {
+            for (int y = entry.minY; y <= entry.maxY; y++) {
+                for (int z = entry.minZ; z <= entry.maxZ; z++) {
+                    cells.computeIfAbsent(key(x, y, z), ignored -> new ArrayList<>(4)).add(entry);
+                }
+            }
+        }
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.oversized) {
+            oversized.remove(entry);
+            return;
+        }
+        for (int x = entry.minX; x <= entry.maxX; x++) {
+            for (int y = entry.minY; y <= entry.maxY; y++) {
+                for (int z = entry.minZ; z <= entry.maxZ; z++) {
+                    long key = key(x, y, z);
+                    ArrayList<Entry> bucket = cells.get(key);
+                    if (bucket != null && bucket.remove(entry) && bucket.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    private int cell(double coordinate) {
+        double scaled = Math.floor(coordinate * inverseCellSize);
+        if (scaled >= Integer.MAX_VALUE) {
+            return Integer.MAX_VALUE;
+        }
+        return scaled <= Integer.MIN_VALUE ? Integer.MIN_VALUE : (int) scaled;
+    }
+
+    private static long key(int x, int y, int z) {
+        return ((x & CELL_MASK) << (2 * CELL_BITS)) | ((y & CELL_MASK) << CELL_BITS) | (z & CELL_MASK);
+    }
+
+    private static boolean isFinite(AABB box) {
+        return Double.isFinite(box.minX()) && Double.isFinite(box.minY()) && Double.isFinite(box.minZ())
+                && Double.isFinite(box.maxX()) && Double.isFinite(box.maxY()) && Double.isFinite(box.maxZ());
+    }
+
+    private final class Entry {
+        private final int minX;
+        private final int minY;
+        private final int minZ;
+        private final int maxX;
+        private final int maxY;
+        private final int maxZ;
+        private final boolean oversized;
+        private volatile AABB bounds;
+
+        private Entry(AABB bounds) {
+            this.bounds = bounds;
+            this.minX = cell(bounds.minX());
+            this.minY = cell(bounds.minY());
+            this.minZ = cell(bounds.minZ());
+            this.maxX = cell(bounds.maxX());
+            this.maxY = cell(bounds.maxY());
+            this.maxZ = cell(bounds.maxZ());
+            long spanned = ((long) maxX - minX + 1) * ((long) maxY - minY + 1) * ((long) maxZ - minZ + 1);
+            this.oversized = !isFinite(bounds) || spanned > MAX_CELLS_PER_ENTRY;
+        }
+
+        private boolean intersects(double minX, double minY, double minZ, double maxX, double maxY, double maxZ) {
+            AABB box = bounds;
+            return box.maxX() > minX && box.minX() < maxX
+                    && box.maxY() > minY && box.minY() < maxY
+                    && box.maxZ() > minZ && box.minZ() < maxZ;
+        }
+
+        private boolean sameCells(Entry other) {
+            return oversized == other.oversized && minX == other.minX && minY == other.minY && minZ == other.minZ
+                    && maxX == other.maxX && maxY == other.maxY && maxZ == other.maxZ;
+        }
+    }
+}
@@ -38,6 +38,7 @@ import com.github.stephengold.joltjni.readonly.ConstShape;
 import com.moud.api.collision.AABB;
 import com.moud.api.math.Quaternion;
 import com.moud.api.math.Vector3;
+import com.moud.api.physics.player.CollisionBuffer;
 import com.moud.server.entity.ModelManager;
 import com.moud.server.instance.InstanceManager;
 import com.moud.server.logging.LogContext;
@@ -80,6 +81,7 @@ public final class PhysicsService {
 
     public static final int LAYER_DYNAMIC = 0;
     public static final int LAYER_STATIC = 1;
+    private static final double BLOCKER_CELL_SIZE = 4.0;
 
     private static PhysicsService instance;
 
@@ -113,6 +115,8 @@ public final class PhysicsService {
     private CollisionGroup defaultCollisionGroup;
     private volatile boolean initialized;
     private final ConcurrentHashMap<Long, PhysicsObject> physicsObjects = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Instance, AabbGrid> playerBlockers = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Long, Instance> blockerInstances = new ConcurrentHashMap<>();
     private volatile float lastDeltaSeconds = 0f;
     private final AtomicBoolean gravityFactorWarned = new AtomicBoolean(false);
 
@@ -215,32 +219,81 @@ public final class PhysicsService {
         return chunkPhysics;
     }
 
-    public List<AABB> getPlayerBlockingColliders(Instance instance, AABB queryBox) {
-        if (instance == null || queryBox == null || physicsObjects.isEmpty()) {
-            return List.of();
+    /**
+     * Re-indexes the world bounds of every physics-driven model into per-instance {@link AabbGrid}s. Called once
+     * per movement tick so that {@link #getPlayerBlockingColliders} does not scan every body for every player.
+     */
+    public void refreshPlayerBlockingColliders() {
+        if (physicsObjects.isEmpty() && blockerInstances.isEmpty()) {
+            return;
         }
-        List<AABB> colliders = new ArrayList<>();
-        for (PhysicsObject object : physicsObjects.values()) {
-            if (object == null || object.model == null || object.body == null) {
-                continue;
-            }
-            Entity entity = object.model.getEntity();
-            if (entity == null || entity.getInstance() != instance) {
-                continue;
+        for (Map.Entry<Long, Instance> entry : blockerInstances.entrySet()) {
+            if (!physicsObjects.containsKey(entry.getKey())) {
+                removePlayerBlocker(entry.getKey());
             }
-            BoundingBox box = object.getWorldBoundingBox();
+        }
+        for (Map.Entry<Long, PhysicsObject> entry : physicsObjects.entrySet()) {
+            long id = entry.getKey();
+            PhysicsObject object = entry.getValue();
+            Entity entity = object.model != null && object.body != null ? object.model.getEntity() : null;
+            Instance instance = entity != null ? entity.getInstance() : null;
+            BoundingBox box = instance != null ? object.getWorldBoundingBox() : null;
             if (box == null) {
+                removePlayerBlocker(id);
                 continue;
             }
-            AABB aabb = new AABB(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ());
-            if (!aabb.intersects(queryBox)) {
-                continue;
+            Instance previous = blockerInstances.put(id, instance);
+            if (previous != null && previous != instance) {
+                AabbGrid old = playerBlockers.get(previous);
+                if (old != null) {
+                    old.remove(id);
+                }
             }
-            colliders.add(aabb);
+            playerBlockers.computeIfAbsent(instance, ignored -> new AabbGrid(BLOCKER_CELL_SIZE))
+                    .put(id, new AABB(box.minX(), box.minY(), box.minZ(), box.maxX(), box.maxY(), box.maxZ()));
+        }
+    }
+
+    public List<AABB> getPlayerBlockingColliders(Instance instance, AABB queryBox) {
+        if (instance == null || queryBox == null) {
+            return List.of();
         }
+        AabbGrid grid = playerBlockers.get(instance);
+        if (grid == null) {
+            return List.of();
+        }
+        List<AABB> colliders = new ArrayList<>();
+        grid.query(queryBox, colliders);
         return colliders.isEmpty() ? List.of() : colliders;
     }
 
+    public void collectPlayerBlockingColliders(
+            Instance instance,
+            double minX,
+            double minY,
+            double minZ,
+            double maxX,
+            double maxY,
+            double maxZ,
+            CollisionBuffer out
+    ) {
+        AabbGrid grid = instance != null ? playerBlockers.get(instance) : null;
+        if (grid != null) {
+            grid.query(minX, minY, minZ, maxX, maxY, maxZ, out);
+        }
+    }
+
+    private void removePlayerBlocker(long id) {
+        Instance instance = blockerInstances.remove(id);
+        AabbGrid grid = instance != null ? playerBlockers.get(instance) : null;
+        if (grid != null) {
+            grid.remove(id);
+            if (grid.size() == 0) {
+                playerBlockers.remove(instance, grid);
+            }
+        }
+    }
+
     public void applyPlayerPush(AABB playerBox, Vector3 playerVelocity, float strength) {
         if (playerBox == null || playerVelocity == null || strength == 0.0f || physicsObjects.isEmpty()) {
             return;
@@ -792,16 +845,14 @@ public final class PhysicsService {
         return new CollisionGroup();
     }
 
-    public void requestChunkRefreshForBlock(Instance instance, int blockX, int blockZ) {
+    public void requestChunkRefreshForBlock(Instance instance, int blockX, int blockY, int blockZ) {
         if (!initialized || instance == null) {
             return;
         }
         if (!shouldHandleInstance(instance)) {
             return;
         }
-        int chunkX = Math.floorDiv(blockX, 16);
-        int chunkZ = Math.floorDiv(blockZ, 16);
-        chunkPhysics.requestChunkRefresh(instance, chunkX, chunkZ);
+        chunkPhysics.requestBlockRefresh(instance, blockX, blockY, blockZ);
     }
 
     public void shutdown() {
@@ -809,6 +860,7 @@ public final class PhysicsService {
             physicsSystem.removeAllConstraints();
         }
         constraints.clear();
+        chunkPhysics.shutdown();
         executor.shutdownNow();
     }
 
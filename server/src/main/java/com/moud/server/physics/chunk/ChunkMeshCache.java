@@ -0,0 +1,267 @@
+package com.moud.server.physics.chunk;
+
+import com.github.stephengold.joltjni.readonly.ConstShape;
+import com.moud.network.serializer.MeshCodec;
+import com.moud.server.editor.SceneManager;
+import com.moud.server.logging.LogContext;
+import com.moud.server.logging.MoudLogger;
+import com.moud.server.network.NetworkCompression;
+import com.moud.server.physics.mesh.ChunkMesher;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+/**
+ * Content-addressed collision meshes. Section meshes are keyed by {@link ChunkMesher.SectionBlocks#contentHash},
+ * whole chunks by {@link ChunkMesher#chunkHash}; since meshes are chunk-local, identical chunks anywhere in any
+ * instance share the arrays, the Jolt shape and the encoded {@link ChunkPhysicsManager.ChunkCollisionPayload}.
+ * <p>
+ * Both levels are LRU caches capped in bytes ({@code moud.physics.meshCache.sectionBytes},
+ * {@code moud.physics.meshCache.chunkBytes}). With {@code -Dmoud.physics.meshCache.persist=true} encoded chunk
+ * meshes are also written to {@code .moud/cache/chunk-meshes} and survive restarts, tagged with
+ * {@link ChunkMesher#VERSION} so a mesher change never serves stale geometry.
+ */
+final class ChunkMeshCache {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(
+            ChunkMeshCache.class,
+            LogContext.builder().put("subsystem", "physics-mesh").build()
+    );
+    private static final long SECTION_BYTES = Long.getLong("moud.physics.meshCache.sectionBytes", 32L << 20);
+    private static final long CHUNK_BYTES = Long.getLong("moud.physics.meshCache.chunkBytes", 64L << 20);
+    private static final boolean PERSIST = Boolean.getBoolean("moud.physics.meshCache.persist");
+    private static final int FILE_MAGIC = 0x4D434D32; // "MCM2": magic, mesher version, vertex and index blobs
+    private static final int MAX_FILE_BLOB = Integer.getInteger("moud.physics.chunkCollisionMaxBytes", 3 * 1024 * 1024);
+
+    /**
+     * A chunk's collision geometry. Empty chunks are cached too, with no shape and no payload.
+     */
+    record CachedChunkMesh(
+            long contentHash,
+            @Nullable float[] vertices,
+            @Nullable int[] indices,
+            @Nullable ConstShape shape,
+            @Nullable ChunkPhysicsManager.ChunkCollisionPayload payload
+    ) {
+        boolean isEmpty() {
+            return shape == null || payload == null;
+        }
+
+        long sizeBytes() {
+            long size = 64;
+            size += vertices != null ? vertices.length * 4L : 0;
+            size += indices != null ? indices.length * 4L : 0;
+            if (payload != null) {
+                size += payload.compressedVertices().length + payload.compressedIndices().length;
+            }
+            return size;
+        }
+    }
+
+    private final Lru<ChunkMesher.SectionMesh> sections =
+            new Lru<>(SECTION_BYTES, section -> 32 + section.vertices().length * 4L);
+    private final Lru<CachedChunkMesh> chunks = new Lru<>(CHUNK_BYTES, CachedChunkMesh::sizeBytes);
+    private final AtomicLong chunkHits = new AtomicLong();
+    private final AtomicLong chunkMisses = new AtomicLong();
+
+    @Nullable ChunkMesher.SectionMesh section(long contentHash) {
+        return sections.get(contentHash);
+    }
+
+    /**
+     * Returns the cached mesh for {@code blocks}, meshing and caching it on a miss.
+     */
+    ChunkMesher.SectionMesh meshSection(ChunkMesher.SectionBlocks blocks) {
+        ChunkMesher.SectionMesh cached = sections.get(blocks.contentHash());
+        if (cached != null) {
+            return cached;
+        }
+        ChunkMesher.SectionMesh mesh = ChunkMesher.meshSection(blocks);
+        sections.put(mesh.contentHash(), mesh);
+        return mesh;
+    }
+
+    /**
+     * Looks a chunk up in memory, then on disk when persistence is enabled.
+     */
+    @Nullable CachedChunkMesh chunk(long contentHash, int chunkX, int chunkZ) {
+        CachedChunkMesh cached = chunks.get(contentHash);
+        if (cached == null && PERSIST) {
+            cached = load(contentHash, chunkX, chunkZ);
+            if (cached != null) {
+                chunks.put(contentHash, cached);
+            }
+        }
+        (cached != null ? chunkHits : chunkMisses).incrementAndGet();
+        return cached;
+    }
+
+    /**
+     * Builds the shape and wire payload for freshly assembled chunk-local triangles and caches them.
+     */
+    CachedChunkMesh build(long contentHash, float[] vertices, int chunkX, int chunkZ) {
+        int[] indices = ChunkMesher.triangleListIndices(vertices);
+        ConstShape shape = ChunkMesher.createShape(vertices, indices, chunkX, chunkZ);
+        ChunkPhysicsManager.ChunkCollisionPayload payload = shape != null ? encode(contentHash, vertices, indices) : null;
+        CachedChunkMesh mesh = shape != null && payload != null
+                ? new CachedChunkMesh(contentHash, vertices, indices, shape, payload)
+                : new CachedChunkMesh(contentHash, null, null, null, null);
+        chunks.put(contentHash, mesh);
+        if (PERSIST && !mesh.isEmpty()) {
+            store(mesh.payload());
+        }
+        return mesh;
+    }
+
+    long chunkHits() {
+        return chunkHits.get();
+    }
+
+    long chunkMisses() {
+        return chunkMisses.get();
+    }
+
+    private static ChunkPhysicsManager.ChunkCollisionPayload encode(long contentHash, float[] vertices, int[] indices) {
+        try {
+            MeshCodec.EncodedMesh encoded = NetworkCompression.compressMesh(vertices, indices);
+            if (encoded == null) {
+                return null;
+            }
+            return new ChunkPhysicsManager.ChunkCollisionPayload(encoded.vertices(), encoded.indices(), contentHash);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Failed to encode chunk collision mesh: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static @Nullable Path directory() {
+        Path projectRoot = SceneManager.getInstance().getProjectRoot();
+        return projectRoot != null ? projectRoot.resolve(".moud").resolve("cache").resolve("chunk-meshes") : null;
+    }
+
+    private static @Nullable Path file(long contentHash) {
+        Path directory = directory();
+        return directory != null ? directory.resolve(String.format("%016x.mesh", contentHash)) : null;
+    }
+
+    private @Nullable CachedChunkMesh load(long contentHash, int chunkX, int chunkZ) {
+        Path file = file(contentHash);
+        if (file == null) {
+            return null;
+        }
+        byte[] vertexBlob = null;
+        byte[] indexBlob = null;
+        try (InputStream raw = Files.newInputStream(file); DataInputStream in = new DataInputStream(raw)) {
+            if (in.readInt() == FILE_MAGIC && in.readInt() == ChunkMesher.VERSION) {
+                vertexBlob = readBlob(in);
+                indexBlob = readBlob(in);
+            }
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            LOGGER.warn("Failed to read cached chunk mesh {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+        if (vertexBlob == null) {
+            // Written by an older format or mesher; delete it so the next store replaces it.
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                LOGGER.warn("Failed to discard stale chunk mesh {}: {}", file.getFileName(), e.getMessage());
+            }
+            return null;
+        }
+
+        MeshCodec.DecodedMesh decoded;
+        try {
+            decoded = MeshCodec.decode(vertexBlob, indexBlob);
+        } catch (IllegalArgumentException e) {
+            LOGGER.warn("Discarding corrupt cached chunk mesh {}: {}", file.getFileName(), e.getMessage());
+            return null;
+        }
+        ConstShape shape = ChunkMesher.createShape(decoded.vertices(), decoded.indices(), chunkX, chunkZ);
+        if (shape == null) {
+            return null;
+        }
+        return new CachedChunkMesh(contentHash, decoded.vertices(), decoded.indices(), shape,
+                new ChunkPhysicsManager.ChunkCollisionPayload(vertexBlob, indexBlob, contentHash));
+    }
+
+    private static void store(ChunkPhysicsManager.ChunkCollisionPayload payload) {
+        Path file = file(payload.meshHash());
+        if (file == null || Files.exists(file)) {
+            return;
+        }
+        try {
+            Files.createDirectories(file.getParent());
+            Path temp = Files.createTempFile(file.getParent(), "mesh", ".tmp");
+            try (OutputStream raw = Files.newOutputStream(temp); DataOutputStream out = new DataOutputStream(raw)) {
+                out.writeInt(FILE_MAGIC);
+                out.writeInt(ChunkMesher.VERSION);
+                out.writeInt(payload.compressedVertices().length);
+                out.write(payload.compressedVertices());
+                out.writeInt(payload.compressedIndices().length);
+                out.write(payload.compressedIndices());
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to persist chunk mesh {}: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    private static byte[] readBlob(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0 || length > MAX_FILE_BLOB) {
+            throw new IOException("Invalid blob length " + length);
+        }
+        return in.readNBytes(length);
+    }
+
+    /**
+     * Access-ordered map evicting least recently used entries once their summed weight exceeds the cap.
+     */
+    private static final class Lru<V> {
+        private final LinkedHashMap<Long, V> entries = new LinkedHashMap<>(256, 0.75f, true);
+        private final long maxBytes;
+        private final ToLongFunction<V> weigher;
+        private long bytes;
+
+        private Lru(long maxBytes, ToLongFunction<V> weigher) {
+            this.maxBytes = maxBytes;
+            this.weigher = weigher;
+        }
+
+        synchronized V get(long key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(long key, V value) {
+            V previous = entries.put(key, value);
+            if (previous != null) {
+                bytes -= weigher.applyAsLong(previous);
+            }
+            bytes += weigher.applyAsLong(value);
+            Iterator<Map.Entry<Long, V>> it = entries.entrySet().iterator();
+            while (bytes > maxBytes && it.hasNext()) {
+                Map.Entry<Long, V> eldest = it.next();
+                if (eldest.getKey() == key) {
+                    continue;
+                }
+                bytes -= weigher.applyAsLong(eldest.getValue());
+                it.remove();
+            }
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.moud.server.physics.chunk;
+
+import com.moud.server.logging.LogContext;
+import com.moud.server.logging.MoudLogger;
+import com.moud.server.physics.mesh.ChunkMesher;
+import net.minestom.server.instance.Chunk;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.BitSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.UnaryOperator;
+
+/**
+ * Builds chunk collision meshes off the tick thread.
+ * <p>
+ * {@link #submit} copies the chunk's sections on the calling thread (a palette clone, so later block
+ * changes cannot race with the mesher) and meshes the copy on a fixed pool of
+ * {@code moud.physics.meshingThreads} workers. Every submit bumps the chunk's generation; a job whose
+ * generation is no longer current when it starts or finishes is dropped and its future follows the
+ * newer job instead, so a burst of block edits costs one remesh rather than one per edit. A dropped job
+ * stays registered until that newer job is submitted, or the chunk is cancelled, so its future always
+ * completes.
+ * <p>
+ * The last section meshes of every chunk are kept. Block edits mark their sections dirty with
+ * {@link #markDirty}, and the next job only remeshes those before reassembling the chunk body. Section and
+ * chunk meshes are looked up by content hash in a {@link ChunkMeshCache} first, so repeated terrain is
+ * hashed but not meshed.
+ */
+final class ChunkMeshingPipeline<T> {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(
+            ChunkMeshingPipeline.class,
+            LogContext.builder().put("subsystem", "physics-mesh").build()
+    );
+    private static final int THREADS = Math.max(1, Integer.getInteger("moud.physics.meshingThreads",
+            Math.max(1, Runtime.getRuntime().availableProcessors() / 2)));
+
+    @FunctionalInterface
+    interface Finisher<T> {
+        /**
+         * Runs on the meshing worker once a current mesh is ready. {@code chunk} is the snapshot.
+         */
+        T finish(ChunkKey key, long generation, Chunk chunk, ChunkMeshCache.CachedChunkMesh mesh);
+    }
+
+    /**
+     * Turns a snapshot into a chunk mesh, remeshing only what {@code plan} says changed.
+     */
+    @FunctionalInterface
+    interface Mesher {
+        Meshed mesh(ChunkMeshCache cache, Chunk snapshot, boolean fullBlocksOnly, Plan plan);
+    }
+
+    /**
+     * The chunk's state when a job starts: its previous section meshes, if any, and which of them are dirty.
+     */
+    record Plan(boolean allDirty, BitSet dirty, @Nullable ChunkMesher.SectionMesh[] previous) {
+    }
+
+    /**
+     * @param remeshed sections the job rebuilt, or {@code null} if it rebuilt all of them
+     */
+    record Meshed(ChunkMesher.SectionMesh[] sections, @Nullable BitSet remeshed, ChunkMeshCache.CachedChunkMesh mesh) {
+    }
+
+    private final ConcurrentHashMap<ChunkKey, Job<T>> jobs = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<ChunkKey, ChunkState> states = new ConcurrentHashMap<>();
+    private final AtomicLong generations = new AtomicLong();
+    private final ChunkMeshCache cache = new ChunkMeshCache();
+    private final Finisher<T> finisher;
+    private final ExecutorService workers;
+    private final UnaryOperator<Chunk> snapshots;
+    private final Mesher mesher;
+
+    ChunkMeshingPipeline(Finisher<T> finisher) {
+        this(finisher, newWorkers(), chunk -> chunk.copy(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ()),
+                ChunkMeshingPipeline::meshSnapshot);
+    }
+
+    ChunkMeshingPipeline(Finisher<T> finisher, ExecutorService workers, UnaryOperator<Chunk> snapshots,
+                         Mesher mesher) {
+        this.finisher = finisher;
+        this.workers = workers;
+        this.snapshots = snapshots;
+        this.mesher = mesher;
+    }
+
+    private static ExecutorService newWorkers() {
+        AtomicInteger threadIds = new AtomicInteger();
+        return new ThreadPoolExecutor(THREADS, THREADS, 30L, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread t = new Thread(r, "Moud-ChunkMesher-" + threadIds.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * Meshes a snapshot of {@code chunk} and hands the result to the finisher on the worker.
+     *
+     * @return completes with the finisher's result for the newest job of this chunk, or {@code null} if
+     * the chunk is cancelled first
+     */
+    CompletableFuture<T> submit(ChunkKey key, Chunk chunk, boolean fullBlocksOnly, boolean wholeChunk) {
+        Chunk snapshot = snapshots.apply(chunk);
+        Job<T> job = new Job<>(generations.incrementAndGet());
+        ChunkState state = states.computeIfAbsent(key, ignored -> new ChunkState());
+        synchronized (state) {
+            if (wholeChunk || state.fullBlocksOnly != fullBlocksOnly) {
+                state.allDirty = true;
+            }
+            state.generation = job.generation;
+        }
+        Job<T> previous = jobs.put(key, job);
+        if (previous != null) {
+            previous.supersededBy(job);
+        }
+        workers.execute(() -> run(key, job, snapshot, fullBlocksOnly));
+        return job.future;
+    }
+
+    /**
+     * Marks a section for the next {@link #submit}. Jobs already running were snapshotted before the
+     * edit, so they are invalidated as well; the caller must submit again, and the invalidated job's future
+     * then completes with the new one.
+     *
+     * @param sectionIndex section index from the bottom of the world, or {@code -1} for the whole chunk
+     */
+    void markDirty(ChunkKey key, int sectionIndex) {
+        ChunkState state = states.get(key);
+        if (state == null) {
+            return;
+        }
+        synchronized (state) {
+            if (sectionIndex < 0) {
+                state.allDirty = true;
+            } else {
+                state.dirty.set(sectionIndex);
+            }
+            state.generation = generations.incrementAndGet();
+        }
+    }
+
+    /**
+     * Whether {@code generation} is still the newest job for {@code key}. Appliers re-check this right
+     * before touching shared state, since a newer job may have been submitted while they were queued.
+     */
+    boolean isCurrent(ChunkKey key, long generation) {
+        ChunkState state = states.get(key);
+        return state != null && state.generation == generation;
+    }
+
+    /**
+     * Drops queued and in-flight work and the cached section meshes for a chunk, e.g. on unload.
+     */
+    void cancel(ChunkKey key) {
+        states.remove(key);
+        Job<T> job = jobs.remove(key);
+        if (job != null) {
+            job.future.complete(null);
+        }
+    }
+
+    ChunkMeshCache cache() {
+        return cache;
+    }
+
+    int pendingJobs() {
+        return jobs.size();
+    }
+
+    void shutdown() {
+        workers.shutdownNow();
+        jobs.values().forEach(job -> job.future.complete(null));
+        jobs.clear();
+    }
+
+    private void run(ChunkKey key, Job<T> job, Chunk snapshot, boolean fullBlocksOnly) {
+        ChunkState state = states.get(key);
+        if (state == null || !isCurrent(key, job.generation)) {
+            return;
+        }
+        try {
+            Plan plan;
+            synchronized (state) {
+                plan = new Plan(state.allDirty, (BitSet) state.dirty.clone(), state.sections);
+            }
+            Meshed meshed = mesher.mesh(cache, snapshot, fullBlocksOnly, plan);
+
+            synchronized (state) {
+                if (states.get(key) != state || state.generation != job.generation) {
+                    return;
+                }
+                state.sections = meshed.sections();
+                state.fullBlocksOnly = fullBlocksOnly;
+                if (meshed.remeshed() == null) {
+                    state.allDirty = false;
+                    state.dirty.clear();
+                } else {
+                    state.dirty.andNot(meshed.remeshed());
+                }
+            }
+            job.future.complete(finisher.finish(key, job.generation, snapshot, meshed.mesh()));
+        } catch (Throwable t) {
+            LOGGER.error("Chunk meshing exception for ({}, {})", key.chunkX(), key.chunkZ(), t);
+            job.future.completeExceptionally(t);
+        } finally {
+            // A stale job stays registered so the next submit chains its future.
+            if (job.future.isDone()) {
+                jobs.remove(key, job);
+            }
+        }
+    }
+
+    private static Meshed meshSnapshot(ChunkMeshCache cache, Chunk snapshot, boolean fullBlocksOnly, Plan plan) {
+        int sectionCount = snapshot.getSections().size();
+        boolean whole = plan.allDirty() || plan.previous() == null || plan.previous().length != sectionCount;
+        BitSet dirty = whole ? null : plan.dirty();
+        ChunkMesher.SectionMesh[] sections = whole
+                ? new ChunkMesher.SectionMesh[sectionCount] : plan.previous().clone();
+
+        // Hash the changed sections first; meshing is skipped for content seen before.
+        int minY = ChunkMesher.minY(snapshot);
+        ChunkMesher.SectionBlocks[] read = new ChunkMesher.SectionBlocks[sectionCount];
+        for (int i = 0; i < sectionCount; i++) {
+            if (whole || dirty.get(i)) {
+                read[i] = ChunkMesher.readSection(snapshot, i, minY, fullBlocksOnly);
+                ChunkMesher.SectionMesh cached = cache.section(read[i].contentHash());
+                sections[i] = cached != null ? cached : new ChunkMesher.SectionMesh(read[i].contentHash(), null);
+            }
+        }
+        long chunkHash = ChunkMesher.chunkHash(minY, sections);
+        ChunkMeshCache.CachedChunkMesh mesh = cache.chunk(chunkHash, snapshot.getChunkX(), snapshot.getChunkZ());
+        if (mesh == null) {
+            for (int i = 0; i < sectionCount; i++) {
+                if (!sections[i].isMeshed()) {
+                    // Unmeshed clean sections came from a chunk-level hit and are unchanged in this snapshot.
+                    ChunkMesher.SectionBlocks blocks = read[i] != null
+                            ? read[i] : ChunkMesher.readSection(snapshot, i, minY, fullBlocksOnly);
+                    sections[i] = cache.meshSection(blocks);
+                }
+            }
+            mesh = cache.build(chunkHash, ChunkMesher.concat(minY, sections),
+                    snapshot.getChunkX(), snapshot.getChunkZ());
+        }
+        return new Meshed(sections, dirty, mesh);
+    }
+
+    private static final class ChunkState {
+        private ChunkMesher.SectionMesh[] sections;
+        private boolean fullBlocksOnly;
+        private boolean allDirty = true;
+        private final BitSet dirty = new BitSet();
+        private volatile long generation;
+    }
+
+    private static final class Job<T> {
+        private final long generation;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+
+        private Job(long generation) {
+            this.generation = generation;
+        }
+
+        private void supersededBy(Job<T> newer) {
+            newer.future.whenComplete((result, error) -> {
+                if (error != null) {
+                    future.completeExceptionally(error);
+                } else {
+                    future.complete(result);
+                }
+            });
+        }
+    }
+}
@@ -7,7 +7,7 @@ import com.github.stephengold.joltjni.CollisionGroup;
 import com.github.stephengold.joltjni.enumerate.EActivation;
 import com.moud.api.math.Vector3;
 import com.moud.network.MoudPackets;
-import com.moud.server.network.NetworkCompression;
+import com.moud.server.network.OutboundLane;
 import com.moud.server.network.ServerNetworkManager;
 import com.moud.server.instance.InstanceManager;
 import com.moud.server.logging.LogContext;
@@ -24,14 +24,17 @@ import net.minestom.server.event.instance.InstanceChunkLoadEvent;
 import net.minestom.server.event.instance.InstanceChunkUnloadEvent;
 import net.minestom.server.event.player.PlayerBlockBreakEvent;
 import net.minestom.server.event.player.PlayerBlockPlaceEvent;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
 import net.minestom.server.instance.Chunk;
 import net.minestom.server.instance.Instance;
 
-import java.io.IOException;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 
 public final class ChunkPhysicsManager {
@@ -44,8 +47,13 @@ public final class ChunkPhysicsManager {
     private final ConcurrentHashMap<ChunkKey, Integer> chunkBodies = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<ChunkKey, Long> pendingRefreshNs = new ConcurrentHashMap<>();
     private final ConcurrentHashMap<ChunkKey, ChunkCollisionPayload> collisionPayloads = new ConcurrentHashMap<>();
+    private final ChunkMeshingPipeline<ChunkCollisionPayload> meshing = new ChunkMeshingPipeline<>(this::publishMesh);
+    private final ConcurrentHashMap<UUID, SentMeshes> sentMeshes = new ConcurrentHashMap<>();
     private static final int MAX_CHUNK_COLLISION_BYTES =
             Integer.getInteger("moud.physics.chunkCollisionMaxBytes", 3 * 1024 * 1024);
+    // Must stay below the client's mesh cache size so hash-only updates rarely miss.
+    private static final int SENT_MESHES_PER_PLAYER =
+            Integer.getInteger("moud.physics.meshCache.sentPerPlayer", 512);
 
     public ChunkPhysicsManager(PhysicsService service) {
         this.service = Objects.requireNonNull(service, "service");
@@ -55,6 +63,10 @@ public final class ChunkPhysicsManager {
         return chunkBodies.size();
     }
 
+    public int getPendingMeshJobCount() {
+        return meshing.pendingJobs();
+    }
+
     public void registerEventHandlers() {
         var handler = MinecraftServer.getGlobalEventHandler();
         handler.addListener(InstanceChunkLoadEvent.class, event -> {
@@ -69,25 +81,63 @@ public final class ChunkPhysicsManager {
                 removeChunk(chunk);
             }
         });
+        handler.addListener(PlayerDisconnectEvent.class, event -> sentMeshes.remove(event.getPlayer().getUuid()));
         handler.addListener(PlayerBlockPlaceEvent.class, event -> {
             Chunk chunk = event.getInstance().getChunkAt(event.getBlockPosition());
             if (shouldHandleChunk(chunk)) {
-                scheduleRefresh(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ());
+                requestBlockRefresh(chunk.getInstance(), event.getBlockPosition().blockX(),
+                        event.getBlockPosition().blockY(), event.getBlockPosition().blockZ());
             }
         });
         handler.addListener(PlayerBlockBreakEvent.class, event -> {
             Chunk chunk = event.getInstance().getChunkAt(event.getBlockPosition());
             if (shouldHandleChunk(chunk)) {
-                scheduleRefresh(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ());
+                requestBlockRefresh(chunk.getInstance(), event.getBlockPosition().blockX(),
+                        event.getBlockPosition().blockY(), event.getBlockPosition().blockZ());
             }
         });
     }
 
     public void requestChunkRefresh(Instance instance, int chunkX, int chunkZ) {
+        if (instance == null) {
+            return;
+        }
+        meshing.markDirty(ChunkKey.from(instance, chunkX, chunkZ), -1);
         scheduleRefresh(instance, chunkX, chunkZ);
     }
 
-    public void handleChunkCollisionRequest(Player player, int chunkX, int chunkZ) {
+    /**
+     * Schedules a remesh of the section holding the block, plus the neighbouring section when the block
+     * sits on a section boundary (its faces against that section may have changed).
+     */
+    public void requestBlockRefresh(Instance instance, int blockX, int blockY, int blockZ) {
+        if (instance == null) {
+            return;
+        }
+        int chunkX = Math.floorDiv(blockX, Chunk.CHUNK_SIZE_X);
+        int chunkZ = Math.floorDiv(blockZ, Chunk.CHUNK_SIZE_Z);
+        ChunkKey key = ChunkKey.from(instance, chunkX, chunkZ);
+        int relativeY = blockY - MinecraftServer.getDimensionTypeRegistry().get(instance.getDimensionType()).minY();
+        int section = Math.floorDiv(relativeY, Chunk.CHUNK_SECTION_SIZE);
+        if (section >= 0) {
+            meshing.markDirty(key, section);
+            int offset = relativeY & (Chunk.CHUNK_SECTION_SIZE - 1);
+            if (offset == 0 && section > 0) {
+                meshing.markDirty(key, section - 1);
+            } else if (offset == Chunk.CHUNK_SECTION_SIZE - 1) {
+                meshing.markDirty(key, section + 1);
+            }
+        }
+        scheduleRefresh(instance, chunkX, chunkZ);
+    }
+
+    /**
+     * Answers a client's request for a chunk's collision mesh.
+     *
+     * @param knownMeshHash mesh hash the client still has cached for this chunk, or {@code 0}; if it is
+     *                      current only the hash is sent back, otherwise the full mesh
+     */
+    public void handleChunkCollisionRequest(Player player, int chunkX, int chunkZ, long knownMeshHash) {
         if (player == null) {
             return;
         }
@@ -99,19 +149,14 @@ public final class ChunkPhysicsManager {
         ChunkKey key = ChunkKey.from(instance, chunkX, chunkZ);
         ChunkCollisionPayload cached = collisionPayloads.get(key);
         if (cached != null) {
-            sendChunkCollision(player, chunkX, chunkZ, cached);
+            sendChunkCollision(player, chunkX, chunkZ, cached,
+                    knownMeshHash != 0L && cached.meshHash() == knownMeshHash);
             return;
         }
 
         Chunk chunk = instance.getChunk(chunkX, chunkZ);
         if (chunk != null) {
-            refreshChunk(chunk);
-            ChunkCollisionPayload payload = collisionPayloads.get(key);
-            if (payload != null) {
-                sendChunkCollision(player, chunkX, chunkZ, payload);
-            } else {
-                sendChunkCollisionRemove(player, chunkX, chunkZ);
-            }
+            refreshChunk(chunk).thenAccept(payload -> replyChunkCollision(player, chunkX, chunkZ, payload));
             return;
         }
 
@@ -123,17 +168,22 @@ public final class ChunkPhysicsManager {
                 if (!player.isOnline()) {
                     return;
                 }
-                refreshChunk(loaded);
-                ChunkCollisionPayload payload = collisionPayloads.get(key);
-                if (payload != null) {
-                    sendChunkCollision(player, chunkX, chunkZ, payload);
-                } else {
-                    sendChunkCollisionRemove(player, chunkX, chunkZ);
-                }
+                refreshChunk(loaded).thenAccept(payload -> replyChunkCollision(player, chunkX, chunkZ, payload));
             });
         });
     }
 
+    private void replyChunkCollision(Player player, int chunkX, int chunkZ, ChunkCollisionPayload payload) {
+        if (!player.isOnline()) {
+            return;
+        }
+        if (payload != null) {
+            sendChunkCollision(player, chunkX, chunkZ, payload, false);
+        } else {
+            sendChunkCollisionRemove(player, chunkX, chunkZ);
+        }
+    }
+
     private void scheduleRefresh(Instance instance, int chunkX, int chunkZ) {
         if (instance == null) {
             return;
@@ -155,11 +205,14 @@ public final class ChunkPhysicsManager {
             instance.loadChunk(chunkX, chunkZ).thenAccept(loaded -> {
                 if (loaded != null) {
                     refreshChunk(loaded);
+                } else {
+                    // No submit follows, so release whatever job the dirty mark invalidated.
+                    meshing.cancel(key);
                 }
             });
             return;
         }
-        refreshChunk(chunk);
+        remesh(chunk, false);
     }
 
     public void primeInitialChunks() {
@@ -252,37 +305,51 @@ public final class ChunkPhysicsManager {
         }
     }
 
-    public void refreshChunk(Chunk chunk) {
-        if (!shouldHandleChunk(chunk)) {
-            return;
-        }
+    /**
+     * Remeshes a chunk on the meshing pool. Must be called from a thread that may read the chunk (the
+     * tick thread or the instance's chunk loader), since the blocks are snapshotted before returning.
+     *
+     * @return completes with the chunk's collision payload once the newest remesh has been published,
+     * or with {@code null} if the chunk has no collision geometry
+     */
+    public CompletableFuture<ChunkCollisionPayload> refreshChunk(Chunk chunk) {
+        return remesh(chunk, true);
+    }
 
-        ChunkMesher.ChunkCollisionMesh mesh;
-        try {
-            boolean fullBlocksOnly = !service.isDefaultInstance(chunk.getInstance());
-            mesh = ChunkMesher.createChunkMesh(chunk, fullBlocksOnly);
-        } catch (Exception ex) {
-            LOGGER.error("Chunk meshing exception", ex);
-            return;
+    private CompletableFuture<ChunkCollisionPayload> remesh(Chunk chunk, boolean wholeChunk) {
+        if (!shouldHandleChunk(chunk)) {
+            return CompletableFuture.completedFuture(null);
         }
+        boolean fullBlocksOnly = !service.isDefaultInstance(chunk.getInstance());
+        return meshing.submit(ChunkKey.from(chunk), chunk, fullBlocksOnly, wholeChunk);
+    }
 
-        ChunkKey key = ChunkKey.from(chunk);
-        BodyCreationSettings settings = mesh.bodySettings();
-
-        ChunkCollisionPayload payload = null;
-        if (settings != null) {
-            payload = compressPayload(mesh.vertices(), mesh.indices());
+    private ChunkCollisionPayload publishMesh(ChunkKey key, long generation, Chunk chunk,
+                                              ChunkMeshCache.CachedChunkMesh mesh) {
+        ChunkCollisionPayload payload = mesh.payload();
+        BodyCreationSettings settings = mesh.isEmpty()
+                ? null : ChunkMesher.bodySettings(mesh.shape(), chunk.getChunkX(), chunk.getChunkZ());
+        // Checked and stored in one step, so a job superseded meanwhile can neither publish nor overwrite.
+        boolean[] current = {false};
+        boolean[] changed = {false};
+        collisionPayloads.compute(key, (ignored, previous) -> {
+            if (!meshing.isCurrent(key, generation)) {
+                return previous;
+            }
+            current[0] = true;
+            // Clients already hold unchanged content, e.g. a refresh after edits that cancelled out.
+            changed[0] = settings == null || previous == null || previous.meshHash() != payload.meshHash();
+            return settings != null ? payload : null;
+        });
+        if (!current[0]) {
+            return payload;
         }
-
-        if (settings == null || payload == null) {
-            collisionPayloads.remove(key);
-            broadcastChunkCollision(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ(), null);
-        } else {
-            collisionPayloads.put(key, payload);
-            broadcastChunkCollision(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ(), payload);
+        if (changed[0]) {
+            broadcastChunkCollision(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ(),
+                    settings != null ? payload : null);
         }
         JoltPredictionCollisionWorld predictionWorld = JoltPredictionCollisionWorld.getInstance();
-        if (settings == null || payload == null || isPayloadTooLarge(payload)) {
+        if (settings == null || isPayloadTooLarge(payload)) {
             predictionWorld.removeChunkMesh(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ());
         } else {
             predictionWorld.upsertChunkMesh(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ(), mesh.vertices(), mesh.indices());
@@ -291,6 +358,10 @@ public final class ChunkPhysicsManager {
         CollisionGroup group = service.collisionGroupForInstance(chunk.getInstance());
 
         service.executeOnPhysicsThread(() -> {
+            if (!meshing.isCurrent(key, generation)) {
+                // Superseded or unloaded while queued for the physics thread.
+                return;
+            }
             Integer oldBodyId = chunkBodies.remove(key);
             BodyInterface bi = service.getBodyInterface();
 
@@ -300,7 +371,7 @@ public final class ChunkPhysicsManager {
             }
 
             if (settings == null) {
-                LOGGER.warn(
+                LOGGER.debug(
                         "ChunkMesher returned null settings for chunk ({}, {}) - Empty or Air?",
                         chunk.getChunkX(),
                         chunk.getChunkZ()
@@ -313,6 +384,15 @@ public final class ChunkPhysicsManager {
             bi.addBody(newBody, EActivation.DontActivate);
             chunkBodies.put(key, newBody.getId());
         });
+        return settings != null ? payload : null;
+    }
+
+    public long getMeshCacheHits() {
+        return meshing.cache().chunkHits();
+    }
+
+    public long getMeshCacheMisses() {
+        return meshing.cache().chunkMisses();
     }
 
     public void removeChunk(Chunk chunk) {
@@ -321,42 +401,37 @@ public final class ChunkPhysicsManager {
         }
 
         ChunkKey key = ChunkKey.from(chunk);
-        Integer bodyId = chunkBodies.remove(key);
+        meshing.cancel(key);
         collisionPayloads.remove(key);
         broadcastChunkCollision(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ(), null);
         JoltPredictionCollisionWorld.getInstance().removeChunkMesh(chunk.getInstance(), chunk.getChunkX(), chunk.getChunkZ());
-        if (bodyId == null) {
-            return;
-        }
 
+        // Removed on the physics thread so a body added by an already queued remesh is removed as well.
         service.executeOnPhysicsThread(() -> {
+            Integer bodyId = chunkBodies.remove(key);
+            if (bodyId == null) {
+                return;
+            }
             BodyInterface bi = service.getBodyInterface();
             bi.removeBody(bodyId);
             bi.destroyBody(bodyId);
         });
     }
 
-    private boolean shouldHandleChunk(Chunk chunk) {
-        return chunk != null && service.shouldHandleInstance(chunk.getInstance());
+    public void shutdown() {
+        meshing.shutdown();
     }
 
-    private static ChunkCollisionPayload compressPayload(float[] vertices, int[] indices) {
-        if (vertices == null || vertices.length < 9 || indices == null || indices.length < 3) {
-            return null;
-        }
-        try {
-            byte[] compressedVertices = NetworkCompression.gzipFloatArray(vertices);
-            byte[] compressedIndices = NetworkCompression.gzipIntArray(indices);
-            if (compressedVertices == null || compressedIndices == null) {
-                return null;
-            }
-            return new ChunkCollisionPayload(compressedVertices, compressedIndices);
-        } catch (IOException ignored) {
-            return null;
-        }
+    private boolean shouldHandleChunk(Chunk chunk) {
+        return chunk != null && service.shouldHandleInstance(chunk.getInstance());
     }
 
-    private void sendChunkCollision(Player player, int chunkX, int chunkZ, ChunkCollisionPayload payload) {
+    /**
+     * Replies to a request. Requests only come for chunks the client has loaded, so a full mesh sent here is
+     * one the client caches and later broadcasts may refer to by hash.
+     */
+    private void sendChunkCollision(Player player, int chunkX, int chunkZ, ChunkCollisionPayload payload,
+                                    boolean clientHasMesh) {
         if (player == null || payload == null) {
             return;
         }
@@ -364,14 +439,33 @@ public final class ChunkPhysicsManager {
         if (network == null) {
             return;
         }
-        boolean tooLarge = isPayloadTooLarge(payload);
-        network.send(player, new MoudPackets.ChunkCollisionPacket(
-                chunkX,
-                chunkZ,
-                tooLarge,
-                tooLarge ? null : payload.compressedVertices(),
-                tooLarge ? null : payload.compressedIndices()
-        ));
+        if (clientHasMesh || isPayloadTooLarge(payload)) {
+            network.send(player, chunkCollisionPacket(chunkX, chunkZ, payload, clientHasMesh), OutboundLane.BULK_MESH);
+            return;
+        }
+        // The client asked for the bytes, so whatever we recorded for this hash did not survive on its side.
+        SentMeshes sent = sentMeshes.computeIfAbsent(player.getUuid(), ignored -> new SentMeshes());
+        sent.forget(payload.meshHash());
+        if (network.send(player, chunkCollisionPacket(chunkX, chunkZ, payload, false), OutboundLane.BULK_MESH)) {
+            sent.markSent(payload.meshHash());
+        }
+    }
+
+    /**
+     * Builds the packet for one player: only the mesh hash when the player is known to have the mesh cached,
+     * the encoded mesh otherwise.
+     */
+    private static MoudPackets.ChunkCollisionPacket chunkCollisionPacket(int chunkX, int chunkZ,
+                                                                         ChunkCollisionPayload payload,
+                                                                         boolean clientHasMesh) {
+        if (isPayloadTooLarge(payload)) {
+            return new MoudPackets.ChunkCollisionPacket(chunkX, chunkZ, true, null, null, 0L);
+        }
+        if (!clientHasMesh) {
+            return new MoudPackets.ChunkCollisionPacket(chunkX, chunkZ, false,
+                    payload.compressedVertices(), payload.compressedIndices(), payload.meshHash());
+        }
+        return new MoudPackets.ChunkCollisionPacket(chunkX, chunkZ, false, null, null, payload.meshHash());
     }
 
     private void sendChunkCollisionRemove(Player player, int chunkX, int chunkZ) {
@@ -382,7 +476,8 @@ public final class ChunkPhysicsManager {
         if (network == null) {
             return;
         }
-        network.send(player, new MoudPackets.ChunkCollisionPacket(chunkX, chunkZ, true, null, null));
+        network.send(player, new MoudPackets.ChunkCollisionPacket(chunkX, chunkZ, true, null, null, 0L),
+                OutboundLane.BULK_MESH);
     }
 
     private void broadcastChunkCollision(Instance instance, int chunkX, int chunkZ, ChunkCollisionPayload payload) {
@@ -391,14 +486,9 @@ public final class ChunkPhysicsManager {
             return;
         }
 
-        boolean remove = payload == null || isPayloadTooLarge(payload);
-        MoudPackets.ChunkCollisionPacket packet = new MoudPackets.ChunkCollisionPacket(
-                chunkX,
-                chunkZ,
-                remove,
-                !remove ? payload.compressedVertices() : null,
-                !remove ? payload.compressedIndices() : null
-        );
+        MoudPackets.ChunkCollisionPacket removal = payload == null
+                ? new MoudPackets.ChunkCollisionPacket(chunkX, chunkZ, true, null, null, 0L)
+                : null;
 
         int radius = Integer.getInteger("moud.physics.chunkCollisionSyncRadius", 16);
         for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
@@ -411,7 +501,15 @@ public final class ChunkPhysicsManager {
             if (Math.abs(px - chunkX) > radius || Math.abs(pz - chunkZ) > radius) {
                 continue;
             }
-            network.send(player, packet);
+            // Nothing is recorded here: the player may not have this chunk loaded, in which case the client
+            // drops the packet without caching the mesh.
+            MoudPackets.ChunkCollisionPacket packet = removal;
+            if (packet == null) {
+                SentMeshes sent = sentMeshes.get(player.getUuid());
+                boolean cached = sent != null && sent.contains(payload.meshHash());
+                packet = chunkCollisionPacket(chunkX, chunkZ, payload, cached);
+            }
+            network.send(player, packet, OutboundLane.BULK_MESH);
         }
     }
 
@@ -436,12 +534,13 @@ public final class ChunkPhysicsManager {
         LOGGER.info("Pre-generating physics meshes for {} chunks (radius {})...", totalChunks, radius);
         long startTime = System.currentTimeMillis();
 
+        List<CompletableFuture<ChunkCollisionPayload>> meshed = new ArrayList<>(totalChunks);
         for (int x = -radius; x <= radius; x++) {
             for (int z = -radius; z <= radius; z++) {
                 try {
                     Chunk chunk = instance.loadChunk(x, z).join();
                     if (chunk != null) {
-                        refreshChunk(chunk);
+                        meshed.add(refreshChunk(chunk));
                         loadedCount++;
                     }
                 } catch (Exception e) {
@@ -449,6 +548,11 @@ public final class ChunkPhysicsManager {
                 }
             }
         }
+        try {
+            CompletableFuture.allOf(meshed.toArray(CompletableFuture[]::new)).join();
+        } catch (Exception e) {
+            LOGGER.error("Failed to pre-generate some physics meshes", e);
+        }
 
         long elapsed = System.currentTimeMillis() - startTime;
         LOGGER.info("Pre-generated physics meshes for {}/{} chunks in {}ms", loadedCount, totalChunks, elapsed);
@@ -499,6 +603,33 @@ public final class ChunkPhysicsManager {
     private record EntityAndInstance(Entity entity, Instance instance) {
     }
 
-    private record ChunkCollisionPayload(byte[] compressedVertices, byte[] compressedIndices) {
+    /**
+     * Encoded chunk mesh. {@code meshHash} is the content hash the client caches it under.
+     */
+    public record ChunkCollisionPayload(byte[] compressedVertices, byte[] compressedIndices, long meshHash) {
+    }
+
+    /**
+     * Mesh hashes recently sent to one player, bounded and least recently used first.
+     */
+    private static final class SentMeshes {
+        private final LinkedHashMap<Long, Boolean> hashes = new LinkedHashMap<>(64, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+                return size() > SENT_MESHES_PER_PLAYER;
+            }
+        };
+
+        synchronized void markSent(long meshHash) {
+            hashes.put(meshHash, Boolean.TRUE);
+        }
+
+        synchronized boolean contains(long meshHash) {
+            return hashes.get(meshHash) != null;
+        }
+
+        synchronized void forget(long meshHash) {
+            hashes.remove(meshHash);
+        }
     }
 }
@@ -2,6 +2,7 @@ package com.moud.server.physics.mesh;
 
 import com.github.stephengold.joltjni.BodyCreationSettings;
 import com.github.stephengold.joltjni.MeshShapeSettings;
+import com.github.stephengold.joltjni.RVec3;
 import com.github.stephengold.joltjni.ShapeResult;
 import com.github.stephengold.joltjni.Triangle;
 import com.github.stephengold.joltjni.Vec3;
@@ -20,15 +21,24 @@ import net.minestom.server.instance.block.BlockFace;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class ChunkMesher {
+    /**
+     * Version of the triangles this mesher emits for given blocks; persisted meshes of another version are
+     * discarded. Bump whenever meshing output changes.
+     */
+    public static final int VERSION = 2;
 
     private static final MoudLogger LOGGER = MoudLogger.getLogger(
             ChunkMesher.class,
             LogContext.builder().put("subsystem", "physics-mesh").build()
     );
     private static final BlockFace[] BLOCK_FACES = BlockFace.values();
+    static final int PADDED = Chunk.CHUNK_SECTION_SIZE + 2;
+    private static final int SECTION_VOLUME =
+            Chunk.CHUNK_SIZE_X * Chunk.CHUNK_SECTION_SIZE * Chunk.CHUNK_SIZE_Z;
 
     private ChunkMesher() {
     }
@@ -41,6 +51,10 @@ public class ChunkMesher {
         return createChunkMesh(chunk, fullBlocksOnly).bodySettings();
     }
 
+    /**
+     * A chunk's collision body and wire arrays. Vertices are chunk-local (x and z in {@code [0, 16]}, y in
+     * world space); the body is positioned at the chunk's origin so identical chunks share their arrays.
+     */
     public record ChunkCollisionMesh(
             @Nullable BodyCreationSettings bodySettings,
             @Nullable float[] vertices,
@@ -48,11 +62,69 @@ public class ChunkMesher {
     ) {
     }
 
+    /**
+     * Collision triangles of one 16x16x16 section as section-local xyz triples, three vertices per
+     * triangle. Sections are meshed independently so a block edit only rebuilds its own section before
+     * the chunk body is reassembled with {@link #concat}. {@code vertices} is {@code null} when only the
+     * content hash is known and the section has not been meshed yet.
+     */
+    public record SectionMesh(long contentHash, @Nullable float[] vertices) {
+        public static final SectionMesh EMPTY = new SectionMesh(SectionBlocks.EMPTY_HASH, new float[0]);
+
+        public boolean isMeshed() {
+            return vertices != null;
+        }
+
+        public int triangleCount() {
+            return vertices != null ? vertices.length / 9 : 0;
+        }
+    }
+
+    /**
+     * Block types of one section plus a one block border, read once, and a hash of their states. Sections
+     * with equal hashes mesh to the same section-local triangles, so the hash keys mesh caches.
+     */
+    public static final class SectionBlocks {
+        private static final long SEED = 0x4D4F55444D455348L;
+        static final long EMPTY_HASH = finishHash(mixHash(SEED, -1L));
+        static final SectionBlocks EMPTY = new SectionBlocks(EMPTY_HASH, null, null, false, false);
+
+        private final long contentHash;
+        private final boolean[] full;
+        private final Block[] blocks;
+        private final boolean anyPartial;
+        private final boolean fullBlocksOnly;
+
+        SectionBlocks(long contentHash, boolean[] full, Block[] blocks, boolean anyPartial, boolean fullBlocksOnly) {
+            this.contentHash = contentHash;
+            this.full = full;
+            this.blocks = blocks;
+            this.anyPartial = anyPartial;
+            this.fullBlocksOnly = fullBlocksOnly;
+        }
+
+        public long contentHash() {
+            return contentHash;
+        }
+    }
+
     public static ChunkCollisionMesh createChunkMesh(Chunk chunk, boolean fullBlocksOnly) {
-        int minY = MinecraftServer.getDimensionTypeRegistry().get(chunk.getInstance().getDimensionType()).minY();
-        int maxY = MinecraftServer.getDimensionTypeRegistry().get(chunk.getInstance().getDimensionType()).maxY();
+        int minY = minY(chunk);
+        SectionMesh[] sections = new SectionMesh[chunk.getSections().size()];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = meshSection(readSection(chunk, i, minY, fullBlocksOnly));
+        }
+        float[] vertices = concat(minY, sections);
+        int[] indices = triangleListIndices(vertices);
+        ConstShape shape = createShape(vertices, indices, chunk.getChunkX(), chunk.getChunkZ());
+        if (shape == null) {
+            return new ChunkCollisionMesh(null, null, null);
+        }
+        return new ChunkCollisionMesh(bodySettings(shape, chunk.getChunkX(), chunk.getChunkZ()), vertices, indices);
+    }
 
-        return generateChunkCollisionMesh(chunk, minY, maxY, fullBlocksOnly);
+    public static int minY(Chunk chunk) {
+        return MinecraftServer.getDimensionTypeRegistry().get(chunk.getInstance().getDimensionType()).minY();
     }
 
     /**
@@ -64,233 +136,370 @@ public class ChunkMesher {
         return getChunkFaces(chunk, minY, maxY, fullBlocksOnly);
     }
 
-    private static ChunkCollisionMesh generateChunkCollisionMesh(Chunk chunk, int minY, int maxY, boolean fullBlocksOnly) {
-        List<Face> faces = getChunkFaces(chunk, minY, maxY, fullBlocksOnly);
-
-        if (faces.isEmpty()) {
-            LOGGER.debug(LogContext.builder()
-                    .put("chunkX", chunk.getChunkX())
-                    .put("chunkZ", chunk.getChunkZ())
-                    .build(), "Chunk ({}, {}) has no collision faces - skipping physics mesh", chunk.getChunkX(), chunk.getChunkZ());
-            return new ChunkCollisionMesh(null, null, null);
+    /**
+     * Reads one section with its border and hashes the block states. Cheap compared to meshing, so callers
+     * can look the hash up in a cache before calling {@link #meshSection}.
+     */
+    public static SectionBlocks readSection(Chunk chunk, int sectionIndex, int minY, boolean fullBlocksOnly) {
+        Section section = chunk.getSections().get(sectionIndex);
+        if (isEmpty(section)) {
+            return SectionBlocks.EMPTY;
         }
-
-        int faceCount = faces.size();
-        int triCount = faceCount * 2;
-        float[] vertices = new float[triCount * 9];
-        int[] indices = new int[triCount * 3];
-
-        List<Triangle> triangles = new ArrayList<>(triCount);
-        int vCursor = 0;
-        int iCursor = 0;
-        int vertexIndex = 0;
-
-        for (Face face : faces) {
-            if (face == null) {
-                continue;
+        int baseY = minY + sectionIndex * Chunk.CHUNK_SECTION_SIZE;
+
+        // Full-cube flags for the section plus a one block border, read once instead of six neighbour
+        // lookups per block.
+        boolean[] full = new boolean[PADDED * PADDED * PADDED];
+        Block[] blocks = new Block[SECTION_VOLUME];
+        boolean anyPartial = false;
+        long hash = mixHash(SectionBlocks.SEED, fullBlocksOnly ? 1 : 0);
+        for (int y = -1; y <= Chunk.CHUNK_SECTION_SIZE; y++) {
+            for (int x = -1; x <= Chunk.CHUNK_SIZE_X; x++) {
+                for (int z = -1; z <= Chunk.CHUNK_SIZE_Z; z++) {
+                    Block block = chunk.getBlock(x, baseY + y, z, Block.Getter.Condition.TYPE);
+                    boolean blockIsFull = isFullBlock(block);
+                    full[paddedIndex(x, y, z)] = blockIsFull;
+                    hash = mixHash(hash, block.stateId());
+                    if (isInside(x, y, z)) {
+                        blocks[sectionIndex(x, y, z)] = block;
+                        anyPartial |= !blockIsFull && !block.isAir() && !block.isLiquid();
+                    }
+                }
             }
+        }
+        return new SectionBlocks(finishHash(hash), full, blocks, anyPartial, fullBlocksOnly);
+    }
 
-            float p1x;
-            float p1y;
-            float p1z;
-            float p2x;
-            float p2y;
-            float p2z;
-            float p3x;
-            float p3y;
-            float p3z;
-            float p4x;
-            float p4y;
-            float p4z;
-
-            switch (face.blockFace()) {
-                case TOP -> {
-                    p1x = face.minX() + face.blockX();
-                    p1y = face.maxY() + face.blockY();
-                    p1z = face.minZ() + face.blockZ();
-                    p2x = face.maxX() + face.blockX();
-                    p2y = face.maxY() + face.blockY();
-                    p2z = face.minZ() + face.blockZ();
-                    p3x = face.maxX() + face.blockX();
-                    p3y = face.maxY() + face.blockY();
-                    p3z = face.maxZ() + face.blockZ();
-                    p4x = face.minX() + face.blockX();
-                    p4y = face.maxY() + face.blockY();
-                    p4z = face.maxZ() + face.blockZ();
-                }
-                case BOTTOM -> {
-                    p1x = face.maxX() + face.blockX();
-                    p1y = face.maxY() + face.blockY();
-                    p1z = face.maxZ() + face.blockZ();
-                    p2x = face.maxX() + face.blockX();
-                    p2y = face.maxY() + face.blockY();
-                    p2z = face.minZ() + face.blockZ();
-                    p3x = face.minX() + face.blockX();
-                    p3y = face.maxY() + face.blockY();
-                    p3z = face.minZ() + face.blockZ();
-                    p4x = face.minX() + face.blockX();
-                    p4y = face.maxY() + face.blockY();
-                    p4z = face.maxZ() + face.blockZ();
-                }
-                case WEST -> {
-                    p1x = face.maxX() + face.blockX();
-                    p1y = face.minY() + face.blockY();
-                    p1z = face.minZ() + face.blockZ();
-                    p2x = face.maxX() + face.blockX();
-                    p2y = face.maxY() + face.blockY();
-                    p2z = face.minZ() + face.blockZ();
-                    p3x = face.maxX() + face.blockX();
-                    p3y = face.maxY() + face.blockY();
-                    p3z = face.maxZ() + face.blockZ();
-                    p4x = face.maxX() + face.blockX();
-                    p4y = face.minY() + face.blockY();
-                    p4z = face.maxZ() + face.blockZ();
-                }
-                case EAST -> {
-                    p1x = face.maxX() + face.blockX();
-                    p1y = face.maxY() + face.blockY();
-                    p1z = face.maxZ() + face.blockZ();
-                    p2x = face.maxX() + face.blockX();
-                    p2y = face.maxY() + face.blockY();
-                    p2z = face.minZ() + face.blockZ();
-                    p3x = face.maxX() + face.blockX();
-                    p3y = face.minY() + face.blockY();
-                    p3z = face.minZ() + face.blockZ();
-                    p4x = face.maxX() + face.blockX();
-                    p4y = face.minY() + face.blockY();
-                    p4z = face.maxZ() + face.blockZ();
-                }
-                case SOUTH -> {
-                    p1x = face.maxX() + face.blockX();
-                    p1y = face.maxY() + face.blockY();
-                    p1z = face.minZ() + face.blockZ();
-                    p2x = face.maxX() + face.blockX();
-                    p2y = face.minY() + face.blockY();
-                    p2z = face.minZ() + face.blockZ();
-                    p3x = face.minX() + face.blockX();
-                    p3y = face.minY() + face.blockY();
-                    p3z = face.minZ() + face.blockZ();
-                    p4x = face.minX() + face.blockX();
-                    p4y = face.maxY() + face.blockY();
-                    p4z = face.minZ() + face.blockZ();
-                }
-                case NORTH -> {
-                    p1x = face.minX() + face.blockX();
-                    p1y = face.minY() + face.blockY();
-                    p1z = face.minZ() + face.blockZ();
-                    p2x = face.maxX() + face.blockX();
-                    p2y = face.minY() + face.blockY();
-                    p2z = face.minZ() + face.blockZ();
-                    p3x = face.maxX() + face.blockX();
-                    p3y = face.maxY() + face.blockY();
-                    p3z = face.minZ() + face.blockZ();
-                    p4x = face.minX() + face.blockX();
-                    p4y = face.maxY() + face.blockY();
-                    p4z = face.minZ() + face.blockZ();
-                }
-                default -> {
-                    continue;
+    /**
+     * Meshes one section in section-local coordinates. Exposed faces of full cubes are greedily merged
+     * into the largest rectangles of the same orientation per layer; other collision shapes keep one quad
+     * per exposed face.
+     */
+    public static SectionMesh meshSection(SectionBlocks section) {
+        if (section.full == null) {
+            return SectionMesh.EMPTY;
+        }
+        boolean[] full = section.full;
+        QuadWriter writer = new QuadWriter();
+        boolean[] mask = new boolean[Chunk.CHUNK_SECTION_SIZE * Chunk.CHUNK_SECTION_SIZE];
+        for (BlockFace blockFace : BLOCK_FACES) {
+            greedyFaces(blockFace, full, mask, writer);
+        }
+
+        if (section.anyPartial && !section.fullBlocksOnly) {
+            for (int y = 0; y < Chunk.CHUNK_SECTION_SIZE; y++) {
+                for (int x = 0; x < Chunk.CHUNK_SIZE_X; x++) {
+                    for (int z = 0; z < Chunk.CHUNK_SIZE_Z; z++) {
+                        Block block = section.blocks[sectionIndex(x, y, z)];
+                        if (block.isAir() || block.isLiquid() || full[paddedIndex(x, y, z)]) {
+                            continue;
+                        }
+                        partialFaces(block, full, x, y, z, writer);
+                    }
                 }
             }
+        }
+        float[] vertices = writer.size == 0 ? SectionMesh.EMPTY.vertices() : Arrays.copyOf(writer.vertices, writer.size);
+        return new SectionMesh(section.contentHash, vertices);
+    }
 
-            // Match Face.addTris ordering.
-            triangles.add(new Triangle(
-                    new Vec3(p3x, p3y, p3z),
-                    new Vec3(p2x, p2y, p2z),
-                    new Vec3(p1x, p1y, p1z)
-            ));
-            triangles.add(new Triangle(
-                    new Vec3(p1x, p1y, p1z),
-                    new Vec3(p4x, p4y, p4z),
-                    new Vec3(p3x, p3y, p3z)
-            ));
-
-            // Triangle 1: p3, p2, p1
-            vertices[vCursor++] = p3x;
-            vertices[vCursor++] = p3y;
-            vertices[vCursor++] = p3z;
-            vertices[vCursor++] = p2x;
-            vertices[vCursor++] = p2y;
-            vertices[vCursor++] = p2z;
-            vertices[vCursor++] = p1x;
-            vertices[vCursor++] = p1y;
-            vertices[vCursor++] = p1z;
-
-            indices[iCursor++] = vertexIndex++;
-            indices[iCursor++] = vertexIndex++;
-            indices[iCursor++] = vertexIndex++;
+    /**
+     * Identifies a whole chunk's collision geometry from its section hashes.
+     */
+    public static long chunkHash(int minY, SectionMesh[] sections) {
+        long hash = mixHash(SectionBlocks.SEED, minY);
+        for (SectionMesh section : sections) {
+            hash = mixHash(hash, section.contentHash());
+        }
+        return finishHash(hash);
+    }
 
-            // Triangle 2: p1, p4, p3
-            vertices[vCursor++] = p1x;
-            vertices[vCursor++] = p1y;
-            vertices[vCursor++] = p1z;
-            vertices[vCursor++] = p4x;
-            vertices[vCursor++] = p4y;
-            vertices[vCursor++] = p4z;
-            vertices[vCursor++] = p3x;
-            vertices[vCursor++] = p3y;
-            vertices[vCursor++] = p3z;
-
-            indices[iCursor++] = vertexIndex++;
-            indices[iCursor++] = vertexIndex++;
-            indices[iCursor++] = vertexIndex++;
+    /**
+     * Concatenates meshed sections into one chunk-local triangle list, moving each section to its height.
+     */
+    public static float[] concat(int minY, SectionMesh[] sections) {
+        int floatCount = 0;
+        for (SectionMesh section : sections) {
+            floatCount += section.vertices().length;
+        }
+        float[] vertices = new float[floatCount];
+        int cursor = 0;
+        for (int i = 0; i < sections.length; i++) {
+            float[] source = sections[i].vertices();
+            float offsetY = minY + i * Chunk.CHUNK_SECTION_SIZE;
+            for (int j = 0; j < source.length; j += 3) {
+                vertices[cursor++] = source[j];
+                vertices[cursor++] = source[j + 1] + offsetY;
+                vertices[cursor++] = source[j + 2];
+            }
         }
+        return vertices;
+    }
 
-        if (vertexIndex < 3) {
-            return new ChunkCollisionMesh(null, null, null);
+    public static int[] triangleListIndices(float[] vertices) {
+        int[] indices = new int[vertices.length / 3];
+        for (int v = 0; v < indices.length; v++) {
+            indices[v] = v;
         }
+        return indices;
+    }
 
-        if (vCursor != vertices.length) {
-            float[] trimmed = new float[vCursor];
-            System.arraycopy(vertices, 0, trimmed, 0, vCursor);
-            vertices = trimmed;
+    /**
+     * Builds the Jolt mesh shape for chunk-local triangles. The shape is immutable and may back any number
+     * of bodies.
+     *
+     * @return the shape, or {@code null} if there are no triangles or Jolt rejects them
+     */
+    public static @Nullable ConstShape createShape(float[] vertices, int[] indices, int chunkX, int chunkZ) {
+        if (vertices == null || vertices.length < 9 || indices == null || indices.length < 3) {
+            LOGGER.debug(LogContext.builder()
+                    .put("chunkX", chunkX)
+                    .put("chunkZ", chunkZ)
+                    .build(), "Chunk ({}, {}) has no collision faces - skipping physics mesh", chunkX, chunkZ);
+            return null;
         }
-        if (iCursor != indices.length) {
-            int[] trimmed = new int[iCursor];
-            System.arraycopy(indices, 0, trimmed, 0, iCursor);
-            indices = trimmed;
+
+        List<Triangle> triangles = new ArrayList<>(indices.length / 3);
+        for (int i = 0; i + 2 < indices.length; i += 3) {
+            int a = indices[i] * 3;
+            int b = indices[i + 1] * 3;
+            int c = indices[i + 2] * 3;
+            triangles.add(new Triangle(
+                    new Vec3(vertices[a], vertices[a + 1], vertices[a + 2]),
+                    new Vec3(vertices[b], vertices[b + 1], vertices[b + 2]),
+                    new Vec3(vertices[c], vertices[c + 1], vertices[c + 2])
+            ));
         }
 
         LOGGER.debug(LogContext.builder()
-                        .put("chunkX", chunk.getChunkX())
-                        .put("chunkZ", chunk.getChunkZ())
-                        .put("faces", faces.size())
+                        .put("chunkX", chunkX)
+                        .put("chunkZ", chunkZ)
                         .put("triangles", triangles.size())
-                        .build(), "Created collision mesh for chunk ({}, {}) with {} faces ({} triangles)",
-                chunk.getChunkX(), chunk.getChunkZ(), faces.size(), triangles.size());
+                        .build(), "Created collision mesh for chunk ({}, {}) with {} triangles",
+                chunkX, chunkZ, triangles.size());
 
         MeshShapeSettings shapeSettings = new MeshShapeSettings(triangles);
         ShapeResult shapeResult = shapeSettings.create();
         if (shapeResult.hasError()) {
             LOGGER.warn(
                     LogContext.builder()
-                            .put("chunkX", chunk.getChunkX())
-                            .put("chunkZ", chunk.getChunkZ())
+                            .put("chunkX", chunkX)
+                            .put("chunkZ", chunkZ)
                             .put("error", shapeResult.getError())
                             .build(),
                     "Failed to create chunk mesh shape: {}",
                     shapeResult.getError()
             );
-            return new ChunkCollisionMesh(null, null, null);
+            return null;
         }
         ConstShape shape = shapeResult.get();
         if (shape == null) {
             LOGGER.warn(
                     LogContext.builder()
-                            .put("chunkX", chunk.getChunkX())
-                    .put("chunkZ", chunk.getChunkZ())
-                    .build(),
+                            .put("chunkX", chunkX)
+                            .put("chunkZ", chunkZ)
+                            .build(),
                     "Failed to create chunk mesh shape (null shape result)"
             );
-            return new ChunkCollisionMesh(null, null, null);
         }
+        return shape;
+    }
 
-        BodyCreationSettings bodySettings = new BodyCreationSettings()
+    /**
+     * Static body settings placing a chunk-local shape at the chunk's origin. Each body needs its own
+     * settings instance, the shape can be shared.
+     */
+    public static BodyCreationSettings bodySettings(ConstShape shape, int chunkX, int chunkZ) {
+        return new BodyCreationSettings()
                 .setMotionType(EMotionType.Static)
                 .setObjectLayer(PhysicsService.LAYER_STATIC)
+                .setPosition(new RVec3(chunkX * Chunk.CHUNK_SIZE_X, 0, chunkZ * Chunk.CHUNK_SIZE_Z))
                 .setShape(shape);
+    }
+
+    private static void partialFaces(Block block, boolean[] full, int x, int y, int z, QuadWriter writer) {
+        Shape shape = block.registry().collisionShape();
+        Point relStart = shape.relativeStart();
+        Point relEnd = shape.relativeEnd();
+        for (BlockFace blockFace : BLOCK_FACES) {
+            Face face = new Face(
+                    blockFace,
+                    blockFace == BlockFace.EAST ? relEnd.x() : relStart.x(),
+                    blockFace == BlockFace.TOP ? relEnd.y() : relStart.y(),
+                    blockFace == BlockFace.SOUTH ? relEnd.z() : relStart.z(),
+                    blockFace == BlockFace.WEST ? relStart.x() : relEnd.x(),
+                    blockFace == BlockFace.BOTTOM ? relStart.y() : relEnd.y(),
+                    blockFace == BlockFace.NORTH ? relStart.z() : relEnd.z(),
+                    x,
+                    y,
+                    z
+            );
+            if (face.isEdge()) {
+                var dir = blockFace.toDirection();
+                if (full[paddedIndex(x + dir.normalX(), y + dir.normalY(), z + dir.normalZ())]) {
+                    continue;
+                }
+            }
+            writer.face(blockFace,
+                    face.minX() + x, face.minY() + y, face.minZ() + z,
+                    face.maxX() + x, face.maxY() + y, face.maxZ() + z);
+        }
+    }
+
+    private static long mixHash(long hash, long value) {
+        hash ^= value * 0x9E3779B97F4A7C15L;
+        return Long.rotateLeft(hash, 31) * 0xBF58476D1CE4E5B9L;
+    }
+
+    private static long finishHash(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xFF51AFD7ED558CCDL;
+        hash ^= hash >>> 33;
+        hash *= 0xC4CEB9FE1A85EC53L;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Emits merged quads for every exposed full-cube face pointing towards {@code blockFace}. Each of the
+     * 16 layers along the face normal gets a 16x16 mask of exposed faces, which is covered with
+     * rectangles grown first along {@code u}, then along {@code v}.
+     */
+    private static void greedyFaces(BlockFace blockFace, boolean[] full, boolean[] mask, QuadWriter writer) {
+        var dir = blockFace.toDirection();
+        int size = Chunk.CHUNK_SECTION_SIZE;
+        for (int layer = 0; layer < size; layer++) {
+            boolean any = false;
+            for (int u = 0; u < size; u++) {
+                for (int v = 0; v < size; v++) {
+                    int x = axisX(blockFace, layer, u, v);
+                    int y = axisY(blockFace, layer, u, v);
+                    int z = axisZ(blockFace, layer, u, v);
+                    boolean exposed = full[paddedIndex(x, y, z)]
+                            && !full[paddedIndex(x + dir.normalX(), y + dir.normalY(), z + dir.normalZ())];
+                    mask[u * size + v] = exposed;
+                    any |= exposed;
+                }
+            }
+            if (!any) {
+                continue;
+            }
+            for (int u = 0; u < size; u++) {
+                for (int v = 0; v < size; ) {
+                    if (!mask[u * size + v]) {
+                        v++;
+                        continue;
+                    }
+                    int height = 1;
+                    while (v + height < size && mask[u * size + v + height]) {
+                        height++;
+                    }
+                    int width = 1;
+                    grow:
+                    while (u + width < size) {
+                        for (int k = 0; k < height; k++) {
+                            if (!mask[(u + width) * size + v + k]) {
+                                break grow;
+                            }
+                        }
+                        width++;
+                    }
+                    for (int du = 0; du < width; du++) {
+                        Arrays.fill(mask, (u + du) * size + v, (u + du) * size + v + height, false);
+                    }
+
+                    int x0 = axisX(blockFace, layer, u, v);
+                    int y0 = axisY(blockFace, layer, u, v);
+                    int z0 = axisZ(blockFace, layer, u, v);
+                    int x1 = axisX(blockFace, layer, u + width - 1, v + height - 1) + 1;
+                    int y1 = axisY(blockFace, layer, u + width - 1, v + height - 1) + 1;
+                    int z1 = axisZ(blockFace, layer, u + width - 1, v + height - 1) + 1;
+                    // Collapse the merged box onto the face plane, as the per-block faces are.
+                    switch (blockFace) {
+                        case TOP -> y0 = y1;
+                        case BOTTOM -> y1 = y0;
+                        case EAST -> x0 = x1;
+                        case WEST -> x1 = x0;
+                        case SOUTH -> z0 = z1;
+                        case NORTH -> z1 = z0;
+                    }
+                    writer.face(blockFace, x0, y0, z0, x1, y1, z1);
+                    v += height;
+                }
+            }
+        }
+    }
+
+    // (layer, u, v) -> section coordinates: layer runs along the face normal.
+    private static int axisX(BlockFace face, int layer, int u, int v) {
+        return switch (face) {
+            case EAST, WEST -> layer;
+            default -> u;
+        };
+    }
+
+    private static int axisY(BlockFace face, int layer, int u, int v) {
+        return switch (face) {
+            case TOP, BOTTOM -> layer;
+            case EAST, WEST -> u;
+            default -> v;
+        };
+    }
 
-        return new ChunkCollisionMesh(bodySettings, vertices, indices);
+    private static int axisZ(BlockFace face, int layer, int u, int v) {
+        return switch (face) {
+            case NORTH, SOUTH -> layer;
+            default -> v;
+        };
+    }
+
+    private static boolean isInside(int x, int y, int z) {
+        return x >= 0 && x < Chunk.CHUNK_SIZE_X && y >= 0 && y < Chunk.CHUNK_SECTION_SIZE
+                && z >= 0 && z < Chunk.CHUNK_SIZE_Z;
+    }
+
+    static int paddedIndex(int x, int y, int z) {
+        return ((y + 1) * PADDED + (x + 1)) * PADDED + (z + 1);
+    }
+
+    private static int sectionIndex(int x, int y, int z) {
+        return (y * Chunk.CHUNK_SIZE_X + x) * Chunk.CHUNK_SIZE_Z + z;
+    }
+
+    /**
+     * Appends quads as two triangles each, in the winding {@link Face#addTris} uses.
+     */
+    private static final class QuadWriter {
+        private float[] vertices = new float[18 * 64];
+        private int size;
+
+        void face(BlockFace blockFace, float minX, float minY, float minZ, float maxX, float maxY, float maxZ) {
+            switch (blockFace) {
+                case TOP -> quad(minX, maxY, minZ, maxX, maxY, minZ, maxX, maxY, maxZ, minX, maxY, maxZ);
+                case BOTTOM -> quad(maxX, maxY, maxZ, maxX, maxY, minZ, minX, maxY, minZ, minX, maxY, maxZ);
+                case WEST -> quad(maxX, minY, minZ, maxX, maxY, minZ, maxX, maxY, maxZ, maxX, minY, maxZ);
+                case EAST -> quad(maxX, maxY, maxZ, maxX, maxY, minZ, maxX, minY, minZ, maxX, minY, maxZ);
+                case SOUTH -> quad(maxX, maxY, minZ, maxX, minY, minZ, minX, minY, minZ, minX, maxY, minZ);
+                case NORTH -> quad(minX, minY, minZ, maxX, minY, minZ, maxX, maxY, minZ, minX, maxY, minZ);
+            }
+        }
+
+        private void quad(float p1x, float p1y, float p1z, float p2x, float p2y, float p2z,
+                          float p3x, float p3y, float p3z, float p4x, float p4y, float p4z) {
+            if (size + 18 > vertices.length) {
+                vertices = Arrays.copyOf(vertices, vertices.length * 2);
+            }
+            float[] v = vertices;
+            int i = size;
+            // Triangle 1: p3, p2, p1
+            v[i++] = p3x; v[i++] = p3y; v[i++] = p3z;
+            v[i++] = p2x; v[i++] = p2y; v[i++] = p2z;
+            v[i++] = p1x; v[i++] = p1y; v[i++] = p1z;
+            // Triangle 2: p1, p4, p3
+            v[i++] = p1x; v[i++] = p1y; v[i++] = p1z;
+            v[i++] = p4x; v[i++] = p4y; v[i++] = p4z;
+            v[i++] = p3x; v[i++] = p3y; v[i++] = p3z;
+            size = i;
+        }
     }
 
     private static List<Face> getChunkFaces(Chunk chunk, int minY, int maxY, boolean fullBlocksOnly) {
@@ -2,6 +2,7 @@ package com.moud.server.physics.player;
 
 import com.moud.api.physics.player.PlayerPhysicsControllers;
 import com.moud.server.logging.MoudLogger;
+import com.moud.server.scripting.SharedScriptEngine;
 import org.graalvm.polyglot.Context;
 import org.graalvm.polyglot.Source;
 import org.graalvm.polyglot.Value;
@@ -41,7 +42,7 @@ public final class SharedPhysicsLoader {
                     })()
                     """.formatted(scriptSource);
 
-                Source source = Source.newBuilder("js", wrappedSource, "shared-physics.js").build();
+                Source source = SharedScriptEngine.getInstance().source("shared-physics.js", wrappedSource);
                 Value result = jsContext.eval(source);
 
                 if (result == null || result.isNull()) {
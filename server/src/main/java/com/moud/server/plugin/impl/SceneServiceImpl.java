@@ -6,10 +6,7 @@ import org.slf4j.Logger;
 
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
-import java.nio.file.DirectoryStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,21 +26,13 @@ public final class SceneServiceImpl implements SceneService {
 
     @Override
     public List<String> listBlueprints() {
-        List<String> names = new ArrayList<>();
-        try (DirectoryStream<Path> stream = Files.newDirectoryStream(storage.getDirectory(), "*.json")) {
-            for (Path path : stream) {
-                names.add(path.getFileName().toString());
-            }
-        } catch (IOException e) {
-            logger.error("Failed to list blueprints", e);
-        }
-        return names;
+        return storage.list();
     }
 
     @Override
     public Optional<String> loadBlueprint(String name) {
         try {
-            return Optional.of(new String(storage.load(name), StandardCharsets.UTF_8));
+            return Optional.of(storage.loadJson(name));
         } catch (IOException e) {
             logger.error("Failed to load blueprint {}", name, e);
             return Optional.empty();
@@ -95,6 +95,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
     public void setPosition(Vector3 position) {
         this.position = new Vector3(position);
         this.dirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -107,6 +108,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
     public void setRotation(Quaternion rotation) {
         this.rotation = new Quaternion(rotation.x, rotation.y, rotation.z, rotation.w);
         this.dirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -119,6 +121,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
     public void setScale(Vector3 scale) {
         this.scale = new Vector3(scale);
         this.dirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -128,6 +131,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
         if (rotation != null) this.rotation = new Quaternion(rotation.x, rotation.y, rotation.z, rotation.w);
         if (scale != null) this.scale = new Vector3(scale);
         this.dirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -146,6 +150,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
             this.scale = new Vector3(thickness, length, thickness);
         }
         this.dirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -225,6 +230,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
     public void setVertices(List<Vector3> vertices) {
         this.vertices = copyVertices(vertices);
         this.verticesDirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -233,6 +239,7 @@ public class PrimitiveInstance implements PrimitiveHandle {
         this.vertices = copyVertices(vertices);
         this.indices = copyIndices(indices);
         this.verticesDirty = true;
+        service.markCollisionBoundsStale(id);
         broadcastIfNotBatching();
     }
 
@@ -1,6 +1,8 @@
 package com.moud.server.primitives;
 
+import com.moud.api.collision.AABB;
 import com.moud.api.math.Quaternion;
+import com.moud.api.physics.player.CollisionBuffer;
 import com.moud.api.math.Vector3;
 import com.moud.network.MoudPackets;
 import com.moud.network.MoudPackets.*;
@@ -10,7 +12,9 @@ import com.moud.plugin.api.services.primitives.PrimitiveMaterial;
 import com.moud.plugin.api.services.primitives.PrimitiveType;
 import com.moud.server.instance.InstanceManager;
 import com.moud.server.movement.JoltPredictionCollisionWorld;
+import com.moud.server.physics.AabbGrid;
 import com.moud.server.physics.PrimitivePhysicsManager;
+import com.moud.server.physics.primitives.PrimitiveCollisionBounds;
 import net.minestom.server.entity.Player;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -22,12 +26,16 @@ import java.util.stream.Collectors;
 
 public class PrimitiveServiceImpl implements PrimitiveService {
     private static final Logger LOGGER = LoggerFactory.getLogger(PrimitiveServiceImpl.class);
+    private static final double COLLIDER_CELL_SIZE =
+            Double.parseDouble(System.getProperty("moud.primitives.colliderCellSize", "4.0"));
     private static PrimitiveServiceImpl instance;
     private final Map<Long, PrimitiveInstance> primitives = new ConcurrentHashMap<>();
     private final Collection<PrimitiveInstance> primitiveInstancesView =
             Collections.unmodifiableCollection(primitives.values());
     private final Map<String, Set<Long>> groups = new ConcurrentHashMap<>();
     private final AtomicLong idCounter = new AtomicLong(1);
+    private final AabbGrid colliderIndex = new AabbGrid(COLLIDER_CELL_SIZE);
+    private final Set<Long> staleColliders = ConcurrentHashMap.newKeySet();
     private final List<PrimitiveInstance> batchCreates = new ArrayList<>();
     private final List<PrimitiveInstance> batchTransforms = new ArrayList<>();
     private boolean batching = false;
@@ -63,6 +71,7 @@ public class PrimitiveServiceImpl implements PrimitiveService {
         LOGGER.info("Creating primitive {} type={} pos={} scale={} group={} dynamic={} mass={}",
                 id, type, position, scale, groupId, dynamic, mass);
         primitives.put(id, prim);
+        markCollisionBoundsStale(id);
         if (groupId != null) {
             groups.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet()).add(id);
         }
@@ -118,6 +127,7 @@ public class PrimitiveServiceImpl implements PrimitiveService {
                 mass
         );
         primitives.put(id, prim);
+        markCollisionBoundsStale(id);
         if (groupId != null) {
             groups.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet()).add(id);
         }
@@ -141,16 +151,16 @@ public class PrimitiveServiceImpl implements PrimitiveService {
             return;
         }
         prim.applyPhysicsTransform(position, rotation);
+        markCollisionBoundsStale(primitiveId);
         if (packetSender == null) {
             return;
         }
-        S2C_PrimitiveTransformPacket packet = new S2C_PrimitiveTransformPacket(
+        packetSender.replicateTransform(new PrimitiveTransformEntry(
                 prim.getId(),
                 prim.getPosition(),
                 prim.getRotation(),
                 prim.getScale()
-        );
-        packetSender.broadcastToAll(packet);
+        ));
         var instance = InstanceManager.getInstance().getDefaultInstance();
         if (instance != null) {
             JoltPredictionCollisionWorld.getInstance().upsertPrimitive(instance, prim);
@@ -257,6 +267,7 @@ public class PrimitiveServiceImpl implements PrimitiveService {
                 prim.getVertices().size(),
                 prim.getIndices().size());
         primitives.put(id, prim);
+        markCollisionBoundsStale(id);
         if (groupId != null) {
             groups.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet()).add(id);
         }
@@ -281,6 +292,7 @@ public class PrimitiveServiceImpl implements PrimitiveService {
         LOGGER.info("Creating primitive {} type={} pos={} scale={} group={}",
                 id, type, position, scale, groupId);
         primitives.put(id, prim);
+        markCollisionBoundsStale(id);
         if (groupId != null) {
             groups.computeIfAbsent(groupId, k -> ConcurrentHashMap.newKeySet()).add(id);
         }
@@ -307,6 +319,47 @@ public class PrimitiveServiceImpl implements PrimitiveService {
         return primitiveInstancesView;
     }
 
+    /**
+     * Adds the collision bounds of every primitive intersecting {@code query} to {@code out}. Bounds are kept in
+     * an {@link AabbGrid} and only recomputed for primitives created, moved or removed since the last query.
+     */
+    public void collectColliders(AABB query, Collection<? super AABB> out) {
+        refreshColliderIndex();
+        colliderIndex.query(query, out);
+    }
+
+    public void collectColliders(double minX, double minY, double minZ, double maxX, double maxY, double maxZ,
+                                 CollisionBuffer out) {
+        refreshColliderIndex();
+        colliderIndex.query(minX, minY, minZ, maxX, maxY, maxZ, out);
+    }
+
+    /**
+     * Brings the collider index up to date. Called lazily by {@link #collectColliders}; callers about to query
+     * from several threads can call it once up front.
+     */
+    public void refreshColliderIndex() {
+        if (staleColliders.isEmpty()) {
+            return;
+        }
+        Iterator<Long> it = staleColliders.iterator();
+        while (it.hasNext()) {
+            long id = it.next();
+            it.remove();
+            PrimitiveInstance prim = primitives.get(id);
+            AABB bounds = prim != null ? PrimitiveCollisionBounds.computeAabb(prim) : null;
+            if (bounds != null) {
+                colliderIndex.put(id, bounds);
+            } else {
+                colliderIndex.remove(id);
+            }
+        }
+    }
+
+    void markCollisionBoundsStale(long primitiveId) {
+        staleColliders.add(primitiveId);
+    }
+
     @Override
     public Collection<PrimitiveHandle> getPrimitivesInGroup(String groupId) {
         Set<Long> ids = groups.get(groupId);
@@ -321,6 +374,7 @@ public class PrimitiveServiceImpl implements PrimitiveService {
     public boolean removePrimitive(long primitiveId) {
         PrimitiveInstance prim = primitives.remove(primitiveId);
         if (prim != null) {
+            markCollisionBoundsStale(primitiveId);
             if (prim.getGroupId() != null) {
                 Set<Long> groupSet = groups.get(prim.getGroupId());
                 if (groupSet != null) {
@@ -341,6 +395,7 @@ public class PrimitiveServiceImpl implements PrimitiveService {
         if (ids != null) {
             for (Long id : ids) {
                 primitives.remove(id);
+                markCollisionBoundsStale(id);
                 PrimitivePhysicsManager.getInstance().onRemove(id);
                 if (id != null) {
                     JoltPredictionCollisionWorld.getInstance().removePrimitive(id);
@@ -404,12 +459,16 @@ public class PrimitiveServiceImpl implements PrimitiveService {
 
     void removePrimitiveInternal(PrimitiveInstance prim) {
         primitives.remove(prim.getId());
+        markCollisionBoundsStale(prim.getId());
         if (prim.getGroupId() != null) {
             Set<Long> groupSet = groups.get(prim.getGroupId());
             if (groupSet != null) {
                 groupSet.remove(prim.getId());
             }
         }
+        if (packetSender != null) {
+            packetSender.discardTransform(prim.getId());
+        }
         broadcastRemove(prim);
         PrimitivePhysicsManager.getInstance().onRemove(prim.getId());
         JoltPredictionCollisionWorld.getInstance().removePrimitive(prim.getId());
@@ -471,13 +530,12 @@ public class PrimitiveServiceImpl implements PrimitiveService {
             batchTransforms.add(prim);
             return;
         }
-        S2C_PrimitiveTransformPacket packet = new S2C_PrimitiveTransformPacket(
+        packetSender.replicateTransform(new PrimitiveTransformEntry(
                 prim.getId(),
                 prim.getPosition(),
                 prim.getRotation(),
                 prim.getScale()
-        );
-        packetSender.broadcastToAll(packet);
+        ));
         PrimitivePhysicsManager.getInstance().onTransform(prim);
         var instance = InstanceManager.getInstance().getDefaultInstance();
         if (instance != null) {
@@ -552,9 +610,8 @@ public class PrimitiveServiceImpl implements PrimitiveService {
 
     void broadcastBatchTransform(List<PrimitiveInstance> prims) {
         if (packetSender == null) return;
-        List<PrimitiveTransformEntry> entries = new ArrayList<>();
         for (PrimitiveInstance prim : prims) {
-            entries.add(new PrimitiveTransformEntry(
+            packetSender.replicateTransform(new PrimitiveTransformEntry(
                     prim.getId(),
                     prim.getPosition(),
                     prim.getRotation(),
@@ -562,8 +619,6 @@ public class PrimitiveServiceImpl implements PrimitiveService {
             ));
             prim.clearDirty();
         }
-        S2C_PrimitiveBatchTransformPacket packet = new S2C_PrimitiveBatchTransformPacket(entries);
-        packetSender.broadcastToAll(packet);
     }
 
     private MoudPackets.PrimitiveType convertType(PrimitiveType type) {
@@ -613,5 +668,15 @@ public class PrimitiveServiceImpl implements PrimitiveService {
         void broadcastToAll(Object packet);
 
         void sendToPlayer(Player player, Object packet);
+
+        /**
+         * Queues a latest-wins transform update. Senders without a coalescing channel broadcast it directly.
+         */
+        default void replicateTransform(PrimitiveTransformEntry entry) {
+            broadcastToAll(new S2C_PrimitiveBatchTransformPacket(List.of(entry)));
+        }
+
+        default void discardTransform(long primitiveId) {
+        }
     }
 }
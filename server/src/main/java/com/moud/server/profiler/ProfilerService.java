@@ -3,6 +3,9 @@ package com.moud.server.profiler;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
+import com.moud.server.MoudEngine;
+import com.moud.server.instance.ChunkPreloader;
+import com.moud.server.instance.InstanceManager;
 import com.moud.server.logging.LogContext;
 import com.moud.server.logging.MoudLogger;
 import com.moud.server.network.diagnostics.NetworkProbe;
@@ -12,6 +15,7 @@ import com.moud.server.profiler.model.ProfilerSnapshot;
 import com.moud.server.profiler.model.ScriptAggregate;
 import com.moud.server.profiler.model.ScriptSample;
 import com.moud.server.profiler.script.ScriptProfiler;
+import com.moud.server.scripting.JavaScriptRuntime;
 import com.moud.server.shared.SharedValueManager;
 import com.moud.server.shared.diagnostics.SharedStoreSnapshot;
 import com.sun.management.OperatingSystemMXBean;
@@ -139,6 +143,7 @@ public final class ProfilerService {
     public void startCapture(String name) {
         if (capturing.compareAndSet(false, true)) {
             activeCapture = new CaptureBuilder(name == null || name.isBlank() ? "Capture" : name);
+            NetworkProbe.getInstance().beginDetailCapture();
             LOGGER.info(LogContext.builder()
                     .put("capture_name", activeCapture.name)
                     .build(), "Profiler capture started");
@@ -147,6 +152,7 @@ public final class ProfilerService {
 
     public ProfilerCapture stopCapture() {
         if (capturing.compareAndSet(true, false)) {
+            NetworkProbe.getInstance().endDetailCapture();
             CaptureBuilder builder = activeCapture;
             activeCapture = null;
             if (builder != null) {
@@ -203,6 +209,12 @@ public final class ProfilerService {
                 .mapToLong(SharedStoreSnapshot::totalKeys)
                 .sum();
 
+        ChunkPreloader preloader = InstanceManager.getInstance().getChunkPreloader();
+        ChunkPreloader.Stats chunkLoads = preloader != null ? preloader.stats() : null;
+
+        MoudEngine engine = MoudEngine.getInstance();
+        JavaScriptRuntime runtime = engine != null ? engine.getRuntime() : null;
+
         return new ProfilerFrame(
                 frameCounter.incrementAndGet(),
                 Instant.now(),
@@ -216,7 +228,12 @@ public final class ProfilerService {
                 outboundPackets,
                 inboundPackets,
                 storeCount,
-                sharedValueCount
+                sharedValueCount,
+                chunkLoads != null ? chunkLoads.queued() : 0,
+                chunkLoads != null ? chunkLoads.p50Millis() : 0,
+                chunkLoads != null ? chunkLoads.p95Millis() : 0,
+                chunkLoads != null ? chunkLoads.p99Millis() : 0,
+                runtime != null ? runtime.getQueuedTaskCount() : 0
         );
     }
 
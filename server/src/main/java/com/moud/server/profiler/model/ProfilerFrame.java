@@ -15,7 +15,12 @@ public record ProfilerFrame(
         long outboundPackets,
         long inboundPackets,
         int sharedStoreCount,
-        long sharedValueCount
+        long sharedValueCount,
+        int chunkPreloadQueued,
+        double chunkLoadP50Millis,
+        double chunkLoadP95Millis,
+        double chunkLoadP99Millis,
+        int scriptQueueLength
 ) {
 }
 
@@ -3,6 +3,7 @@ package com.moud.server.profiler.ui;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.moud.server.network.diagnostics.NetworkProbe;
+import com.moud.server.network.diagnostics.PayloadPreview;
 import com.moud.server.profiler.model.PacketLog;
 import javafx.application.Platform;
 import javafx.beans.property.SimpleLongProperty;
@@ -51,16 +52,7 @@ public class NetworkInspectorView extends BorderPane {
 
         btnSniff = new ToggleButton("⚫ REC");
         btnSniff.setStyle("-fx-base: #2d2d2d; -fx-font-weight: bold;");
-        btnSniff.setOnAction(e -> {
-            isSniffing = btnSniff.isSelected();
-            if(isSniffing) {
-                btnSniff.setText("🔴 REC");
-                btnSniff.setStyle("-fx-base: #6a9955; -fx-text-fill: white;");
-            } else {
-                btnSniff.setText("⚫ REC");
-                btnSniff.setStyle("-fx-base: #2d2d2d;");
-            }
-        });
+        btnSniff.setOnAction(e -> setSniffing(btnSniff.isSelected()));
 
         btnFreeze = new ToggleButton("❄ Freeze");
         btnFreeze.setStyle("-fx-base: #2d2d2d;");
@@ -241,6 +233,7 @@ public class NetworkInspectorView extends BorderPane {
     private void renderPayload(Object packetObj) {
         if (packetObj == null) { jsonViewer.setText("null"); return; }
         if (packetObj instanceof String s) { jsonViewer.setText(s); return; }
+        if (packetObj instanceof PayloadPreview preview) { jsonViewer.setText(preview.render()); return; }
 
         new Thread(() -> {
             try {
@@ -252,6 +245,29 @@ public class NetworkInspectorView extends BorderPane {
         }).start();
     }
 
+    /**
+     * Stops recording when the inspector goes away, so its detail capture does not outlive the window.
+     */
+    public void dispose() {
+        btnSniff.setSelected(false);
+        setSniffing(false);
+    }
+
+    private void setSniffing(boolean sniffing) {
+        if (sniffing != isSniffing) {
+            if (sniffing) NetworkProbe.getInstance().beginDetailCapture();
+            else NetworkProbe.getInstance().endDetailCapture();
+        }
+        isSniffing = sniffing;
+        if(isSniffing) {
+            btnSniff.setText("🔴 REC");
+            btnSniff.setStyle("-fx-base: #6a9955; -fx-text-fill: white;");
+        } else {
+            btnSniff.setText("⚫ REC");
+            btnSniff.setStyle("-fx-base: #2d2d2d;");
+        }
+    }
+
     public void update() {
         if (!isSniffing) return;
 
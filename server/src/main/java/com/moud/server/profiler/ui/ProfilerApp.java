@@ -32,6 +32,7 @@ public class ProfilerApp extends Application {
 
         stage.setOnCloseRequest(event -> {
             ProfilerService.getInstance().removeListener(dashboard);
+            dashboard.dispose();
         });
     }
 
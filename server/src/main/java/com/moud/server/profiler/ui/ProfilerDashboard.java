@@ -30,6 +30,9 @@ public class ProfilerDashboard extends BorderPane implements ProfilerListener {
     private final TimelineTrack cpuTrack;
     private final TimelineTrack memoryTrack;
     private final TimelineTrack networkTrack;
+    private final TimelineTrack chunkQueueTrack;
+    private final TimelineTrack chunkLoadTrack;
+    private final TimelineTrack scriptQueueTrack;
 
     private int hoverIndex = -1;
     private boolean paused = false;
@@ -54,7 +57,12 @@ public class ProfilerDashboard extends BorderPane implements ProfilerListener {
         memoryTrack = new TimelineTrack("HEAP MEM", Color.web("#4fc1ff"), f -> f.heapUsedBytes() / 1024.0 / 1024.0, val -> String.format("%.0f MB", val));
         networkTrack = new TimelineTrack("NETWORK I/O", Color.web("#6a9955"), f -> (double)(f.inboundBytes() + f.outboundBytes()), val -> humanBytes(val.longValue()) + "/t");
 
-        timelineContainer.getChildren().addAll(cpuTrack, memoryTrack, networkTrack);
+        chunkQueueTrack = new TimelineTrack("CHUNK QUEUE", Color.web("#c586c0"), f -> (double) f.chunkPreloadQueued(), val -> String.format("%.0f", val));
+        chunkLoadTrack = new TimelineTrack("CHUNK LOAD p95", Color.web("#dcdcaa"), ProfilerFrame::chunkLoadP95Millis, val -> String.format("%.1f ms", val));
+
+        scriptQueueTrack = new TimelineTrack("SCRIPT QUEUE", Color.web("#ce9178"), f -> (double) f.scriptQueueLength(), val -> String.format("%.0f", val));
+
+        timelineContainer.getChildren().addAll(cpuTrack, memoryTrack, networkTrack, chunkQueueTrack, chunkLoadTrack, scriptQueueTrack);
 
         timelineContainer.setOnMouseMoved(e -> {
             if (frameHistory.isEmpty()) return;
@@ -154,6 +162,9 @@ public class ProfilerDashboard extends BorderPane implements ProfilerListener {
         cpuTrack.render(frameHistory, index);
         memoryTrack.render(frameHistory, index);
         networkTrack.render(frameHistory, index);
+        chunkQueueTrack.render(frameHistory, index);
+        chunkLoadTrack.render(frameHistory, index);
+        scriptQueueTrack.render(frameHistory, index);
     }
 
     private String humanBytes(long bytes) {
@@ -163,6 +174,13 @@ public class ProfilerDashboard extends BorderPane implements ProfilerListener {
         return String.format("%.1f %sB", bytes / Math.pow(1024, exp), pre);
     }
 
+    /**
+     * Releases what the views hold on the server side; called when the window closes.
+     */
+    public void dispose() {
+        networkView.dispose();
+    }
+
     @Override
     public void onFrame(ProfilerFrame frame) {
         if (!paused) {
@@ -173,6 +191,9 @@ public class ProfilerDashboard extends BorderPane implements ProfilerListener {
                     cpuTrack.render(frameHistory, -1);
                     memoryTrack.render(frameHistory, -1);
                     networkTrack.render(frameHistory, -1);
+                    chunkQueueTrack.render(frameHistory, -1);
+                    chunkLoadTrack.render(frameHistory, -1);
+                    scriptQueueTrack.render(frameHistory, -1);
                 }
             });
         }
@@ -379,6 +379,10 @@ public class MediaDisplayProxy implements Transformable, SyncableObject {
             return;
         }
         removed = true;
+        ServerNetworkManager networkManager = ServerNetworkManager.getInstance();
+        if (networkManager != null) {
+            networkManager.getTransformChannel().discardDisplay(id);
+        }
         broadcast(new MoudPackets.S2C_RemoveDisplayPacket(id));
         DisplayManager.getInstance().unregister(this);
     }
@@ -431,7 +435,11 @@ public class MediaDisplayProxy implements Transformable, SyncableObject {
     }
 
     private void broadcastTransform() {
-        broadcast(new MoudPackets.S2C_UpdateDisplayTransformPacket(
+        ServerNetworkManager networkManager = ServerNetworkManager.getInstance();
+        if (networkManager == null) {
+            return;
+        }
+        networkManager.getTransformChannel().submitDisplay(new MoudPackets.S2C_UpdateDisplayTransformPacket(
                 id,
                 new Vector3(position),
                 new Quaternion(rotation),
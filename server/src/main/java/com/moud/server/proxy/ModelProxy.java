@@ -4,6 +4,7 @@ import com.moud.api.collision.OBB;
 import com.moud.api.math.Quaternion;
 import com.moud.api.math.Vector3;
 import com.moud.network.MoudPackets;
+import com.moud.network.serializer.MeshCodec;
 import com.moud.server.anchor.AnchorBehavior;
 import com.moud.server.anchor.Transformable;
 import com.moud.server.assets.ModelTextureResolver;
@@ -209,8 +210,13 @@ public class ModelProxy implements Transformable, SyncableObject {
                         id, modelPath, mesh.indices() != null ? mesh.indices().length : 0);
                 return;
             }
-            this.cachedCompressedVertices = NetworkCompression.gzipFloatArray(mesh.vertices());
-            this.cachedCompressedIndices = NetworkCompression.gzipIntArray(mesh.indices());
+            MeshCodec.EncodedMesh encoded = NetworkCompression.compressMesh(mesh.vertices(), mesh.indices());
+            if (encoded == null) {
+                LOGGER.warn("Model {} at '{}' has only degenerate collision triangles", id, modelPath);
+                return;
+            }
+            this.cachedCompressedVertices = encoded.vertices();
+            this.cachedCompressedIndices = encoded.indices();
             LOGGER.info("Prepared mesh collision payload for model {} at '{}' (vertices={}, indices={}, compressedSizes={}+{})",
                     id,
                     modelPath,
@@ -297,9 +303,12 @@ public class ModelProxy implements Transformable, SyncableObject {
             return;
         }
         MoudPackets.S2C_UpdateModelTransformPacket packet = new MoudPackets.S2C_UpdateModelTransformPacket(
-                id, position, rotation, scale
+                id, new Vector3(position), new Quaternion(rotation), new Vector3(scale)
         );
-        broadcast(packet);
+        ServerNetworkManager networkManager = ServerNetworkManager.getInstance();
+        if (networkManager != null) {
+            networkManager.getTransformChannel().submitModel(packet);
+        }
         snapshotBroadcastState();
     }
 
@@ -844,6 +853,10 @@ public class ModelProxy implements Transformable, SyncableObject {
         }
         ModelManager.getInstance().unregister(this);
         entity.remove();
+        ServerNetworkManager networkManager = ServerNetworkManager.getInstance();
+        if (networkManager != null) {
+            networkManager.getTransformChannel().discardModel(id);
+        }
         broadcast(new MoudPackets.S2C_RemoveModelPacket(id));
 
     }
@@ -123,7 +123,8 @@ public class WorldProxy {
         if (block == null) throw new APIException("INVALID_BLOCK_ID", "Unknown block ID: " + blockId);
         Instance target = requireInstance();
         target.setBlock(x, y, z, block);
-        PhysicsService.getInstance().requestChunkRefreshForBlock(target, x, z);
+        PhysicsService.getInstance().requestChunkRefreshForBlock(target, x, y, z);
+        InstanceManager.getInstance().markBlockChanged(target, x, z);
     }
 
     @HostAccess.Export
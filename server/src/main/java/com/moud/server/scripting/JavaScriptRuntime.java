@@ -19,25 +19,31 @@ import org.graalvm.polyglot.proxy.ProxyExecutable;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 
 public class JavaScriptRuntime {
     private static final MoudLogger LOGGER = MoudLogger.getLogger(JavaScriptRuntime.class);
     private static final long CALLBACK_TIMEOUT_MS = Long.getLong("moud.script.timeout", 30000);
+    private static final AtomicInteger GENERATION = new AtomicInteger();
 
     private Context jsContext;
-    private final ExecutorService executor;
+    private final ThreadPoolExecutor executor;
     private final ScheduledExecutorService timeoutExecutor;
     private final MoudEngine engine;
     private volatile boolean isShuttingDown = false;
     private final Map<Long, ScheduledFuture<?>> intervals = new ConcurrentHashMap<>();
     private final AtomicLong intervalIdCounter = new AtomicLong(0);
+    private final ScriptWarmupMonitor warmup;
 
     public JavaScriptRuntime(MoudEngine engine) {
         this.engine = engine;
-        this.executor = Executors.newSingleThreadExecutor(r -> new Thread(r, "JavaScriptRuntime-Main"));
+        this.warmup = new ScriptWarmupMonitor(GENERATION.getAndIncrement() == 0 ? "boot" : "reload");
+        this.executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(),
+                r -> new Thread(r, "JavaScriptRuntime-Main"));
         this.timeoutExecutor = Executors.newScheduledThreadPool(2, r -> {
             Thread t = new Thread(r, "JavaScriptRuntime-Timeout");
             t.setDaemon(true);
@@ -57,9 +63,9 @@ public class JavaScriptRuntime {
                 .build();
 
         this.jsContext = Context.newBuilder("js")
+                .engine(SharedScriptEngine.getInstance().getEngine())
                 .allowHostAccess(hostAccess)
                 .allowIO(true)
-                .option("engine.WarnInterpreterOnly", "false")
                 .build();
 
         bindTimerFunctions();
@@ -277,8 +283,10 @@ public class JavaScriptRuntime {
         try {
             jsContext.enter();
             try {
-                Source source = Source.newBuilder("js", scriptContent, virtualFileName).buildLiteral();
+                Source source = SharedScriptEngine.getInstance().source(virtualFileName, scriptContent);
+                long start = System.nanoTime();
                 jsContext.eval(source);
+                warmup.scriptEvaluated(virtualFileName, System.nanoTime() - start);
             } finally {
                 jsContext.leave();
             }
@@ -308,6 +316,33 @@ public class JavaScriptRuntime {
         executor.submit(() -> runCallback(callback, metadata, args));
     }
 
+    /**
+     * Runs every callback once per argument list in a single executor task, callbacks in order within each
+     * argument list. Used for events coalesced per tick, which would otherwise queue one task per callback.
+     */
+    public void executeCallbacks(List<Value> callbacks, ScriptExecutionMetadata metadata, List<Object[]> arguments) {
+        if (isShuttingDown || callbacks.isEmpty() || arguments.isEmpty()) {
+            return;
+        }
+        executor.submit(() -> {
+            for (Object[] args : arguments) {
+                for (Value callback : callbacks) {
+                    if (isShuttingDown) {
+                        return;
+                    }
+                    runCallback(callback, metadata, args);
+                }
+            }
+        });
+    }
+
+    /**
+     * @return tasks waiting for the script thread, not counting the one running
+     */
+    public int getQueuedTaskCount() {
+        return executor.getQueue().size();
+    }
+
     private void executeCallbackSafe(Value callback) {
         executeCallbackSafe(callback, ScriptExecutionMetadata.unnamed(ScriptExecutionType.TIMEOUT));
     }
@@ -367,8 +402,10 @@ public class JavaScriptRuntime {
                 } catch (Exception ignored) {
                 }
             }
+            long elapsed = System.nanoTime() - start;
+            warmup.callbackCompleted(elapsed);
             ProfilerService.getInstance().scriptProfiler()
-                    .close(span, System.nanoTime() - start, success, errorMessage);
+                    .close(span, elapsed, success, errorMessage);
         }
     }
 
@@ -0,0 +1,59 @@
+package com.moud.server.scripting;
+
+import com.moud.server.logging.MoudLogger;
+
+/**
+ * Reports how long scripts take to reach steady state after boot or a reload. Callback durations are averaged over
+ * fixed windows; steady state is the first time {@value #STABLE_WINDOWS} consecutive windows stay within
+ * {@value #TOLERANCE} of each other. Only called from the script executor thread.
+ */
+final class ScriptWarmupMonitor {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(ScriptWarmupMonitor.class);
+    private static final int WINDOW = Integer.getInteger("moud.script.warmupWindow", 512);
+    private static final int STABLE_WINDOWS = 3;
+    private static final double TOLERANCE = 0.15;
+
+    private final String phase;
+    private final long startNanos;
+    private long windowNanos;
+    private int windowCount;
+    private double previousMean = Double.NaN;
+    private int stableWindows;
+    private long callbacks;
+    private boolean reported;
+
+    ScriptWarmupMonitor(String phase) {
+        this.phase = phase;
+        this.startNanos = System.nanoTime();
+    }
+
+    void scriptEvaluated(String name, long durationNanos) {
+        LOGGER.info("Evaluated {} in {} ms after {}", name, durationNanos / 1_000_000, phase);
+    }
+
+    void callbackCompleted(long durationNanos) {
+        if (reported) {
+            return;
+        }
+        callbacks++;
+        windowNanos += durationNanos;
+        if (++windowCount < WINDOW) {
+            return;
+        }
+        double mean = (double) windowNanos / windowCount;
+        windowNanos = 0;
+        windowCount = 0;
+        if (!Double.isNaN(previousMean) && Math.abs(mean - previousMean) <= previousMean * TOLERANCE) {
+            stableWindows++;
+        } else {
+            stableWindows = 0;
+        }
+        previousMean = mean;
+        if (stableWindows >= STABLE_WINDOWS) {
+            reported = true;
+            LOGGER.info("Scripts reached steady state {} ms after {} ({} callbacks, {} us mean)",
+                    (System.nanoTime() - startNanos) / 1_000_000, phase, callbacks,
+                    String.format("%.1f", mean / 1000.0));
+        }
+    }
+}
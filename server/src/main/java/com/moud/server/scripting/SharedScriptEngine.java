@@ -0,0 +1,130 @@
+package com.moud.server.scripting;
+
+import com.moud.server.logging.MoudLogger;
+import org.graalvm.polyglot.Engine;
+import org.graalvm.polyglot.Source;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Polyglot engine shared by every server script context. Compiled code is cached per engine, so contexts created
+ * for a hot reload reuse what earlier contexts already parsed and compiled for the same {@link Source}.
+ * <p>
+ * With {@code -Dmoud.script.engineCache=true} the engine also loads and stores an auxiliary engine cache under
+ * {@code .moud/cache/script-engine.bin}, letting warm restarts skip most of the warmup. That needs a runtime that
+ * supports auxiliary engine caching; elsewhere the option is ignored with a warning.
+ */
+public final class SharedScriptEngine {
+    private static final MoudLogger LOGGER = MoudLogger.getLogger(SharedScriptEngine.class);
+    private static final boolean ENGINE_CACHE = Boolean.getBoolean("moud.script.engineCache");
+    private static final String CACHE_FILE = "script-engine.bin";
+
+    private static SharedScriptEngine instance;
+
+    private final Engine engine;
+    private final Path cacheFile;
+    private final Path pendingCacheFile;
+    private final Map<String, Source> sources = new ConcurrentHashMap<>();
+
+    private SharedScriptEngine(Path projectRoot) {
+        Path cacheDir = projectRoot != null ? projectRoot.resolve(".moud").resolve("cache") : null;
+        Path file = ENGINE_CACHE && cacheDir != null ? cacheDir.resolve(CACHE_FILE) : null;
+        Engine built = null;
+        if (file != null) {
+            built = buildCachingEngine(file);
+        }
+        if (built == null) {
+            file = null;
+            built = Engine.newBuilder("js")
+                    .option("engine.WarnInterpreterOnly", "false")
+                    .build();
+        }
+        this.engine = built;
+        this.cacheFile = file;
+        this.pendingCacheFile = file != null ? file.resolveSibling(CACHE_FILE + ".tmp") : null;
+    }
+
+    public static synchronized void install(Path projectRoot) {
+        if (instance == null) {
+            instance = new SharedScriptEngine(projectRoot);
+        }
+    }
+
+    public static synchronized SharedScriptEngine getInstance() {
+        if (instance == null) {
+            instance = new SharedScriptEngine(null);
+        }
+        return instance;
+    }
+
+    public Engine getEngine() {
+        return engine;
+    }
+
+    /**
+     * Returns the source for a script, reusing the previous {@link Source} of that name when its content is
+     * unchanged so the engine's code cache applies.
+     */
+    public Source source(String name, String content) {
+        Source cached = sources.get(name);
+        if (cached != null && cached.getCharacters().toString().equals(content)) {
+            return cached;
+        }
+        Source source = Source.newBuilder("js", content, name).cached(true).buildLiteral();
+        sources.put(name, source);
+        return source;
+    }
+
+    public static synchronized void shutdown() {
+        if (instance == null) {
+            return;
+        }
+        SharedScriptEngine shared = instance;
+        instance = null;
+        shared.sources.clear();
+        try {
+            shared.engine.close();
+        } catch (Exception e) {
+            LOGGER.warn("Failed to close shared script engine cleanly", e);
+            return;
+        }
+        shared.publishCache();
+    }
+
+    private Engine buildCachingEngine(Path file) {
+        try {
+            Files.createDirectories(file.getParent());
+            var builder = Engine.newBuilder("js")
+                    .allowExperimentalOptions(true)
+                    .option("engine.WarnInterpreterOnly", "false")
+                    .option("engine.CacheStore", file.resolveSibling(CACHE_FILE + ".tmp").toString());
+            if (Files.isRegularFile(file)) {
+                builder.option("engine.CacheLoad", file.toString());
+            }
+            Engine cachingEngine = builder.build();
+            LOGGER.info("Script engine cache enabled at {}", file);
+            return cachingEngine;
+        } catch (IllegalArgumentException | IOException e) {
+            LOGGER.warn("Script engine cache is not supported by this runtime, continuing without it: {}",
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    private void publishCache() {
+        if (cacheFile == null || !Files.isRegularFile(pendingCacheFile)) {
+            return;
+        }
+        try {
+            Files.move(pendingCacheFile, cacheFile, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to store script engine cache to {}", cacheFile, e);
+        }
+    }
+}
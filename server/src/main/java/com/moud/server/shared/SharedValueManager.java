@@ -83,7 +83,7 @@ public class SharedValueManager {
 
         boolean success = store.updateFromClient(key, value);
         if (success) {
-            synchronizer.syncImmediate(player, store, Map.of(key, value));
+            synchronizer.syncImmediate(player, store);
             LOGGER.debug(LogContext.builder()
                     .put("player", player.getUsername())
                     .put("player_uuid", player.getUuid())
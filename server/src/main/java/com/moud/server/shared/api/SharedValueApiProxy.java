@@ -39,7 +39,7 @@ public class SharedValueApiProxy {
             SharedValue.Permission perm = parsePermission(permission);
             store.set(key, value, perm, mode);
             if (mode == SharedValue.SyncMode.IMMEDIATE) {
-                manager.getSynchronizer().syncImmediate(player, store, java.util.Map.of(key, value));
+                manager.getSynchronizer().syncImmediate(player, store);
             } else {
                 manager.syncPlayerStore(player, store);
             }
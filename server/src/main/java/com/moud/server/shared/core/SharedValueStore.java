@@ -4,8 +4,10 @@ import com.moud.server.shared.diagnostics.SharedStoreSnapshot;
 import com.moud.server.shared.diagnostics.SharedValueSnapshot;
 import org.graalvm.polyglot.Value;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
@@ -17,6 +19,9 @@ public class SharedValueStore {
     private final ConcurrentHashMap<String, SharedValue> values;
     private final CopyOnWriteArrayList<Value> changeListeners;
     private final CopyOnWriteArrayList<Value> keyListeners;
+    // Keys written or removed since the last drain, guarded by this.
+    private final LinkedHashSet<String> changedKeys;
+    private long sequence;
 
     public SharedValueStore(String storeName, String playerId) {
         this.storeName = storeName;
@@ -24,6 +29,7 @@ public class SharedValueStore {
         this.values = new ConcurrentHashMap<>();
         this.changeListeners = new CopyOnWriteArrayList<>();
         this.keyListeners = new CopyOnWriteArrayList<>();
+        this.changedKeys = new LinkedHashSet<>();
     }
 
     public void set(String key, Object value, SharedValue.Permission permission, SharedValue.SyncMode syncMode) {
@@ -33,6 +39,7 @@ public class SharedValueStore {
         SharedValue newSharedValue = new SharedValue(key, value, permission, syncMode);
         newSharedValue.markWritten(SharedValue.Writer.SERVER, "server");
         values.put(key, newSharedValue);
+        recordChange(key);
 
         triggerChangeListeners(key, value, oldValue);
     }
@@ -49,6 +56,7 @@ public class SharedValueStore {
     public void remove(String key) {
         SharedValue removed = values.remove(key);
         if (removed != null) {
+            recordChange(key);
             triggerChangeListeners(key, null, removed.getValue());
         }
     }
@@ -66,32 +74,48 @@ public class SharedValueStore {
 
         Object oldValue = sharedValue.getValue();
         sharedValue.setValue(value, SharedValue.Writer.CLIENT, playerId);
+        recordChange(key);
         triggerChangeListeners(key, value, oldValue);
         return true;
     }
 
-    public Map<String, Object> getDirtyValues() {
-        Map<String, Object> dirty = new HashMap<>();
-        for (SharedValue value : values.values()) {
-            if (value.isDirty() && value.shouldSync()) {
-                dirty.put(value.getKey(), value.getClonedValue());
-            }
-        }
-        return dirty;
+    public synchronized boolean hasPendingChanges() {
+        return !changedKeys.isEmpty();
     }
 
-    public Map<String, Object> getImmediateValues() {
-        Map<String, Object> immediate = new HashMap<>();
-        for (SharedValue value : values.values()) {
-            if (value.isDirty() && value.shouldSync() && value.getSyncMode() == SharedValue.SyncMode.IMMEDIATE) {
-                immediate.put(value.getKey(), value.getClonedValue());
+    /**
+     * Collects every key written or removed since the previous drain and marks those values clean. Each non-empty
+     * delta gets the next sequence number of this store, so callers that send deltas while holding the store's
+     * monitor deliver them in sequence order.
+     *
+     * @return the pending delta, or {@code null} if nothing client-visible changed
+     */
+    public synchronized Delta drainChanges() {
+        if (changedKeys.isEmpty()) {
+            return null;
+        }
+        Map<String, Object> changes = new LinkedHashMap<>();
+        List<String> removedKeys = new ArrayList<>();
+        for (String key : changedKeys) {
+            SharedValue value = values.get(key);
+            if (value == null) {
+                removedKeys.add(key);
+            } else {
+                if (value.shouldSync()) {
+                    changes.put(key, value.getClonedValue());
+                }
+                value.markClean();
             }
         }
-        return immediate;
+        changedKeys.clear();
+        if (changes.isEmpty() && removedKeys.isEmpty()) {
+            return null;
+        }
+        return new Delta(++sequence, changes, removedKeys);
     }
 
-    public void markAllClean() {
-        values.values().forEach(SharedValue::markClean);
+    private synchronized void recordChange(String key) {
+        changedKeys.add(key);
     }
 
     public void markClean(String key) {
@@ -154,6 +178,9 @@ public class SharedValueStore {
     }
 
     public void clear() {
+        synchronized (this) {
+            changedKeys.clear();
+        }
         values.clear();
         changeListeners.clear();
         keyListeners.clear();
@@ -191,4 +218,7 @@ public class SharedValueStore {
                 snapshotMap
         );
     }
+
+    public record Delta(long sequence, Map<String, Object> changes, List<String> removedKeys) {
+    }
 }
@@ -3,147 +3,134 @@ package com.moud.server.shared.sync;
 import com.moud.network.MoudPackets;
 import com.moud.server.logging.LogContext;
 import com.moud.server.logging.MoudLogger;
-import com.moud.server.network.ServerPacketWrapper;
 import com.moud.server.network.ServerNetworkManager;
 import com.moud.server.shared.SharedValueManager;
 import com.moud.server.shared.core.SharedValueStore;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
+import net.minestom.server.timer.Task;
+import net.minestom.server.timer.TaskSchedule;
 
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
-import java.util.Map;
 
+/**
+ * Sends shared value changes to clients as per-store deltas. Batched stores are flushed once per server tick;
+ * immediate writes flush their store right away. Sends happen while holding the store's monitor, so a client
+ * receives each store's deltas in sequence order.
+ */
 public class ValueSynchronizer {
     private static final MoudLogger LOGGER = MoudLogger.getLogger(
             ValueSynchronizer.class,
             LogContext.builder().put("subsystem", "shared-values").put("component", "synchronizer").build()
     );
-    private static final int BATCH_INTERVAL_MS = 50;
 
     private final SharedValueManager manager;
-    private final ScheduledExecutorService scheduler;
-    private final ConcurrentHashMap<String, ConcurrentHashMap<String, SharedValueStore>> pendingBatchSync;
+    private final ConcurrentHashMap<UUID, PendingSync> pendingBatchSync;
     private volatile boolean running;
+    private Task tickTask;
 
     public ValueSynchronizer(SharedValueManager manager) {
         this.manager = manager;
-        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread t = new Thread(r, "SharedValue-Synchronizer");
-            t.setDaemon(true);
-            return t;
-        });
         this.pendingBatchSync = new ConcurrentHashMap<>();
         this.running = false;
     }
 
     public void initialize() {
         running = true;
-        scheduler.scheduleAtFixedRate(this::processBatchedSync, BATCH_INTERVAL_MS, BATCH_INTERVAL_MS, TimeUnit.MILLISECONDS);
-        LOGGER.debug("ValueSynchronizer initialized with {}ms batch interval", BATCH_INTERVAL_MS);
+        if (tickTask == null) {
+            tickTask = MinecraftServer.getSchedulerManager()
+                    .buildTask(this::processBatchedSync)
+                    .repeat(TaskSchedule.tick(1))
+                    .schedule();
+        }
+        LOGGER.debug("ValueSynchronizer initialized, flushing batched changes every tick");
     }
 
     public void shutdown() {
         running = false;
-        scheduler.shutdown();
-        try {
-            if (!scheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                scheduler.shutdownNow();
-            }
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            scheduler.shutdownNow();
+        if (tickTask != null) {
+            tickTask.cancel();
+            tickTask = null;
         }
+        pendingBatchSync.clear();
         LOGGER.debug("ValueSynchronizer shutdown");
     }
 
     public void requestSync(Player player, SharedValueStore store) {
         if (!running) return;
 
-        String playerId = player.getUuid().toString();
-        pendingBatchSync
-                .computeIfAbsent(playerId, k -> new ConcurrentHashMap<>())
-                .put(store.getStoreName(), store);
+        // Added inside compute so the tick's remove() either takes this store with it or leaves a fresh entry.
+        pendingBatchSync.compute(player.getUuid(), (uuid, pending) -> {
+            PendingSync target = pending != null ? pending : new PendingSync(player, new HashSet<>());
+            target.stores().add(store);
+            return target;
+        });
     }
 
-    public void syncImmediate(Player player, SharedValueStore store, Map<String, Object> changes) {
+    public void syncImmediate(Player player, SharedValueStore store) {
         if (!running) return;
 
-        String playerId = player.getUuid().toString();
-        long timestamp = System.currentTimeMillis();
-
-        MoudPackets.SyncSharedValuesPacket packet = new MoudPackets.SyncSharedValuesPacket(
-                playerId, store.getStoreName(), changes, timestamp
-        );
-
-        ServerNetworkManager manager = ServerNetworkManager.getInstance();
-        if (manager != null) {
-            manager.send(player, packet);
+        int changes = flush(player, store);
+        if (changes > 0) {
+            LOGGER.debug(LogContext.builder()
+                            .put("player", player.getUsername())
+                            .put("player_uuid", player.getUuid())
+                            .put("store", store.getStoreName())
+                            .put("changes", changes)
+                            .build(),
+                    "Immediate sync sent to {}: {} changes in store '{}'",
+                    player.getUsername(), changes, store.getStoreName());
         }
-        store.markAllClean();
-
-        LOGGER.debug(LogContext.builder()
-                        .put("player", player.getUsername())
-                        .put("player_uuid", player.getUuid())
-                        .put("store", store.getStoreName())
-                        .put("changes", changes.size())
-                        .build(),
-                "Immediate sync sent to {}: {} changes in store '{}'",
-                player.getUsername(), changes.size(), store.getStoreName());
     }
 
     private void processBatchedSync() {
-        if (!running) return;
+        if (!running || pendingBatchSync.isEmpty()) return;
 
-        pendingBatchSync.forEach((playerId, stores) -> {
-            Player player = getPlayerById(playerId);
-            if (player == null) {
-                pendingBatchSync.remove(playerId);
-                return;
+        for (UUID playerId : pendingBatchSync.keySet()) {
+            PendingSync pending = pendingBatchSync.remove(playerId);
+            if (pending == null) {
+                continue;
             }
-
-            stores.forEach((storeName, store) -> {
-                Map<String, Object> dirtyValues = store.getDirtyValues();
-                if (!dirtyValues.isEmpty()) {
-                    long timestamp = System.currentTimeMillis();
-
-                    MoudPackets.SyncSharedValuesPacket packet = new MoudPackets.SyncSharedValuesPacket(
-                            playerId, storeName, dirtyValues, timestamp
-                    );
-
-                    ServerNetworkManager manager = ServerNetworkManager.getInstance();
-                    if (manager != null) {
-                        manager.send(player, packet);
-                    }
-                    store.markAllClean();
-
+            Player player = pending.player();
+            if (!player.isOnline()) {
+                continue;
+            }
+            for (SharedValueStore store : pending.stores()) {
+                int changes = flush(player, store);
+                if (changes > 0) {
                     LOGGER.debug(LogContext.builder()
                                     .put("player", player.getUsername())
                                     .put("player_uuid", player.getUuid())
-                                    .put("store", storeName)
-                                    .put("changes", dirtyValues.size())
+                                    .put("store", store.getStoreName())
+                                    .put("changes", changes)
                                     .build(),
                             "Batched sync sent to {}: {} changes in store '{}'",
-                            player.getUsername(), dirtyValues.size(), storeName);
+                            player.getUsername(), changes, store.getStoreName());
                 }
-            });
-        });
-
-        pendingBatchSync.clear();
+            }
+        }
     }
 
-    private Player getPlayerById(String playerId) {
-        try {
-            java.util.UUID uuid = java.util.UUID.fromString(playerId);
-            return net.minestom.server.MinecraftServer.getConnectionManager()
-                    .getOnlinePlayers()
-                    .stream()
-                    .filter(p -> p.getUuid().equals(uuid))
-                    .findFirst()
-                    .orElse(null);
-        } catch (Exception e) {
-            return null;
+    private int flush(Player player, SharedValueStore store) {
+        synchronized (store) {
+            SharedValueStore.Delta delta = store.drainChanges();
+            if (delta == null) {
+                return 0;
+            }
+            MoudPackets.SyncSharedValuesPacket packet = new MoudPackets.SyncSharedValuesPacket(
+                    store.getStoreName(), delta.sequence(), delta.changes(), delta.removedKeys()
+            );
+            ServerNetworkManager network = ServerNetworkManager.getInstance();
+            if (network != null) {
+                network.send(player, packet);
+            }
+            return delta.changes().size() + delta.removedKeys().size();
         }
     }
+
+    private record PendingSync(Player player, Set<SharedValueStore> stores) {
+    }
 }
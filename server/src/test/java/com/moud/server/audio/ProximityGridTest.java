@@ -0,0 +1,55 @@
+package com.moud.server.audio;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ProximityGridTest {
+
+    @Test
+    void matchesLinearScanAcrossCellBoundaries() {
+        Random random = new Random(3);
+        ProximityGrid.Builder<Integer> builder = ProximityGrid.builder(16);
+        List<double[]> points = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            double[] p = {random.nextDouble() * 400 - 200, random.nextDouble() * 40, random.nextDouble() * 400 - 200};
+            points.add(p);
+            builder.add(i, p[0], p[1], p[2]);
+        }
+        ProximityGrid<Integer> grid = builder.build();
+
+        for (double range : new double[]{0.0, 9.6, 16.0, 25.6, 1_000.0}) {
+            for (int q = 0; q < 50; q++) {
+                double x = random.nextDouble() * 400 - 200;
+                double y = random.nextDouble() * 40;
+                double z = random.nextDouble() * 400 - 200;
+                Set<Integer> expected = new HashSet<>();
+                for (int i = 0; i < points.size(); i++) {
+                    double[] p = points.get(i);
+                    double dx = p[0] - x, dy = p[1] - y, dz = p[2] - z;
+                    if (dx * dx + dy * dy + dz * dz <= range * range) {
+                        expected.add(i);
+                    }
+                }
+                Set<Integer> actual = new HashSet<>();
+                grid.forEachWithin(x, y, z, range, actual::add);
+                assertEquals(expected, actual, "range " + range);
+            }
+        }
+    }
+
+    @Test
+    void emptyGridVisitsNothing() {
+        List<Object> visited = new ArrayList<>();
+        ProximityGrid.empty(16).forEachWithin(0, 0, 0, 100, visited::add);
+        assertTrue(visited.isEmpty());
+        assertEquals(0, ProximityGrid.<String>builder(16).build().size());
+    }
+}
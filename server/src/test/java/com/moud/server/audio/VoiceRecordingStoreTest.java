@@ -0,0 +1,104 @@
+package com.moud.server.audio;
+
+import com.moud.network.MoudPackets;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VoiceRecordingStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void framesRoundTripAcrossSegments() throws IOException {
+        VoiceRecordingStore store = new VoiceRecordingStore(directory, 4 * 1024, 1 << 20, 1 << 20, 0);
+        VoiceRecordingStore.Recording recording = store.create("session", 60_000L);
+        UUID speaker = UUID.randomUUID();
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(recording.append(speaker, frame(i)));
+        }
+        // Reads interleaved with appends see the open segment grow.
+        assertEquals(42, recording.read(42).sequence());
+        recording.append(speaker, frame(100));
+        assertEquals(100, recording.read(100).sequence());
+
+        assertEquals(101, recording.frameCount());
+        assertEquals(speaker, recording.firstSpeakerId());
+        for (int i = 0; i <= 100; i++) {
+            VoiceRecordingStore.StoredFrame stored = recording.read(i);
+            assertNotNull(stored);
+            assertEquals(speaker, stored.speakerId());
+            assertEquals(1_000L + i * 20L, stored.timestampMs());
+            assertEquals("adpcm_wb", stored.codec());
+            assertEquals(48_000, stored.sampleRate());
+            assertArrayEquals(frame(i).data(), stored.data());
+        }
+        try (Stream<Path> files = Files.walk(directory)) {
+            assertTrue(files.filter(path -> path.toString().endsWith(".seg")).count() > 1);
+        }
+        assertEquals(recording.sizeBytes(), store.sizeBytes());
+
+        store.delete("session");
+        assertNull(recording.read(0));
+        assertEquals(0, store.sizeBytes());
+    }
+
+    @Test
+    void limitsFinishRecordingsAndEvictFinishedOnes() {
+        int frameBytes = 230;
+        VoiceRecordingStore store = new VoiceRecordingStore(directory, 1 << 20, 20L * frameBytes,
+                30L * frameBytes, 0);
+        UUID speaker = UUID.randomUUID();
+
+        VoiceRecordingStore.Recording first = store.create("first", 60_000L);
+        int appended = 0;
+        while (first.append(speaker, frame(appended))) {
+            appended++;
+        }
+        assertTrue(appended > 0 && appended <= 20, "per-recording limit: " + appended);
+        assertFalse(first.append(speaker, frame(appended)));
+
+        VoiceRecordingStore.Recording second = store.create("second", 60_000L);
+        for (int i = 0; i < 15; i++) {
+            assertTrue(second.append(speaker, frame(i)));
+        }
+        assertNull(store.get("first"), "finished recording evicted to make room");
+        assertNotNull(store.get("second"));
+    }
+
+    @Test
+    void retentionDeletesStaleRecordings() {
+        VoiceRecordingStore store = new VoiceRecordingStore(directory, 1 << 20, 1 << 20, 1 << 20, 1_000L);
+        VoiceRecordingStore.Recording recording = store.create("old", 60_000L);
+        recording.append(UUID.randomUUID(), frame(0));
+
+        store.enforceRetention(System.currentTimeMillis());
+        assertNotNull(store.get("old"));
+        store.enforceRetention(System.currentTimeMillis() + 5_000L);
+        assertNull(store.get("old"));
+        assertEquals(0, store.sizeBytes());
+    }
+
+    private static MoudPackets.VoiceMicrophoneChunkPacket frame(int sequence) {
+        byte[] data = new byte[165];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) (sequence * 31 + i);
+        }
+        return new MoudPackets.VoiceMicrophoneChunkPacket("mic-1", sequence, 1_000L + sequence * 20L, "adpcm_wb",
+                48_000, 1, 20, 0.5f, true, data);
+    }
+}
@@ -0,0 +1,116 @@
+package com.moud.server.editor;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlueprintPlacementPlanTest {
+
+    private static final int MIN_Y = -64;
+
+    @Test
+    void matchesPerVoxelTransformForEveryOrientation() {
+        int sizeX = 37;
+        int sizeY = 9;
+        int sizeZ = 21;
+        byte[] voxels = new byte[sizeX * sizeY * sizeZ];
+        Random random = new Random(5);
+        for (int i = 0; i < voxels.length; i++) {
+            voxels[i] = (byte) random.nextInt(4);
+        }
+        boolean[] placeable = {false, true, false, true};
+
+        for (int rotation = 0; rotation < 4; rotation++) {
+            for (int mirror = 0; mirror < 4; mirror++) {
+                boolean mirrorX = (mirror & 1) != 0;
+                boolean mirrorZ = (mirror & 2) != 0;
+                int outSizeX = rotation % 2 != 0 ? sizeZ : sizeX;
+                int outSizeZ = rotation % 2 != 0 ? sizeX : sizeZ;
+                var transform = new BlueprintPlacementPlan.Transform(-7, 70, 13, rotation, mirrorX, mirrorZ,
+                        outSizeX, outSizeZ);
+
+                Set<String> expected = new HashSet<>();
+                for (int y = 0; y < sizeY; y++) {
+                    for (int z = 0; z < sizeZ; z++) {
+                        for (int x = 0; x < sizeX; x++) {
+                            int index = voxels[(y * sizeZ + z) * sizeX + x];
+                            if (!placeable[index]) {
+                                continue;
+                            }
+                            int[] local = referenceTransform(x, z, sizeX, sizeZ, rotation, mirrorX, mirrorZ,
+                                    outSizeX, outSizeZ);
+                            expected.add((-7 + local[0]) + "," + (70 + y) + "," + (13 + local[1]) + "=" + index);
+                        }
+                    }
+                }
+
+                BlueprintPlacementPlan plan = BlueprintPlacementPlan.group(voxels, false, sizeX, sizeY, sizeZ,
+                        placeable, transform, MIN_Y, 320);
+                assertEquals(expected, collect(plan), "rotation " + rotation + " mirror " + mirror);
+                assertEquals(expected.size(), plan.blockCount());
+            }
+        }
+    }
+
+    @Test
+    void groupsByChunkInAscendingYAndClipsToWorldHeight() {
+        int sizeX = 40;
+        int sizeY = 12;
+        int sizeZ = 3;
+        byte[] voxels = new byte[sizeX * sizeY * sizeZ * 2];
+        for (int i = 0; i < voxels.length; i += 2) {
+            voxels[i] = 0x2C;
+            voxels[i + 1] = 0x01;
+        }
+        boolean[] placeable = new boolean[0x12D];
+        placeable[0x12C] = true;
+        var transform = new BlueprintPlacementPlan.Transform(-20, 310, 0, 0, false, false, sizeX, sizeZ);
+
+        BlueprintPlacementPlan plan = BlueprintPlacementPlan.group(voxels, true, sizeX, sizeY, sizeZ, placeable,
+                transform, MIN_Y, 320);
+
+        assertEquals(4, plan.chunks().size());
+        assertEquals(sizeX * 10 * sizeZ, plan.blockCount());
+        for (BlueprintPlacementPlan.ChunkGroup group : plan.chunks()) {
+            int previousY = Integer.MIN_VALUE;
+            for (int i = 0; i < group.size(); i++) {
+                long entry = group.entry(i);
+                int y = BlueprintPlacementPlan.blockY(entry, MIN_Y);
+                assertTrue(y >= previousY && y < 320);
+                previousY = y;
+                assertEquals(0x12C, BlueprintPlacementPlan.paletteIndex(entry));
+            }
+        }
+    }
+
+    private static Set<String> collect(BlueprintPlacementPlan plan) {
+        Set<String> placed = new HashSet<>();
+        for (BlueprintPlacementPlan.ChunkGroup group : plan.chunks()) {
+            for (int i = 0; i < group.size(); i++) {
+                long entry = group.entry(i);
+                int x = (group.chunkX() << 4) + BlueprintPlacementPlan.localX(entry);
+                int z = (group.chunkZ() << 4) + BlueprintPlacementPlan.localZ(entry);
+                placed.add(x + "," + BlueprintPlacementPlan.blockY(entry, MIN_Y) + "," + z + "="
+                        + BlueprintPlacementPlan.paletteIndex(entry));
+            }
+        }
+        return placed;
+    }
+
+    private static int[] referenceTransform(int x, int z, int sizeX, int sizeZ, int rotation, boolean mirrorX,
+                                            boolean mirrorZ, int outSizeX, int outSizeZ) {
+        int mx = mirrorX ? sizeX - 1 - x : x;
+        int mz = mirrorZ ? sizeZ - 1 - z : z;
+        return switch (rotation) {
+            case 1 -> new int[]{outSizeX - 1 - mz, mx};
+            case 2 -> new int[]{outSizeX - 1 - mx, outSizeZ - 1 - mz};
+            case 3 -> new int[]{mz, outSizeZ - 1 - mx};
+            default -> new int[]{mx, mz};
+        };
+    }
+}
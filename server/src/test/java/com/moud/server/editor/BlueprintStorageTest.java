@@ -0,0 +1,93 @@
+package com.moud.server.editor;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.moud.network.serializer.BlueprintContainer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BlueprintStorageTest {
+
+    @TempDir
+    Path projectRoot;
+
+    @Test
+    void legacyJsonIsMigratedToContainers() throws IOException {
+        byte[] voxels = new byte[4 * 3 * 5];
+        for (int i = 0; i < voxels.length; i++) {
+            voxels[i] = (byte) (i % 3);
+        }
+        String legacy = "{\"name\":\"tower\",\"origin\":[10.0,64.0,-2.0],\"size\":[4.0,3.0,5.0],"
+                + "\"objects\":[{\"type\":\"model\",\"position\":[1.0,0.5,2.0],\"properties\":{\"glow\":true}}],"
+                + "\"markers\":[{\"name\":\"door\",\"position\":[0.0,0.0,1.0]}],"
+                + "\"blocks\":{\"sizeX\":4,\"sizeY\":3,\"sizeZ\":5,"
+                + "\"palette\":[\"minecraft:air\",\"minecraft:stone\",\"minecraft:glass\"],"
+                + "\"voxels\":\"" + Base64.getEncoder().encodeToString(voxels) + "\",\"useShortIndices\":false,"
+                + "\"blockEntities\":[{\"x\":1,\"y\":2,\"z\":3,\"nbt\":\"{}\"}]}}";
+        Path blueprints = projectRoot.resolve(".moud").resolve("blueprints");
+        Files.createDirectories(blueprints);
+        Files.writeString(blueprints.resolve("tower.json"), legacy);
+
+        BlueprintStorage storage = new BlueprintStorage(projectRoot);
+
+        assertEquals(List.of("tower"), storage.list());
+        assertFalse(Files.exists(blueprints.resolve("tower.json")));
+        assertTrue(Files.exists(blueprints.resolve("tower.json.migrated")));
+
+        try (InputStream in = storage.open("tower")) {
+            BlueprintContainer.Reader reader = new BlueprintContainer.Reader(in);
+            assertEquals("tower", reader.header().name());
+            JsonObject object = JsonParser.parseString(reader.objects().get(0)).getAsJsonObject();
+            assertTrue(object.getAsJsonObject("properties").get("glow").getAsBoolean());
+            assertEquals(1, reader.markers().size());
+            BlueprintContainer.Blocks blocks = reader.blocks();
+            reader.finish();
+            assertArrayEquals(voxels, blocks.voxels());
+            assertEquals(List.of(new BlueprintContainer.BlockEntity(1, 2, 3, "{}")), blocks.blockEntities());
+        }
+
+        JsonObject roundTrip = JsonParser.parseString(storage.loadJson("tower")).getAsJsonObject();
+        assertEquals(JsonParser.parseString(legacy), roundTrip);
+    }
+
+    @Test
+    void legacyJsonTooLargeToStoreIsLeftInPlace() throws IOException {
+        String legacy = "{\"name\":\"huge\",\"blocks\":{\"sizeX\":1024,\"sizeY\":1024,\"sizeZ\":1024,"
+                + "\"palette\":[\"minecraft:air\"],\"voxels\":\"\",\"useShortIndices\":false}}";
+        Path blueprints = projectRoot.resolve(".moud").resolve("blueprints");
+        Files.createDirectories(blueprints);
+        Files.writeString(blueprints.resolve("huge.json"), legacy);
+
+        BlueprintStorage storage = new BlueprintStorage(projectRoot);
+
+        assertEquals(List.of(), storage.list());
+        assertEquals(legacy, Files.readString(blueprints.resolve("huge.json")));
+        assertFalse(Files.exists(blueprints.resolve("huge.json.migrated")));
+    }
+
+    @Test
+    void corruptContainersAreRejectedWithoutReplacingTheStoredOne() throws IOException {
+        BlueprintStorage storage = new BlueprintStorage(projectRoot);
+        storage.save("empty", "{\"name\":\"empty\",\"objects\":[],\"markers\":[]}".getBytes(StandardCharsets.UTF_8));
+        long stored = storage.size("empty");
+
+        byte[] corrupt = new byte[]{'M', 'B', 'P', '1', 1, 0, 0};
+        assertThrows(IOException.class, () -> storage.save("empty", corrupt));
+        assertEquals(stored, storage.size("empty"));
+        assertTrue(storage.loadJson("empty").contains("\"objects\":[]"));
+    }
+}
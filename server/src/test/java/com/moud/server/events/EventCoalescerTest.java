@@ -0,0 +1,61 @@
+package com.moud.server.events;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventCoalescerTest {
+
+    @Test
+    void latestKeepsOneEventPerPlayerPerFlush() {
+        EventCoalescer coalescer = new EventCoalescer();
+        UUID alice = UUID.randomUUID();
+        UUID bob = UUID.randomUUID();
+
+        assertTrue(coalescer.offer("player.move", alice, new Object[]{"a1"}));
+        assertTrue(coalescer.offer("player.move", alice, new Object[]{"a2"}));
+        assertTrue(coalescer.offer("player.move", bob, new Object[]{"b1"}));
+
+        Map<String, List<Object[]>> flushed = new HashMap<>();
+        coalescer.flush(flushed::put);
+        List<Object[]> moves = flushed.get("player.move");
+        assertEquals(2, moves.size());
+        assertTrue(moves.stream().anyMatch(args -> "a2".equals(args[0])));
+        assertTrue(moves.stream().noneMatch(args -> "a1".equals(args[0])));
+
+        flushed.clear();
+        coalescer.flush(flushed::put);
+        assertTrue(flushed.isEmpty());
+    }
+
+    @Test
+    void uncoalescedEventsAreRejected() {
+        EventCoalescer coalescer = new EventCoalescer();
+        assertFalse(coalescer.offer("player.chat", UUID.randomUUID(), new Object[]{"hi"}));
+
+        coalescer.setMode("player.move", EventCoalescer.Mode.NONE);
+        assertFalse(coalescer.offer("player.move", UUID.randomUUID(), new Object[]{"a"}));
+    }
+
+    @Test
+    void batchKeepsLeadingArgumentsOfFirstEvent() {
+        EventCoalescer coalescer = new EventCoalescer();
+        coalescer.setMode("player.mousemove", EventCoalescer.Mode.BATCH);
+        UUID player = UUID.randomUUID();
+        coalescer.offer("player.mousemove", player, new Object[]{"proxy", 1});
+        coalescer.offer("player.mousemove", player, new Object[]{"proxy", 2});
+
+        Map<String, List<Object[]>> flushed = new HashMap<>();
+        coalescer.flush(flushed::put);
+        Object[] args = flushed.get("player.mousemove").get(0);
+        assertEquals(2, args.length);
+        assertEquals("proxy", args[0]);
+    }
+}
@@ -0,0 +1,83 @@
+package com.moud.server.instance;
+
+import net.hollowcube.polar.PolarWorld;
+import net.hollowcube.polar.PolarWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class SceneWorldJournalTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replayAppliesRecordsInOrder() throws IOException {
+        SceneWorldJournal journal = new SceneWorldJournal(directory.resolve("world.polar.journal"));
+        journal.append(record(1));
+        journal.append(record(2));
+        journal.append(record(3));
+        journal.close();
+
+        PolarWorld world = new PolarWorld();
+        assertEquals(3, new SceneWorldJournal(journal.file()).replay(world));
+        assertArrayEquals(new byte[]{3}, world.userData());
+    }
+
+    @Test
+    void tornLastRecordIsTruncatedAndAppendingResumes() throws IOException {
+        SceneWorldJournal journal = new SceneWorldJournal(directory.resolve("world.polar.journal"));
+        journal.append(record(1));
+        long intact = journal.size();
+        journal.append(record(2));
+        journal.close();
+
+        // A crash in the middle of the second write.
+        try (FileChannel channel = FileChannel.open(journal.file(), StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 3);
+        }
+        PolarWorld world = new PolarWorld();
+        assertEquals(1, journal.replay(world));
+        assertArrayEquals(new byte[]{1}, world.userData());
+        assertEquals(intact, Files.size(journal.file()));
+
+        journal.append(record(4));
+        journal.close();
+        world = new PolarWorld();
+        assertEquals(2, journal.replay(world));
+        assertArrayEquals(new byte[]{4}, world.userData());
+    }
+
+    @Test
+    void recordFailingItsChecksumIsDropped() throws IOException {
+        SceneWorldJournal journal = new SceneWorldJournal(directory.resolve("world.polar.journal"));
+        journal.append(record(1));
+        long intact = journal.size();
+        journal.append(record(2));
+        journal.close();
+
+        byte[] bytes = Files.readAllBytes(journal.file());
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(journal.file(), bytes);
+
+        PolarWorld world = new PolarWorld();
+        assertEquals(1, journal.replay(world));
+        assertArrayEquals(new byte[]{1}, world.userData());
+        assertEquals(intact, Files.size(journal.file()));
+    }
+
+    private static byte[] record(int marker) {
+        PolarWorld base = new PolarWorld();
+        return PolarWriter.write(new PolarWorld(base.version(), base.dataVersion(), base.compression(),
+                base.minSection(), base.maxSection(), new byte[]{(byte) marker}, List.of()));
+    }
+}
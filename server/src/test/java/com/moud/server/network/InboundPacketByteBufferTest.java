@@ -5,6 +5,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.Arrays;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class InboundPacketByteBufferTest {
@@ -28,6 +29,15 @@ class InboundPacketByteBufferTest {
         assertThrows(IllegalArgumentException.class, buffer::readString);
     }
 
+    @Test
+    void viewDoesNotReadPastItsLength() {
+        byte[] message = {0x7F, 0x00, 0x00, 0x00, 0x2A, 0x00, 0x00, 0x00, 0x07};
+        InboundPacketByteBuffer buffer = new InboundPacketByteBuffer(message, 1, 4);
+        assertEquals(42, buffer.readInt());
+        assertEquals(0, buffer.readableBytes());
+        assertThrows(RuntimeException.class, buffer::readInt);
+    }
+
     private static byte[] encodeVarInt(int value) {
         byte[] tmp = new byte[5];
         int index = 0;
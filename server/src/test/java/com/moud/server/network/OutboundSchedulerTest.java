@@ -0,0 +1,92 @@
+package com.moud.server.network;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OutboundSchedulerTest {
+
+    @Test
+    void oversizedBulkTransferDoesNotDelayPriorityLanes() {
+        long[] now = {0L};
+        OutboundScheduler scheduler = new OutboundScheduler(() -> now[0]);
+        List<OutboundLane> written = new ArrayList<>();
+        OutboundScheduler.Sink sink = (envelope, lane) -> written.add(lane);
+
+        int huge = OutboundScheduler.BYTES_PER_TICK * 10;
+        assertTrue(scheduler.offer(OutboundLane.BULK_MESH, null, huge, sink));
+        assertFalse(scheduler.offer(OutboundLane.BULK_MESH, null, huge, sink));
+
+        assertTrue(scheduler.offer(OutboundLane.SYNC, null, 200, sink));
+        assertEquals(List.of(OutboundLane.BULK_MESH, OutboundLane.SYNC), written);
+        assertTrue(scheduler.hasPending());
+    }
+
+    @Test
+    void bulkLanesShareBandwidthFairly() {
+        long[] now = {0L};
+        OutboundScheduler scheduler = new OutboundScheduler(() -> now[0]);
+        int[] bytesPerLane = new int[OutboundLane.values().length];
+        OutboundScheduler.Sink sink = (envelope, lane) -> bytesPerLane[lane.ordinal()] += 64 * 1024;
+
+        // Saturate the budget so everything else queues.
+        scheduler.offer(OutboundLane.BULK_SCRIPT, null, OutboundScheduler.BYTES_PER_TICK * 2, sink);
+        bytesPerLane[OutboundLane.BULK_SCRIPT.ordinal()] = 0;
+        for (int i = 0; i < 64; i++) {
+            scheduler.offer(OutboundLane.BULK_MESH, null, 64 * 1024, sink);
+            scheduler.offer(OutboundLane.BULK_BLUEPRINT, null, 64 * 1024, sink);
+        }
+
+        for (int tick = 0; tick < 20; tick++) {
+            now[0] += OutboundScheduler.TICK_NANOS;
+            scheduler.drain(sink);
+        }
+
+        int mesh = bytesPerLane[OutboundLane.BULK_MESH.ordinal()];
+        int blueprint = bytesPerLane[OutboundLane.BULK_BLUEPRINT.ordinal()];
+        assertTrue(mesh > 0 && blueprint > 0);
+        assertTrue(Math.abs(mesh - blueprint) <= 64 * 1024, "mesh=" + mesh + " blueprint=" + blueprint);
+    }
+
+    @Test
+    void immediateTrafficLeavesHeadroomForPriorityLanes() {
+        long[] now = {0L};
+        OutboundScheduler scheduler = new OutboundScheduler(() -> now[0]);
+        List<OutboundLane> written = new ArrayList<>();
+        OutboundScheduler.Sink sink = (envelope, lane) -> written.add(lane);
+
+        for (int i = 0; i < 10; i++) {
+            scheduler.charge(OutboundLane.TRANSFORM, OutboundScheduler.BYTES_PER_TICK);
+        }
+        assertTrue(scheduler.offer(OutboundLane.UI, null, 200, sink));
+        assertTrue(scheduler.offer(OutboundLane.SYNC, null, 200, sink));
+        assertEquals(List.of(OutboundLane.UI, OutboundLane.SYNC), written);
+    }
+
+    @Test
+    void transformWaitsForAQueuedCreate() {
+        long[] now = {0L};
+        OutboundScheduler scheduler = new OutboundScheduler(() -> now[0]);
+        List<OutboundLane> written = new ArrayList<>();
+        OutboundScheduler.Sink sink = (envelope, lane) -> written.add(lane);
+
+        // Exhaust the main bucket so the create has to wait for the next tick.
+        assertTrue(scheduler.offer(OutboundLane.SYNC, null, OutboundScheduler.BYTES_PER_TICK, sink));
+        assertFalse(scheduler.offer(OutboundLane.SYNC, null, 200, sink));
+        assertFalse(scheduler.sendImmediate(OutboundLane.TRANSFORM, null, 100, sink));
+        assertTrue(scheduler.sendImmediate(OutboundLane.INPUT_ACK, null, 50, sink));
+        assertEquals(List.of(OutboundLane.SYNC, OutboundLane.INPUT_ACK), written);
+
+        now[0] += OutboundScheduler.TICK_NANOS * 2;
+        assertFalse(scheduler.drain(sink));
+        assertEquals(List.of(OutboundLane.SYNC, OutboundLane.INPUT_ACK, OutboundLane.SYNC, OutboundLane.TRANSFORM),
+                written);
+
+        assertTrue(scheduler.sendImmediate(OutboundLane.TRANSFORM, null, 100, sink));
+    }
+}
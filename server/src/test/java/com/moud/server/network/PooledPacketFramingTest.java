@@ -0,0 +1,91 @@
+package com.moud.server.network;
+
+import com.moud.api.math.Quaternion;
+import com.moud.api.math.Vector3;
+import com.moud.network.MoudPackets;
+import com.moud.network.dispatcher.NetworkDispatcher;
+import com.moud.network.engine.PacketEngine;
+import com.moud.network.protocol.MoudProtocol;
+import net.minestom.server.network.packet.server.common.PluginMessagePacket;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Pooled framing must produce the exact bytes of the previous path, which serialized into a fresh
+ * {@link MinestomByteBuffer} and then wrapped the payload in a second buffer.
+ */
+class PooledPacketFramingTest {
+    private static final PacketEngine ENGINE = new PacketEngine();
+    private static final NetworkDispatcher ALLOCATING;
+
+    static {
+        ENGINE.initialize("com.moud.network");
+        ALLOCATING = ENGINE.createDispatcher(new NetworkDispatcher.ByteBufferFactory() {
+            @Override
+            public com.moud.network.buffer.ByteBuffer create() {
+                return new MinestomByteBuffer();
+            }
+
+            @Override
+            public com.moud.network.buffer.ByteBuffer wrap(byte[] data) {
+                return new MinestomByteBuffer(data);
+            }
+        });
+    }
+
+    @Test
+    void pooledFramesMatchTheAllocatingPath() {
+        byte[] scripts = new byte[300 * 1024];
+        new Random(7).nextBytes(scripts);
+        List<Object> packets = List.of(
+                new MoudPackets.PermissionStatePacket(true, false, true),
+                new MoudPackets.S2C_PlayModelAnimationPacket(42L, "walk"),
+                new MoudPackets.PlayerModelCreatePacket(-1L, new Vector3(1.5f, -64f, 1e6f), "https://skins/ä€😀"),
+                new MoudPackets.S2C_UpdateModelTransformPacket(Long.MAX_VALUE, new Vector3(0f, 0f, 0f),
+                        new Quaternion(0f, 0.7071f, 0f, 0.7071f), new Vector3(1f, 2f, 3f)),
+                new MoudPackets.UIOverlayRemovePacket(List.of("hud", "x".repeat(200), "")),
+                new MoudPackets.SyncClientScriptsPacket("abc123", null),
+                // Larger than any pooled buffer starts out or is retained at, so it grows mid-write.
+                new MoudPackets.SyncClientScriptsPacket("abc123", scripts)
+        );
+
+        for (Object packet : packets) {
+            NetworkDispatcher.PacketData data = ALLOCATING.send(null, packet);
+            for (boolean compactIds : new boolean[]{false, true}) {
+                ServerPacketWrapper.PacketEnvelope envelope = ServerPacketWrapper.wrapPacket(packet, compactIds);
+                assertFramed(data, envelope.packetFor(false), false);
+                assertFramed(data, envelope.packetFor(true), true);
+                assertEquals(data.data().length, envelope.payloadBytes());
+            }
+        }
+    }
+
+    private static void assertFramed(NetworkDispatcher.PacketData data, PluginMessagePacket message, boolean compact) {
+        byte[] expected;
+        if (compact) {
+            ByteArrayOutputStream framed = new ByteArrayOutputStream();
+            int id = data.packetId();
+            while ((id & ~0x7F) != 0) {
+                framed.write((id & 0x7F) | 0x80);
+                id >>>= 7;
+            }
+            framed.write(id);
+            framed.writeBytes(data.data());
+            expected = framed.toByteArray();
+            assertEquals(MoudProtocol.COMPACT_CHANNEL, message.channel());
+        } else {
+            MinestomByteBuffer framed = new MinestomByteBuffer();
+            framed.writeString(data.channel());
+            framed.writeByteArray(data.data());
+            expected = framed.toByteArray();
+            assertEquals(MoudProtocol.WRAPPER_CHANNEL, message.channel());
+        }
+        assertArrayEquals(expected, message.data(), data.channel() + (compact ? " compact" : " channel"));
+    }
+}
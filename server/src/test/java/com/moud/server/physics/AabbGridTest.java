@@ -0,0 +1,74 @@
+package com.moud.server.physics;
+
+import com.moud.api.collision.AABB;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AabbGridTest {
+
+    @Test
+    void queriesMatchLinearScanAcrossMovesAndRemovals() {
+        Random random = new Random(42);
+        AabbGrid grid = new AabbGrid(4.0);
+        AABB[] boxes = new AABB[500];
+        for (int i = 0; i < boxes.length; i++) {
+            boxes[i] = randomBox(random);
+            grid.put(i, boxes[i]);
+        }
+        for (int round = 0; round < 200; round++) {
+            int id = random.nextInt(boxes.length);
+            if (random.nextInt(4) == 0) {
+                boxes[id] = null;
+                grid.remove(id);
+            } else {
+                boxes[id] = randomBox(random);
+                grid.put(id, boxes[id]);
+            }
+
+            AABB query = randomBox(random).expanded(random.nextDouble() * 6, 1.0, random.nextDouble() * 6);
+            Set<AABB> expected = new HashSet<>();
+            for (AABB box : boxes) {
+                if (box != null && box.intersects(query)) {
+                    expected.add(box);
+                }
+            }
+            List<AABB> actual = new ArrayList<>();
+            assertEquals(expected.size(), grid.query(query, actual));
+            assertEquals(expected, new HashSet<>(actual), "round " + round);
+        }
+    }
+
+    @Test
+    void oversizedBoxesAreReturnedOnce() {
+        AabbGrid grid = new AabbGrid(1.0);
+        AABB floor = new AABB(-100, 0, -100, 100, 1, 100);
+        grid.put(1, floor);
+        grid.put(2, new AABB(0, 1, 0, 1, 2, 1));
+
+        List<AABB> hits = new ArrayList<>();
+        grid.query(new AABB(-0.5, 0.5, -0.5, 1.5, 1.5, 1.5), hits);
+        assertEquals(2, hits.size());
+        assertTrue(hits.contains(floor));
+
+        grid.put(1, new AABB(-100, 10, -100, 100, 11, 100));
+        hits.clear();
+        grid.query(new AABB(-0.5, 0.5, -0.5, 1.5, 1.5, 1.5), hits);
+        assertEquals(1, hits.size());
+    }
+
+    private static AABB randomBox(Random random) {
+        double x = random.nextDouble() * 64 - 32;
+        double y = random.nextDouble() * 16;
+        double z = random.nextDouble() * 64 - 32;
+        return new AABB(x, y, z, x + 0.25 + random.nextDouble() * 3, y + 0.25 + random.nextDouble() * 2,
+                z + 0.25 + random.nextDouble() * 3);
+    }
+}
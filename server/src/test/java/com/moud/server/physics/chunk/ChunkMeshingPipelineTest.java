@@ -0,0 +1,132 @@
+package com.moud.server.physics.chunk;
+
+import com.moud.server.physics.mesh.ChunkMesher;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.UUID;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkMeshingPipelineTest {
+    private static final ChunkKey KEY = new ChunkKey(UUID.randomUUID(), 3, -2);
+
+    @Test
+    void jobInvalidatedWhileMeshingCompletesWithTheNextSubmit() {
+        QueuedExecutor workers = new QueuedExecutor();
+        AtomicReference<ChunkMeshingPipeline<String>> pipeline = new AtomicReference<>();
+        AtomicInteger meshed = new AtomicInteger();
+        pipeline.set(new ChunkMeshingPipeline<>((key, generation, chunk, mesh) -> "meshed", workers, chunk -> chunk,
+                (cache, snapshot, fullBlocksOnly, plan) -> {
+                    if (meshed.getAndIncrement() == 0) {
+                        // A block edit lands while the first job is meshing: its snapshot is stale now.
+                        pipeline.get().markDirty(KEY, -1);
+                    }
+                    return new ChunkMeshingPipeline.Meshed(new ChunkMesher.SectionMesh[0], null,
+                            new ChunkMeshCache.CachedChunkMesh(0L, null, null, null, null));
+                }));
+
+        CompletableFuture<String> first = pipeline.get().submit(KEY, null, true, true);
+        workers.runAll();
+        assertFalse(first.isDone());
+        assertEquals(1, pipeline.get().pendingJobs());
+
+        CompletableFuture<String> second = pipeline.get().submit(KEY, null, true, true);
+        workers.runAll();
+        assertEquals("meshed", second.join());
+        assertEquals("meshed", first.join());
+        assertEquals(0, pipeline.get().pendingJobs());
+    }
+
+    @Test
+    void cancelReleasesAJobInvalidatedBeforeItRan() {
+        QueuedExecutor workers = new QueuedExecutor();
+        ChunkMeshingPipeline<String> pipeline = pipeline(workers);
+
+        CompletableFuture<String> first = pipeline.submit(KEY, null, true, true);
+        pipeline.markDirty(KEY, -1);
+        workers.runAll();
+        assertFalse(first.isDone());
+
+        pipeline.cancel(KEY);
+        assertNull(first.join());
+        assertEquals(0, pipeline.pendingJobs());
+    }
+
+    @Test
+    void shutdownReleasesJobsStillWaitingForASubmit() {
+        QueuedExecutor workers = new QueuedExecutor();
+        ChunkMeshingPipeline<String> pipeline = pipeline(workers);
+
+        CompletableFuture<String> stale = pipeline.submit(KEY, null, true, true);
+        pipeline.markDirty(KEY, 0);
+        workers.runAll();
+        pipeline.shutdown();
+        assertTrue(stale.isDone());
+    }
+
+    private static ChunkMeshingPipeline<String> pipeline(QueuedExecutor workers) {
+        return new ChunkMeshingPipeline<>((key, generation, chunk, mesh) -> "meshed", workers, chunk -> chunk,
+                (cache, snapshot, fullBlocksOnly, plan) -> {
+                    throw new AssertionError("a stale job must not be meshed");
+                });
+    }
+
+    /**
+     * Holds submitted jobs until the test runs them, so "in flight" is a state the test controls.
+     */
+    private static final class QueuedExecutor extends AbstractExecutorService {
+        private final Queue<Runnable> queued = new ArrayDeque<>();
+        private boolean shutdown;
+
+        void runAll() {
+            Runnable task;
+            while ((task = queued.poll()) != null) {
+                task.run();
+            }
+        }
+
+        @Override
+        public void execute(Runnable command) {
+            queued.add(command);
+        }
+
+        @Override
+        public void shutdown() {
+            shutdown = true;
+        }
+
+        @Override
+        public List<Runnable> shutdownNow() {
+            shutdown = true;
+            List<Runnable> pending = List.copyOf(queued);
+            queued.clear();
+            return pending;
+        }
+
+        @Override
+        public boolean isShutdown() {
+            return shutdown;
+        }
+
+        @Override
+        public boolean isTerminated() {
+            return shutdown && queued.isEmpty();
+        }
+
+        @Override
+        public boolean awaitTermination(long timeout, TimeUnit unit) {
+            return isTerminated();
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package com.moud.server.physics.mesh;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ChunkMesherGreedyTest {
+    private static final int SIZE = 16;
+
+    @Test
+    void fullSectionIsSixQuads() {
+        CubeLookup solid = ChunkMesherGreedyTest::inside;
+        float[] vertices = mesh(solid);
+        assertEquals(6 * 2 * 9, vertices.length);
+        assertMatchesPerFace(solid, vertices);
+    }
+
+    @Test
+    void checkerboardCannotMerge() {
+        CubeLookup solid = (x, y, z) -> inside(x, y, z) && ((x + y + z) & 1) == 0;
+        float[] vertices = mesh(solid);
+        assertEquals(perFace(solid).size() * 2 * 9, vertices.length);
+        assertMatchesPerFace(solid, vertices);
+    }
+
+    @Test
+    void stairsMatchPerFace() {
+        assertMatchesPerFace((x, y, z) -> inside(x, y, z) && y <= x);
+    }
+
+    @Test
+    void neighbouringSectionsHideBoundaryFaces() {
+        // A floor resting on the section below, a wall against the next chunk, a half-height wall against the
+        // chunk on the other side and a pillar that continues into the section above.
+        assertMatchesPerFace((x, y, z) -> {
+            if (y == -1) {
+                return true;
+            }
+            if (x == SIZE) {
+                return y < SIZE;
+            }
+            if (z == -1) {
+                return y < 8;
+            }
+            if (y == SIZE) {
+                return x == 5 && z == 5;
+            }
+            return inside(x, y, z) && (y < 4 || x == 5 && z == 5);
+        });
+    }
+
+    private static boolean inside(int x, int y, int z) {
+        return x >= 0 && x < SIZE && y >= 0 && y < SIZE && z >= 0 && z < SIZE;
+    }
+
+    private static float[] mesh(CubeLookup solid) {
+        return ChunkMesher.meshSection(fullCubes(solid)).vertices();
+    }
+
+    /**
+     * A section of full cubes only; {@code solid} is asked for the section and its one block border,
+     * {@code x/y/z} in {@code [-1, 16]}.
+     */
+    private static ChunkMesher.SectionBlocks fullCubes(CubeLookup solid) {
+        boolean[] full = new boolean[ChunkMesher.PADDED * ChunkMesher.PADDED * ChunkMesher.PADDED];
+        for (int y = -1; y <= SIZE; y++) {
+            for (int x = -1; x <= SIZE; x++) {
+                for (int z = -1; z <= SIZE; z++) {
+                    full[ChunkMesher.paddedIndex(x, y, z)] = solid.isFull(x, y, z);
+                }
+            }
+        }
+        return new ChunkMesher.SectionBlocks(0L, full, null, false, true);
+    }
+
+    private static void assertMatchesPerFace(CubeLookup solid) {
+        assertMatchesPerFace(solid, mesh(solid));
+    }
+
+    /**
+     * Greedy quads must cover exactly the exposed unit faces, once each, and rays through every cell column
+     * must hit the same faces from the same side as against the per-face mesh.
+     */
+    private static void assertMatchesPerFace(CubeLookup solid, float[] vertices) {
+        Set<UnitFace> expected = perFace(solid);
+        assertEquals(0, vertices.length % 18);
+
+        Set<UnitFace> covered = new HashSet<>();
+        double area = 0;
+        for (int q = 0; q < vertices.length; q += 18) {
+            int axis = planeAxis(vertices, q);
+            int sign = normalSign(vertices, q, axis);
+            assertEquals(axis, planeAxis(vertices, q + 9));
+            assertEquals(sign, normalSign(vertices, q + 9, axis));
+            area += triangleArea(vertices, q) + triangleArea(vertices, q + 9);
+
+            int a = axis == 0 ? 1 : 0;
+            int b = axis == 2 ? 1 : 2;
+            int plane = Math.round(vertices[q + axis]);
+            int minA = Integer.MAX_VALUE, maxA = Integer.MIN_VALUE, minB = Integer.MAX_VALUE, maxB = Integer.MIN_VALUE;
+            for (int i = q; i < q + 18; i += 3) {
+                assertEquals(plane, vertices[i + axis], 0.0f);
+                minA = Math.min(minA, Math.round(vertices[i + a]));
+                maxA = Math.max(maxA, Math.round(vertices[i + a]));
+                minB = Math.min(minB, Math.round(vertices[i + b]));
+                maxB = Math.max(maxB, Math.round(vertices[i + b]));
+            }
+            for (int i = minA; i < maxA; i++) {
+                for (int j = minB; j < maxB; j++) {
+                    assertTrue(covered.add(new UnitFace(axis, sign, plane, i, j)),
+                            "overlapping quads at " + new UnitFace(axis, sign, plane, i, j));
+                }
+            }
+        }
+        assertEquals(expected, covered);
+        assertEquals(expected.size(), area, 1e-3);
+
+        for (int axis = 0; axis < 3; axis++) {
+            int a = axis == 0 ? 1 : 0;
+            int b = axis == 2 ? 1 : 2;
+            for (int i = 0; i < SIZE; i++) {
+                for (int j = 0; j < SIZE; j++) {
+                    Set<Long> hits = new HashSet<>();
+                    for (int t = 0; t < vertices.length; t += 9) {
+                        if (planeAxis(vertices, t) == axis && contains(vertices, t, a, b, i + 0.5, j + 0.5)) {
+                            hits.add(hit(Math.round(vertices[t + axis]), normalSign(vertices, t, axis)));
+                        }
+                    }
+                    Set<Long> reference = new HashSet<>();
+                    for (UnitFace face : expected) {
+                        if (face.axis == axis && face.a == i && face.b == j) {
+                            reference.add(hit(face.plane, face.sign));
+                        }
+                    }
+                    assertEquals(reference, hits, "ray along axis " + axis + " at " + i + "," + j);
+                }
+            }
+        }
+    }
+
+    private static Set<UnitFace> perFace(CubeLookup solid) {
+        Set<UnitFace> faces = new HashSet<>();
+        int[][] normals = {{1, 0, 0}, {-1, 0, 0}, {0, 1, 0}, {0, -1, 0}, {0, 0, 1}, {0, 0, -1}};
+        for (int x = 0; x < SIZE; x++) {
+            for (int y = 0; y < SIZE; y++) {
+                for (int z = 0; z < SIZE; z++) {
+                    if (!solid.isFull(x, y, z)) {
+                        continue;
+                    }
+                    int[] cell = {x, y, z};
+                    for (int[] n : normals) {
+                        if (solid.isFull(x + n[0], y + n[1], z + n[2])) {
+                            continue;
+                        }
+                        int axis = n[0] != 0 ? 0 : n[1] != 0 ? 1 : 2;
+                        int sign = n[axis];
+                        int a = axis == 0 ? 1 : 0;
+                        int b = axis == 2 ? 1 : 2;
+                        faces.add(new UnitFace(axis, sign, cell[axis] + (sign > 0 ? 1 : 0), cell[a], cell[b]));
+                    }
+                }
+            }
+        }
+        return faces;
+    }
+
+    private static int planeAxis(float[] v, int t) {
+        for (int axis = 0; axis < 3; axis++) {
+            if (v[t + axis] == v[t + 3 + axis] && v[t + axis] == v[t + 6 + axis]) {
+                return axis;
+            }
+        }
+        throw new AssertionError("triangle at " + t + " is not axis aligned");
+    }
+
+    private static int normalSign(float[] v, int t, int axis) {
+        double[] e1 = {v[t + 3] - v[t], v[t + 4] - v[t + 1], v[t + 5] - v[t + 2]};
+        double[] e2 = {v[t + 6] - v[t], v[t + 7] - v[t + 1], v[t + 8] - v[t + 2]};
+        double[] n = {e1[1] * e2[2] - e1[2] * e2[1], e1[2] * e2[0] - e1[0] * e2[2], e1[0] * e2[1] - e1[1] * e2[0]};
+        assertTrue(n[axis] != 0, "degenerate triangle at " + t);
+        return n[axis] > 0 ? 1 : -1;
+    }
+
+    private static double triangleArea(float[] v, int t) {
+        int axis = planeAxis(v, t);
+        int a = axis == 0 ? 1 : 0;
+        int b = axis == 2 ? 1 : 2;
+        return Math.abs(cross(v[t + a], v[t + b], v[t + 3 + a], v[t + 3 + b], v[t + 6 + a], v[t + 6 + b])) / 2;
+    }
+
+    private static boolean contains(float[] v, int t, int a, int b, double pa, double pb) {
+        double d1 = cross(v[t + a], v[t + b], v[t + 3 + a], v[t + 3 + b], pa, pb);
+        double d2 = cross(v[t + 3 + a], v[t + 3 + b], v[t + 6 + a], v[t + 6 + b], pa, pb);
+        double d3 = cross(v[t + 6 + a], v[t + 6 + b], v[t + a], v[t + b], pa, pb);
+        boolean negative = d1 < 0 || d2 < 0 || d3 < 0;
+        boolean positive = d1 > 0 || d2 > 0 || d3 > 0;
+        return !(negative && positive);
+    }
+
+    private static double cross(double ax, double ay, double bx, double by, double px, double py) {
+        return (bx - ax) * (py - ay) - (by - ay) * (px - ax);
+    }
+
+    private static long hit(int plane, int sign) {
+        return plane * 2L + (sign > 0 ? 1 : 0);
+    }
+
+    @FunctionalInterface
+    private interface CubeLookup {
+        boolean isFull(int x, int y, int z);
+    }
+
+    private record UnitFace(int axis, int sign, int plane, int a, int b) {
+    }
+}
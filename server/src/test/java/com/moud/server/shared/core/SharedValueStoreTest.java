@@ -0,0 +1,44 @@
+package com.moud.server.shared.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SharedValueStoreTest {
+
+    @Test
+    void drainsOnlyChangedKeysWithIncreasingSequence() {
+        SharedValueStore store = new SharedValueStore("hud", "player");
+        store.set("score", 1, SharedValue.Permission.HYBRID, SharedValue.SyncMode.BATCHED);
+        store.set("secret", "x", SharedValue.Permission.SERVER_ONLY, SharedValue.SyncMode.BATCHED);
+        store.set("score", 2, SharedValue.Permission.HYBRID, SharedValue.SyncMode.BATCHED);
+
+        SharedValueStore.Delta first = store.drainChanges();
+        assertEquals(1, first.sequence());
+        assertEquals(Map.of("score", 2), first.changes());
+        assertTrue(first.removedKeys().isEmpty());
+        assertFalse(store.hasPendingChanges());
+        assertNull(store.drainChanges());
+
+        store.set("lives", 3, SharedValue.Permission.HYBRID, SharedValue.SyncMode.BATCHED);
+        store.remove("score");
+        SharedValueStore.Delta second = store.drainChanges();
+        assertEquals(2, second.sequence());
+        assertEquals(Map.of("lives", 3), second.changes());
+        assertEquals(List.of("score"), second.removedKeys());
+    }
+
+    @Test
+    void serverOnlyChangesDoNotProduceDeltas() {
+        SharedValueStore store = new SharedValueStore("hud", "player");
+        store.set("secret", "x", SharedValue.Permission.SERVER_ONLY, SharedValue.SyncMode.BATCHED);
+        assertNull(store.drainChanges());
+        assertFalse(store.snapshot().values().get("secret").dirty());
+    }
+}